@@ -0,0 +1,464 @@
+package org.example.backend.analytics;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.NavigableSet;
+import java.util.PriorityQueue;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.BinaryOperator;
+import java.util.function.Function;
+
+/**
+ * 学习记录列式存储（只追加）
+ * <p>
+ * 每列一个基本类型数组：记录 id、用户编码、资料编码、时长(秒)、开始时间(epoch 秒，本地时间直接换算)、
+ * 进度(0.01%)。用户、资料 id 字典编码为从 0 连续的 int。写入先进入活动段，满 segmentSize 条后
+ * 按开始时间排序封存为不可变段。查询取一份快照（已封存段 + 活动段的排序副本），
+ * 各段在给定的 ForkJoinPool 中并行扫描：段内按开始时间二分裁剪，再用无分支或单分支的循环累加，
+ * 最后合并各段的部分结果。
+ * <p>
+ * 自增 id 的提交顺序不一定与 id 顺序一致，较小 id 的记录可能晚于较大 id 可见。因此追加不以最大 id 为水位，
+ * 而是记住最大 id 之前 idWindow 范围内已追加的 id：该范围内的迟到记录仍可追加，重复的按 id 忽略。
+ */
+public class StudyRecordColumnStore {
+
+    private static final long SECONDS_PER_DAY = 86_400;
+    private static final int ROW_BITS = 24;
+    private static final long ROW_MASK = (1L << ROW_BITS) - 1;
+
+    /**
+     * 排行指标
+     */
+    public enum Metric {
+        DURATION,
+        PROGRESS
+    }
+
+    /**
+     * 单日学习时长合计（秒）
+     */
+    public record DailyTotal(LocalDate date, long duration) {
+    }
+
+    /**
+     * 还原后的一行学习记录
+     */
+    public record Row(long id, long userId, long materialId, int duration, LocalDateTime startTime,
+                      BigDecimal progressPercent) {
+    }
+
+    private final int segmentSize;
+    private final int idWindow;
+    private final ForkJoinPool pool;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Dictionary users = new Dictionary();
+    private final Dictionary materials = new Dictionary();
+    private final List<Segment> sealed = new ArrayList<>();
+
+    // 以下字段由 lock 保护
+    private final Segment active;
+    private long maxId;
+    private final NavigableSet<Long> recentIds = new TreeSet<>(); // (maxId - idWindow, maxId] 内已追加的 id
+    private long rowCount;
+    private Snapshot snapshot;
+
+    public StudyRecordColumnStore(int segmentSize, int idWindow, ForkJoinPool pool) {
+        if (segmentSize <= 0 || segmentSize > ROW_MASK) {
+            throw new IllegalArgumentException("段大小须在 1 到 " + ROW_MASK + " 之间: " + segmentSize);
+        }
+        if (idWindow <= 0) {
+            throw new IllegalArgumentException("id 窗口须大于 0: " + idWindow);
+        }
+        this.segmentSize = segmentSize;
+        this.idWindow = idWindow;
+        this.pool = pool;
+        this.active = new Segment(segmentSize);
+    }
+
+    /**
+     * 追加一条记录；已追加过的 id 与早于 id 窗口的记录忽略
+     *
+     * @return 是否追加
+     */
+    public boolean append(long id, long userId, long materialId, Integer duration, LocalDateTime startTime,
+                          BigDecimal progressPercent) {
+        lock.lock();
+        try {
+            if (id <= maxId - idWindow || !recentIds.add(id)) {
+                return false;
+            }
+            int row = active.size++;
+            active.ids[row] = id;
+            active.users[row] = users.encode(userId);
+            active.materials[row] = materials.encode(materialId);
+            active.durations[row] = duration != null ? duration : 0;
+            active.starts[row] = epochSecond(startTime);
+            active.progress[row] = progressPercent != null ? progressPercent.movePointRight(2).intValue() : 0;
+            if (id > maxId) {
+                maxId = id;
+                recentIds.headSet(maxId - idWindow, true).clear();
+            }
+            rowCount++;
+            snapshot = null;
+            if (active.size == segmentSize) {
+                sealed.add(active.sortedCopy());
+                active.size = 0;
+            }
+            return true;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * 增量追加的起始游标：id 窗口的下界，窗口内已追加的记录由 append 去重
+     */
+    public long getScanFrom() {
+        lock.lock();
+        try {
+            return Math.max(0, maxId - idWindow);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public long size() {
+        lock.lock();
+        try {
+            return rowCount;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * 用户在 [start, end] 内按开始日期分组的学习时长合计，只包含有记录的日期，按日期升序
+     */
+    public List<DailyTotal> dailyDuration(long userId, LocalDateTime start, LocalDateTime end) {
+        Snapshot current = snapshot();
+        int user = users.codeOf(userId);
+        if (user < 0 || current.segments.isEmpty()) {
+            return List.of();
+        }
+        // 按数据实际覆盖的时间收窄，日期桶数不超过数据跨度
+        long from = Math.max(epochSecond(start), current.minStart);
+        long to = Math.min(epochSecond(end), current.maxStart);
+        if (from > to) {
+            return List.of();
+        }
+        long firstDay = Math.floorDiv(from, SECONDS_PER_DAY);
+        int days = (int) (Math.floorDiv(to, SECONDS_PER_DAY) - firstDay + 1);
+
+        long[] totals = scan(current, segment -> {
+            long[] partial = new long[days * 2];
+            int high = segment.upperBound(to);
+            for (int i = segment.lowerBound(from); i < high; i++) {
+                if (segment.users[i] == user) {
+                    int day = (int) (Math.floorDiv(segment.starts[i], SECONDS_PER_DAY) - firstDay);
+                    partial[day * 2] += segment.durations[i];
+                    partial[day * 2 + 1]++;
+                }
+            }
+            return partial;
+        }, StudyRecordColumnStore::addInto).orElse(new long[0]);
+
+        List<DailyTotal> result = new ArrayList<>();
+        for (int day = 0; day < totals.length / 2; day++) {
+            if (totals[day * 2 + 1] > 0) {
+                result.add(new DailyTotal(LocalDate.ofEpochDay(firstDay + day), totals[day * 2]));
+            }
+        }
+        return result;
+    }
+
+    /**
+     * 资料的平均学习时长（秒），没有记录时为空
+     */
+    public Double averageDuration(long materialId) {
+        Snapshot current = snapshot();
+        int material = materials.codeOf(materialId);
+        if (material < 0) {
+            return null;
+        }
+        long[] totals = scan(current, segment -> {
+            long sum = 0;
+            long count = 0;
+            int[] codes = segment.materials;
+            int[] durations = segment.durations;
+            for (int i = 0; i < segment.size; i++) {
+                int match = codes[i] == material ? 1 : 0;
+                sum += (long) durations[i] * match;
+                count += match;
+            }
+            return new long[]{sum, count};
+        }, StudyRecordColumnStore::addInto).orElse(new long[2]);
+        return totals[1] == 0 ? null : (double) totals[0] / totals[1];
+    }
+
+    /**
+     * 学习过该资料的不同用户数
+     */
+    public long countDistinctUsers(long materialId) {
+        Snapshot current = snapshot();
+        int material = materials.codeOf(materialId);
+        if (material < 0) {
+            return 0;
+        }
+        int words = (current.userCount + 63) >>> 6;
+        long[] bits = scan(current, segment -> {
+            long[] partial = new long[words];
+            int[] codes = segment.materials;
+            int[] userCodes = segment.users;
+            for (int i = 0; i < segment.size; i++) {
+                if (codes[i] == material) {
+                    partial[userCodes[i] >>> 6] |= 1L << userCodes[i];
+                }
+            }
+            return partial;
+        }, (a, b) -> {
+            for (int i = 0; i < a.length; i++) {
+                a[i] |= b[i];
+            }
+            return a;
+        }).orElse(new long[0]);
+        long count = 0;
+        for (long word : bits) {
+            count += Long.bitCount(word);
+        }
+        return count;
+    }
+
+    /**
+     * 按指标取前 limit 条记录，userId 为空表示全部用户；指标相同时 id 大的在前
+     */
+    public List<Row> top(Metric metric, Long userId, int limit) {
+        Snapshot current = snapshot();
+        int user = userId == null ? -1 : users.codeOf(userId);
+        if ((userId != null && user < 0) || limit <= 0) {
+            return List.of();
+        }
+        Comparator<Candidate> order = Comparator.comparingInt(Candidate::value).thenComparingLong(Candidate::id);
+        List<Candidate> candidates = scan(current, segment -> {
+            int[] values = metric == Metric.DURATION ? segment.durations : segment.progress;
+            PriorityQueue<Candidate> heap = new PriorityQueue<>(limit + 1, order);
+            for (int i = 0; i < segment.size; i++) {
+                if (user >= 0 && segment.users[i] != user) {
+                    continue;
+                }
+                if (heap.size() < limit) {
+                    heap.add(new Candidate(segment, i, values[i], segment.ids[i]));
+                } else if (values[i] > heap.peek().value()
+                        || (values[i] == heap.peek().value() && segment.ids[i] > heap.peek().id())) {
+                    heap.poll();
+                    heap.add(new Candidate(segment, i, values[i], segment.ids[i]));
+                }
+            }
+            return new ArrayList<>(heap);
+        }, (a, b) -> {
+            a.addAll(b);
+            return a;
+        }).orElse(new ArrayList<>());
+
+        candidates.sort(order.reversed());
+        List<Row> result = new ArrayList<>(Math.min(limit, candidates.size()));
+        for (Candidate candidate : candidates.subList(0, Math.min(limit, candidates.size()))) {
+            result.add(candidate.segment().row(candidate.row(), current));
+        }
+        return result;
+    }
+
+    /**
+     * 在线程池中并行扫描快照的各段并合并部分结果
+     */
+    private <T> Optional<T> scan(Snapshot current, Function<Segment, T> mapper, BinaryOperator<T> merger) {
+        if (current.segments.size() <= 1) {
+            return current.segments.stream().map(mapper).reduce(merger);
+        }
+        return pool.submit(() -> current.segments.parallelStream().map(mapper).reduce(merger)).join();
+    }
+
+    private Snapshot snapshot() {
+        lock.lock();
+        try {
+            if (snapshot == null) {
+                List<Segment> segments = new ArrayList<>(sealed.size() + 1);
+                segments.addAll(sealed);
+                if (active.size > 0) {
+                    segments.add(active.sortedCopy());
+                }
+                snapshot = new Snapshot(List.copyOf(segments), users.ids, users.size, materials.ids);
+            }
+            return snapshot;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private static long[] addInto(long[] target, long[] source) {
+        for (int i = 0; i < target.length; i++) {
+            target[i] += source[i];
+        }
+        return target;
+    }
+
+    private static long epochSecond(LocalDateTime time) {
+        return time.toEpochSecond(ZoneOffset.UTC);
+    }
+
+    private record Candidate(Segment segment, int row, int value, long id) {
+    }
+
+    /**
+     * 查询快照：不可变段列表及当时的字典解码数组（之后新编码只追加到数组尾部或新数组，不影响已有元素）
+     */
+    private static final class Snapshot {
+
+        private final List<Segment> segments;
+        private final long[] userIds;
+        private final int userCount;
+        private final long[] materialIds;
+        private final long minStart;
+        private final long maxStart;
+
+        Snapshot(List<Segment> segments, long[] userIds, int userCount, long[] materialIds) {
+            this.segments = segments;
+            this.userIds = userIds;
+            this.userCount = userCount;
+            this.materialIds = materialIds;
+            long min = Long.MAX_VALUE;
+            long max = Long.MIN_VALUE;
+            for (Segment segment : segments) {
+                min = Math.min(min, segment.starts[0]);
+                max = Math.max(max, segment.starts[segment.size - 1]);
+            }
+            this.minStart = min;
+            this.maxStart = max;
+        }
+    }
+
+    /**
+     * 一段记录的各列数组；活动段原地追加，封存段按开始时间有序且不再修改
+     */
+    private static final class Segment {
+
+        private final long[] ids;
+        private final int[] users;
+        private final int[] materials;
+        private final int[] durations;
+        private final long[] starts;
+        private final int[] progress;
+        private int size;
+
+        Segment(int capacity) {
+            ids = new long[capacity];
+            users = new int[capacity];
+            materials = new int[capacity];
+            durations = new int[capacity];
+            starts = new long[capacity];
+            progress = new int[capacity];
+        }
+
+        /**
+         * 按 (开始时间, 写入顺序) 排序的副本；排序键为 开始时间 << 24 | 行号，只排基本类型数组
+         */
+        Segment sortedCopy() {
+            long[] keys = new long[size];
+            for (int i = 0; i < size; i++) {
+                keys[i] = (starts[i] << ROW_BITS) | i;
+            }
+            Arrays.sort(keys);
+            Segment segment = new Segment(size);
+            for (int j = 0; j < size; j++) {
+                int i = (int) (keys[j] & ROW_MASK);
+                segment.ids[j] = ids[i];
+                segment.users[j] = users[i];
+                segment.materials[j] = materials[i];
+                segment.durations[j] = durations[i];
+                segment.starts[j] = starts[i];
+                segment.progress[j] = progress[i];
+            }
+            segment.size = size;
+            return segment;
+        }
+
+        /**
+         * 第一个开始时间不小于 second 的行
+         */
+        int lowerBound(long second) {
+            int low = 0;
+            int high = size;
+            while (low < high) {
+                int mid = (low + high) >>> 1;
+                if (starts[mid] < second) {
+                    low = mid + 1;
+                } else {
+                    high = mid;
+                }
+            }
+            return low;
+        }
+
+        /**
+         * 第一个开始时间大于 second 的行
+         */
+        int upperBound(long second) {
+            int low = 0;
+            int high = size;
+            while (low < high) {
+                int mid = (low + high) >>> 1;
+                if (starts[mid] <= second) {
+                    low = mid + 1;
+                } else {
+                    high = mid;
+                }
+            }
+            return low;
+        }
+
+        Row row(int i, Snapshot snapshot) {
+            return new Row(ids[i], snapshot.userIds[users[i]], snapshot.materialIds[materials[i]], durations[i],
+                    LocalDateTime.ofEpochSecond(starts[i], 0, ZoneOffset.UTC), BigDecimal.valueOf(progress[i], 2));
+        }
+    }
+
+    /**
+     * id 字典：编码在持有 store 锁时分配，查找编码无锁
+     */
+    private static final class Dictionary {
+
+        private final Map<Long, Integer> codes = new ConcurrentHashMap<>();
+        private long[] ids = new long[1024];
+        private int size;
+
+        int encode(long id) {
+            Integer code = codes.get(id);
+            if (code != null) {
+                return code;
+            }
+            if (size == ids.length) {
+                // 扩容复制到新数组，旧快照持有的数组保持不变
+                ids = Arrays.copyOf(ids, size * 2);
+            }
+            ids[size] = id;
+            codes.put(id, size);
+            return size++;
+        }
+
+        int codeOf(long id) {
+            Integer code = codes.get(id);
+            return code != null ? code : -1;
+        }
+    }
+}
@@ -0,0 +1,25 @@
+package org.example.backend.config;
+
+import org.springframework.boot.task.ThreadPoolTaskSchedulerBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
+
+/**
+ * 定时任务配置（计数器刷盘、缓存对账等后台任务）
+ */
+@Configuration
+@EnableScheduling
+public class SchedulingConfig {
+
+    /**
+     * 显式声明定时任务线程池（spring.task.scheduling.*）。
+     * 启用 STOMP 代理后容器中还有 messageBrokerTaskScheduler，自动配置的线程池会因此退让，
+     * 这里按名称 taskScheduler 声明，@Scheduled 仍使用本线程池
+     */
+    @Bean(name = "taskScheduler")
+    public ThreadPoolTaskScheduler taskScheduler(ThreadPoolTaskSchedulerBuilder builder) {
+        return builder.build();
+    }
+}
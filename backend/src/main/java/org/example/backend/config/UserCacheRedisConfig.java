@@ -0,0 +1,37 @@
+package org.example.backend.config;
+
+import org.example.backend.security.TokenRevocationService;
+import org.example.backend.service.UserCacheService;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * 用户缓存与令牌吊销的跨节点同步配置：订阅失效频道，收到通知后清除本节点的本地缓存条目；
+ * 订阅吊销频道，登记其他节点吊销的令牌
+ */
+@Configuration
+@ConditionalOnProperty(name = "app.cache.redis.enabled", havingValue = "true")
+public class UserCacheRedisConfig {
+
+    @Bean
+    public RedisMessageListenerContainer userCacheListenerContainer(RedisConnectionFactory connectionFactory,
+                                                                    UserCacheService userCacheService,
+                                                                    TokenRevocationService tokenRevocationService) {
+        RedisMessageListenerContainer container = new RedisMessageListenerContainer();
+        container.setConnectionFactory(connectionFactory);
+        container.addMessageListener((message, pattern) -> userCacheService.evictLocal(
+                        Arrays.asList(new String(message.getBody(), StandardCharsets.UTF_8).split("\n"))),
+                new ChannelTopic(UserCacheService.INVALIDATION_CHANNEL));
+        container.addMessageListener((message, pattern) -> tokenRevocationService.applyRemote(
+                        new String(message.getBody(), StandardCharsets.UTF_8)),
+                new ChannelTopic(TokenRevocationService.REVOCATION_CHANNEL));
+        return container;
+    }
+}
@@ -0,0 +1,97 @@
+package org.example.backend.config;
+
+import org.example.backend.security.JwtService;
+import org.example.backend.security.StompAuthChannelInterceptor;
+import org.example.backend.security.TokenRevocationService;
+import org.example.backend.service.UserCacheService;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.messaging.simp.config.ChannelRegistration;
+import org.springframework.messaging.simp.config.MessageBrokerRegistry;
+import org.springframework.scheduling.TaskScheduler;
+import org.springframework.web.socket.config.annotation.EnableWebSocketMessageBroker;
+import org.springframework.web.socket.config.annotation.StompEndpointRegistry;
+import org.springframework.web.socket.config.annotation.WebSocketMessageBrokerConfigurer;
+import org.springframework.web.socket.config.annotation.WebSocketTransportRegistration;
+
+/**
+ * WebSocket/STOMP 实时推送配置
+ * <p>
+ * 使用内置简单代理，服务端只向 /user/queue/** 推送。每个会话的发送缓冲有上限，
+ * 慢客户端超过发送时限或缓冲上限时直接断开，不会阻塞出站线程或让积压无限增长。
+ */
+@Configuration
+@EnableWebSocketMessageBroker
+public class WebSocketConfig implements WebSocketMessageBrokerConfigurer {
+
+    private final JwtService jwtService;
+    private final TokenRevocationService tokenRevocationService;
+    private final UserCacheService userCacheService;
+    private final TaskScheduler taskScheduler;
+
+    // 与 HTTP 跨域配置使用同一白名单
+    @Value("${spring.web.cors.allowed-origins}")
+    private String[] allowedOrigins;
+
+    @Value("${push.heartbeat:25000}")
+    private long heartbeatMillis;
+
+    @Value("${push.send-time-limit:10000}")
+    private int sendTimeLimit;
+
+    @Value("${push.send-buffer-size:262144}")
+    private int sendBufferSize;
+
+    @Value("${push.outbound-threads:8}")
+    private int outboundThreads;
+
+    @Value("${push.outbound-queue:10000}")
+    private int outboundQueue;
+
+    public WebSocketConfig(JwtService jwtService,
+                           TokenRevocationService tokenRevocationService,
+                           UserCacheService userCacheService,
+                           @Lazy @Qualifier("taskScheduler") TaskScheduler taskScheduler) {
+        this.jwtService = jwtService;
+        this.tokenRevocationService = tokenRevocationService;
+        this.userCacheService = userCacheService;
+        this.taskScheduler = taskScheduler;
+    }
+
+    @Override
+    public void registerStompEndpoints(StompEndpointRegistry registry) {
+        registry.addEndpoint("/ws").setAllowedOriginPatterns(allowedOrigins);
+    }
+
+    @Override
+    public void configureMessageBroker(MessageBrokerRegistry registry) {
+        registry.enableSimpleBroker("/queue")
+                .setHeartbeatValue(new long[]{heartbeatMillis, heartbeatMillis})
+                .setTaskScheduler(taskScheduler);
+        registry.setApplicationDestinationPrefixes("/app");
+        registry.setUserDestinationPrefix("/user");
+    }
+
+    @Override
+    public void configureClientInboundChannel(ChannelRegistration registration) {
+        registration.interceptors(new StompAuthChannelInterceptor(jwtService, tokenRevocationService, userCacheService));
+    }
+
+    @Override
+    public void configureClientOutboundChannel(ChannelRegistration registration) {
+        // 出站线程与队列有界；推送服务发送前检查队列剩余容量，不足时合并到下一轮
+        registration.taskExecutor()
+                .corePoolSize(outboundThreads)
+                .maxPoolSize(outboundThreads)
+                .queueCapacity(outboundQueue);
+    }
+
+    @Override
+    public void configureWebSocketTransport(WebSocketTransportRegistration registration) {
+        registration.setSendTimeLimit(sendTimeLimit)
+                .setSendBufferSizeLimit(sendBufferSize)
+                .setMessageSizeLimit(64 * 1024);
+    }
+}
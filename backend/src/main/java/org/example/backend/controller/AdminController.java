@@ -0,0 +1,288 @@
+package org.example.backend.controller;
+
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.example.backend.analytics.StudyRecordColumnStore;
+import org.example.backend.dto.AuditStats;
+import org.example.backend.dto.CacheStats;
+import org.example.backend.dto.CursorSlice;
+import org.example.backend.dto.GroupCount;
+import org.example.backend.dto.LogItem;
+import org.example.backend.dto.MaterialStudyStats;
+import org.example.backend.dto.PushStats;
+import org.example.backend.dto.PendingMaterialItem;
+import org.example.backend.dto.QASchedulerStats;
+import org.example.backend.dto.StudyRecordRow;
+import org.example.backend.dto.SubjectProgressStat;
+import org.example.backend.entity.User;
+import org.example.backend.service.LogRollupService;
+import org.example.backend.service.LogService;
+import org.example.backend.service.MaterialCatalogService;
+import org.example.backend.service.MaterialService;
+import org.example.backend.service.ProgressHistogramService;
+import org.example.backend.service.QAAnswerCache;
+import org.example.backend.service.QAExecutionScheduler;
+import org.example.backend.service.RealtimePushService;
+import org.example.backend.service.StatisticsService;
+import org.example.backend.service.StudyAnalyticsService;
+import org.example.backend.service.UserCacheService;
+import org.example.backend.service.UserService;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PutMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.ResponseStatus;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * 管理后台控制器
+ */
+@RestController
+@RequestMapping("/api/admin")
+@RequiredArgsConstructor
+public class AdminController {
+
+    private final LogService logService;
+    private final LogRollupService logRollupService;
+    private final StatisticsService statisticsService;
+    private final MaterialService materialService;
+    private final UserService userService;
+    private final UserCacheService userCacheService;
+    private final MaterialCatalogService materialCatalogService;
+    private final ProgressHistogramService progressHistogramService;
+    private final QAAnswerCache qaAnswerCache;
+    private final QAExecutionScheduler qaExecutionScheduler;
+    private final StudyAnalyticsService studyAnalyticsService;
+    private final RealtimePushService realtimePushService;
+
+    /**
+     * 审计日志队列深度、丢弃数等写入统计
+     */
+    @GetMapping("/audit/stats")
+    public AuditStats auditStats() {
+        return logService.getStats();
+    }
+
+    /**
+     * 认证用户缓存命中统计
+     */
+    @GetMapping("/cache/users")
+    public CacheStats userCacheStats() {
+        return userCacheService.getStats();
+    }
+
+    /**
+     * 资料目录页缓存命中统计
+     */
+    @GetMapping("/cache/catalog")
+    public CacheStats catalogCacheStats() {
+        return materialCatalogService.getStats();
+    }
+
+    /**
+     * 问答回答缓存命中统计
+     */
+    @GetMapping("/cache/qa-answers")
+    public CacheStats qaAnswerCacheStats() {
+        return qaAnswerCache.getStats();
+    }
+
+    /**
+     * 修改用户状态（封禁、解封、停用）
+     */
+    @PutMapping("/users/{userId}/status")
+    @ResponseStatus(HttpStatus.NO_CONTENT)
+    public void changeUserStatus(@PathVariable Long userId, @RequestParam User.Status status) {
+        userService.changeStatus(userId, status);
+    }
+
+    /**
+     * 修改用户角色
+     */
+    @PutMapping("/users/{userId}/role")
+    @ResponseStatus(HttpStatus.NO_CONTENT)
+    public void changeUserRole(@PathVariable Long userId, @RequestParam User.Role role) {
+        userService.changeRole(userId, role);
+    }
+
+    /**
+     * 时间范围内的日志（游标分页，cursor 取上一页返回的 nextCursor）
+     */
+    @GetMapping("/logs")
+    public CursorSlice<LogItem> logs(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime startTime,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime endTime,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int size) {
+        return logService.getLogs(startTime, endTime, cursor, size);
+    }
+
+    /**
+     * 导出时间范围内的日志为 TSV（流式输出）
+     */
+    @GetMapping("/logs/export")
+    public void exportLogs(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime startTime,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime endTime,
+            HttpServletResponse response) throws IOException {
+        response.setContentType("text/tab-separated-values");
+        response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment()
+                .filename("system-log.tsv")
+                .build()
+                .toString());
+        logService.exportLogs(startTime, endTime, response.getWriter());
+    }
+
+    /**
+     * 各操作类型日志数量
+     */
+    @GetMapping("/logs/stats/operations")
+    public List<Object[]> countByOperation() {
+        return logRollupService.countByOperation();
+    }
+
+    /**
+     * 指定用户各操作类型日志数量
+     */
+    @GetMapping("/logs/stats/users/{userId}/operations")
+    public List<Object[]> countByOperationAndUser(@PathVariable Long userId) {
+        return logRollupService.countByOperationAndUser(userId);
+    }
+
+    /**
+     * 各IP地址日志数量
+     */
+    @GetMapping("/logs/stats/ips")
+    public List<Object[]> countByIpAddress() {
+        return logRollupService.countByIpAddress();
+    }
+
+    /**
+     * 每日日志数量
+     */
+    @GetMapping("/logs/stats/daily")
+    public List<Object[]> countByDateRange(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate) {
+        return logRollupService.countByDateRange(startDate, endDate);
+    }
+
+    /**
+     * 待审核资料列表（含上传者，游标分页）
+     */
+    @GetMapping("/materials/pending")
+    public CursorSlice<PendingMaterialItem> pendingMaterials(@RequestParam(required = false) String cursor,
+                                                             @RequestParam(defaultValue = "20") int size) {
+        return materialService.listPending(cursor, size);
+    }
+
+    /**
+     * 各学科资料数量
+     */
+    @GetMapping("/stats/materials/subjects")
+    public List<GroupCount> materialsBySubject() {
+        return statisticsService.countMaterialsBySubject();
+    }
+
+    /**
+     * 各审核状态资料数量
+     */
+    @GetMapping("/stats/materials/statuses")
+    public List<GroupCount> materialsByStatus() {
+        return statisticsService.countMaterialsByStatus();
+    }
+
+    /**
+     * 各文件类型资料数量
+     */
+    @GetMapping("/stats/materials/file-types")
+    public List<GroupCount> materialsByFileType() {
+        return statisticsService.countMaterialsByFileType();
+    }
+
+    /**
+     * 问答反馈分布
+     */
+    @GetMapping("/stats/qa/feedback")
+    public List<GroupCount> qaByFeedback() {
+        return statisticsService.countQAByFeedback();
+    }
+
+    /**
+     * 问答调度统计（排队等待、执行耗时、限流与过载拒绝次数）
+     */
+    @GetMapping("/stats/qa/scheduler")
+    public QASchedulerStats qaSchedulerStats() {
+        return qaExecutionScheduler.getStats();
+    }
+
+    /**
+     * 实时推送统计（在线用户、待推送、已推送与推迟次数）
+     */
+    @GetMapping("/stats/push")
+    public PushStats pushStats() {
+        return realtimePushService.getStats();
+    }
+
+    /**
+     * 各角色用户数量
+     */
+    @GetMapping("/stats/users/roles")
+    public List<GroupCount> usersByRole() {
+        return statisticsService.countUsersByRole();
+    }
+
+    /**
+     * 各状态用户数量
+     */
+    @GetMapping("/stats/users/statuses")
+    public List<GroupCount> usersByStatus() {
+        return statisticsService.countUsersByStatus();
+    }
+
+    /**
+     * 各学科平均进度
+     */
+    @GetMapping("/stats/progress/subjects")
+    public List<SubjectProgressStat> subjectProgress() {
+        return statisticsService.getSubjectProgressStats();
+    }
+
+    /**
+     * 学习进度分布（subject 为空表示全部学科，width 为桶宽百分点，须整除 100）
+     */
+    @GetMapping("/stats/progress/distribution")
+    public List<GroupCount> progressDistribution(@RequestParam(required = false) String subject,
+                                                 @RequestParam(defaultValue = "25") int width) {
+        return progressHistogramService.getDistribution(subject, width);
+    }
+
+    /**
+     * 资料平均学习时长与学习人数
+     */
+    @GetMapping("/stats/study/materials/{materialId}")
+    public MaterialStudyStats materialStudyStats(@PathVariable Long materialId) {
+        return studyAnalyticsService.getMaterialStats(materialId);
+    }
+
+    /**
+     * 全站学习时长或进度最高的记录
+     */
+    @GetMapping("/stats/study/top-records")
+    public List<StudyRecordRow> topStudyRecords(@RequestParam(defaultValue = "DURATION") StudyRecordColumnStore.Metric by,
+                                                @RequestParam(defaultValue = "10") int limit) {
+        return studyAnalyticsService.getTopRecords(by, null, limit);
+    }
+}
@@ -0,0 +1,57 @@
+package org.example.backend.controller;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import org.example.backend.dto.LoginRequest;
+import org.example.backend.dto.LoginResponse;
+import org.example.backend.dto.UserSnapshot;
+import org.example.backend.entity.SystemLog;
+import org.example.backend.security.VerifiedToken;
+import org.example.backend.service.AuthService;
+import org.example.backend.service.LogService;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.security.core.Authentication;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.ResponseStatus;
+import org.springframework.web.bind.annotation.RestController;
+
+/**
+ * 登录登出控制器
+ */
+@RestController
+@RequestMapping("/api/auth")
+@RequiredArgsConstructor
+public class AuthController {
+
+    private final AuthService authService;
+    private final LogService logService;
+
+    /**
+     * 登录，返回 Bearer 令牌
+     */
+    @PostMapping("/login")
+    public LoginResponse login(@Valid @RequestBody LoginRequest loginRequest, HttpServletRequest request) {
+        LoginResponse response = authService.login(loginRequest.getLogin(), loginRequest.getPassword());
+        logService.log(SystemLog.OperationType.USER_LOGIN, response.getUserId(), "用户登录",
+                request.getRemoteAddr(), request.getHeader(HttpHeaders.USER_AGENT));
+        return response;
+    }
+
+    /**
+     * 登出，当前令牌立即失效
+     */
+    @PostMapping("/logout")
+    @ResponseStatus(HttpStatus.NO_CONTENT)
+    public void logout(Authentication authentication, HttpServletRequest request) {
+        if (authentication.getCredentials() instanceof VerifiedToken token) {
+            authService.logout(token);
+        }
+        Long userId = authentication.getPrincipal() instanceof UserSnapshot user ? user.getId() : null;
+        logService.log(SystemLog.OperationType.USER_LOGOUT, userId, "用户登出",
+                request.getRemoteAddr(), request.getHeader(HttpHeaders.USER_AGENT));
+    }
+}
@@ -0,0 +1,168 @@
+package org.example.backend.controller;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.example.backend.dto.StoredFile;
+import org.example.backend.dto.UploadStatus;
+import org.example.backend.dto.UserSnapshot;
+import org.example.backend.entity.Material;
+import org.example.backend.entity.SystemLog;
+import org.example.backend.exception.ResourceNotFoundException;
+import org.example.backend.service.FileService;
+import org.example.backend.service.LogService;
+import org.example.backend.service.MaterialService;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpRange;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.PutMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.ResponseStatus;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * 资料文件上传下载控制器
+ */
+@RestController
+@RequestMapping("/api/files")
+@RequiredArgsConstructor
+public class FileController {
+
+    private static final String UPLOAD_OFFSET_HEADER = "Upload-Offset";
+
+    // Tomcat sendfile 支持：由容器直接把文件交给内核发送
+    private static final String SENDFILE_SUPPORT = "org.apache.tomcat.sendfile.support";
+    private static final String SENDFILE_FILENAME = "org.apache.tomcat.sendfile.filename";
+    private static final String SENDFILE_START = "org.apache.tomcat.sendfile.start";
+    private static final String SENDFILE_END = "org.apache.tomcat.sendfile.end";
+
+    private final FileService fileService;
+    private final MaterialService materialService;
+    private final LogService logService;
+
+    /**
+     * 创建分片上传会话
+     */
+    @PostMapping("/uploads")
+    @ResponseStatus(HttpStatus.CREATED)
+    public UploadStatus createUpload() {
+        return fileService.createUpload();
+    }
+
+    /**
+     * 查询已上传偏移量（断点续传）
+     */
+    @GetMapping("/uploads/{uploadId}")
+    public UploadStatus getUpload(@PathVariable String uploadId) {
+        return fileService.getUpload(uploadId);
+    }
+
+    /**
+     * 上传一个分片，请求体为原始字节流
+     */
+    @PutMapping(value = "/uploads/{uploadId}", consumes = MediaType.APPLICATION_OCTET_STREAM_VALUE)
+    public UploadStatus uploadChunk(@PathVariable String uploadId,
+                                    @RequestHeader(UPLOAD_OFFSET_HEADER) long offset,
+                                    HttpServletRequest request) throws IOException {
+        return fileService.appendChunk(uploadId, offset, request.getInputStream());
+    }
+
+    /**
+     * 完成上传，返回按内容寻址的存储路径
+     */
+    @PostMapping("/uploads/{uploadId}/complete")
+    public StoredFile completeUpload(@PathVariable String uploadId) throws IOException {
+        return fileService.completeUpload(uploadId);
+    }
+
+    /**
+     * 下载资料文件，支持 Range 断点下载；未审核通过的资料只有上传者和管理员可下载
+     */
+    @GetMapping("/materials/{materialId}")
+    public void download(@AuthenticationPrincipal UserSnapshot user,
+                         @PathVariable Long materialId,
+                         HttpServletRequest request,
+                         HttpServletResponse response) throws IOException {
+        Material material = materialService.getMaterial(materialId);
+        checkDownloadable(user, material);
+        Path file = fileService.resolve(material.getFilePath());
+        long length = Files.size(file);
+        long start = 0;
+        long end = length - 1;
+
+        String rangeHeader = request.getHeader(HttpHeaders.RANGE);
+        if (rangeHeader != null) {
+            try {
+                List<HttpRange> ranges = HttpRange.parseRanges(rangeHeader);
+                // 多段 Range 按 RFC 7233 允许退化为整体返回
+                if (ranges.size() == 1) {
+                    start = ranges.get(0).getRangeStart(length);
+                    end = ranges.get(0).getRangeEnd(length);
+                    response.setStatus(HttpStatus.PARTIAL_CONTENT.value());
+                    response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes " + start + "-" + end + "/" + length);
+                }
+            } catch (IllegalArgumentException e) {
+                response.setStatus(HttpStatus.REQUESTED_RANGE_NOT_SATISFIABLE.value());
+                response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes */" + length);
+                return;
+            }
+        }
+
+        long count = end - start + 1;
+        response.setContentType(MediaType.APPLICATION_OCTET_STREAM_VALUE);
+        response.setContentLengthLong(count);
+        response.setHeader(HttpHeaders.ACCEPT_RANGES, "bytes");
+        response.setHeader(HttpHeaders.ETAG, "\"" + file.getFileName() + "\"");
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment()
+                .filename(downloadFileName(material), StandardCharsets.UTF_8)
+                .build()
+                .toString());
+        if (count <= 0) {
+            return;
+        }
+        // 续传的后续分段不重复计数
+        if (start == 0) {
+            materialService.recordDownload(material);
+            logService.log(SystemLog.OperationType.MATERIAL_DOWNLOAD, user.getId(), "下载资料: " + materialId,
+                    request.getRemoteAddr(), request.getHeader(HttpHeaders.USER_AGENT));
+        }
+
+        if (Boolean.TRUE.equals(request.getAttribute(SENDFILE_SUPPORT))) {
+            request.setAttribute(SENDFILE_FILENAME, file.toString());
+            request.setAttribute(SENDFILE_START, start);
+            request.setAttribute(SENDFILE_END, end + 1);
+            return;
+        }
+        fileService.transferTo(file, start, count, Channels.newChannel(response.getOutputStream()));
+    }
+
+    /**
+     * 未审核通过的资料按不存在处理，不暴露其状态
+     */
+    private static void checkDownloadable(UserSnapshot user, Material material) {
+        if (material.getStatus() != Material.Status.APPROVED && !user.canAccess(material.getUploadUser().getId())) {
+            throw new ResourceNotFoundException("资料不存在: " + material.getId());
+        }
+    }
+
+    private String downloadFileName(Material material) {
+        String extension = "." + material.getFileType().toLowerCase(Locale.ROOT);
+        String name = material.getName();
+        return name.toLowerCase(Locale.ROOT).endsWith(extension) ? name : name + extension;
+    }
+}
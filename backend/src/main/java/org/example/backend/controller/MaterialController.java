@@ -0,0 +1,65 @@
+package org.example.backend.controller;
+
+import lombok.RequiredArgsConstructor;
+import org.example.backend.dto.CatalogPage;
+import org.example.backend.dto.CursorSlice;
+import org.example.backend.dto.MaterialSummary;
+import org.example.backend.service.MaterialCatalogService;
+import org.example.backend.service.MaterialService;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+
+/**
+ * 学习资料控制器
+ */
+@RestController
+@RequestMapping("/api/materials")
+@RequiredArgsConstructor
+public class MaterialController {
+
+    private final MaterialService materialService;
+    private final MaterialCatalogService materialCatalogService;
+
+    /**
+     * 首页下载排行
+     */
+    @GetMapping("/top-downloaded")
+    public List<MaterialSummary> topDownloaded(@RequestParam(defaultValue = "10") int limit) {
+        return materialService.getTopDownloaded(limit);
+    }
+
+    /**
+     * 首页最新资料
+     */
+    @GetMapping("/latest")
+    public List<MaterialSummary> latest(@RequestParam(defaultValue = "10") int limit) {
+        return materialService.getLatest(limit);
+    }
+
+    /**
+     * 按学科浏览资料（游标分页，cursor 取上一页返回的 nextCursor）
+     */
+    @GetMapping("/subjects/{subject}")
+    public CursorSlice<MaterialSummary> listBySubject(@PathVariable String subject,
+                                                      @RequestParam(required = false) String cursor,
+                                                      @RequestParam(defaultValue = "20") int size) {
+        return materialService.listBySubject(subject, cursor, size);
+    }
+
+    /**
+     * 资料目录：已审核资料按学科、名称、描述筛选分页（整页缓存）
+     */
+    @GetMapping("/catalog")
+    public CatalogPage catalog(@RequestParam(required = false) String subject,
+                               @RequestParam(required = false) String name,
+                               @RequestParam(required = false) String description,
+                               @RequestParam(defaultValue = "0") int page,
+                               @RequestParam(defaultValue = "20") int size) {
+        return materialCatalogService.browse(subject, name, description, page, size);
+    }
+}
@@ -0,0 +1,59 @@
+package org.example.backend.controller;
+
+import lombok.RequiredArgsConstructor;
+import org.example.backend.dto.GroupCount;
+import org.example.backend.dto.SubjectProgress;
+import org.example.backend.dto.UserSnapshot;
+import org.example.backend.exception.ForbiddenException;
+import org.example.backend.service.ProgressHistogramService;
+import org.example.backend.service.StatisticsService;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+
+/**
+ * 学习进度控制器
+ */
+@RestController
+@RequestMapping("/api/progress")
+@RequiredArgsConstructor
+public class ProgressController {
+
+    private final StatisticsService statisticsService;
+    private final ProgressHistogramService progressHistogramService;
+
+    /**
+     * 用户各学科学习进度
+     */
+    @GetMapping("/users/{userId}")
+    public List<SubjectProgress> userProgress(@AuthenticationPrincipal UserSnapshot user,
+                                              @PathVariable Long userId) {
+        checkAccess(user, userId);
+        return statisticsService.getUserSubjectProgress(userId);
+    }
+
+    /**
+     * 用户学习进度分布（width 为桶宽百分点，须整除 100）
+     */
+    @GetMapping("/users/{userId}/distribution")
+    public List<GroupCount> userDistribution(@AuthenticationPrincipal UserSnapshot user,
+                                             @PathVariable Long userId,
+                                             @RequestParam(defaultValue = "25") int width) {
+        checkAccess(user, userId);
+        return progressHistogramService.getUserDistribution(userId, width);
+    }
+
+    /**
+     * 非管理员只能访问本人的数据
+     */
+    private static void checkAccess(UserSnapshot user, Long userId) {
+        if (!user.canAccess(userId)) {
+            throw new ForbiddenException("无权访问其他用户的数据: " + userId);
+        }
+    }
+}
@@ -0,0 +1,93 @@
+package org.example.backend.controller;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import org.example.backend.dto.QAItem;
+import org.example.backend.dto.QASearchPage;
+import org.example.backend.dto.QuestionRequest;
+import org.example.backend.dto.UserSnapshot;
+import org.example.backend.entity.QASession;
+import org.example.backend.entity.SystemLog;
+import org.example.backend.service.LogService;
+import org.example.backend.service.QAAnswerService;
+import org.example.backend.service.QASearchService;
+import org.example.backend.service.QAService;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.PutMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+/**
+ * 智能问答控制器
+ */
+@RestController
+@RequestMapping("/api/qa")
+@RequiredArgsConstructor
+public class QAController {
+
+    private final QAService qaService;
+    private final QAAnswerService qaAnswerService;
+    private final QASearchService qaSearchService;
+    private final LogService logService;
+
+    /**
+     * 提问；回答生成后通过 WebSocket 推送（/user/queue/updates）
+     */
+    @PostMapping("/questions")
+    public QAItem ask(@AuthenticationPrincipal UserSnapshot user,
+                      @Valid @RequestBody QuestionRequest questionRequest,
+                      HttpServletRequest request) {
+        QASession session = qaAnswerService.ask(user, questionRequest.getQuestion());
+        logService.log(SystemLog.OperationType.QA_ASK, user.getId(), "提问",
+                request.getRemoteAddr(), request.getHeader(HttpHeaders.USER_AGENT));
+        return QAItem.from(session);
+    }
+
+    /**
+     * 提问并以 SSE 流式返回回答（事件 session / chunk / done / error）
+     */
+    @PostMapping(value = "/questions/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter askStream(@AuthenticationPrincipal UserSnapshot user,
+                                @Valid @RequestBody QuestionRequest questionRequest,
+                                HttpServletRequest request) {
+        SseEmitter emitter = qaAnswerService.stream(user, questionRequest.getQuestion());
+        logService.log(SystemLog.OperationType.QA_ASK, user.getId(), "提问",
+                request.getRemoteAddr(), request.getHeader(HttpHeaders.USER_AGENT));
+        return emitter;
+    }
+
+    /**
+     * 对回答提交反馈
+     */
+    @PutMapping("/sessions/{id}/feedback")
+    public QAItem feedback(@AuthenticationPrincipal UserSnapshot user,
+                           @PathVariable Long id,
+                           @RequestParam QASession.Feedback feedback,
+                           HttpServletRequest request) {
+        QASession session = qaService.feedback(id, user.getId(), feedback);
+        logService.log(SystemLog.OperationType.QA_FEEDBACK, user.getId(), "问答反馈",
+                request.getRemoteAddr(), request.getHeader(HttpHeaders.USER_AGENT));
+        return QAItem.from(session);
+    }
+
+    /**
+     * 检索自己的问答历史（支持 "短语" 与 前缀* 查询，结果带高亮摘要）
+     */
+    @GetMapping("/search")
+    public QASearchPage search(@AuthenticationPrincipal UserSnapshot user,
+                               @RequestParam String keyword,
+                               @RequestParam(required = false) QASession.Feedback feedback,
+                               @RequestParam(defaultValue = "0") int page,
+                               @RequestParam(defaultValue = "20") int size) {
+        return qaSearchService.search(user.getId(), keyword, feedback, page, size);
+    }
+}
@@ -0,0 +1,154 @@
+package org.example.backend.controller;
+
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import org.example.backend.analytics.StudyRecordColumnStore;
+import org.example.backend.dto.CursorSlice;
+import org.example.backend.dto.DailyDuration;
+import org.example.backend.dto.StudyHeartbeat;
+import org.example.backend.dto.StudyHistoryEntry;
+import org.example.backend.dto.StudyRecordItem;
+import org.example.backend.dto.StudyRecordRow;
+import org.example.backend.dto.UserSnapshot;
+import org.example.backend.exception.ForbiddenException;
+import org.example.backend.service.StudyAnalyticsService;
+import org.example.backend.service.StudyRecordIngestService;
+import org.example.backend.service.StudyRecordService;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * 学习记录控制器
+ */
+@RestController
+@RequestMapping("/api/study")
+@RequiredArgsConstructor
+public class StudyController {
+
+    private final StudyRecordIngestService studyRecordIngestService;
+    private final StudyRecordService studyRecordService;
+    private final StudyAnalyticsService studyAnalyticsService;
+
+    /**
+     * 上报学习心跳：异步批量入库，队列满时返回 429
+     */
+    @PostMapping("/heartbeats")
+    public ResponseEntity<Void> heartbeat(@AuthenticationPrincipal UserSnapshot user,
+                                          @Valid @RequestBody StudyHeartbeat heartbeat) {
+        if (studyRecordIngestService.submit(user.getId(), heartbeat)) {
+            return ResponseEntity.accepted().build();
+        }
+        return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                .header(HttpHeaders.RETRY_AFTER, "1")
+                .build();
+    }
+
+    /**
+     * 学习历史（游标分页，cursor 取上一页返回的 nextCursor）
+     */
+    @GetMapping("/users/{userId}/records")
+    public CursorSlice<StudyRecordItem> history(@AuthenticationPrincipal UserSnapshot user,
+                                                @PathVariable Long userId,
+                                                @RequestParam(required = false) String cursor,
+                                                @RequestParam(defaultValue = "20") int size) {
+        checkAccess(user, userId);
+        return studyRecordService.getHistory(userId, cursor, size);
+    }
+
+    /**
+     * 学习历史（含资料名称与学科，游标分页）
+     */
+    @GetMapping("/users/{userId}/history")
+    public CursorSlice<StudyHistoryEntry> historyWithMaterials(@AuthenticationPrincipal UserSnapshot user,
+                                                               @PathVariable Long userId,
+                                                               @RequestParam(required = false) String cursor,
+                                                               @RequestParam(defaultValue = "20") int size) {
+        checkAccess(user, userId);
+        return studyRecordService.getHistoryWithMaterials(userId, cursor, size);
+    }
+
+    /**
+     * 每日学习时长（只包含有记录的日期）
+     */
+    @GetMapping("/users/{userId}/daily-durations")
+    public List<DailyDuration> dailyDurations(
+            @AuthenticationPrincipal UserSnapshot user,
+            @PathVariable Long userId,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime start,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime end) {
+        checkAccess(user, userId);
+        return studyAnalyticsService.getDailyDuration(userId, start, end);
+    }
+
+    /**
+     * 学习时长或进度最高的记录
+     */
+    @GetMapping("/users/{userId}/top-records")
+    public List<StudyRecordRow> topRecords(@AuthenticationPrincipal UserSnapshot user,
+                                           @PathVariable Long userId,
+                                           @RequestParam(defaultValue = "DURATION") StudyRecordColumnStore.Metric by,
+                                           @RequestParam(defaultValue = "10") int limit) {
+        checkAccess(user, userId);
+        return studyAnalyticsService.getTopRecords(by, userId, limit);
+    }
+
+    /**
+     * 导出学习历史为 CSV（流式输出）
+     */
+    @GetMapping("/users/{userId}/records/export")
+    public void exportHistory(@AuthenticationPrincipal UserSnapshot user, @PathVariable Long userId,
+                              HttpServletResponse response) throws IOException {
+        checkAccess(user, userId);
+        response.setContentType("text/csv");
+        response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment()
+                .filename("study-records-" + userId + ".csv")
+                .build()
+                .toString());
+        PrintWriter writer = response.getWriter();
+        writer.println("id,material_id,duration,start_time,end_time,progress_percent");
+        try {
+            studyRecordService.forEachRecord(userId, chunk -> {
+                for (StudyRecordItem item : chunk) {
+                    writer.println(item.getId() + "," + item.getMaterialId() + "," + item.getDuration() + ","
+                            + item.getStartTime() + "," + item.getEndTime() + ","
+                            + (item.getProgressPercent() != null ? item.getProgressPercent() : ""));
+                }
+                writer.flush();
+                if (writer.checkError()) {
+                    throw new UncheckedIOException(new IOException("客户端已断开"));
+                }
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    /**
+     * 非管理员只能访问本人的数据
+     */
+    private static void checkAccess(UserSnapshot user, Long userId) {
+        if (!user.canAccess(userId)) {
+            throw new ForbiddenException("无权访问其他用户的数据: " + userId);
+        }
+    }
+}
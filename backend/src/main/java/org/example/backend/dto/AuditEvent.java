@@ -0,0 +1,28 @@
+package org.example.backend.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * 待写入 system_log 的审计事件
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class AuditEvent {
+
+    private Long userId; // 操作用户ID，系统操作为空
+
+    private String operation; // 操作类型，取 SystemLog.OperationType 名称
+
+    private String description;
+
+    private String ipAddress;
+
+    private String userAgent;
+
+    private LocalDateTime createdTime;
+}
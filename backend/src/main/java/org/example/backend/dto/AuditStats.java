@@ -0,0 +1,28 @@
+package org.example.backend.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * 审计日志写入统计
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class AuditStats {
+
+    private Integer queueDepth; // 缓冲区中待写入的事件数
+
+    private Integer queueCapacity;
+
+    private Long appendedCount; // 已接收事件数
+
+    private Long droppedCount; // 因缓冲区满被丢弃的事件数
+
+    private Long writtenCount; // 已写入数据库的事件数
+
+    private Long failedCount; // 写库失败被放弃的事件数
+
+    private String overflowPolicy;
+}
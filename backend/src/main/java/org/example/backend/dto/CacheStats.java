@@ -0,0 +1,34 @@
+package org.example.backend.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * 缓存命中统计
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CacheStats {
+
+    private String name;
+
+    private long size;
+
+    private long maximumSize;
+
+    private long hitCount;
+
+    private long missCount;
+
+    private double hitRate;
+
+    private long evictionCount;
+
+    private long remoteHitCount; // 二级缓存（Redis）命中
+
+    private long remoteMissCount;
+
+    private boolean remoteEnabled;
+}
@@ -0,0 +1,20 @@
+package org.example.backend.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * 回答缓存条目（来源问答会话及其问题、回答）
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CachedAnswer {
+
+    private Long sessionId;
+
+    private String question;
+
+    private String answer;
+}
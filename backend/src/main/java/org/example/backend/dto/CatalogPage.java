@@ -0,0 +1,26 @@
+package org.example.backend.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * 资料目录分页结果（缓存中序列化保存的整页）
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CatalogPage {
+
+    private List<MaterialSummary> content;
+
+    private int page;
+
+    private int size;
+
+    private long totalElements;
+
+    private int totalPages;
+}
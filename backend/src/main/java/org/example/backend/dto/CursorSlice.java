@@ -0,0 +1,43 @@
+package org.example.backend.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * 游标分页结果（不含总数，不做 COUNT 查询）
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CursorSlice<T> {
+
+    public static final int MAX_SIZE = 100;
+
+    private List<T> content;
+
+    private String nextCursor; // 下一页游标，没有更多数据时为空
+
+    private Boolean hasNext;
+
+    /**
+     * 限制单页大小在 [1, MAX_SIZE]
+     */
+    public static int clampSize(int size) {
+        return Math.max(1, Math.min(size, MAX_SIZE));
+    }
+
+    /**
+     * 由多查一条（size + 1）的结果构造分页
+     */
+    public static <T> CursorSlice<T> of(List<T> rows, int size, Function<T, String> cursorOf) {
+        if (rows.size() <= size) {
+            return new CursorSlice<>(rows, null, false);
+        }
+        List<T> content = rows.subList(0, size);
+        return new CursorSlice<>(List.copyOf(content), cursorOf.apply(content.get(size - 1)), true);
+    }
+}
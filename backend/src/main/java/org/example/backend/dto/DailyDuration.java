@@ -0,0 +1,20 @@
+package org.example.backend.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+
+/**
+ * 单日学习时长合计
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class DailyDuration {
+
+    private LocalDate date;
+
+    private Long duration; // 学习时长(秒)
+}
@@ -0,0 +1,18 @@
+package org.example.backend.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * 分组计数（统计接口通用投影）
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class GroupCount {
+
+    private String key; // 分组值，枚举取名称
+
+    private Long count;
+}
@@ -0,0 +1,37 @@
+package org.example.backend.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.example.backend.entity.SystemLog;
+
+import java.time.LocalDateTime;
+
+/**
+ * 系统日志列表项（不含关联实体）
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class LogItem {
+
+    private Long id;
+
+    private Long userId;
+
+    private String operation;
+
+    private SystemLog.Category category;
+
+    private String description;
+
+    private String ipAddress;
+
+    private LocalDateTime createdTime;
+
+    public static LogItem from(SystemLog log) {
+        return new LogItem(log.getId(), log.getUser() != null ? log.getUser().getId() : null,
+                log.getOperation(), log.getCategory(), log.getDescription(), log.getIpAddress(),
+                log.getCreatedTime());
+    }
+}
@@ -0,0 +1,21 @@
+package org.example.backend.dto;
+
+import jakarta.validation.constraints.NotBlank;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * 登录请求
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class LoginRequest {
+
+    @NotBlank
+    private String login; // 用户名或邮箱
+
+    @NotBlank
+    private String password;
+}
@@ -0,0 +1,25 @@
+package org.example.backend.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.example.backend.entity.User;
+
+/**
+ * 登录结果
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class LoginResponse {
+
+    private String token;
+
+    private long expiresIn; // 有效期(秒)
+
+    private Long userId;
+
+    private String username;
+
+    private User.Role role;
+}
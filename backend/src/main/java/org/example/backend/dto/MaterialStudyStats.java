@@ -0,0 +1,20 @@
+package org.example.backend.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * 资料学习统计
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class MaterialStudyStats {
+
+    private Long materialId;
+
+    private Double averageDuration; // 平均学习时长(秒)，没有记录时为空
+
+    private Long learnerCount; // 学习人数
+}
@@ -0,0 +1,36 @@
+package org.example.backend.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.example.backend.entity.Material;
+
+import java.time.LocalDateTime;
+
+/**
+ * 资料摘要（列表/首页展示用，不含关联实体）
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class MaterialSummary {
+
+    private Long id;
+
+    private String name;
+
+    private String subject;
+
+    private String fileType;
+
+    private Long fileSize;
+
+    private Long downloadCount;
+
+    private LocalDateTime uploadTime;
+
+    public static MaterialSummary from(Material material, long downloadCount) {
+        return new MaterialSummary(material.getId(), material.getName(), material.getSubject(),
+                material.getFileType(), material.getFileSize(), downloadCount, material.getUploadTime());
+    }
+}
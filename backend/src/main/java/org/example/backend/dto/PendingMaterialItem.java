@@ -0,0 +1,44 @@
+package org.example.backend.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.example.backend.entity.Material;
+import org.example.backend.entity.User;
+
+import java.time.LocalDateTime;
+
+/**
+ * 待审核资料列表项（含上传者，管理后台审核页展示用）
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class PendingMaterialItem {
+
+    private Long id;
+
+    private String name;
+
+    private String subject;
+
+    private String fileType;
+
+    private Long fileSize;
+
+    private Long uploaderId;
+
+    private String uploaderName;
+
+    private LocalDateTime uploadTime;
+
+    /**
+     * 需在上传者已随资料加载（抓取计划 Material.withUploader）时调用，否则每行触发一次查询
+     */
+    public static PendingMaterialItem from(Material material) {
+        User uploader = material.getUploadUser();
+        return new PendingMaterialItem(material.getId(), material.getName(), material.getSubject(),
+                material.getFileType(), material.getFileSize(), uploader.getId(), uploader.getUsername(),
+                material.getUploadTime());
+    }
+}
@@ -0,0 +1,22 @@
+package org.example.backend.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * 实时推送运行统计（本节点）
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class PushStats {
+
+    private int connectedUsers; // 有 WebSocket 会话的用户数
+
+    private int pendingUsers; // 有待推送更新的用户数
+
+    private long pushed;
+
+    private long deferred; // 出站队列已满推迟到下一轮
+}
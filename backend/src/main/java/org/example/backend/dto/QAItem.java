@@ -0,0 +1,32 @@
+package org.example.backend.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.example.backend.entity.QASession;
+
+import java.time.LocalDateTime;
+
+/**
+ * 问答记录（接口返回用，不含用户实体）
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class QAItem {
+
+    private Long id;
+
+    private String question;
+
+    private String answer;
+
+    private QASession.Feedback feedback;
+
+    private LocalDateTime createdTime;
+
+    public static QAItem from(QASession session) {
+        return new QAItem(session.getId(), session.getQuestion(), session.getAnswer(),
+                session.getFeedback(), session.getCreatedTime());
+    }
+}
@@ -0,0 +1,36 @@
+package org.example.backend.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * 问答调度器运行统计
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class QASchedulerStats {
+
+    private int workers;
+
+    private int running;
+
+    private int queued;
+
+    private long admitted;
+
+    private long completed;
+
+    private long rateLimited; // 超过用户令牌桶被拒绝
+
+    private long shed; // 排队延迟超限或队列已满被拒绝
+
+    private long expired; // 排队或执行超过截止时间被取消
+
+    private double queueWaitEwmaMillis; // 排队等待时间（指数滑动平均）
+
+    private double avgQueueWaitMillis;
+
+    private double avgServiceMillis;
+}
@@ -0,0 +1,29 @@
+package org.example.backend.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.example.backend.entity.QASession;
+
+import java.time.LocalDateTime;
+
+/**
+ * 问答检索命中项（问题、回答为带 &lt;em&gt; 高亮的摘要）
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class QASearchHit {
+
+    private Long sessionId;
+
+    private String question;
+
+    private String answer;
+
+    private QASession.Feedback feedback;
+
+    private LocalDateTime createdTime;
+
+    private double score;
+}
@@ -0,0 +1,24 @@
+package org.example.backend.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * 问答检索分页结果（按相关度排序）
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class QASearchPage {
+
+    private List<QASearchHit> content;
+
+    private int page;
+
+    private int size;
+
+    private long totalElements;
+}
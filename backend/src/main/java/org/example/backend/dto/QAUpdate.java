@@ -0,0 +1,20 @@
+package org.example.backend.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * 推送给客户端的问答回答更新
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class QAUpdate {
+
+    private Long sessionId;
+
+    private String question;
+
+    private String answer;
+}
@@ -0,0 +1,20 @@
+package org.example.backend.dto;
+
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * 提问请求
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class QuestionRequest {
+
+    @NotBlank
+    @Size(max = 2000)
+    private String question;
+}
@@ -0,0 +1,22 @@
+package org.example.backend.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 一次推送给单个用户的合并更新（合并窗口内同一学科、同一问答只保留最新值）
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class RealtimeUpdate {
+
+    private Map<String, BigDecimal> progress; // 学科 -> 最新进度百分比
+
+    private List<QAUpdate> answers;
+}
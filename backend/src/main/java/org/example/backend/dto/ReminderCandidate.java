@@ -0,0 +1,26 @@
+package org.example.backend.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+
+/**
+ * 需要提醒的进度行（提醒任务分片扫描用投影）
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ReminderCandidate {
+
+    private Long id;
+
+    private Long userId;
+
+    private String subject;
+
+    private BigDecimal percent;
+
+    private Integer totalStudyTime; // 总学习时长(分钟)
+}
@@ -0,0 +1,22 @@
+package org.example.backend.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * 已落盘的文件（按内容寻址）
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class StoredFile {
+
+    private String sha256; // 文件内容的SHA-256摘要
+
+    private String path; // 相对上传根目录的存储路径，写入 Material.filePath
+
+    private Long size; // 文件大小(字节)
+
+    private Boolean deduplicated; // 是否命中已有文件
+}
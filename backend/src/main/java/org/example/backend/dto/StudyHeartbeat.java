@@ -0,0 +1,41 @@
+package org.example.backend.dto;
+
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Pattern;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * 客户端上报的学习心跳（一段学习记录，所属用户取自当前登录身份）
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class StudyHeartbeat {
+
+    @NotNull
+    private Long materialId;
+
+    @NotNull
+    @Min(0)
+    private Integer duration; // 学习时长(秒)
+
+    @NotNull
+    private LocalDateTime startTime;
+
+    @NotNull
+    private LocalDateTime endTime;
+
+    @Min(0)
+    @Max(100)
+    private BigDecimal progressPercent; // 学习进度百分比
+
+    @Pattern(regexp = "[A-Za-z0-9_-]{1,64}")
+    private String idempotencyKey; // 客户端幂等键，重试时保持不变
+}
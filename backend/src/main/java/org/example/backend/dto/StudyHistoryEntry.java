@@ -0,0 +1,44 @@
+package org.example.backend.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.example.backend.entity.Material;
+import org.example.backend.entity.StudyRecord;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * 学习历史条目（含资料名称与学科，学习历史页展示用）
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class StudyHistoryEntry {
+
+    private Long id;
+
+    private Long materialId;
+
+    private String materialName;
+
+    private String subject;
+
+    private Integer duration; // 学习时长(秒)
+
+    private LocalDateTime startTime;
+
+    private LocalDateTime endTime;
+
+    private BigDecimal progressPercent;
+
+    /**
+     * 需在资料已随记录加载（抓取计划 StudyRecord.withMaterial）时调用，否则每行触发一次查询
+     */
+    public static StudyHistoryEntry from(StudyRecord record) {
+        Material material = record.getMaterial();
+        return new StudyHistoryEntry(record.getId(), material.getId(), material.getName(), material.getSubject(),
+                record.getDuration(), record.getStartTime(), record.getEndTime(), record.getProgressPercent());
+    }
+}
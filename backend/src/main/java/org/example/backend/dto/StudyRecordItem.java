@@ -0,0 +1,35 @@
+package org.example.backend.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.example.backend.entity.StudyRecord;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * 学习记录列表项（学习历史展示用）
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class StudyRecordItem {
+
+    private Long id;
+
+    private Long materialId;
+
+    private Integer duration; // 学习时长(秒)
+
+    private LocalDateTime startTime;
+
+    private LocalDateTime endTime;
+
+    private BigDecimal progressPercent;
+
+    public static StudyRecordItem from(StudyRecord record) {
+        return new StudyRecordItem(record.getId(), record.getMaterial().getId(), record.getDuration(),
+                record.getStartTime(), record.getEndTime(), record.getProgressPercent());
+    }
+}
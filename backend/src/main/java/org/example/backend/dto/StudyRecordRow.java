@@ -0,0 +1,35 @@
+package org.example.backend.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.example.backend.entity.StudyRecord;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * 学习记录行（分析副本加载及排行查询结果）
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class StudyRecordRow {
+
+    private Long id;
+
+    private Long userId;
+
+    private Long materialId;
+
+    private Integer duration; // 学习时长(秒)
+
+    private LocalDateTime startTime;
+
+    private BigDecimal progressPercent;
+
+    public static StudyRecordRow from(StudyRecord record) {
+        return new StudyRecordRow(record.getId(), record.getUser().getId(), record.getMaterial().getId(),
+                record.getDuration(), record.getStartTime(), record.getProgressPercent());
+    }
+}
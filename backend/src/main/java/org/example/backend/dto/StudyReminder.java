@@ -0,0 +1,20 @@
+package org.example.backend.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * 发给单个用户的学习提醒（合并该用户所有进度落后的学科）
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class StudyReminder {
+
+    private Long userId;
+
+    private List<SubjectProgress> subjects;
+}
@@ -0,0 +1,22 @@
+package org.example.backend.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+
+/**
+ * 用户单个学科的学习进度
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class SubjectProgress {
+
+    private String subject;
+
+    private BigDecimal percent; // 学习进度百分比
+
+    private Integer totalStudyTime; // 总学习时长(分钟)
+}
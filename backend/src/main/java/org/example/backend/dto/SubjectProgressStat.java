@@ -0,0 +1,20 @@
+package org.example.backend.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * 学科学习进度统计
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class SubjectProgressStat {
+
+    private String subject;
+
+    private Double averagePercent; // 平均进度百分比
+
+    private Long learnerCount; // 学习人数
+}
@@ -0,0 +1,20 @@
+package org.example.backend.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * 分片上传状态
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class UploadStatus {
+
+    private String uploadId;
+
+    private Long offset; // 已接收字节数，即下一个分片的起始偏移量
+
+    private Long chunkSize; // 单个分片最大字节数
+}
@@ -0,0 +1,38 @@
+package org.example.backend.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Value;
+import lombok.extern.jackson.Jacksonized;
+import org.example.backend.entity.User;
+
+/**
+ * 用户快照（认证用，缓存中保存的不可变副本，不含懒加载关联与密码哈希）
+ */
+@Value
+@Builder
+@Jacksonized
+@AllArgsConstructor
+public class UserSnapshot {
+
+    Long id;
+
+    String username;
+
+    String email;
+
+    User.Role role;
+
+    User.Status status;
+
+    /**
+     * 是否可访问指定用户的数据：本人或管理员
+     */
+    public boolean canAccess(Long userId) {
+        return role == User.Role.ADMIN || id.equals(userId);
+    }
+
+    public static UserSnapshot from(User user) {
+        return new UserSnapshot(user.getId(), user.getUsername(), user.getEmail(), user.getRole(), user.getStatus());
+    }
+}
@@ -11,11 +11,17 @@ import java.time.LocalDateTime;
 
 @Entity
 @Table(name = "material")
+@NamedEntityGraph(name = Material.WITH_UPLOADER, attributeNodes = @NamedAttributeNode("uploadUser"))
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
 public class Material {
 
+    /**
+     * 抓取计划：资料列表连同上传者一次查出
+     */
+    public static final String WITH_UPLOADER = "Material.withUploader";
+
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
@@ -11,11 +11,17 @@ import java.time.LocalDateTime;
 
 @Entity
 @Table(name = "study_record")
+@NamedEntityGraph(name = StudyRecord.WITH_MATERIAL, attributeNodes = @NamedAttributeNode("material"))
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
 public class StudyRecord {
 
+    /**
+     * 抓取计划：学习历史列表连同资料一次查出
+     */
+    public static final String WITH_MATERIAL = "StudyRecord.withMaterial";
+
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
@@ -40,6 +46,9 @@ public class StudyRecord {
     @Column(name = "progress_percent", precision = 5, scale = 2)
     private BigDecimal progressPercent = BigDecimal.ZERO; // 学习进度百分比
 
+    @Column(name = "idempotency_key", unique = true, length = 64)
+    private String idempotencyKey; // 客户端上报的幂等键，防止重试重复计时
+
     @CreationTimestamp
     @Column(name = "created_time", nullable = false, updatable = false)
     private LocalDateTime createdTime;
@@ -9,7 +9,10 @@ import org.hibernate.annotations.CreationTimestamp;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "system_log")
+@Table(name = "system_log", indexes = {
+        @Index(name = "idx_category_time", columnList = "category, created_time"),
+        @Index(name = "idx_user_category_time", columnList = "user_id, category, created_time")
+})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -26,6 +29,10 @@ public class SystemLog {
     @Column(nullable = false, length = 100)
     private String operation; // 操作类型
 
+    @Enumerated(EnumType.STRING)
+    @Column(length = 20)
+    private Category category; // 操作分类，由 operation 推导，用于索引查询
+
     @Column(columnDefinition = "TEXT")
     private String description; // 操作描述
 
@@ -39,44 +46,86 @@ public class SystemLog {
     @Column(name = "created_time", nullable = false, updatable = false)
     private LocalDateTime createdTime;
 
+    @PrePersist
+    protected void fillCategory() {
+        if (category == null) {
+            category = Category.of(operation);
+        }
+    }
+
+    // 操作分类枚举
+    public enum Category {
+        USER, MATERIAL, QA, STUDY, ERROR, WARNING, INFO, OTHER;
+
+        /**
+         * 由操作类型推导分类；非枚举内的自定义操作按名称关键字归类
+         */
+        public static Category of(String operation) {
+            if (operation == null) {
+                return OTHER;
+            }
+            for (OperationType type : OperationType.values()) {
+                if (type.name().equals(operation)) {
+                    return type.getCategory();
+                }
+            }
+            if (operation.contains("ERROR")) {
+                return ERROR;
+            }
+            if (operation.contains("WARNING")) {
+                return WARNING;
+            }
+            if (operation.contains("MATERIAL")) {
+                return MATERIAL;
+            }
+            return OTHER;
+        }
+    }
+
     // 操作类型枚举
     public enum OperationType {
         // 用户相关
-        USER_REGISTER("用户注册"),
-        USER_LOGIN("用户登录"),
-        USER_LOGOUT("用户登出"),
-        USER_UPDATE("用户信息更新"),
+        USER_REGISTER("用户注册", Category.USER),
+        USER_LOGIN("用户登录", Category.USER),
+        USER_LOGOUT("用户登出", Category.USER),
+        USER_UPDATE("用户信息更新", Category.USER),
 
         // 资料相关
-        MATERIAL_UPLOAD("资料上传"),
-        MATERIAL_DOWNLOAD("资料下载"),
-        MATERIAL_DELETE("资料删除"),
-        MATERIAL_APPROVE("资料审核通过"),
-        MATERIAL_REJECT("资料审核拒绝"),
+        MATERIAL_UPLOAD("资料上传", Category.MATERIAL),
+        MATERIAL_DOWNLOAD("资料下载", Category.MATERIAL),
+        MATERIAL_DELETE("资料删除", Category.MATERIAL),
+        MATERIAL_APPROVE("资料审核通过", Category.MATERIAL),
+        MATERIAL_REJECT("资料审核拒绝", Category.MATERIAL),
 
         // 问答相关
-        QA_ASK("提问"),
-        QA_ANSWER("回答"),
-        QA_FEEDBACK("问答反馈"),
+        QA_ASK("提问", Category.QA),
+        QA_ANSWER("回答", Category.QA),
+        QA_FEEDBACK("问答反馈", Category.QA),
 
         // 学习相关
-        STUDY_START("开始学习"),
-        STUDY_END("结束学习"),
-        PROGRESS_UPDATE("进度更新"),
+        STUDY_START("开始学习", Category.STUDY),
+        STUDY_END("结束学习", Category.STUDY),
+        PROGRESS_UPDATE("进度更新", Category.STUDY),
 
         // 系统相关
-        SYSTEM_ERROR("系统错误"),
-        SYSTEM_WARNING("系统警告"),
-        SYSTEM_INFO("系统信息");
+        SYSTEM_ERROR("系统错误", Category.ERROR),
+        SYSTEM_WARNING("系统警告", Category.WARNING),
+        SYSTEM_INFO("系统信息", Category.INFO);
 
         private final String description;
+        private final Category category;
 
-        OperationType(String description) {
+        OperationType(String description, Category category) {
             this.description = description;
+            this.category = category;
         }
 
         public String getDescription() {
             return description;
         }
+
+        public Category getCategory() {
+            return category;
+        }
     }
 }
\ No newline at end of file
@@ -0,0 +1,30 @@
+package org.example.backend.event;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import org.example.backend.entity.Material;
+
+/**
+ * 学习资料变更事件
+ * <p>
+ * 由 MaterialService 在资料保存、审核、删除、下载时发布，
+ * 搜索索引、排行榜、缓存等派生数据据此增量更新。
+ */
+@Getter
+@AllArgsConstructor
+public class MaterialEvent {
+
+    private final Type type;
+
+    private final Material material;
+
+    private final String previousSubject; // 保存前的学科，仅 SAVED 且学科变更时非空
+
+    public MaterialEvent(Type type, Material material) {
+        this(type, material, null);
+    }
+
+    public enum Type {
+        SAVED, APPROVED, REJECTED, DELETED, DOWNLOADED
+    }
+}
@@ -0,0 +1,26 @@
+package org.example.backend.event;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+/**
+ * 学习进度变更事件
+ * <p>
+ * 由 ProgressService 在每次刷盘后发布，携带本批中进度百分比实际发生变化的 (用户, 学科)，
+ * 进度分布直方图等派生数据据此按增量调整。
+ */
+@Getter
+@AllArgsConstructor
+public class ProgressChangedEvent {
+
+    private final List<Change> changes;
+
+    /**
+     * @param oldPercent 变更前进度，新建的进度记录为 null
+     */
+    public record Change(Long userId, String subject, BigDecimal oldPercent, BigDecimal newPercent) {
+    }
+}
@@ -0,0 +1,32 @@
+package org.example.backend.event;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import org.example.backend.entity.QASession;
+
+/**
+ * 问答会话变更事件
+ * <p>
+ * 由 QAService 在提问、写入回答、提交反馈时发布，携带会话的标量字段（不含懒加载的用户实体），
+ * 实时推送等派生数据在事务提交后据此更新。
+ */
+@Getter
+@AllArgsConstructor
+public class QASessionEvent {
+
+    private final Type type;
+
+    private final Long sessionId;
+
+    private final Long userId;
+
+    private final String question;
+
+    private final String answer;
+
+    private final QASession.Feedback feedback;
+
+    public enum Type {
+        ASKED, ANSWERED, FEEDBACK
+    }
+}
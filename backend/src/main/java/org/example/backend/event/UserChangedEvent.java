@@ -0,0 +1,27 @@
+package org.example.backend.event;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.Set;
+
+/**
+ * 用户变更事件
+ * <p>
+ * 由 UserService 在用户资料修改、改密、封禁/解封、角色变更、删除时发布，
+ * 携带变更前后的用户名，认证缓存据此失效对应条目，令牌吊销列表据此吊销已签发的令牌。
+ */
+@Getter
+@AllArgsConstructor
+public class UserChangedEvent {
+
+    private final Type type;
+
+    private final Long userId;
+
+    private final Set<String> usernames;
+
+    public enum Type {
+        UPDATED, PASSWORD_CHANGED, STATUS_CHANGED, ROLE_CHANGED, DELETED
+    }
+}
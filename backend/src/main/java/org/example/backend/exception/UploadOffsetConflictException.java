@@ -0,0 +1,20 @@
+package org.example.backend.exception;
+
+import lombok.Getter;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+/**
+ * 分片上传偏移量冲突异常（客户端应按 currentOffset 续传）
+ */
+@Getter
+@ResponseStatus(HttpStatus.CONFLICT)
+public class UploadOffsetConflictException extends RuntimeException {
+
+    private final long currentOffset;
+
+    public UploadOffsetConflictException(long currentOffset) {
+        super("上传偏移量不一致，当前偏移量: " + currentOffset);
+        this.currentOffset = currentOffset;
+    }
+}
@@ -1,16 +1,24 @@
 package org.example.backend.repository;
 
+import jakarta.persistence.QueryHint;
+import org.example.backend.dto.GroupCount;
+import org.example.backend.dto.MaterialSummary;
 import org.example.backend.entity.Material;
 import org.example.backend.entity.User;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
 public interface MaterialRepository extends JpaRepository<Material, Long> {
@@ -141,4 +149,117 @@ public interface MaterialRepository extends JpaRepository<Material, Long> {
      */
     @Query("SELECT m FROM Material m WHERE m.status = 'APPROVED' ORDER BY m.uploadTime DESC")
     List<Material> findLatestMaterials(Pageable pageable);
-}
\ No newline at end of file
+
+    /**
+     * 流式读取全部资料（用于重建搜索索引，需在只读事务中调用）
+     */
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT m FROM Material m")
+    Stream<Material> streamAll();
+
+    /**
+     * 查询库中已保存的学科（不触发自动 flush，保存修改前调用可取到原值）
+     */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FLUSH_MODE, value = "MANUAL"))
+    @Query("SELECT m.subject FROM Material m WHERE m.id = :id")
+    Optional<String> findStoredSubjectById(@Param("id") Long id);
+
+    /**
+     * 按学科、上传时间倒序从游标 (uploadTime, id) 之后继续查找（keyset 翻页）
+     */
+    @Query("SELECT m FROM Material m WHERE m.subject = :subject " +
+            "AND m.uploadTime <= :uploadTime AND (m.uploadTime < :uploadTime OR m.id < :id) " +
+            "ORDER BY m.uploadTime DESC, m.id DESC")
+    List<Material> findBySubjectBefore(
+            @Param("subject") String subject,
+            @Param("uploadTime") LocalDateTime uploadTime,
+            @Param("id") Long id,
+            Pageable pageable);
+
+    /**
+     * 按上传者、上传时间倒序从游标 (uploadTime, id) 之后继续查找（keyset 翻页）
+     */
+    @Query("SELECT m FROM Material m WHERE m.uploadUser = :uploadUser " +
+            "AND m.uploadTime <= :uploadTime AND (m.uploadTime < :uploadTime OR m.id < :id) " +
+            "ORDER BY m.uploadTime DESC, m.id DESC")
+    List<Material> findByUploadUserBefore(
+            @Param("uploadUser") User uploadUser,
+            @Param("uploadTime") LocalDateTime uploadTime,
+            @Param("id") Long id,
+            Pageable pageable);
+
+    /**
+     * 统计各学科资料数量（投影）
+     */
+    @Query("SELECT new org.example.backend.dto.GroupCount(m.subject, COUNT(m)) FROM Material m GROUP BY m.subject")
+    List<GroupCount> countGroupedBySubject();
+
+    /**
+     * 统计各状态资料数量（投影）
+     */
+    @Query("SELECT new org.example.backend.dto.GroupCount(CAST(m.status AS String), COUNT(m)) FROM Material m GROUP BY m.status")
+    List<GroupCount> countGroupedByStatus();
+
+    /**
+     * 统计各文件类型数量（投影）
+     */
+    @Query("SELECT new org.example.backend.dto.GroupCount(m.fileType, COUNT(m)) FROM Material m GROUP BY m.fileType")
+    List<GroupCount> countGroupedByFileType();
+
+    /**
+     * 下载最多的已审核资料摘要（只查询列表所需列，不加载实体）
+     */
+    @Query("SELECT new org.example.backend.dto.MaterialSummary(m.id, m.name, m.subject, m.fileType, m.fileSize, " +
+            "CAST(m.downloadCount AS Long), m.uploadTime) FROM Material m " +
+            "WHERE m.status = 'APPROVED' ORDER BY m.downloadCount DESC, m.id DESC")
+    List<MaterialSummary> findTopDownloadedSummaries(Pageable pageable);
+
+    /**
+     * 最新已审核资料摘要（只查询列表所需列，不加载实体）
+     */
+    @Query("SELECT new org.example.backend.dto.MaterialSummary(m.id, m.name, m.subject, m.fileType, m.fileSize, " +
+            "CAST(m.downloadCount AS Long), m.uploadTime) FROM Material m " +
+            "WHERE m.status = 'APPROVED' ORDER BY m.uploadTime DESC, m.id DESC")
+    List<MaterialSummary> findLatestSummaries(Pageable pageable);
+
+    /**
+     * 按学科游标翻页的资料摘要（投影版 findBySubjectBefore）
+     */
+    @Query("SELECT new org.example.backend.dto.MaterialSummary(m.id, m.name, m.subject, m.fileType, m.fileSize, " +
+            "CAST(m.downloadCount AS Long), m.uploadTime) FROM Material m WHERE m.subject = :subject " +
+            "AND m.uploadTime <= :uploadTime AND (m.uploadTime < :uploadTime OR m.id < :id) " +
+            "ORDER BY m.uploadTime DESC, m.id DESC")
+    List<MaterialSummary> findSummariesBySubjectBefore(
+            @Param("subject") String subject,
+            @Param("uploadTime") LocalDateTime uploadTime,
+            @Param("id") Long id,
+            Pageable pageable);
+
+    /**
+     * 按审核状态游标翻页的资料，上传者随资料一次 JOIN 查出（抓取计划 Material.withUploader）
+     */
+    @EntityGraph(Material.WITH_UPLOADER)
+    @Query("SELECT m FROM Material m WHERE m.status = :status " +
+            "AND m.uploadTime <= :uploadTime AND (m.uploadTime < :uploadTime OR m.id < :id) " +
+            "ORDER BY m.uploadTime DESC, m.id DESC")
+    List<Material> findWithUploaderByStatusBefore(
+            @Param("status") Material.Status status,
+            @Param("uploadTime") LocalDateTime uploadTime,
+            @Param("id") Long id,
+            Pageable pageable);
+
+    /**
+     * 按学科、审核状态分页的资料摘要（投影版 findBySubjectAndStatus，供资料目录页缓存加载）
+     */
+    @Query(value = "SELECT new org.example.backend.dto.MaterialSummary(m.id, m.name, m.subject, m.fileType, m.fileSize, " +
+            "CAST(m.downloadCount AS Long), m.uploadTime) FROM Material m " +
+            "WHERE m.subject = :subject AND m.status = :status",
+            countQuery = "SELECT COUNT(m) FROM Material m WHERE m.subject = :subject AND m.status = :status")
+    Page<MaterialSummary> findSummariesBySubjectAndStatus(
+            @Param("subject") String subject,
+            @Param("status") Material.Status status,
+            Pageable pageable);
+}
@@ -1,7 +1,11 @@
 package org.example.backend.repository;
 
+import org.example.backend.dto.ReminderCandidate;
+import org.example.backend.dto.SubjectProgress;
+import org.example.backend.dto.SubjectProgressStat;
 import org.example.backend.entity.Progress;
 import org.example.backend.entity.User;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
@@ -63,37 +67,37 @@ public interface ProgressRepository extends JpaRepository<Progress, Long> {
      * 查找学习进度最高的记录
      */
     @Query("SELECT p FROM Progress p ORDER BY p.percent DESC")
-    List<Progress> findTopProgressRecords();
+    List<Progress> findTopProgressRecords(Pageable pageable);
 
     /**
      * 查找用户学习进度最高的记录
      */
     @Query("SELECT p FROM Progress p WHERE p.user = :user ORDER BY p.percent DESC")
-    List<Progress> findTopProgressRecordsByUser(@Param("user") User user);
+    List<Progress> findTopProgressRecordsByUser(@Param("user") User user, Pageable pageable);
 
     /**
      * 查找学习时长最长的记录
      */
     @Query("SELECT p FROM Progress p ORDER BY p.totalStudyTime DESC")
-    List<Progress> findTopStudyTimeRecords();
+    List<Progress> findTopStudyTimeRecords(Pageable pageable);
 
     /**
      * 查找用户学习时长最长的记录
      */
     @Query("SELECT p FROM Progress p WHERE p.user = :user ORDER BY p.totalStudyTime DESC")
-    List<Progress> findTopStudyTimeRecordsByUser(@Param("user") User user);
+    List<Progress> findTopStudyTimeRecordsByUser(@Param("user") User user, Pageable pageable);
 
     /**
      * 查找目标完成度最高的记录（学习时长/目标时长）
      */
     @Query("SELECT p FROM Progress p WHERE p.goalHours > 0 ORDER BY (p.totalStudyTime / 60.0 / p.goalHours) DESC")
-    List<Progress> findTopGoalCompletionRecords();
+    List<Progress> findTopGoalCompletionRecords(Pageable pageable);
 
     /**
      * 查找用户目标完成度最高的记录
      */
     @Query("SELECT p FROM Progress p WHERE p.user = :user AND p.goalHours > 0 ORDER BY (p.totalStudyTime / 60.0 / p.goalHours) DESC")
-    List<Progress> findTopGoalCompletionRecordsByUser(@Param("user") User user);
+    List<Progress> findTopGoalCompletionRecordsByUser(@Param("user") User user, Pageable pageable);
 
     /**
      * 统计用户平均学习进度
@@ -182,4 +186,44 @@ public interface ProgressRepository extends JpaRepository<Progress, Long> {
      */
     @Query("SELECT p FROM Progress p WHERE p.user = :user AND p.percent < 50 AND p.goalHours > 0")
     List<Progress> findUserSubjectsNeedingReminder(@Param("user") User user);
-}
\ No newline at end of file
+
+    /**
+     * 按用户从游标 id 之后继续查找（keyset 翻页；进度会频繁更新，只按 id 定位）
+     */
+    @Query("SELECT p FROM Progress p WHERE p.user = :user AND p.id < :id ORDER BY p.id DESC")
+    List<Progress> findByUserBefore(@Param("user") User user, @Param("id") Long id, Pageable pageable);
+
+    /**
+     * 各学科平均进度与学习人数（投影）
+     */
+    @Query("SELECT new org.example.backend.dto.SubjectProgressStat(p.subject, AVG(p.percent), COUNT(p)) " +
+            "FROM Progress p GROUP BY p.subject ORDER BY AVG(p.percent) DESC")
+    List<SubjectProgressStat> findSubjectProgressStats();
+
+    /**
+     * 用户各学科进度（投影）
+     */
+    @Query("SELECT new org.example.backend.dto.SubjectProgress(p.subject, p.percent, p.totalStudyTime) " +
+            "FROM Progress p WHERE p.user.id = :userId ORDER BY p.percent DESC")
+    List<SubjectProgress> findUserSubjectProgress(@Param("userId") Long userId);
+
+    /**
+     * 按学科、整数百分比分组计数（进度分布直方图启动加载与定时对账用）
+     */
+    @Query("SELECT p.subject, FLOOR(p.percent), COUNT(p) FROM Progress p GROUP BY p.subject, FLOOR(p.percent)")
+    List<Object[]> countBySubjectAndWholePercent();
+
+    /**
+     * 提醒分片扫描：按 MOD(用户ID, shards) 取分片，从游标 (userId, id) 之后按用户升序继续查找（keyset 翻页）
+     */
+    @Query("SELECT new org.example.backend.dto.ReminderCandidate(p.id, p.user.id, p.subject, p.percent, p.totalStudyTime) " +
+            "FROM Progress p WHERE MOD(p.user.id, :shards) = :shard AND p.percent < 50 AND p.goalHours > 0 " +
+            "AND p.user.id >= :userId AND (p.user.id > :userId OR p.id > :id) " +
+            "ORDER BY p.user.id, p.id")
+    List<ReminderCandidate> findReminderCandidatesAfter(
+            @Param("shards") long shards,
+            @Param("shard") long shard,
+            @Param("userId") Long userId,
+            @Param("id") Long id,
+            Pageable pageable);
+}
@@ -1,5 +1,8 @@
 package org.example.backend.repository;
 
+import org.example.backend.dto.CachedAnswer;
+import org.example.backend.dto.GroupCount;
+import org.example.backend.dto.QAItem;
 import org.example.backend.entity.QASession;
 import org.example.backend.entity.User;
 import org.springframework.data.domain.Page;
@@ -141,4 +144,41 @@ public interface QASessionRepository extends JpaRepository<QASession, Long> {
      */
     @Query("SELECT q FROM QASession q WHERE q.user = :user AND q.feedback = 'SATISFIED' ORDER BY q.createdTime DESC")
     List<QASession> findSatisfiedQASessionsByUser(@Param("user") User user, Pageable pageable);
-}
\ No newline at end of file
+
+    /**
+     * 按用户、提问时间倒序从游标 (createdTime, id) 之后继续查找（keyset 翻页）
+     */
+    @Query("SELECT q FROM QASession q WHERE q.user = :user " +
+            "AND q.createdTime <= :createdTime AND (q.createdTime < :createdTime OR q.id < :id) " +
+            "ORDER BY q.createdTime DESC, q.id DESC")
+    List<QASession> findByUserBefore(
+            @Param("user") User user,
+            @Param("createdTime") LocalDateTime createdTime,
+            @Param("id") Long id,
+            Pageable pageable);
+
+    /**
+     * 统计各反馈类型数量（投影）
+     */
+    @Query("SELECT new org.example.backend.dto.GroupCount(CAST(q.feedback AS String), COUNT(q)) " +
+            "FROM QASession q GROUP BY q.feedback")
+    List<GroupCount> countGroupedByFeedback();
+
+    /**
+     * 按ID倒序从游标之后查找指定反馈且已有回答的问答（投影，回答缓存预热用）
+     */
+    @Query("SELECT new org.example.backend.dto.CachedAnswer(q.id, q.question, q.answer) " +
+            "FROM QASession q WHERE q.feedback = :feedback AND q.answer IS NOT NULL AND q.id < :id " +
+            "ORDER BY q.id DESC")
+    List<CachedAnswer> findAnswersByFeedbackBefore(
+            @Param("feedback") QASession.Feedback feedback,
+            @Param("id") Long id,
+            Pageable pageable);
+
+    /**
+     * 用户的全部问答（投影，问答检索按用户建索引用）
+     */
+    @Query("SELECT new org.example.backend.dto.QAItem(q.id, q.question, q.answer, q.feedback, q.createdTime) " +
+            "FROM QASession q WHERE q.user.id = :userId")
+    List<QAItem> findItemsByUserId(@Param("userId") Long userId);
+}
@@ -1,18 +1,25 @@
 package org.example.backend.repository;
 
+import jakarta.persistence.QueryHint;
+import org.example.backend.dto.StudyRecordItem;
+import org.example.backend.dto.StudyRecordRow;
 import org.example.backend.entity.Material;
 import org.example.backend.entity.StudyRecord;
 import org.example.backend.entity.User;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.stream.Stream;
 
 @Repository
 public interface StudyRecordRepository extends JpaRepository<StudyRecord, Long> {
@@ -180,4 +187,59 @@ public interface StudyRecordRepository extends JpaRepository<StudyRecord, Long>
      */
     @Query("SELECT s FROM StudyRecord s WHERE s.user = :user ORDER BY s.progressPercent DESC")
     List<StudyRecord> findTopProgressStudyRecordsByUser(@Param("user") User user, Pageable pageable);
-}
\ No newline at end of file
+
+    /**
+     * 按用户、开始时间倒序从游标 (startTime, id) 之后继续查找（keyset 翻页）
+     */
+    @Query("SELECT s FROM StudyRecord s WHERE s.user = :user " +
+            "AND s.startTime <= :startTime AND (s.startTime < :startTime OR s.id < :id) " +
+            "ORDER BY s.startTime DESC, s.id DESC")
+    List<StudyRecord> findByUserBefore(
+            @Param("user") User user,
+            @Param("startTime") LocalDateTime startTime,
+            @Param("id") Long id,
+            Pageable pageable);
+
+    /**
+     * 流式读取用户全部学习记录（游标读取、只读，不整体加载到内存）
+     */
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT s FROM StudyRecord s WHERE s.user = :user ORDER BY s.startTime DESC, s.id DESC")
+    Stream<StudyRecord> streamByUser(@Param("user") User user);
+
+    /**
+     * 按用户游标翻页的学习记录列表项（投影版 findByUserBefore，不加载实体）
+     */
+    @Query("SELECT new org.example.backend.dto.StudyRecordItem(s.id, s.material.id, s.duration, " +
+            "s.startTime, s.endTime, s.progressPercent) FROM StudyRecord s WHERE s.user.id = :userId " +
+            "AND s.startTime <= :startTime AND (s.startTime < :startTime OR s.id < :id) " +
+            "ORDER BY s.startTime DESC, s.id DESC")
+    List<StudyRecordItem> findItemsByUserBefore(
+            @Param("userId") Long userId,
+            @Param("startTime") LocalDateTime startTime,
+            @Param("id") Long id,
+            Pageable pageable);
+
+    /**
+     * 按主键顺序从游标 id 之后读取学习记录行（分析副本全量加载与增量追加）
+     */
+    @Query("SELECT new org.example.backend.dto.StudyRecordRow(s.id, s.user.id, s.material.id, s.duration, " +
+            "s.startTime, s.progressPercent) FROM StudyRecord s WHERE s.id > :id ORDER BY s.id")
+    List<StudyRecordRow> findRowsAfter(@Param("id") Long id, Pageable pageable);
+
+    /**
+     * 按用户游标翻页的学习历史，资料随记录一次 JOIN 查出（抓取计划 StudyRecord.withMaterial）
+     */
+    @EntityGraph(StudyRecord.WITH_MATERIAL)
+    @Query("SELECT s FROM StudyRecord s WHERE s.user.id = :userId " +
+            "AND s.startTime <= :startTime AND (s.startTime < :startTime OR s.id < :id) " +
+            "ORDER BY s.startTime DESC, s.id DESC")
+    List<StudyRecord> findWithMaterialByUserBefore(
+            @Param("userId") Long userId,
+            @Param("startTime") LocalDateTime startTime,
+            @Param("id") Long id,
+            Pageable pageable);
+}
@@ -1,16 +1,21 @@
 package org.example.backend.repository;
 
+import jakarta.persistence.QueryHint;
+import org.example.backend.dto.LogItem;
 import org.example.backend.entity.SystemLog;
 import org.example.backend.entity.User;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.stream.Stream;
 
 @Repository
 public interface SystemLogRepository extends JpaRepository<SystemLog, Long> {
@@ -96,6 +101,12 @@ public interface SystemLogRepository extends JpaRepository<SystemLog, Long> {
     @Query("SELECT s FROM SystemLog s ORDER BY s.createdTime DESC")
     List<SystemLog> findLatestLogs(Pageable pageable);
 
+    /**
+     * 查找指定时间之后的最新日志（限定时间下界，分区表上只扫描最新分区）
+     */
+    @Query("SELECT s FROM SystemLog s WHERE s.createdTime >= :since ORDER BY s.createdTime DESC")
+    List<SystemLog> findLatestLogsSince(@Param("since") LocalDateTime since, Pageable pageable);
+
     /**
      * 查找用户最新的日志记录
      */
@@ -141,29 +152,74 @@ public interface SystemLogRepository extends JpaRepository<SystemLog, Long> {
     @Query("SELECT s.ipAddress, COUNT(s) FROM SystemLog s WHERE s.ipAddress IS NOT NULL GROUP BY s.ipAddress ORDER BY COUNT(s) DESC")
     List<Object[]> countByIpAddress();
 
+    /**
+     * 按分类查找最新日志（走 (category, created_time) 索引）
+     */
+    @Query("SELECT s FROM SystemLog s WHERE s.category = :category ORDER BY s.createdTime DESC, s.id DESC")
+    List<SystemLog> findLatestByCategory(@Param("category") SystemLog.Category category, Pageable pageable);
+
+    /**
+     * 按分类从游标 (createdTime, id) 之后继续查找（keyset 翻页）
+     */
+    @Query("SELECT s FROM SystemLog s WHERE s.category = :category " +
+            "AND s.createdTime <= :createdTime AND (s.createdTime < :createdTime OR s.id < :id) " +
+            "ORDER BY s.createdTime DESC, s.id DESC")
+    List<SystemLog> findByCategoryBefore(
+            @Param("category") SystemLog.Category category,
+            @Param("createdTime") LocalDateTime createdTime,
+            @Param("id") Long id,
+            Pageable pageable);
+
+    /**
+     * 按用户和分类查找最新日志（走 (user_id, category, created_time) 索引）
+     */
+    @Query("SELECT s FROM SystemLog s WHERE s.user = :user AND s.category = :category " +
+            "ORDER BY s.createdTime DESC, s.id DESC")
+    List<SystemLog> findLatestByUserAndCategory(
+            @Param("user") User user,
+            @Param("category") SystemLog.Category category,
+            Pageable pageable);
+
+    /**
+     * 按用户和分类从游标 (createdTime, id) 之后继续查找（keyset 翻页）
+     */
+    @Query("SELECT s FROM SystemLog s WHERE s.user = :user AND s.category = :category " +
+            "AND s.createdTime <= :createdTime AND (s.createdTime < :createdTime OR s.id < :id) " +
+            "ORDER BY s.createdTime DESC, s.id DESC")
+    List<SystemLog> findByUserAndCategoryBefore(
+            @Param("user") User user,
+            @Param("category") SystemLog.Category category,
+            @Param("createdTime") LocalDateTime createdTime,
+            @Param("id") Long id,
+            Pageable pageable);
+
     /**
      * 查找错误日志
      */
-    @Query("SELECT s FROM SystemLog s WHERE s.operation LIKE '%ERROR%' ORDER BY s.createdTime DESC")
-    List<SystemLog> findErrorLogs(Pageable pageable);
+    default List<SystemLog> findErrorLogs(Pageable pageable) {
+        return findLatestByCategory(SystemLog.Category.ERROR, pageable);
+    }
 
     /**
      * 查找用户错误日志
      */
-    @Query("SELECT s FROM SystemLog s WHERE s.user = :user AND s.operation LIKE '%ERROR%' ORDER BY s.createdTime DESC")
-    List<SystemLog> findErrorLogsByUser(@Param("user") User user, Pageable pageable);
+    default List<SystemLog> findErrorLogsByUser(User user, Pageable pageable) {
+        return findLatestByUserAndCategory(user, SystemLog.Category.ERROR, pageable);
+    }
 
     /**
      * 查找警告日志
      */
-    @Query("SELECT s FROM SystemLog s WHERE s.operation LIKE '%WARNING%' ORDER BY s.createdTime DESC")
-    List<SystemLog> findWarningLogs(Pageable pageable);
+    default List<SystemLog> findWarningLogs(Pageable pageable) {
+        return findLatestByCategory(SystemLog.Category.WARNING, pageable);
+    }
 
     /**
      * 查找用户警告日志
      */
-    @Query("SELECT s FROM SystemLog s WHERE s.user = :user AND s.operation LIKE '%WARNING%' ORDER BY s.createdTime DESC")
-    List<SystemLog> findWarningLogsByUser(@Param("user") User user, Pageable pageable);
+    default List<SystemLog> findWarningLogsByUser(User user, Pageable pageable) {
+        return findLatestByUserAndCategory(user, SystemLog.Category.WARNING, pageable);
+    }
 
     /**
      * 查找登录日志
@@ -180,12 +236,55 @@ public interface SystemLogRepository extends JpaRepository<SystemLog, Long> {
     /**
      * 查找资料相关操作日志
      */
-    @Query("SELECT s FROM SystemLog s WHERE s.operation LIKE '%MATERIAL%' ORDER BY s.createdTime DESC")
-    List<SystemLog> findMaterialOperationLogs(Pageable pageable);
+    default List<SystemLog> findMaterialOperationLogs(Pageable pageable) {
+        return findLatestByCategory(SystemLog.Category.MATERIAL, pageable);
+    }
 
     /**
      * 查找用户资料相关操作日志
      */
-    @Query("SELECT s FROM SystemLog s WHERE s.user = :user AND s.operation LIKE '%MATERIAL%' ORDER BY s.createdTime DESC")
-    List<SystemLog> findMaterialOperationLogsByUser(@Param("user") User user, Pageable pageable);
+    default List<SystemLog> findMaterialOperationLogsByUser(User user, Pageable pageable) {
+        return findLatestByUserAndCategory(user, SystemLog.Category.MATERIAL, pageable);
+    }
+
+    /**
+     * 在时间范围内从游标 (createdTime, id) 之后继续查找（keyset 翻页，可按分区裁剪）
+     */
+    @Query("SELECT s FROM SystemLog s WHERE s.createdTime BETWEEN :startTime AND :endTime " +
+            "AND s.createdTime <= :createdTime AND (s.createdTime < :createdTime OR s.id < :id) " +
+            "ORDER BY s.createdTime DESC, s.id DESC")
+    List<SystemLog> findByCreatedTimeBetweenBefore(
+            @Param("startTime") LocalDateTime startTime,
+            @Param("endTime") LocalDateTime endTime,
+            @Param("createdTime") LocalDateTime createdTime,
+            @Param("id") Long id,
+            Pageable pageable);
+
+    /**
+     * 流式读取时间范围内的日志（导出用，游标读取、只读）
+     */
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT s FROM SystemLog s WHERE s.createdTime BETWEEN :startTime AND :endTime " +
+            "ORDER BY s.createdTime, s.id")
+    Stream<SystemLog> streamByCreatedTimeBetween(
+            @Param("startTime") LocalDateTime startTime,
+            @Param("endTime") LocalDateTime endTime);
+
+    /**
+     * 时间范围内游标翻页的日志列表项（投影版 findByCreatedTimeBetweenBefore，不加载实体）
+     */
+    @Query("SELECT new org.example.backend.dto.LogItem(s.id, s.user.id, s.operation, s.category, " +
+            "s.description, s.ipAddress, s.createdTime) FROM SystemLog s " +
+            "WHERE s.createdTime BETWEEN :startTime AND :endTime " +
+            "AND s.createdTime <= :createdTime AND (s.createdTime < :createdTime OR s.id < :id) " +
+            "ORDER BY s.createdTime DESC, s.id DESC")
+    List<LogItem> findItemsByCreatedTimeBetweenBefore(
+            @Param("startTime") LocalDateTime startTime,
+            @Param("endTime") LocalDateTime endTime,
+            @Param("createdTime") LocalDateTime createdTime,
+            @Param("id") Long id,
+            Pageable pageable);
 }
\ No newline at end of file
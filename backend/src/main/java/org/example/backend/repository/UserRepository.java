@@ -1,11 +1,14 @@
 package org.example.backend.repository;
 
+import org.example.backend.dto.GroupCount;
 import org.example.backend.entity.User;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 
@@ -79,4 +82,27 @@ public interface UserRepository extends JpaRepository<User, Long> {
      */
     @Query("SELECT u.status, COUNT(u) FROM User u GROUP BY u.status")
     List<Object[]> countByStatus();
+
+    /**
+     * 按注册时间倒序从游标 (createdTime, id) 之后继续查找（keyset 翻页）
+     */
+    @Query("SELECT u FROM User u WHERE u.createdTime <= :createdTime " +
+            "AND (u.createdTime < :createdTime OR u.id < :id) " +
+            "ORDER BY u.createdTime DESC, u.id DESC")
+    List<User> findAllBefore(
+            @Param("createdTime") LocalDateTime createdTime,
+            @Param("id") Long id,
+            Pageable pageable);
+
+    /**
+     * 统计各角色用户数量（投影）
+     */
+    @Query("SELECT new org.example.backend.dto.GroupCount(CAST(u.role AS String), COUNT(u)) FROM User u GROUP BY u.role")
+    List<GroupCount> countGroupedByRole();
+
+    /**
+     * 统计各状态用户数量（投影）
+     */
+    @Query("SELECT new org.example.backend.dto.GroupCount(CAST(u.status AS String), COUNT(u)) FROM User u GROUP BY u.status")
+    List<GroupCount> countGroupedByStatus();
 }
\ No newline at end of file
@@ -0,0 +1,346 @@
+package org.example.backend.search;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.LongPredicate;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * 内存倒排索引
+ * <p>
+ * 词项 -> (文档ID -> 加权词频 + 位置)。关键词按 {@link TextTokenizer} 切成词元后各词项取交集：
+ * 拉丁字母/数字按整词匹配，汉字按二元组匹配，因此与 LIKE 子串语义并不相同，
+ * 单词内部的片段（如 "ava" 之于 "java"）不会命中。从最短的倒排链开始求交，按 BM25 打分排序。
+ * 查询耗时只与命中词项的倒排链长度相关，与文档总数无关。读多写少，使用读写锁保护。
+ * <p>
+ * 查询语法：双引号括起的部分为短语，要求词元位置连续；以 * 结尾的单词按前缀匹配；
+ * 单个汉字始终按前缀匹配，即只命中以该字开头的二元组，位于词尾的单字（如 "数" 之于 "函数"）不会命中。
+ */
+public class InvertedIndex {
+
+    private static final double K1 = 1.2;
+    private static final double B = 0.75;
+
+    /**
+     * 字段之间的位置间隔，避免短语跨字段匹配
+     */
+    private static final int FIELD_POSITION_GAP = 100;
+
+    private static final Pattern PHRASE = Pattern.compile("\"([^\"]*)\"");
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final TreeMap<String, Map<Long, Posting>> postings = new TreeMap<>();
+    private final Map<Long, DocInfo> docs = new HashMap<>();
+    private long totalLength;
+
+    /**
+     * 待索引字段及其权重
+     */
+    public record Field(String text, float weight) {
+    }
+
+    /**
+     * 命中的文档及得分
+     */
+    public record ScoredDoc(long docId, double score) {
+    }
+
+    /**
+     * 查询结果：命中总数及当前页
+     */
+    public record SearchResult(long total, List<ScoredDoc> hits) {
+
+        public static SearchResult empty() {
+            return new SearchResult(0, List.of());
+        }
+    }
+
+    private record Posting(float weight, int[] positions) {
+    }
+
+    private record DocInfo(String[] terms, int length) {
+    }
+
+    /**
+     * 查询子句：多个词元为短语，单个词元为普通或前缀词项
+     */
+    private record Clause(List<TextTokenizer.Token> tokens, boolean prefix) {
+    }
+
+    /**
+     * 建立或替换文档的索引
+     */
+    public void index(long docId, List<Field> fields) {
+        Map<String, Float> weights = new HashMap<>();
+        Map<String, List<Integer>> positions = new HashMap<>();
+        int position = 0;
+        int length = 0;
+        for (Field field : fields) {
+            List<TextTokenizer.Token> tokens = TextTokenizer.tokenize(field.text(), position);
+            for (TextTokenizer.Token token : tokens) {
+                weights.merge(token.term(), field.weight(), Float::sum);
+                positions.computeIfAbsent(token.term(), k -> new ArrayList<>()).add(token.position());
+                position = token.position() + 1;
+            }
+            length += tokens.size();
+            position += FIELD_POSITION_GAP;
+        }
+
+        lock.writeLock().lock();
+        try {
+            removeInternal(docId);
+            for (Map.Entry<String, Float> entry : weights.entrySet()) {
+                int[] termPositions = positions.get(entry.getKey()).stream().mapToInt(Integer::intValue).toArray();
+                postings.computeIfAbsent(entry.getKey(), k -> new HashMap<>())
+                        .put(docId, new Posting(entry.getValue(), termPositions));
+            }
+            docs.put(docId, new DocInfo(weights.keySet().toArray(new String[0]), length));
+            totalLength += length;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * 删除文档的索引
+     */
+    public void remove(long docId) {
+        lock.writeLock().lock();
+        try {
+            removeInternal(docId);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * 清空索引
+     */
+    public void clear() {
+        lock.writeLock().lock();
+        try {
+            postings.clear();
+            docs.clear();
+            totalLength = 0;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * 已索引文档数
+     */
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return docs.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * 关键词查询
+     *
+     * @param query  查询文本
+     * @param filter 文档过滤条件，可为空
+     * @param offset 跳过的命中数
+     * @param limit  返回的命中数
+     */
+    public SearchResult search(String query, LongPredicate filter, int offset, int limit) {
+        List<Clause> clauses = parse(query);
+        if (clauses.isEmpty() || limit <= 0) {
+            return SearchResult.empty();
+        }
+
+        lock.readLock().lock();
+        try {
+            List<Map<Long, Float>> termMatches = new ArrayList<>(clauses.size());
+            for (Clause clause : clauses) {
+                Map<Long, Float> matches = clause.tokens().size() > 1
+                        ? matchPhrase(clause.tokens())
+                        : lookup(clause.tokens().get(0).term(), clause.prefix());
+                if (matches.isEmpty()) {
+                    return SearchResult.empty();
+                }
+                termMatches.add(matches);
+            }
+            termMatches.sort(Comparator.comparingInt(Map::size));
+
+            int docCount = docs.size();
+            double avgLength = docCount == 0 ? 1 : Math.max(1.0, (double) totalLength / docCount);
+            double[] idf = new double[termMatches.size()];
+            for (int t = 0; t < idf.length; t++) {
+                int df = termMatches.get(t).size();
+                idf[t] = Math.log(1 + (docCount - df + 0.5) / (df + 0.5));
+            }
+
+            int window = offset + limit;
+            PriorityQueue<ScoredDoc> top = new PriorityQueue<>(Comparator.comparingDouble(ScoredDoc::score));
+            long total = 0;
+            Map<Long, Float> smallest = termMatches.get(0);
+            candidates:
+            for (Map.Entry<Long, Float> candidate : smallest.entrySet()) {
+                long docId = candidate.getKey();
+                if (filter != null && !filter.test(docId)) {
+                    continue;
+                }
+                double norm = K1 * (1 - B + B * docs.get(docId).length() / avgLength);
+                double score = 0;
+                for (int t = 0; t < termMatches.size(); t++) {
+                    Float tf = t == 0 ? candidate.getValue() : termMatches.get(t).get(docId);
+                    if (tf == null) {
+                        continue candidates;
+                    }
+                    score += idf[t] * tf * (K1 + 1) / (tf + norm);
+                }
+                total++;
+                if (top.size() < window) {
+                    top.add(new ScoredDoc(docId, score));
+                } else if (top.peek().score() < score) {
+                    top.poll();
+                    top.add(new ScoredDoc(docId, score));
+                }
+            }
+
+            List<ScoredDoc> ranked = new ArrayList<>(top);
+            ranked.sort(Comparator.comparingDouble(ScoredDoc::score).reversed()
+                    .thenComparingLong(ScoredDoc::docId));
+            List<ScoredDoc> page = offset >= ranked.size() ? List.of() : ranked.subList(offset, ranked.size());
+            return new SearchResult(total, page);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * 解析查询文本；引号外按空白切分，同一词项只保留一次
+     */
+    private static List<Clause> parse(String query) {
+        List<Clause> clauses = new ArrayList<>();
+        if (query == null) {
+            return clauses;
+        }
+        Matcher matcher = PHRASE.matcher(query);
+        int last = 0;
+        while (matcher.find()) {
+            addWords(query.substring(last, matcher.start()), clauses);
+            List<TextTokenizer.Token> tokens = TextTokenizer.tokenize(matcher.group(1));
+            if (tokens.size() > 1) {
+                clauses.add(new Clause(tokens, false));
+            } else if (tokens.size() == 1) {
+                addClause(new Clause(tokens, false), clauses);
+            }
+            last = matcher.end();
+        }
+        addWords(query.substring(last), clauses);
+        return clauses;
+    }
+
+    private static void addWords(String text, List<Clause> clauses) {
+        for (String word : text.trim().split("\\s+")) {
+            boolean prefix = word.length() > 1 && word.endsWith("*");
+            List<TextTokenizer.Token> tokens = TextTokenizer.tokenize(prefix ? word.substring(0, word.length() - 1) : word);
+            for (int i = 0; i < tokens.size(); i++) {
+                addClause(new Clause(List.of(tokens.get(i)), prefix && i == tokens.size() - 1), clauses);
+            }
+        }
+    }
+
+    private static void addClause(Clause clause, List<Clause> clauses) {
+        String term = clause.tokens().get(0).term();
+        for (Clause existing : clauses) {
+            if (existing.tokens().size() == 1 && existing.tokens().get(0).term().equals(term)
+                    && existing.prefix() == clause.prefix()) {
+                return;
+            }
+        }
+        clauses.add(clause);
+    }
+
+    /**
+     * 短语匹配：各词元均出现且位置间隔与查询一致，权重为各词元权重之和
+     */
+    private Map<Long, Float> matchPhrase(List<TextTokenizer.Token> tokens) {
+        List<Map<Long, Posting>> lists = new ArrayList<>(tokens.size());
+        for (TextTokenizer.Token token : tokens) {
+            Map<Long, Posting> list = postings.get(token.term());
+            if (list == null) {
+                return Map.of();
+            }
+            lists.add(list);
+        }
+        Map<Long, Posting> smallest = lists.stream().min(Comparator.comparingInt(Map::size)).orElseThrow();
+        int base = tokens.get(0).position();
+        Map<Long, Float> result = new HashMap<>();
+        documents:
+        for (Long docId : smallest.keySet()) {
+            Posting[] docPostings = new Posting[lists.size()];
+            float weight = 0;
+            for (int k = 0; k < lists.size(); k++) {
+                docPostings[k] = lists.get(k).get(docId);
+                if (docPostings[k] == null) {
+                    continue documents;
+                }
+                weight += docPostings[k].weight();
+            }
+            starts:
+            for (int start : docPostings[0].positions()) {
+                for (int k = 1; k < docPostings.length; k++) {
+                    int expected = start + tokens.get(k).position() - base;
+                    if (Arrays.binarySearch(docPostings[k].positions(), expected) < 0) {
+                        continue starts;
+                    }
+                }
+                result.put(docId, weight);
+                continue documents;
+            }
+        }
+        return result;
+    }
+
+    /**
+     * 查找词项的倒排链；前缀词项及单个汉字按前缀展开（匹配以其开头的词项）
+     */
+    private Map<Long, Float> lookup(String term, boolean prefix) {
+        if (!prefix && !TextTokenizer.isSingleCjk(term)) {
+            Map<Long, Posting> list = postings.get(term);
+            if (list == null) {
+                return Map.of();
+            }
+            Map<Long, Float> result = new HashMap<>(list.size() * 2);
+            list.forEach((docId, posting) -> result.put(docId, posting.weight()));
+            return result;
+        }
+        Map<Long, Float> result = new HashMap<>();
+        for (Map<Long, Posting> list : postings.subMap(term, true, term + Character.MAX_VALUE, true).values()) {
+            list.forEach((docId, posting) -> result.merge(docId, posting.weight(), Float::sum));
+        }
+        return result;
+    }
+
+    private void removeInternal(long docId) {
+        DocInfo existing = docs.remove(docId);
+        if (existing == null) {
+            return;
+        }
+        totalLength -= existing.length();
+        for (String term : existing.terms()) {
+            Map<Long, Posting> list = postings.get(term);
+            if (list != null) {
+                list.remove(docId);
+                if (list.isEmpty()) {
+                    postings.remove(term);
+                }
+            }
+        }
+    }
+}
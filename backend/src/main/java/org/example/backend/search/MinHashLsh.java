@@ -0,0 +1,203 @@
+package org.example.backend.search;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * MinHash + LSH 近似重复检索
+ * <p>
+ * 文本按字符 k-gram 切成 shingle 并哈希为 long，用 bands × rows 个哈希函数计算 MinHash 签名；
+ * 签名分成 bands 段，任一段完全相同即成为候选。两个集合 Jaccard 相似度为 s 时成为候选的概率为
+ * 1 - (1 - s^rows)^bands，候选数与索引总量无关。候选需由调用方用 {@link #jaccard} 精确校验。
+ * 读多写少，使用读写锁保护。
+ */
+public class MinHashLsh {
+
+    private final int bands;
+    private final int rows;
+    private final long[] seeds;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<Long, Set<Long>>[] buckets;
+    private final Map<Long, int[]> signatures = new HashMap<>();
+
+    @SuppressWarnings("unchecked")
+    public MinHashLsh(int bands, int rows) {
+        if (bands <= 0 || rows <= 0) {
+            throw new IllegalArgumentException("bands 和 rows 必须大于0: " + bands + ", " + rows);
+        }
+        this.bands = bands;
+        this.rows = rows;
+        this.seeds = new long[bands * rows];
+        long seed = 0x9E3779B97F4A7C15L;
+        for (int i = 0; i < seeds.length; i++) {
+            seed += 0x9E3779B97F4A7C15L;
+            seeds[i] = mix(seed);
+        }
+        this.buckets = new Map[bands];
+        for (int b = 0; b < bands; b++) {
+            buckets[b] = new HashMap<>();
+        }
+    }
+
+    /**
+     * 字符 k-gram 的哈希集合（升序、去重）；文本短于 k 时整体作为一个 shingle
+     */
+    public static long[] shingles(String text, int k) {
+        int[] cps = text.codePoints().toArray();
+        if (cps.length == 0) {
+            return new long[0];
+        }
+        int width = Math.min(k, cps.length);
+        long[] hashes = new long[cps.length - width + 1];
+        for (int i = 0; i < hashes.length; i++) {
+            long h = 0;
+            for (int j = i; j < i + width; j++) {
+                h = h * 0x100000001B3L + cps[j];
+            }
+            hashes[i] = mix(h);
+        }
+        Arrays.sort(hashes);
+        int n = 0;
+        for (int i = 0; i < hashes.length; i++) {
+            if (i == 0 || hashes[i] != hashes[i - 1]) {
+                hashes[n++] = hashes[i];
+            }
+        }
+        return Arrays.copyOf(hashes, n);
+    }
+
+    /**
+     * 两个升序 shingle 集合的 Jaccard 相似度
+     */
+    public static double jaccard(long[] a, long[] b) {
+        if (a.length == 0 && b.length == 0) {
+            return 1.0;
+        }
+        int i = 0;
+        int j = 0;
+        int common = 0;
+        while (i < a.length && j < b.length) {
+            if (a[i] == b[j]) {
+                common++;
+                i++;
+                j++;
+            } else if (a[i] < b[j]) {
+                i++;
+            } else {
+                j++;
+            }
+        }
+        return (double) common / (a.length + b.length - common);
+    }
+
+    /**
+     * MinHash 签名
+     */
+    public int[] signature(long[] shingles) {
+        int[] sig = new int[seeds.length];
+        for (int i = 0; i < seeds.length; i++) {
+            long seed = seeds[i];
+            int min = Integer.MAX_VALUE;
+            for (long shingle : shingles) {
+                int h = (int) (mix(shingle ^ seed) >>> 33);
+                if (h < min) {
+                    min = h;
+                }
+            }
+            sig[i] = min;
+        }
+        return sig;
+    }
+
+    /**
+     * 加入或替换
+     */
+    public void add(long id, int[] signature) {
+        lock.writeLock().lock();
+        try {
+            removeInternal(id);
+            signatures.put(id, signature);
+            for (int b = 0; b < bands; b++) {
+                buckets[b].computeIfAbsent(bandKey(signature, b), k -> new HashSet<>()).add(id);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(long id) {
+        lock.writeLock().lock();
+        try {
+            removeInternal(id);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * 与签名至少有一段相同的候选ID
+     */
+    public Set<Long> candidates(int[] signature) {
+        Set<Long> result = new HashSet<>();
+        lock.readLock().lock();
+        try {
+            for (int b = 0; b < bands; b++) {
+                Set<Long> bucket = buckets[b].get(bandKey(signature, b));
+                if (bucket != null) {
+                    result.addAll(bucket);
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        return result;
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return signatures.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void removeInternal(long id) {
+        int[] old = signatures.remove(id);
+        if (old == null) {
+            return;
+        }
+        for (int b = 0; b < bands; b++) {
+            long key = bandKey(old, b);
+            Set<Long> bucket = buckets[b].get(key);
+            if (bucket != null) {
+                bucket.remove(id);
+                if (bucket.isEmpty()) {
+                    buckets[b].remove(key);
+                }
+            }
+        }
+    }
+
+    private long bandKey(int[] signature, int band) {
+        long h = band;
+        for (int r = band * rows; r < (band + 1) * rows; r++) {
+            h = mix(h * 31 + signature[r]);
+        }
+        return h;
+    }
+
+    /**
+     * SplitMix64 终结函数
+     */
+    private static long mix(long z) {
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+}
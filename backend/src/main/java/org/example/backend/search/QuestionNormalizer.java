@@ -0,0 +1,43 @@
+package org.example.backend.search;
+
+import java.text.Normalizer;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * 问题文本归一化
+ * <p>
+ * 全角转半角（NFKC）、转小写、去掉标点与空白，再去掉常见的客套前缀和句末语气词，
+ * 使“请问什么是递归？”与“什么是递归”归一化为同一字符串。
+ */
+public final class QuestionNormalizer {
+
+    private static final List<String> PREFIXES = List.of("请问一下", "请问", "问一下", "老师");
+    private static final String TRAILING_PARTICLES = "呢吗嘛啊呀吧";
+
+    private QuestionNormalizer() {
+    }
+
+    public static String normalize(String question) {
+        if (question == null) {
+            return "";
+        }
+        String text = Normalizer.normalize(question, Normalizer.Form.NFKC).toLowerCase(Locale.ROOT);
+        StringBuilder sb = new StringBuilder(text.length());
+        text.codePoints()
+                .filter(Character::isLetterOrDigit)
+                .forEach(sb::appendCodePoint);
+        String normalized = sb.toString();
+        for (String prefix : PREFIXES) {
+            if (normalized.startsWith(prefix) && normalized.length() > prefix.length()) {
+                normalized = normalized.substring(prefix.length());
+                break;
+            }
+        }
+        int end = normalized.length();
+        while (end > 1 && TRAILING_PARTICLES.indexOf(normalized.charAt(end - 1)) >= 0) {
+            end--;
+        }
+        return normalized.substring(0, end);
+    }
+}
@@ -0,0 +1,85 @@
+package org.example.backend.search;
+
+import java.util.List;
+
+/**
+ * 检索结果摘要与高亮
+ * <p>
+ * 在原文中标出所有查询词项（忽略大小写）的出现位置，相邻或重叠的命中合并为一段，
+ * 以首个命中为中心截取摘要，命中部分用 &lt;em&gt; 包裹，其余文本做 HTML 转义。
+ */
+public final class SnippetHighlighter {
+
+    private static final String ELLIPSIS = "…";
+
+    private SnippetHighlighter() {
+    }
+
+    /**
+     * @param terms     需要高亮的词项（已切分、小写）
+     * @param maxLength 摘要最大字符数
+     */
+    public static String highlight(String text, List<String> terms, int maxLength) {
+        if (text == null || text.isEmpty()) {
+            return text;
+        }
+        int length = text.length();
+        boolean[] marked = new boolean[length];
+        int first = -1;
+        for (String term : terms) {
+            int termLength = term.length();
+            for (int i = 0; i + termLength <= length; i++) {
+                if (text.regionMatches(true, i, term, 0, termLength)) {
+                    for (int k = i; k < i + termLength; k++) {
+                        marked[k] = true;
+                    }
+                    if (first < 0 || i < first) {
+                        first = i;
+                    }
+                }
+            }
+        }
+
+        int start = first < 0 ? 0 : Math.max(0, first - maxLength / 4);
+        int end = Math.min(length, start + maxLength);
+        start = Math.max(0, Math.min(start, end - maxLength));
+        // 不在代理对中间截断
+        if (start > 0 && Character.isLowSurrogate(text.charAt(start))) {
+            start++;
+        }
+        if (end < length && Character.isHighSurrogate(text.charAt(end - 1))) {
+            end--;
+        }
+
+        StringBuilder sb = new StringBuilder(end - start + 16);
+        if (start > 0) {
+            sb.append(ELLIPSIS);
+        }
+        boolean inMark = false;
+        for (int i = start; i < end; i++) {
+            if (marked[i] != inMark) {
+                sb.append(marked[i] ? "<em>" : "</em>");
+                inMark = marked[i];
+            }
+            escape(text.charAt(i), sb);
+        }
+        if (inMark) {
+            sb.append("</em>");
+        }
+        if (end < length) {
+            sb.append(ELLIPSIS);
+        }
+        return sb.toString();
+    }
+
+    private static void escape(char c, StringBuilder sb) {
+        switch (c) {
+            case '<' -> sb.append("&lt;");
+            case '>' -> sb.append("&gt;");
+            case '&' -> sb.append("&amp;");
+            case '"' -> sb.append("&quot;");
+            case '\'' -> sb.append("&#39;");
+            default -> sb.append(c);
+        }
+    }
+}
@@ -0,0 +1,106 @@
+package org.example.backend.search;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * 全文检索分词器
+ * <p>
+ * 拉丁字母/数字按连续片段切成单词并转小写；中日韩文字按二元组（bigram）切分，
+ * 单个孤立汉字作为一元词。每个词元带有位置信息，用于短语匹配。
+ */
+public final class TextTokenizer {
+
+    private TextTokenizer() {
+    }
+
+    /**
+     * 词元：词项及其在文本中的位置
+     */
+    public record Token(String term, int position) {
+    }
+
+    /**
+     * 切分文本，位置从0开始
+     */
+    public static List<Token> tokenize(String text) {
+        return tokenize(text, 0);
+    }
+
+    /**
+     * 切分文本，位置从 startPosition 开始（多字段拼接索引时使用）
+     */
+    public static List<Token> tokenize(String text, int startPosition) {
+        List<Token> tokens = new ArrayList<>();
+        if (text == null || text.isEmpty()) {
+            return tokens;
+        }
+        int position = startPosition;
+        int length = text.length();
+        int i = 0;
+        while (i < length) {
+            int cp = text.codePointAt(i);
+            if (isCjk(cp)) {
+                int runStart = i;
+                while (i < length && isCjk(text.codePointAt(i))) {
+                    i += Character.charCount(text.codePointAt(i));
+                }
+                position = emitCjkRun(text.substring(runStart, i), position, tokens);
+            } else if (Character.isLetterOrDigit(cp)) {
+                int wordStart = i;
+                while (i < length) {
+                    int c = text.codePointAt(i);
+                    if (!Character.isLetterOrDigit(c) || isCjk(c)) {
+                        break;
+                    }
+                    i += Character.charCount(c);
+                }
+                tokens.add(new Token(text.substring(wordStart, i).toLowerCase(Locale.ROOT), position++));
+            } else {
+                i += Character.charCount(cp);
+            }
+        }
+        return tokens;
+    }
+
+    /**
+     * 返回去重后的词项列表（保持首次出现顺序）
+     */
+    public static List<String> terms(String text) {
+        List<String> terms = new ArrayList<>();
+        for (Token token : tokenize(text)) {
+            if (!terms.contains(token.term())) {
+                terms.add(token.term());
+            }
+        }
+        return terms;
+    }
+
+    /**
+     * 判断词项是否为单个中日韩字符（查询时按前缀展开）
+     */
+    public static boolean isSingleCjk(String term) {
+        return term.codePointCount(0, term.length()) == 1 && isCjk(term.codePointAt(0));
+    }
+
+    private static int emitCjkRun(String run, int position, List<Token> tokens) {
+        int[] cps = run.codePoints().toArray();
+        if (cps.length == 1) {
+            tokens.add(new Token(run, position++));
+            return position;
+        }
+        for (int k = 0; k + 1 < cps.length; k++) {
+            tokens.add(new Token(new String(cps, k, 2), position++));
+        }
+        return position;
+    }
+
+    private static boolean isCjk(int cp) {
+        Character.UnicodeScript script = Character.UnicodeScript.of(cp);
+        return script == Character.UnicodeScript.HAN
+                || script == Character.UnicodeScript.HIRAGANA
+                || script == Character.UnicodeScript.KATAKANA
+                || script == Character.UnicodeScript.HANGUL;
+    }
+}
@@ -0,0 +1,62 @@
+package org.example.backend.security;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.example.backend.dto.UserSnapshot;
+import org.example.backend.entity.User;
+import org.example.backend.service.UserCacheService;
+import org.springframework.http.HttpHeaders;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Bearer 令牌认证过滤器
+ * <p>
+ * 每个请求依次：验签（按令牌哈希缓存）、查吊销列表、查用户缓存，均为内存哈希查找，
+ * 正常情况下不访问数据库。用户已非正常状态或令牌与用户不匹配时按未认证处理。
+ * 由 SecurityConfig 创建，不注册为 Bean，避免被容器重复注册为 Servlet 过滤器。
+ */
+@RequiredArgsConstructor
+public class JwtAuthenticationFilter extends OncePerRequestFilter {
+
+    private static final String BEARER_PREFIX = "Bearer ";
+
+    private final JwtService jwtService;
+    private final TokenRevocationService tokenRevocationService;
+    private final UserCacheService userCacheService;
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        String header = request.getHeader(HttpHeaders.AUTHORIZATION);
+        if (header != null && header.startsWith(BEARER_PREFIX)
+                && SecurityContextHolder.getContext().getAuthentication() == null) {
+            jwtService.verify(header.substring(BEARER_PREFIX.length()).trim())
+                    .filter(token -> !tokenRevocationService.isRevoked(token))
+                    .ifPresent(this::authenticate);
+        }
+        chain.doFilter(request, response);
+    }
+
+    private void authenticate(VerifiedToken token) {
+        userCacheService.findByUsername(token.username())
+                .filter(user -> user.getStatus() == User.Status.ACTIVE)
+                .filter(user -> Objects.equals(user.getId(), token.userId()))
+                .ifPresent(user -> SecurityContextHolder.getContext().setAuthentication(authentication(user, token)));
+    }
+
+    private static UsernamePasswordAuthenticationToken authentication(UserSnapshot user, VerifiedToken token) {
+        // 凭证位置保存已验签的令牌，供登出时吊销
+        return new UsernamePasswordAuthenticationToken(user, token,
+                List.of(new SimpleGrantedAuthority("ROLE_" + user.getRole().name())));
+    }
+}
@@ -0,0 +1,119 @@
+package org.example.backend.security;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.JwtParser;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.SignatureAlgorithm;
+import io.jsonwebtoken.security.Keys;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.example.backend.dto.UserSnapshot;
+import org.example.backend.util.LocalCache;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import javax.crypto.SecretKey;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Instant;
+import java.util.Date;
+import java.util.HexFormat;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JWT 签发与验签
+ * <p>
+ * HMAC 密钥与解析器在启动时构建一次（解析器线程安全）。验签通过的声明按令牌哈希
+ * 缓存到令牌过期，同一令牌的签名校验与 JSON 解码只做一次，后续请求为一次哈希查找。
+ */
+@Slf4j
+@Service
+public class JwtService {
+
+    private static final String USER_ID_CLAIM = "uid";
+
+    @Value("${jwt.secret}")
+    private String secret;
+
+    @Value("${jwt.expiration}")
+    private long expirationMillis;
+
+    @Value("${jwt.cache.maximum-size:10000}")
+    private int cacheSize;
+
+    private SecretKey key;
+    private JwtParser parser;
+    private LocalCache<String, VerifiedToken> verified;
+
+    @PostConstruct
+    public void init() {
+        key = Keys.hmacShaKeyFor(secret.getBytes(StandardCharsets.UTF_8));
+        parser = Jwts.parserBuilder().setSigningKey(key).build();
+        verified = new LocalCache<>(cacheSize, expirationMillis, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * 为用户签发令牌
+     */
+    public String issue(UserSnapshot user) {
+        Instant now = Instant.now();
+        return Jwts.builder()
+                .setSubject(user.getUsername())
+                .claim(USER_ID_CLAIM, user.getId())
+                .setIssuedAt(Date.from(now))
+                .setExpiration(Date.from(now.plusMillis(expirationMillis)))
+                .signWith(key, SignatureAlgorithm.HS256)
+                .compact();
+    }
+
+    /**
+     * 令牌有效期（毫秒）
+     */
+    public long getExpirationMillis() {
+        return expirationMillis;
+    }
+
+    /**
+     * 验签并返回声明；签名无效、格式错误或已过期时返回空
+     */
+    public Optional<VerifiedToken> verify(String token) {
+        String hash = hash(token);
+        Instant now = Instant.now();
+        VerifiedToken cached = verified.getIfPresent(hash);
+        if (cached != null) {
+            if (cached.isExpired(now)) {
+                verified.invalidate(hash);
+                return Optional.empty();
+            }
+            return Optional.of(cached);
+        }
+        try {
+            Claims claims = parser.parseClaimsJws(token).getBody();
+            if (claims.getSubject() == null || claims.getIssuedAt() == null || claims.getExpiration() == null) {
+                return Optional.empty();
+            }
+            VerifiedToken result = new VerifiedToken(hash, claims.get(USER_ID_CLAIM, Long.class), claims.getSubject(),
+                    claims.getIssuedAt().toInstant(), claims.getExpiration().toInstant());
+            verified.put(hash, result);
+            return Optional.of(result);
+        } catch (JwtException | IllegalArgumentException e) {
+            log.debug("令牌验签失败: {}", e.getMessage());
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * 令牌的 SHA-256 摘要（十六进制）
+     */
+    public static String hash(String token) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(token.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("缺少 SHA-256 算法", e);
+        }
+    }
+}
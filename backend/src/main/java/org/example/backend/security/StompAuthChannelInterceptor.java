@@ -0,0 +1,75 @@
+package org.example.backend.security;
+
+import lombok.RequiredArgsConstructor;
+import org.example.backend.entity.User;
+import org.example.backend.exception.UnauthorizedException;
+import org.example.backend.service.UserCacheService;
+import org.springframework.http.HttpHeaders;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.simp.stomp.StompCommand;
+import org.springframework.messaging.simp.stomp.StompHeaderAccessor;
+import org.springframework.messaging.support.ChannelInterceptor;
+import org.springframework.messaging.support.MessageHeaderAccessor;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * STOMP 连接认证
+ * <p>
+ * 握手不带令牌，CONNECT 帧的 Authorization 头按与 {@link JwtAuthenticationFilter} 相同的步骤校验，
+ * 会话主体名为用户ID，服务端按用户ID推送到 /user/queue/**。客户端只能订阅自己的用户队列，
+ * 只能向 /app/** 发送消息（不能直接发往代理目的地冒充服务端推送）。
+ * 由 WebSocketConfig 创建，不注册为 Bean。
+ */
+@RequiredArgsConstructor
+public class StompAuthChannelInterceptor implements ChannelInterceptor {
+
+    private static final String BEARER_PREFIX = "Bearer ";
+    private static final String USER_QUEUE_PREFIX = "/user/queue/";
+    private static final String APP_PREFIX = "/app/";
+
+    private final JwtService jwtService;
+    private final TokenRevocationService tokenRevocationService;
+    private final UserCacheService userCacheService;
+
+    @Override
+    public Message<?> preSend(Message<?> message, MessageChannel channel) {
+        StompHeaderAccessor accessor = MessageHeaderAccessor.getAccessor(message, StompHeaderAccessor.class);
+        if (accessor == null) {
+            return message;
+        }
+        if (StompCommand.CONNECT.equals(accessor.getCommand())) {
+            accessor.setUser(authenticate(accessor.getFirstNativeHeader(HttpHeaders.AUTHORIZATION)));
+        } else if (StompCommand.SUBSCRIBE.equals(accessor.getCommand())) {
+            String destination = accessor.getDestination();
+            if (accessor.getUser() == null || destination == null || !destination.startsWith(USER_QUEUE_PREFIX)) {
+                throw new UnauthorizedException("不允许订阅: " + destination);
+            }
+        } else if (StompCommand.SEND.equals(accessor.getCommand())) {
+            String destination = accessor.getDestination();
+            if (accessor.getUser() == null || destination == null || !destination.startsWith(APP_PREFIX)) {
+                throw new UnauthorizedException("不允许发送: " + destination);
+            }
+        }
+        return message;
+    }
+
+    private UsernamePasswordAuthenticationToken authenticate(String header) {
+        if (header == null || !header.startsWith(BEARER_PREFIX)) {
+            throw new UnauthorizedException("缺少令牌");
+        }
+        VerifiedToken token = jwtService.verify(header.substring(BEARER_PREFIX.length()).trim())
+                .filter(verified -> !tokenRevocationService.isRevoked(verified))
+                .orElseThrow(() -> new UnauthorizedException("令牌无效"));
+        return userCacheService.findByUsername(token.username())
+                .filter(user -> user.getStatus() == User.Status.ACTIVE)
+                .filter(user -> Objects.equals(user.getId(), token.userId()))
+                .map(user -> new UsernamePasswordAuthenticationToken(String.valueOf(user.getId()), token,
+                        List.of(new SimpleGrantedAuthority("ROLE_" + user.getRole().name()))))
+                .orElseThrow(() -> new UnauthorizedException("用户不可用"));
+    }
+}
@@ -0,0 +1,159 @@
+package org.example.backend.security;
+
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.example.backend.entity.User;
+import org.example.backend.event.UserChangedEvent;
+import org.example.backend.repository.UserRepository;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Instant;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 令牌吊销列表
+ * <p>
+ * 按用户记录吊销时间点，该时间点及之前签发的令牌一律失效（封禁、停用、改密、改角色、删除）；
+ * 按令牌哈希记录单个令牌的吊销（登出）。两者都是一次哈希查找。
+ * 启动时为所有非正常状态的用户补登记，过期令牌对应的条目定时清理。
+ * 开启 Redis（app.cache.redis.enabled）时，本节点的吊销通过 Redis 频道广播，其他节点收到后登记到各自的列表。
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class TokenRevocationService {
+
+    public static final String REVOCATION_CHANNEL = "token-revocation";
+
+    private static final String USER_PREFIX = "u:";
+    private static final String TOKEN_PREFIX = "t:";
+
+    private final UserRepository userRepository;
+    private final ObjectProvider<StringRedisTemplate> redisTemplateProvider;
+
+    @Value("${jwt.expiration}")
+    private long expirationMillis;
+
+    @Value("${app.cache.redis.enabled:false}")
+    private boolean remoteEnabled;
+
+    private StringRedisTemplate redisTemplate;
+
+    private final Map<Long, Instant> revokedBefore = new ConcurrentHashMap<>();
+    private final Map<String, Instant> revokedTokens = new ConcurrentHashMap<>();
+
+    @PostConstruct
+    public void init() {
+        redisTemplate = remoteEnabled ? redisTemplateProvider.getIfAvailable() : null;
+    }
+
+    /**
+     * 令牌是否已被吊销
+     */
+    public boolean isRevoked(VerifiedToken token) {
+        if (revokedTokens.containsKey(token.tokenHash())) {
+            return true;
+        }
+        Instant before = token.userId() != null ? revokedBefore.get(token.userId()) : null;
+        // iat 只精确到秒，同一秒内签发的令牌也视为已吊销
+        return before != null && !token.issuedAt().isAfter(before);
+    }
+
+    /**
+     * 吊销用户此前签发的全部令牌
+     */
+    public void revokeUser(Long userId) {
+        Instant now = Instant.now();
+        revokedBefore.merge(userId, now, TokenRevocationService::later);
+        broadcast(USER_PREFIX + userId + ":" + now.toEpochMilli());
+    }
+
+    /**
+     * 吊销单个令牌，直到其过期
+     */
+    public void revokeToken(VerifiedToken token) {
+        revokedTokens.put(token.tokenHash(), token.expiresAt());
+        broadcast(TOKEN_PREFIX + token.tokenHash() + ":" + token.expiresAt().toEpochMilli());
+    }
+
+    /**
+     * 登记其他节点广播的吊销（本节点发出的广播也会收到，重复登记无副作用）
+     */
+    public void applyRemote(String message) {
+        int separator = message.lastIndexOf(':');
+        try {
+            String key = message.substring(USER_PREFIX.length(), separator);
+            Instant instant = Instant.ofEpochMilli(Long.parseLong(message.substring(separator + 1)));
+            if (message.startsWith(USER_PREFIX)) {
+                revokedBefore.merge(Long.valueOf(key), instant, TokenRevocationService::later);
+            } else if (message.startsWith(TOKEN_PREFIX)) {
+                revokedTokens.put(key, instant);
+            }
+        } catch (RuntimeException e) {
+            log.warn("忽略无法解析的令牌吊销通知: {}", message);
+        }
+    }
+
+    /**
+     * 用户状态、角色、密码、用户名变更或删除后吊销其已签发的令牌
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onUserChanged(UserChangedEvent event) {
+        boolean usernameChanged = event.getUsernames().size() > 1;
+        if (event.getType() != UserChangedEvent.Type.UPDATED || usernameChanged) {
+            revokeUser(event.getUserId());
+            log.info("已吊销用户 {} 的令牌: {}", event.getUserId(), event.getType());
+        }
+    }
+
+    /**
+     * 启动时登记封禁、停用用户（吊销列表只在内存中，重启后需补齐）
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void seed() {
+        int count = 0;
+        for (User.Status status : new User.Status[]{User.Status.BANNED, User.Status.INACTIVE}) {
+            for (User user : userRepository.findByStatus(status)) {
+                // 每个节点启动时各自补登记，无需广播
+                revokedBefore.merge(user.getId(), Instant.now(), TokenRevocationService::later);
+                count++;
+            }
+        }
+        log.info("令牌吊销列表已加载 {} 个非正常状态用户", count);
+    }
+
+    /**
+     * 清理已不可能匹配未过期令牌的条目
+     */
+    @Scheduled(fixedDelayString = "${jwt.revocation.prune-interval:600000}")
+    public void prune() {
+        Instant now = Instant.now();
+        Instant oldestLiveIssue = now.minusMillis(expirationMillis);
+        revokedTokens.values().removeIf(expiresAt -> !expiresAt.isAfter(now));
+        revokedBefore.values().removeIf(before -> before.isBefore(oldestLiveIssue));
+    }
+
+    private void broadcast(String message) {
+        if (redisTemplate == null) {
+            return;
+        }
+        try {
+            redisTemplate.convertAndSend(REVOCATION_CHANNEL, message);
+        } catch (RuntimeException e) {
+            log.warn("广播令牌吊销失败，其他节点不会立即生效: {}", message, e);
+        }
+    }
+
+    private static Instant later(Instant a, Instant b) {
+        return a.isAfter(b) ? a : b;
+    }
+}
@@ -0,0 +1,15 @@
+package org.example.backend.security;
+
+import java.time.Instant;
+
+/**
+ * 已验签的令牌声明（验签结果按令牌哈希缓存，直到令牌过期）
+ *
+ * @param tokenHash 令牌的 SHA-256 摘要，用作缓存键与吊销键
+ */
+public record VerifiedToken(String tokenHash, Long userId, String username, Instant issuedAt, Instant expiresAt) {
+
+    public boolean isExpired(Instant now) {
+        return !expiresAt.isAfter(now);
+    }
+}
@@ -0,0 +1,17 @@
+package org.example.backend.service;
+
+import java.util.function.Consumer;
+
+/**
+ * 问答回答生成引擎
+ * <p>
+ * 按生成顺序把回答片段逐个交给 sink，所有片段依次拼接即为完整回答。
+ * 实现可替换（本地检索、外部模型等），声明为 @Primary 的 Bean 优先使用。
+ */
+public interface AnswerEngine {
+
+    /**
+     * 生成回答；生成失败时抛出运行时异常
+     */
+    void generate(String question, Consumer<String> sink);
+}
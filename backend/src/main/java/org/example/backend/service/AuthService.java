@@ -0,0 +1,48 @@
+package org.example.backend.service;
+
+import lombok.RequiredArgsConstructor;
+import org.example.backend.dto.LoginResponse;
+import org.example.backend.dto.UserSnapshot;
+import org.example.backend.entity.User;
+import org.example.backend.exception.UnauthorizedException;
+import org.example.backend.repository.UserRepository;
+import org.example.backend.security.JwtService;
+import org.example.backend.security.TokenRevocationService;
+import org.example.backend.security.VerifiedToken;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Service;
+
+/**
+ * 登录登出服务
+ */
+@Service
+@RequiredArgsConstructor
+public class AuthService {
+
+    private final UserRepository userRepository;
+    private final JwtService jwtService;
+    private final TokenRevocationService tokenRevocationService;
+    private final PasswordEncoder passwordEncoder;
+
+    /**
+     * 用户名或邮箱登录，成功后签发令牌（密码哈希只在此处从数据库读取，不进入缓存）
+     */
+    public LoginResponse login(String login, String password) {
+        UserSnapshot user = userRepository.findByUsernameOrEmail(login)
+                .filter(candidate -> passwordEncoder.matches(password, candidate.getPassword()))
+                .map(UserSnapshot::from)
+                .orElseThrow(() -> new UnauthorizedException("用户名或密码错误"));
+        if (user.getStatus() != User.Status.ACTIVE) {
+            throw new UnauthorizedException("账号不可用: " + user.getStatus());
+        }
+        return new LoginResponse(jwtService.issue(user), jwtService.getExpirationMillis() / 1000,
+                user.getId(), user.getUsername(), user.getRole());
+    }
+
+    /**
+     * 登出：吊销当前令牌
+     */
+    public void logout(VerifiedToken token) {
+        tokenRevocationService.revokeToken(token);
+    }
+}
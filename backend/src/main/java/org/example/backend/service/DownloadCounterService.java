@@ -0,0 +1,105 @@
+package org.example.backend.service;
+
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.example.backend.dto.MaterialSummary;
+import org.example.backend.entity.Material;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 资料下载计数服务
+ * <p>
+ * 下载时只在内存中按资料累加（LongAdder 分段计数，无锁无行锁），
+ * 定时把增量合并成一批 {@code download_count = download_count + ?} 更新，在一个事务内写回数据库，
+ * 失败时整批回滚后把增量放回，不会出现部分已提交又被重试的重复计数。
+ * 读取下载次数时合并尚未刷盘的增量。
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class DownloadCounterService {
+
+    private static final String INCREMENT_SQL =
+            "UPDATE material SET download_count = download_count + ? WHERE id = ?";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+
+    private final Map<Long, LongAdder> pending = new ConcurrentHashMap<>();
+    private final Map<Long, Long> flushing = new ConcurrentHashMap<>();
+
+    /**
+     * 记录一次下载
+     */
+    public void increment(Long materialId) {
+        pending.computeIfAbsent(materialId, id -> new LongAdder()).increment();
+    }
+
+    /**
+     * 尚未写入数据库的下载增量
+     */
+    public long getPendingDelta(Long materialId) {
+        LongAdder adder = pending.get(materialId);
+        long delta = adder == null ? 0 : adder.sum();
+        return delta + flushing.getOrDefault(materialId, 0L);
+    }
+
+    /**
+     * 合并未刷盘增量后的下载次数
+     */
+    public long getDownloadCount(Material material) {
+        return material.getDownloadCount() + getPendingDelta(material.getId());
+    }
+
+    /**
+     * 把未刷盘增量合并到从数据库投影出的摘要上
+     */
+    public void applyPendingDelta(MaterialSummary summary) {
+        summary.setDownloadCount(summary.getDownloadCount() + getPendingDelta(summary.getId()));
+    }
+
+    /**
+     * 定时批量刷盘
+     */
+    @Scheduled(fixedDelayString = "${material.download-counter.flush-interval:5000}")
+    public synchronized void flush() {
+        List<Object[]> batch = new ArrayList<>();
+        for (Map.Entry<Long, LongAdder> entry : pending.entrySet()) {
+            long delta = entry.getValue().sumThenReset();
+            if (delta != 0) {
+                flushing.merge(entry.getKey(), delta, Long::sum);
+                batch.add(new Object[]{delta, entry.getKey()});
+            }
+        }
+        if (batch.isEmpty()) {
+            return;
+        }
+        try {
+            transactionTemplate.executeWithoutResult(status -> jdbcTemplate.batchUpdate(INCREMENT_SQL, batch));
+            log.debug("下载计数刷盘 {} 条", batch.size());
+        } catch (RuntimeException e) {
+            // 整批已回滚，把增量放回，下一轮重试
+            for (Object[] args : batch) {
+                pending.computeIfAbsent((Long) args[1], id -> new LongAdder()).add((Long) args[0]);
+            }
+            log.warn("下载计数刷盘失败，{} 条增量将在下次重试", batch.size(), e);
+        } finally {
+            flushing.clear();
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        flush();
+    }
+}
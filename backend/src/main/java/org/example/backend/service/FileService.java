@@ -0,0 +1,276 @@
+package org.example.backend.service;
+
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.example.backend.dto.StoredFile;
+import org.example.backend.dto.UploadStatus;
+import org.example.backend.exception.BadRequestException;
+import org.example.backend.exception.ResourceNotFoundException;
+import org.example.backend.exception.UploadOffsetConflictException;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.util.unit.DataSize;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.channels.OverlappingFileLockException;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HexFormat;
+import java.util.UUID;
+import java.util.regex.Pattern;
+
+/**
+ * 资料文件存储服务
+ * <p>
+ * 上传：客户端按固定大小分片把请求体直接流式写入临时文件，偏移量即临时文件长度，断线后可续传；
+ * 完成时计算SHA-256，按内容寻址存放到 objects/ 目录，相同内容只保存一份。
+ * 下载：通过 {@link FileChannel#transferTo} 直接从文件通道写出，不经过堆内字节数组。
+ * 超过有效期未再写入的临时文件视为已放弃的上传，定时清理。
+ */
+@Slf4j
+@Service
+public class FileService {
+
+    private static final String TEMP_DIR = "tmp";
+    private static final String OBJECT_DIR = "objects";
+    private static final String PART_SUFFIX = ".part";
+    private static final int DIGEST_BUFFER_SIZE = 64 * 1024;
+    private static final Pattern UPLOAD_ID_PATTERN = Pattern.compile("[0-9a-f]{32}");
+
+    private final Path rootPath;
+    private final long chunkSize;
+    private final Duration partTtl;
+
+    public FileService(@Value("${file.upload.path}") String uploadPath,
+                       @Value("${file.upload.chunk-size:8MB}") DataSize chunkSize,
+                       @Value("${file.upload.part-ttl:24h}") Duration partTtl) {
+        this.rootPath = Paths.get(uploadPath).toAbsolutePath().normalize();
+        this.chunkSize = chunkSize.toBytes();
+        this.partTtl = partTtl;
+    }
+
+    @PostConstruct
+    public void init() throws IOException {
+        Files.createDirectories(rootPath.resolve(TEMP_DIR));
+        Files.createDirectories(rootPath.resolve(OBJECT_DIR));
+    }
+
+    /**
+     * 创建上传会话
+     */
+    public UploadStatus createUpload() {
+        String uploadId = UUID.randomUUID().toString().replace("-", "");
+        try {
+            Files.createFile(partPath(uploadId));
+        } catch (IOException e) {
+            throw new UncheckedIOException("创建上传会话失败", e);
+        }
+        return new UploadStatus(uploadId, 0L, chunkSize);
+    }
+
+    /**
+     * 查询上传进度（用于断点续传）
+     */
+    public UploadStatus getUpload(String uploadId) {
+        Path part = existingPartPath(uploadId);
+        try {
+            return new UploadStatus(uploadId, Files.size(part), chunkSize);
+        } catch (IOException e) {
+            throw new UncheckedIOException("读取上传进度失败", e);
+        }
+    }
+
+    /**
+     * 追加一个分片，分片数据直接从输入流写入文件
+     *
+     * @param offset 客户端认为的当前偏移量，必须与服务端已接收字节数一致
+     */
+    public UploadStatus appendChunk(String uploadId, long offset, InputStream content) throws IOException {
+        Path part = existingPartPath(uploadId);
+        try (FileChannel channel = FileChannel.open(part, StandardOpenOption.WRITE)) {
+            FileLock lock = tryLock(channel);
+            if (lock == null) {
+                throw new UploadOffsetConflictException(channel.size());
+            }
+            try {
+                long current = channel.size();
+                if (offset != current) {
+                    throw new UploadOffsetConflictException(current);
+                }
+                ReadableByteChannel source = Channels.newChannel(content);
+                long written = 0;
+                while (written < chunkSize) {
+                    long n = channel.transferFrom(source, current + written, chunkSize - written);
+                    if (n <= 0) {
+                        break;
+                    }
+                    written += n;
+                }
+                if (written == chunkSize && content.read() != -1) {
+                    channel.truncate(current);
+                    throw new BadRequestException("分片大小超过限制: " + chunkSize + " 字节");
+                }
+                return new UploadStatus(uploadId, current + written, chunkSize);
+            } finally {
+                lock.release();
+            }
+        }
+    }
+
+    /**
+     * 完成上传：计算摘要并按内容寻址落盘，已存在相同内容时直接复用
+     */
+    public StoredFile completeUpload(String uploadId) throws IOException {
+        Path part = existingPartPath(uploadId);
+        long size = Files.size(part);
+        String sha256 = digest(part);
+        String relativePath = OBJECT_DIR + "/" + sha256.substring(0, 2) + "/" + sha256;
+        Path target = rootPath.resolve(relativePath);
+        Files.createDirectories(target.getParent());
+
+        boolean deduplicated = Files.exists(target);
+        if (deduplicated) {
+            Files.delete(part);
+        } else {
+            try {
+                Files.move(part, target, StandardCopyOption.ATOMIC_MOVE);
+            } catch (FileAlreadyExistsException e) {
+                // 并发上传了相同内容
+                Files.deleteIfExists(part);
+                deduplicated = true;
+            }
+        }
+        log.info("文件上传完成: {} ({} 字节, 去重: {})", relativePath, size, deduplicated);
+        return new StoredFile(sha256, relativePath, size, deduplicated);
+    }
+
+    /**
+     * 将存储路径解析为磁盘文件
+     */
+    public Path resolve(String storedPath) {
+        Path file = rootPath.resolve(storedPath).normalize();
+        if (!file.startsWith(rootPath) || !Files.isRegularFile(file)) {
+            throw new ResourceNotFoundException("文件不存在: " + storedPath);
+        }
+        return file;
+    }
+
+    /**
+     * 把文件的指定区间写到目标通道，由 transferTo 完成拷贝
+     */
+    public void transferTo(Path file, long position, long count, WritableByteChannel target) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long transferred = 0;
+            while (transferred < count) {
+                long n = channel.transferTo(position + transferred, count - transferred, target);
+                if (n <= 0) {
+                    break;
+                }
+                transferred += n;
+            }
+        }
+    }
+
+    /**
+     * 定时删除超过有效期未再写入的临时文件；正在写入的会话持有文件锁，跳过
+     *
+     * @return 删除的文件数
+     */
+    @Scheduled(fixedDelayString = "${file.upload.part-sweep-interval:3600000}",
+            initialDelayString = "${file.upload.part-sweep-interval:3600000}")
+    public int sweepAbandonedUploads() {
+        Instant cutoff = Instant.now().minus(partTtl);
+        int deleted = 0;
+        try (DirectoryStream<Path> parts = Files.newDirectoryStream(rootPath.resolve(TEMP_DIR), "*" + PART_SUFFIX)) {
+            for (Path part : parts) {
+                try {
+                    if (Files.getLastModifiedTime(part).toInstant().isBefore(cutoff) && deleteIfIdle(part)) {
+                        deleted++;
+                    }
+                } catch (IOException e) {
+                    log.warn("清理上传临时文件失败: {}", part, e);
+                }
+            }
+        } catch (IOException e) {
+            log.warn("扫描上传临时目录失败", e);
+        }
+        if (deleted > 0) {
+            log.info("清理已放弃的上传临时文件 {} 个", deleted);
+        }
+        return deleted;
+    }
+
+    private boolean deleteIfIdle(Path part) throws IOException {
+        try (FileChannel channel = FileChannel.open(part, StandardOpenOption.WRITE)) {
+            FileLock lock = tryLock(channel);
+            if (lock == null) {
+                return false;
+            }
+            try {
+                return Files.deleteIfExists(part);
+            } finally {
+                lock.release();
+            }
+        }
+    }
+
+    private FileLock tryLock(FileChannel channel) throws IOException {
+        try {
+            return channel.tryLock();
+        } catch (OverlappingFileLockException e) {
+            // 同一进程内另一个请求正在写该会话
+            return null;
+        }
+    }
+
+    private String digest(Path file) throws IOException {
+        MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+        ByteBuffer buffer = ByteBuffer.allocateDirect(DIGEST_BUFFER_SIZE);
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            while (channel.read(buffer) != -1) {
+                buffer.flip();
+                digest.update(buffer);
+                buffer.clear();
+            }
+        }
+        return HexFormat.of().formatHex(digest.digest());
+    }
+
+    private Path existingPartPath(String uploadId) {
+        Path part = partPath(uploadId);
+        if (!Files.exists(part)) {
+            throw new ResourceNotFoundException("上传会话不存在: " + uploadId);
+        }
+        return part;
+    }
+
+    private Path partPath(String uploadId) {
+        if (uploadId == null || !UPLOAD_ID_PATTERN.matcher(uploadId).matches()) {
+            throw new BadRequestException("非法的上传ID: " + uploadId);
+        }
+        return rootPath.resolve(TEMP_DIR).resolve(uploadId + PART_SUFFIX);
+    }
+}
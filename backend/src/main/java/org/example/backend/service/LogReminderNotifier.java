@@ -0,0 +1,18 @@
+package org.example.backend.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.example.backend.dto.StudyReminder;
+import org.springframework.stereotype.Component;
+
+/**
+ * 默认提醒通道：只记录日志（接入真实通道时替换为其他 {@link ReminderNotifier} 实现）
+ */
+@Slf4j
+@Component
+public class LogReminderNotifier implements ReminderNotifier {
+
+    @Override
+    public void send(StudyReminder reminder) {
+        log.info("学习提醒: 用户 {}，进度落后学科 {} 个", reminder.getUserId(), reminder.getSubjects().size());
+    }
+}
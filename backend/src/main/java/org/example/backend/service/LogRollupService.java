@@ -0,0 +1,422 @@
+package org.example.backend.service;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.example.backend.dto.AuditEvent;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 系统日志预聚合服务
+ * <p>
+ * 审计日志写库成功后按 (分钟, 操作类型, 用户, IP) 累加计数并定时写入 log_rollup，
+ * 分钟桶超过一定时间后合并为小时桶，小时桶再合并为天桶。
+ * 同一次刷盘在同一事务内把增量累加到 log_total：按操作类型、日期、IP、(用户, 操作类型) 各一行累计值，
+ * 查询只读取对应维度的行并合并本节点尚未刷盘的分钟桶，耗时与日志总量无关，且包含所有节点的写入。
+ * 合并与首次补算由 {@link SchedulerLeaseService} 租约保证同一时刻只在一个节点执行。
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class LogRollupService {
+
+    private static final String UPDATE_SQL = "UPDATE log_rollup SET cnt = cnt + ? "
+            + "WHERE granularity = ? AND bucket_start = ? AND operation = ? AND user_id = ? AND ip_address = ?";
+
+    private static final String INSERT_SQL = "INSERT INTO log_rollup "
+            + "(granularity, bucket_start, operation, user_id, ip_address, cnt) VALUES (?, ?, ?, ?, ?, ?)";
+
+    private static final String SELECT_BUCKETS_SQL = "SELECT bucket_start, operation, user_id, ip_address, cnt "
+            + "FROM log_rollup WHERE granularity = ? AND bucket_start < ?";
+
+    private static final String DELETE_BUCKETS_SQL = "DELETE FROM log_rollup WHERE granularity = ? AND bucket_start < ?";
+
+    private static final String UPDATE_TOTAL_SQL = "UPDATE log_total SET cnt = cnt + ? "
+            + "WHERE dimension = ? AND user_id = ? AND dim_key = ?";
+
+    private static final String INSERT_TOTAL_SQL = "INSERT INTO log_total (dimension, user_id, dim_key, cnt) "
+            + "VALUES (?, ?, ?, ?)";
+
+    private static final String SELECT_TOTALS_SQL = "SELECT dim_key, cnt FROM log_total "
+            + "WHERE dimension = ? AND user_id = ?";
+
+    private static final String SELECT_DAILY_SQL = "SELECT dim_key, cnt FROM log_total "
+            + "WHERE dimension = ? AND user_id = 0 AND dim_key BETWEEN ? AND ?";
+
+    // 升级时从已有汇总表重建累计值
+    private static final String LOAD_TOTALS_SQL = "SELECT operation, user_id, ip_address, "
+            + "CAST(bucket_start AS DATE), SUM(cnt) FROM log_rollup "
+            + "GROUP BY operation, user_id, ip_address, CAST(bucket_start AS DATE)";
+
+    // 首次启用时从历史日志补算天桶
+    private static final String SEED_SQL = "SELECT operation, user_id, ip_address, "
+            + "CAST(created_time AS DATE), COUNT(*) FROM system_log WHERE created_time < ? "
+            + "GROUP BY operation, user_id, ip_address, CAST(created_time AS DATE)";
+
+    private static final String SEED_LEASE = "log-rollup-seed";
+    private static final String COMPACT_LEASE = "log-rollup-compact";
+
+    // 匿名用户与空IP在汇总表中的取值
+    private static final long NO_USER = 0L;
+    private static final String NO_IP = "";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final SchedulerLeaseService leaseService;
+
+    @Value("${log.rollup.lease-ttl:600000}")
+    private long leaseTtlMillis;
+
+    // 仅由审计日志写线程写入，刷盘时逐键原子摘除
+    private final Map<RollupKey, Long> pending = new ConcurrentHashMap<>();
+
+    private LocalDateTime seedCutoff;
+    private volatile boolean loaded;
+
+    /**
+     * 汇总粒度
+     */
+    public enum Granularity {
+        MINUTE(ChronoUnit.MINUTES),
+        HOUR(ChronoUnit.HOURS),
+        DAY(ChronoUnit.DAYS);
+
+        private final ChronoUnit unit;
+
+        Granularity(ChronoUnit unit) {
+            this.unit = unit;
+        }
+
+        public LocalDateTime truncate(LocalDateTime time) {
+            return time.truncatedTo(unit);
+        }
+    }
+
+    /**
+     * 汇总键
+     */
+    public record RollupKey(LocalDateTime bucketStart, String operation, long userId, String ipAddress) {
+    }
+
+    /**
+     * 累计值维度
+     */
+    private enum Dimension {
+        OPERATION, DAY, IP, USER_OP
+    }
+
+    /**
+     * 累计值键：USER_OP 维度带用户ID，其他维度用户ID为 0
+     */
+    private record TotalKey(Dimension dimension, long userId, String key) {
+    }
+
+    @PostConstruct
+    public void init() {
+        // 此刻之后产生的日志都会经过 record，补算时只统计之前的部分
+        seedCutoff = LocalDateTime.now();
+    }
+
+    /**
+     * 启动时检查累计值；累计表为空时由一个节点从汇总表重建，汇总表也为空时从 system_log 补算。
+     * 其他节点在补算完成前不刷盘（刷盘时重试加载），避免刷入的增量被补算重复统计
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void load() {
+        Integer totals = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM log_total", Integer.class);
+        if ((totals != null && totals > 0) || leaseService.isCompleted(SEED_LEASE, SEED_LEASE)) {
+            loaded = true;
+            return;
+        }
+        if (!leaseService.tryAcquire(SEED_LEASE, SEED_LEASE, leaseTtl())) {
+            log.info("日志累计值正由其他节点补算，补算完成后开始刷盘");
+            return;
+        }
+        boolean completed = false;
+        try {
+            seed();
+            completed = true;
+        } finally {
+            if (completed) {
+                leaseService.complete(SEED_LEASE, SEED_LEASE);
+            } else {
+                leaseService.release(SEED_LEASE);
+            }
+        }
+        loaded = true;
+    }
+
+    /**
+     * 记录已写库的审计事件（由审计日志写线程调用）
+     */
+    public void record(Collection<AuditEvent> events) {
+        for (AuditEvent event : events) {
+            long userId = event.getUserId() != null ? event.getUserId() : NO_USER;
+            String ip = event.getIpAddress() != null ? event.getIpAddress() : NO_IP;
+            RollupKey key = new RollupKey(Granularity.MINUTE.truncate(event.getCreatedTime()), event.getOperation(),
+                    userId, ip);
+            pending.merge(key, 1L, Long::sum);
+        }
+    }
+
+    /**
+     * 各操作类型数量，按数量降序：[operation, count]
+     */
+    public List<Object[]> countByOperation() {
+        return sortedCounts(totals(Dimension.OPERATION, NO_USER));
+    }
+
+    /**
+     * 用户各操作类型数量，按数量降序：[operation, count]
+     */
+    public List<Object[]> countByOperationAndUser(Long userId) {
+        return sortedCounts(totals(Dimension.USER_OP, userId));
+    }
+
+    /**
+     * 各IP地址操作数量，按数量降序：[ipAddress, count]
+     */
+    public List<Object[]> countByIpAddress() {
+        return sortedCounts(totals(Dimension.IP, NO_USER));
+    }
+
+    /**
+     * 每日操作数量，按日期升序：[date, count]
+     */
+    public synchronized List<Object[]> countByDateRange(LocalDate startDate, LocalDate endDate) {
+        List<Object[]> result = new ArrayList<>();
+        if (startDate.isAfter(endDate)) {
+            return result;
+        }
+        Map<String, Long> counts = new TreeMap<>();
+        jdbcTemplate.query(SELECT_DAILY_SQL, rs -> {
+            counts.merge(rs.getString(1), rs.getLong(2), Long::sum);
+        }, Dimension.DAY.name(), startDate.toString(), endDate.toString());
+        totalsOf(pending).forEach((key, count) -> {
+            if (key.dimension() == Dimension.DAY && key.key().compareTo(startDate.toString()) >= 0
+                    && key.key().compareTo(endDate.toString()) <= 0) {
+                counts.merge(key.key(), count, Long::sum);
+            }
+        });
+        counts.forEach((day, count) -> result.add(new Object[]{LocalDate.parse(day), count}));
+        return result;
+    }
+
+    public boolean isLoaded() {
+        return loaded;
+    }
+
+    /**
+     * 定时把分钟桶增量与累计值增量在同一事务内写入
+     */
+    @Scheduled(fixedDelayString = "${log.rollup.flush-interval:10000}")
+    public synchronized void flush() {
+        // 加载完成前写入会被补算重复统计
+        if (!loaded) {
+            load();
+            if (!loaded) {
+                return;
+            }
+        }
+        Map<RollupKey, Long> batch = new HashMap<>();
+        for (RollupKey key : pending.keySet()) {
+            Long count = pending.remove(key);
+            if (count != null) {
+                batch.put(key, count);
+            }
+        }
+        if (batch.isEmpty()) {
+            return;
+        }
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                upsert(Granularity.MINUTE, batch);
+                upsertTotals(totalsOf(batch));
+            });
+        } catch (RuntimeException e) {
+            batch.forEach((key, count) -> pending.merge(key, count, Long::sum));
+            log.warn("日志汇总刷盘失败，{} 个桶将在下次重试", batch.size(), e);
+        }
+    }
+
+    /**
+     * 定时把较早的分钟桶合并为小时桶、小时桶合并为天桶；每个整点只由一个节点执行一次
+     */
+    @Scheduled(fixedDelayString = "${log.rollup.compact-interval:600000}",
+            initialDelayString = "${log.rollup.compact-interval:600000}")
+    public void compact() {
+        LocalDateTime now = LocalDateTime.now();
+        String run = Granularity.HOUR.truncate(now).toString();
+        if (!leaseService.tryAcquire(COMPACT_LEASE, run, leaseTtl())) {
+            log.debug("日志汇总合并已由其他节点执行或正在执行: {}", run);
+            return;
+        }
+        boolean completed = false;
+        try {
+            compact(Granularity.MINUTE, Granularity.HOUR, Granularity.HOUR.truncate(now).minusHours(2));
+            compact(Granularity.HOUR, Granularity.DAY, Granularity.DAY.truncate(now).minusDays(2));
+            completed = true;
+        } finally {
+            if (completed) {
+                leaseService.complete(COMPACT_LEASE, run);
+            } else {
+                leaseService.release(COMPACT_LEASE);
+            }
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        flush();
+    }
+
+    private void compact(Granularity from, Granularity to, LocalDateTime before) {
+        transactionTemplate.executeWithoutResult(status -> {
+            Map<RollupKey, Long> merged = new HashMap<>();
+            jdbcTemplate.query(SELECT_BUCKETS_SQL, rs -> {
+                RollupKey key = new RollupKey(to.truncate(rs.getTimestamp(1).toLocalDateTime()),
+                        rs.getString(2), rs.getLong(3), rs.getString(4));
+                merged.merge(key, rs.getLong(5), Long::sum);
+            }, from.name(), Timestamp.valueOf(before));
+            if (merged.isEmpty()) {
+                return;
+            }
+            upsert(to, merged);
+            jdbcTemplate.update(DELETE_BUCKETS_SQL, from.name(), Timestamp.valueOf(before));
+            log.debug("日志汇总 {} 合并为 {} 个 {} 桶", from, merged.size(), to);
+        });
+    }
+
+    private void upsert(Granularity granularity, Map<RollupKey, Long> counts) {
+        List<Object[]> batch = new ArrayList<>(counts.size());
+        for (Map.Entry<RollupKey, Long> entry : counts.entrySet()) {
+            RollupKey key = entry.getKey();
+            batch.add(new Object[]{entry.getValue(), granularity.name(), Timestamp.valueOf(key.bucketStart()),
+                    key.operation(), key.userId(), key.ipAddress()});
+        }
+        int[] updated = jdbcTemplate.batchUpdate(UPDATE_SQL, batch);
+        for (int i = 0; i < updated.length; i++) {
+            if (updated[i] == 0) {
+                Object[] args = batch.get(i);
+                try {
+                    jdbcTemplate.update(INSERT_SQL, args[1], args[2], args[3], args[4], args[5], args[0]);
+                } catch (DuplicateKeyException e) {
+                    jdbcTemplate.update(UPDATE_SQL, args);
+                }
+            }
+        }
+    }
+
+    /**
+     * 累计表为空：汇总表有数据（升级）时从汇总表重建，否则从 system_log 补算天桶
+     */
+    private void seed() {
+        Integer rows = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM log_rollup", Integer.class);
+        boolean fromRollup = rows != null && rows > 0;
+        Map<RollupKey, Long> seeded = new HashMap<>();
+        RowCallbackHandler handler = rs -> {
+            LocalDate day = rs.getDate(4).toLocalDate();
+            String ip = rs.getString(3) != null ? rs.getString(3) : NO_IP;
+            seeded.merge(new RollupKey(day.atStartOfDay(), rs.getString(1), rs.getLong(2), ip), rs.getLong(5),
+                    Long::sum);
+        };
+        if (fromRollup) {
+            jdbcTemplate.query(LOAD_TOTALS_SQL, handler);
+        } else {
+            jdbcTemplate.query(SEED_SQL, handler, Timestamp.valueOf(seedCutoff));
+        }
+        if (seeded.isEmpty()) {
+            return;
+        }
+        transactionTemplate.executeWithoutResult(status -> {
+            if (!fromRollup) {
+                upsert(Granularity.DAY, seeded);
+            }
+            upsertTotals(totalsOf(seeded));
+        });
+        log.info("日志累计值已从{}重建，{} 个天级汇总桶", fromRollup ? "汇总表" : "历史日志", seeded.size());
+    }
+
+    /**
+     * 某维度的累计值，合并本节点尚未刷盘的分钟桶；与刷盘互斥，避免分钟桶已摘除但尚未提交时漏计
+     */
+    private synchronized Map<String, Long> totals(Dimension dimension, long userId) {
+        Map<String, Long> counts = new HashMap<>();
+        jdbcTemplate.query(SELECT_TOTALS_SQL, rs -> {
+            counts.merge(rs.getString(1), rs.getLong(2), Long::sum);
+        }, dimension.name(), userId);
+        totalsOf(pending).forEach((key, count) -> {
+            if (key.dimension() == dimension && key.userId() == userId) {
+                counts.merge(key.key(), count, Long::sum);
+            }
+        });
+        return counts;
+    }
+
+    /**
+     * 分钟桶计数换算为各维度累计值增量
+     */
+    private static Map<TotalKey, Long> totalsOf(Map<RollupKey, Long> buckets) {
+        Map<TotalKey, Long> totals = new HashMap<>();
+        buckets.forEach((key, count) -> {
+            totals.merge(new TotalKey(Dimension.OPERATION, NO_USER, key.operation()), count, Long::sum);
+            totals.merge(new TotalKey(Dimension.DAY, NO_USER, key.bucketStart().toLocalDate().toString()), count,
+                    Long::sum);
+            totals.merge(new TotalKey(Dimension.USER_OP, key.userId(), key.operation()), count, Long::sum);
+            if (!NO_IP.equals(key.ipAddress())) {
+                totals.merge(new TotalKey(Dimension.IP, NO_USER, key.ipAddress()), count, Long::sum);
+            }
+        });
+        return totals;
+    }
+
+    private void upsertTotals(Map<TotalKey, Long> totals) {
+        List<Object[]> batch = new ArrayList<>(totals.size());
+        totals.forEach((key, count) -> batch.add(new Object[]{count, key.dimension().name(), key.userId(), key.key()}));
+        int[] updated = jdbcTemplate.batchUpdate(UPDATE_TOTAL_SQL, batch);
+        for (int i = 0; i < updated.length; i++) {
+            if (updated[i] == 0) {
+                Object[] args = batch.get(i);
+                try {
+                    jdbcTemplate.update(INSERT_TOTAL_SQL, args[1], args[2], args[3], args[0]);
+                } catch (DuplicateKeyException e) {
+                    jdbcTemplate.update(UPDATE_TOTAL_SQL, args);
+                }
+            }
+        }
+    }
+
+    private Duration leaseTtl() {
+        return Duration.ofMillis(leaseTtlMillis);
+    }
+
+    private static List<Object[]> sortedCounts(Map<String, Long> totals) {
+        List<Object[]> result = new ArrayList<>(totals.size());
+        totals.forEach((key, count) -> result.add(new Object[]{key, count}));
+        result.sort(Comparator.comparingLong((Object[] row) -> (Long) row[1]).reversed());
+        return result;
+    }
+}
@@ -0,0 +1,261 @@
+package org.example.backend.service;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.persistence.EntityManager;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.example.backend.dto.AuditEvent;
+import org.example.backend.dto.AuditStats;
+import org.example.backend.dto.CursorSlice;
+import org.example.backend.dto.LogItem;
+import org.example.backend.entity.SystemLog;
+import org.example.backend.repository.SystemLogRepository;
+import org.example.backend.util.KeysetCursor;
+import org.example.backend.util.MpscRingBuffer;
+import org.example.backend.util.StreamChunks;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+import java.util.stream.Stream;
+
+/**
+ * 系统日志服务
+ * <p>
+ * 请求线程只把审计事件写入无锁环形缓冲区，由专用写线程批量插入 system_log，
+ * 审计日志不再占用请求线程的数据库往返。缓冲区满时按策略丢弃（DROP）
+ * 或短暂等待后丢弃（BLOCK），丢弃数量计入统计。写库成功的事件同时计入
+ * {@link LogRollupService} 的预聚合统计。
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class LogService {
+
+    private static final String INSERT_SQL = "INSERT INTO system_log "
+            + "(user_id, operation, category, description, ip_address, user_agent, created_time) "
+            + "VALUES (?, ?, ?, ?, ?, ?, ?)";
+
+    private static final int MAX_WRITE_ATTEMPTS = 3;
+    private static final int EXPORT_CHUNK_SIZE = 500;
+    private static final long BLOCK_PARK_NANOS = TimeUnit.MICROSECONDS.toNanos(50);
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final SystemLogRepository systemLogRepository;
+    private final LogRollupService logRollupService;
+    private final EntityManager entityManager;
+
+    @Value("${audit.buffer-size:65536}")
+    private int bufferSize;
+
+    @Value("${audit.batch-size:500}")
+    private int batchSize;
+
+    @Value("${audit.flush-interval:100}")
+    private long flushIntervalMillis;
+
+    @Value("${audit.overflow-policy:DROP}")
+    private OverflowPolicy overflowPolicy;
+
+    @Value("${audit.block-timeout:5}")
+    private long blockTimeoutMillis;
+
+    private final AtomicLong appendedCount = new AtomicLong();
+    private final AtomicLong droppedCount = new AtomicLong();
+    private final AtomicLong writtenCount = new AtomicLong();
+    private final AtomicLong failedCount = new AtomicLong();
+
+    private MpscRingBuffer<AuditEvent> buffer;
+    private Thread writer;
+    private volatile boolean running;
+
+    /**
+     * 缓冲区满时的处理策略
+     */
+    public enum OverflowPolicy {
+        DROP, // 立即丢弃
+        BLOCK // 等待至多 audit.block-timeout 毫秒，仍无空位则丢弃
+    }
+
+    @PostConstruct
+    public void start() {
+        buffer = new MpscRingBuffer<>(bufferSize);
+        running = true;
+        writer = new Thread(this::runWriter, "audit-log-writer");
+        writer.setDaemon(true);
+        writer.start();
+    }
+
+    /**
+     * 记录一条操作日志
+     *
+     * @return 是否已进入缓冲区
+     */
+    public boolean log(SystemLog.OperationType type, Long userId, String description,
+                       String ipAddress, String userAgent) {
+        return append(new AuditEvent(userId, type.name(), description, ipAddress, userAgent, LocalDateTime.now()));
+    }
+
+    /**
+     * 写入审计事件，不访问数据库
+     *
+     * @return 是否已进入缓冲区
+     */
+    public boolean append(AuditEvent event) {
+        if (event.getCreatedTime() == null) {
+            event.setCreatedTime(LocalDateTime.now());
+        }
+        if (buffer.offer(event) || (overflowPolicy == OverflowPolicy.BLOCK && offerBlocking(event))) {
+            appendedCount.incrementAndGet();
+            return true;
+        }
+        droppedCount.incrementAndGet();
+        return false;
+    }
+
+    /**
+     * 最新日志：优先只查当天（最新分区），不足 limit 条时再回退到全表
+     */
+    @Transactional(readOnly = true)
+    public List<SystemLog> getLatestLogs(int limit) {
+        PageRequest page = PageRequest.of(0, limit);
+        List<SystemLog> logs = systemLogRepository.findLatestLogsSince(LocalDate.now().atStartOfDay(), page);
+        if (logs.size() >= limit) {
+            return logs;
+        }
+        return systemLogRepository.findLatestLogs(page);
+    }
+
+    /**
+     * 时间范围内的日志（按时间倒序的游标分页，每页成本与翻页深度无关）
+     */
+    @Transactional(readOnly = true)
+    public CursorSlice<LogItem> getLogs(LocalDateTime startTime, LocalDateTime endTime, String cursor, int size) {
+        int pageSize = CursorSlice.clampSize(size);
+        KeysetCursor position = KeysetCursor.decode(cursor);
+        List<LogItem> rows = systemLogRepository.findItemsByCreatedTimeBetweenBefore(
+                startTime, endTime, position.timeKey(), position.id(), PageRequest.of(0, pageSize + 1));
+        return CursorSlice.of(rows, pageSize, item -> KeysetCursor.encode(item.getCreatedTime(), item.getId()));
+    }
+
+    /**
+     * 导出时间范围内的日志为 TSV（流式读取，分块写出）
+     *
+     * @return 导出行数
+     */
+    @Transactional(readOnly = true)
+    public long exportLogs(LocalDateTime startTime, LocalDateTime endTime, Writer writer) throws IOException {
+        writer.write("id\tuser_id\toperation\tcategory\tdescription\tip_address\tcreated_time\n");
+        try (Stream<SystemLog> logs = systemLogRepository.streamByCreatedTimeBetween(startTime, endTime)) {
+            return StreamChunks.forEachChunk(logs, EXPORT_CHUNK_SIZE, entityManager, chunk -> {
+                try {
+                    for (SystemLog systemLog : chunk) {
+                        LogItem item = LogItem.from(systemLog);
+                        writer.write(item.getId() + "\t" + tsv(item.getUserId()) + "\t" + tsv(item.getOperation())
+                                + "\t" + tsv(item.getCategory()) + "\t" + tsv(item.getDescription())
+                                + "\t" + tsv(item.getIpAddress()) + "\t" + tsv(item.getCreatedTime()) + "\n");
+                    }
+                    writer.flush();
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    public AuditStats getStats() {
+        return new AuditStats(buffer.size(), buffer.capacity(), appendedCount.get(), droppedCount.get(),
+                writtenCount.get(), failedCount.get(), overflowPolicy.name());
+    }
+
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        running = false;
+        LockSupport.unpark(writer);
+        writer.join(TimeUnit.SECONDS.toMillis(10));
+    }
+
+    private static String tsv(Object value) {
+        if (value == null) {
+            return "";
+        }
+        return value.toString().replace('\t', ' ').replace('\n', ' ').replace('\r', ' ');
+    }
+
+    private boolean offerBlocking(AuditEvent event) {
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(blockTimeoutMillis);
+        while (System.nanoTime() < deadline) {
+            LockSupport.parkNanos(BLOCK_PARK_NANOS);
+            if (buffer.offer(event)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void runWriter() {
+        List<AuditEvent> batch = new ArrayList<>(batchSize);
+        long idleNanos = TimeUnit.MILLISECONDS.toNanos(flushIntervalMillis);
+        while (running) {
+            if (buffer.drain(batch::add, batchSize) == 0) {
+                LockSupport.parkNanos(idleNanos);
+                continue;
+            }
+            write(batch);
+            batch.clear();
+        }
+        // 停机前写完剩余事件
+        while (buffer.drain(batch::add, batchSize) > 0) {
+            write(batch);
+            batch.clear();
+        }
+    }
+
+    private void write(List<AuditEvent> batch) {
+        for (int attempt = 1; attempt <= MAX_WRITE_ATTEMPTS; attempt++) {
+            try {
+                // 整批一个事务，失败时全部回滚，重试不会重复插入已写入的行
+                transactionTemplate.executeWithoutResult(status ->
+                        jdbcTemplate.batchUpdate(INSERT_SQL, batch, batch.size(), (ps, event) -> {
+                            ps.setObject(1, event.getUserId());
+                            ps.setString(2, event.getOperation());
+                            ps.setString(3, SystemLog.Category.of(event.getOperation()).name());
+                            ps.setString(4, event.getDescription());
+                            ps.setString(5, event.getIpAddress());
+                            ps.setString(6, event.getUserAgent());
+                            ps.setTimestamp(7, Timestamp.valueOf(event.getCreatedTime()));
+                        }));
+            } catch (RuntimeException e) {
+                if (attempt == MAX_WRITE_ATTEMPTS) {
+                    failedCount.addAndGet(batch.size());
+                    log.error("审计日志写入失败，放弃 {} 条", batch.size(), e);
+                    return;
+                }
+                log.warn("审计日志写入失败，第 {} 次重试", attempt, e);
+                LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(100L * attempt));
+                continue;
+            }
+            writtenCount.addAndGet(batch.size());
+            logRollupService.record(batch);
+            return;
+        }
+    }
+}
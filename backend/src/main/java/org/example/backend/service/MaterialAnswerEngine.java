@@ -0,0 +1,76 @@
+package org.example.backend.service;
+
+import lombok.RequiredArgsConstructor;
+import org.example.backend.entity.Material;
+import org.example.backend.search.TextTokenizer;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+
+/**
+ * 本地回答引擎：按问题中的词项检索已审核通过的学习资料，推荐最相关的几份
+ * <p>
+ * 不依赖外部服务，离线可用。回答按固定字数切成片段输出，便于流式下发。
+ */
+@Component
+@RequiredArgsConstructor
+public class MaterialAnswerEngine implements AnswerEngine {
+
+    private static final int MAX_MATERIALS = 3;
+    private static final int MAX_TERMS = 5;
+    private static final int CHUNK_CODE_POINTS = 8;
+    private static final int DESCRIPTION_LIMIT = 60;
+
+    private final MaterialSearchService materialSearchService;
+
+    @Override
+    public void generate(String question, Consumer<String> sink) {
+        emit("关于「" + question.strip() + "」，", sink);
+        Map<Long, Material> found = new LinkedHashMap<>();
+        List<String> terms = TextTokenizer.terms(question);
+        for (int i = 0; i < terms.size() && i < MAX_TERMS && found.size() < MAX_MATERIALS; i++) {
+            for (Material material : materialSearchService.search(terms.get(i), null, Material.Status.APPROVED,
+                    PageRequest.of(0, MAX_MATERIALS)).getContent()) {
+                if (found.size() < MAX_MATERIALS) {
+                    found.putIfAbsent(material.getId(), material);
+                }
+            }
+        }
+        if (found.isEmpty()) {
+            emit("暂未找到相关的学习资料，建议换个说法或向老师提问。", sink);
+            return;
+        }
+        emit("以下学习资料可能有帮助：\n", sink);
+        int n = 1;
+        for (Material material : found.values()) {
+            StringBuilder line = new StringBuilder().append(n++).append(". ").append(material.getName())
+                    .append("（").append(material.getSubject()).append("）");
+            String description = material.getDescription();
+            if (description != null && !description.isBlank()) {
+                line.append("：").append(truncate(description.strip()));
+            }
+            emit(line.append('\n').toString(), sink);
+        }
+    }
+
+    private static void emit(String text, Consumer<String> sink) {
+        int length = text.length();
+        int start = 0;
+        while (start < length) {
+            int end = text.offsetByCodePoints(start, Math.min(CHUNK_CODE_POINTS, text.codePointCount(start, length)));
+            sink.accept(text.substring(start, end));
+            start = end;
+        }
+    }
+
+    private static String truncate(String text) {
+        if (text.codePointCount(0, text.length()) <= DESCRIPTION_LIMIT) {
+            return text;
+        }
+        return text.substring(0, text.offsetByCodePoints(0, DESCRIPTION_LIMIT)) + "…";
+    }
+}
@@ -0,0 +1,312 @@
+package org.example.backend.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.lang3.StringUtils;
+import org.example.backend.dto.CacheStats;
+import org.example.backend.dto.CatalogPage;
+import org.example.backend.dto.CursorSlice;
+import org.example.backend.dto.MaterialSummary;
+import org.example.backend.entity.Material;
+import org.example.backend.event.MaterialEvent;
+import org.example.backend.repository.MaterialRepository;
+import org.example.backend.util.LocalCache;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 资料目录页缓存
+ * <p>
+ * 学生浏览的已审核资料分页结果按规范化查询条件整页序列化缓存（读穿透）。
+ * 缓存键带版本号：按学科浏览用该学科的版本，不限学科的查询用全局版本；
+ * 资料保存、审核、拒绝、删除时递增对应学科和全局版本，旧版本的页不再被读到，随过期时间淘汰。
+ * 同一键的并发未命中只允许一个加载者：进程内用 in-flight Future 合并，
+ * 跨节点用 Redis SETNX 短锁，未抢到锁的节点短暂轮询等待结果。
+ * 开启 app.cache.redis.enabled 时页与版本号保存在 Redis，否则退化为进程内缓存。
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class MaterialCatalogService {
+
+    private static final String PAGE_PREFIX = "catalog:page:";
+    private static final String VERSION_PREFIX = "catalog:ver:";
+    private static final String LOCK_PREFIX = "catalog:lock:";
+    private static final String ALL_SUBJECTS = "*";
+    private static final long POLL_INTERVAL_MILLIS = 20;
+
+    private static final Sort ORDER = Sort.by(Sort.Order.desc("uploadTime"), Sort.Order.desc("id"));
+
+    // 仅当锁仍归自己持有时才删除，避免误删超时后被其他节点重新获取的锁
+    private static final DefaultRedisScript<Long> UNLOCK_SCRIPT = new DefaultRedisScript<>(
+            "if redis.call('get', KEYS[1]) == ARGV[1] then return redis.call('del', KEYS[1]) else return 0 end",
+            Long.class);
+
+    private final MaterialRepository materialRepository;
+    private final DownloadCounterService downloadCounterService;
+    private final TransactionTemplate transactionTemplate;
+    private final ObjectProvider<StringRedisTemplate> redisTemplateProvider;
+    private final ObjectMapper objectMapper;
+
+    @Value("${catalog.cache.ttl:300000}")
+    private long ttlMillis;
+
+    @Value("${catalog.cache.local-size:2000}")
+    private int localSize;
+
+    @Value("${catalog.cache.lock-timeout:5000}")
+    private long lockTimeoutMillis;
+
+    @Value("${catalog.cache.lock-wait:1000}")
+    private long lockWaitMillis;
+
+    @Value("${app.cache.redis.enabled:false}")
+    private boolean remoteEnabled;
+
+    private StringRedisTemplate redisTemplate;
+    private LocalCache<String, String> localPages;
+    private final Map<String, AtomicLong> localVersions = new ConcurrentHashMap<>();
+    private final Map<String, CompletableFuture<CatalogPage>> inFlight = new ConcurrentHashMap<>();
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+
+    /**
+     * 规范化后的查询条件
+     */
+    private record CatalogQuery(String subject, String name, String description, int page, int size) {
+
+        String scope() {
+            return subject != null ? subject : ALL_SUBJECTS;
+        }
+
+        String cacheKey() {
+            return "n=" + encode(name) + "&d=" + encode(description) + "&p=" + page + "&s=" + size;
+        }
+
+        private static String encode(String value) {
+            return value == null ? "" : URLEncoder.encode(value, StandardCharsets.UTF_8);
+        }
+    }
+
+    @PostConstruct
+    public void init() {
+        redisTemplate = remoteEnabled ? redisTemplateProvider.getIfAvailable() : null;
+        localPages = new LocalCache<>(localSize, ttlMillis, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * 浏览已审核资料（按上传时间倒序分页），条件为空表示不限
+     */
+    public CatalogPage browse(String subject, String name, String description, int page, int size) {
+        CatalogQuery query = new CatalogQuery(StringUtils.trimToNull(subject), StringUtils.trimToNull(name),
+                StringUtils.trimToNull(description), Math.max(page, 0), CursorSlice.clampSize(size));
+        String scope = query.scope();
+        String key = PAGE_PREFIX + scope + ":v" + currentVersion(scope) + ":" + query.cacheKey();
+
+        CatalogPage cached = getPage(key);
+        if (cached != null) {
+            hits.increment();
+            return cached;
+        }
+        misses.increment();
+
+        CompletableFuture<CatalogPage> mine = new CompletableFuture<>();
+        CompletableFuture<CatalogPage> existing = inFlight.putIfAbsent(key, mine);
+        if (existing != null) {
+            try {
+                return existing.join();
+            } catch (CompletionException e) {
+                throw e.getCause() instanceof RuntimeException cause ? cause : e;
+            }
+        }
+        try {
+            CatalogPage result = loadExclusive(key, query);
+            mine.complete(result);
+            return result;
+        } catch (RuntimeException e) {
+            mine.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(key, mine);
+        }
+    }
+
+    /**
+     * 资料变更后递增所属学科和全局版本（下载不影响目录内容）；换学科时原学科一并失效
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onMaterialEvent(MaterialEvent event) {
+        if (event.getType() == MaterialEvent.Type.DOWNLOADED) {
+            return;
+        }
+        bumpVersion(event.getMaterial().getSubject());
+        if (event.getPreviousSubject() != null) {
+            bumpVersion(event.getPreviousSubject());
+        }
+        bumpVersion(ALL_SUBJECTS);
+    }
+
+    public CacheStats getStats() {
+        long hitCount = hits.sum();
+        long missCount = misses.sum();
+        long total = hitCount + missCount;
+        boolean remote = redisTemplate != null;
+        return new CacheStats("catalog", remote ? 0 : localPages.size(), localSize, hitCount, missCount,
+                total == 0 ? 0 : (double) hitCount / total, localPages.evictionCount(),
+                remote ? hitCount : 0, remote ? missCount : 0, remote);
+    }
+
+    /**
+     * 跨节点互斥加载：抢到锁的节点查库回填，其余节点等待回填结果，超时后自行查库
+     */
+    private CatalogPage loadExclusive(String key, CatalogQuery query) {
+        if (redisTemplate == null) {
+            return loadAndStore(key, query);
+        }
+        String lockKey = LOCK_PREFIX + key;
+        String owner = UUID.randomUUID().toString();
+        Boolean locked;
+        try {
+            locked = redisTemplate.opsForValue().setIfAbsent(lockKey, owner, Duration.ofMillis(lockTimeoutMillis));
+        } catch (RuntimeException e) {
+            log.debug("获取目录缓存锁失败，直接查库: {}", key, e);
+            return load(query);
+        }
+        if (Boolean.TRUE.equals(locked)) {
+            try {
+                return loadAndStore(key, query);
+            } finally {
+                try {
+                    redisTemplate.execute(UNLOCK_SCRIPT, List.of(lockKey), owner);
+                } catch (RuntimeException e) {
+                    log.debug("释放目录缓存锁失败，等待锁过期: {}", lockKey, e);
+                }
+            }
+        }
+        long deadline = System.currentTimeMillis() + lockWaitMillis;
+        while (System.currentTimeMillis() < deadline) {
+            try {
+                Thread.sleep(POLL_INTERVAL_MILLIS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+            CatalogPage cached = getPage(key);
+            if (cached != null) {
+                return cached;
+            }
+        }
+        return load(query);
+    }
+
+    private CatalogPage loadAndStore(String key, CatalogQuery query) {
+        CatalogPage page = load(query);
+        try {
+            putPage(key, objectMapper.writeValueAsString(page));
+        } catch (JsonProcessingException e) {
+            log.warn("目录页序列化失败: {}", key, e);
+        }
+        return page;
+    }
+
+    private CatalogPage load(CatalogQuery query) {
+        return transactionTemplate.execute(status -> {
+            PageRequest pageable = PageRequest.of(query.page(), query.size(), ORDER);
+            Page<MaterialSummary> result;
+            if (query.name() == null && query.description() == null && query.subject() != null) {
+                result = materialRepository.findSummariesBySubjectAndStatus(
+                        query.subject(), Material.Status.APPROVED, pageable);
+            } else {
+                result = materialRepository.findByConditions(query.name(), query.description(), query.subject(),
+                                Material.Status.APPROVED, pageable)
+                        .map(material -> MaterialSummary.from(material, material.getDownloadCount()));
+            }
+            result.forEach(downloadCounterService::applyPendingDelta);
+            return new CatalogPage(result.getContent(), query.page(), query.size(),
+                    result.getTotalElements(), result.getTotalPages());
+        });
+    }
+
+    private long currentVersion(String scope) {
+        if (redisTemplate != null) {
+            try {
+                String value = redisTemplate.opsForValue().get(VERSION_PREFIX + scope);
+                return value != null ? Long.parseLong(value) : 0;
+            } catch (RuntimeException e) {
+                log.debug("读取目录版本失败: {}", scope, e);
+            }
+        }
+        return localVersions.computeIfAbsent(scope, s -> new AtomicLong()).get();
+    }
+
+    private void bumpVersion(String scope) {
+        localVersions.computeIfAbsent(scope, s -> new AtomicLong()).incrementAndGet();
+        if (redisTemplate != null) {
+            try {
+                redisTemplate.opsForValue().increment(VERSION_PREFIX + scope);
+            } catch (RuntimeException e) {
+                log.warn("递增目录版本失败，旧页将在 {} 毫秒内过期: {}", ttlMillis, scope, e);
+            }
+        }
+    }
+
+    private CatalogPage getPage(String key) {
+        String json;
+        if (redisTemplate == null) {
+            json = localPages.getIfPresent(key);
+        } else {
+            try {
+                json = redisTemplate.opsForValue().get(key);
+            } catch (RuntimeException e) {
+                log.debug("读取目录缓存失败: {}", key, e);
+                return null;
+            }
+        }
+        if (json == null) {
+            return null;
+        }
+        try {
+            return objectMapper.readValue(json, CatalogPage.class);
+        } catch (JsonProcessingException e) {
+            log.warn("目录缓存内容无法解析，按未命中处理: {}", key, e);
+            return null;
+        }
+    }
+
+    private void putPage(String key, String json) {
+        if (redisTemplate == null) {
+            localPages.put(key, json);
+            return;
+        }
+        try {
+            redisTemplate.opsForValue().set(key, json, Duration.ofMillis(ttlMillis));
+        } catch (RuntimeException e) {
+            log.debug("写入目录缓存失败: {}", key, e);
+        }
+    }
+}
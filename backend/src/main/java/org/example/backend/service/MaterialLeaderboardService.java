@@ -0,0 +1,274 @@
+package org.example.backend.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.example.backend.dto.MaterialSummary;
+import org.example.backend.entity.Material;
+import org.example.backend.event.MaterialEvent;
+import org.example.backend.exception.BadRequestException;
+import org.example.backend.repository.MaterialRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+
+/**
+ * 首页资料排行榜服务
+ * <p>
+ * 在内存中维护已审核资料的下载榜和最新榜（各保留前 capacity 条），
+ * 审核、拒绝、删除、下载事件到达时增量调整，首页读取为 O(K) 且不访问数据库；
+ * 定时与数据库对账，修正因淘汰或并发导致的偏差。
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class MaterialLeaderboardService {
+
+    private static final int MAX_LIMIT = 100;
+
+    private final MaterialRepository materialRepository;
+    private final DownloadCounterService downloadCounterService;
+    private final TransactionTemplate transactionTemplate;
+
+    @Value("${material.leaderboard.capacity:200}")
+    private int capacity;
+
+    private final Map<Long, MaterialSummary> summaries = new ConcurrentHashMap<>();
+    private volatile Ranking topDownloaded = new Ranking(0);
+    private volatile Ranking latest = new Ranking(0);
+
+    /**
+     * 下载次数最多的资料
+     */
+    public List<MaterialSummary> getTopDownloaded(int limit) {
+        validateLimit(limit);
+        if (limit > capacity) {
+            return loadFromDatabase(true, limit);
+        }
+        return resolve(topDownloaded.top(limit));
+    }
+
+    /**
+     * 最新上传的资料
+     */
+    public List<MaterialSummary> getLatest(int limit) {
+        validateLimit(limit);
+        if (limit > capacity) {
+            return loadFromDatabase(false, limit);
+        }
+        return resolve(latest.top(limit));
+    }
+
+    /**
+     * 启动时及定时与数据库对账
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(fixedDelayString = "${material.leaderboard.reconcile-interval:60000}",
+            initialDelayString = "${material.leaderboard.reconcile-interval:60000}")
+    public void reconcile() {
+        List<MaterialSummary> byDownloads = loadFromDatabase(true, capacity);
+        List<MaterialSummary> byUploadTime = loadFromDatabase(false, capacity);
+
+        Ranking downloadRanking = new Ranking(capacity);
+        Ranking latestRanking = new Ranking(capacity);
+        Map<Long, MaterialSummary> fresh = new HashMap<>();
+        for (MaterialSummary summary : byDownloads) {
+            downloadRanking.offer(summary.getId(), summary.getDownloadCount());
+            fresh.put(summary.getId(), summary);
+        }
+        for (MaterialSummary summary : byUploadTime) {
+            latestRanking.offer(summary.getId(), uploadScore(summary.getUploadTime()));
+            fresh.put(summary.getId(), summary);
+        }
+
+        synchronized (this) {
+            summaries.keySet().retainAll(fresh.keySet());
+            summaries.putAll(fresh);
+            topDownloaded = downloadRanking;
+            latest = latestRanking;
+        }
+        log.debug("资料排行榜对账完成，下载榜 {} 条，最新榜 {} 条", byDownloads.size(), byUploadTime.size());
+    }
+
+    /**
+     * 资料事件到达时增量维护排行榜
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public synchronized void onMaterialEvent(MaterialEvent event) {
+        Material material = event.getMaterial();
+        Long id = material.getId();
+        switch (event.getType()) {
+            case APPROVED, SAVED -> {
+                if (material.getStatus() != Material.Status.APPROVED) {
+                    remove(id);
+                    return;
+                }
+                MaterialSummary summary = MaterialSummary.from(material, downloadCounterService.getDownloadCount(material));
+                summaries.put(id, summary);
+                boolean tracked = topDownloaded.offer(id, summary.getDownloadCount());
+                tracked |= latest.offer(id, uploadScore(summary.getUploadTime()));
+                evictUntracked(id, tracked);
+            }
+            case REJECTED, DELETED -> remove(id);
+            case DOWNLOADED -> {
+                if (material.getStatus() != Material.Status.APPROVED) {
+                    return;
+                }
+                MaterialSummary current = summaries.get(id);
+                long count = current != null
+                        ? current.getDownloadCount() + 1
+                        : downloadCounterService.getDownloadCount(material);
+                MaterialSummary summary = MaterialSummary.from(material, count);
+                summaries.put(id, summary);
+                boolean tracked = topDownloaded.offer(id, count) || latest.contains(id);
+                evictUntracked(id, tracked);
+            }
+            default -> {
+            }
+        }
+    }
+
+    private void remove(Long id) {
+        topDownloaded.remove(id);
+        latest.remove(id);
+        summaries.remove(id);
+    }
+
+    private void evictUntracked(Long id, boolean tracked) {
+        if (!tracked) {
+            summaries.remove(id);
+        }
+        for (Long evicted : topDownloaded.drainEvicted()) {
+            if (!latest.contains(evicted)) {
+                summaries.remove(evicted);
+            }
+        }
+        for (Long evicted : latest.drainEvicted()) {
+            if (!topDownloaded.contains(evicted)) {
+                summaries.remove(evicted);
+            }
+        }
+    }
+
+    private List<MaterialSummary> resolve(List<Long> ids) {
+        List<MaterialSummary> result = new ArrayList<>(ids.size());
+        for (Long id : ids) {
+            MaterialSummary summary = summaries.get(id);
+            if (summary != null) {
+                result.add(summary);
+            }
+        }
+        return result;
+    }
+
+    private List<MaterialSummary> loadFromDatabase(boolean byDownloads, int limit) {
+        return transactionTemplate.execute(status -> {
+            PageRequest page = PageRequest.of(0, limit);
+            List<MaterialSummary> result = new ArrayList<>(byDownloads
+                    ? materialRepository.findTopDownloadedSummaries(page)
+                    : materialRepository.findLatestSummaries(page));
+            result.forEach(downloadCounterService::applyPendingDelta);
+            if (byDownloads) {
+                result.sort(Comparator.comparing(MaterialSummary::getDownloadCount).reversed());
+            }
+            return result;
+        });
+    }
+
+    private static void validateLimit(int limit) {
+        if (limit <= 0 || limit > MAX_LIMIT) {
+            throw new BadRequestException("条数须在 1 到 " + MAX_LIMIT + " 之间: " + limit);
+        }
+    }
+
+    private static long uploadScore(LocalDateTime uploadTime) {
+        LocalDateTime time = uploadTime != null ? uploadTime : LocalDateTime.now();
+        return time.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+
+    /**
+     * 有界有序集合：按分数降序、ID降序排列，超出容量时淘汰末尾。
+     * 写操作由外层同步，读操作直接遍历跳表（弱一致）。
+     */
+    private static final class Ranking {
+
+        private static final Comparator<RankKey> ORDER = Comparator
+                .comparingLong(RankKey::score).reversed()
+                .thenComparing(Comparator.comparingLong(RankKey::id).reversed());
+
+        private final int capacity;
+        private final ConcurrentSkipListSet<RankKey> order = new ConcurrentSkipListSet<>(ORDER);
+        private final Map<Long, RankKey> keys = new HashMap<>();
+        private final List<Long> evicted = new ArrayList<>();
+
+        private Ranking(int capacity) {
+            this.capacity = capacity;
+        }
+
+        /**
+         * 插入或更新，返回该ID是否仍在榜内
+         */
+        boolean offer(long id, long score) {
+            RankKey key = new RankKey(score, id);
+            RankKey old = keys.get(id);
+            if (old != null) {
+                order.remove(old);
+            } else if (keys.size() >= capacity && (capacity == 0 || ORDER.compare(key, order.last()) > 0)) {
+                return false;
+            }
+            order.add(key);
+            keys.put(id, key);
+            while (keys.size() > capacity) {
+                RankKey last = order.pollLast();
+                keys.remove(last.id());
+                evicted.add(last.id());
+            }
+            return keys.containsKey(id);
+        }
+
+        void remove(long id) {
+            RankKey old = keys.remove(id);
+            if (old != null) {
+                order.remove(old);
+            }
+        }
+
+        boolean contains(long id) {
+            return keys.containsKey(id);
+        }
+
+        List<Long> drainEvicted() {
+            List<Long> drained = new ArrayList<>(evicted);
+            evicted.clear();
+            return drained;
+        }
+
+        List<Long> top(int limit) {
+            List<Long> ids = new ArrayList<>(limit);
+            for (RankKey key : order) {
+                if (ids.size() >= limit) {
+                    break;
+                }
+                ids.add(key.id());
+            }
+            return ids;
+        }
+    }
+
+    private record RankKey(long score, long id) {
+    }
+}
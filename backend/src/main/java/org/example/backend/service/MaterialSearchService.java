@@ -0,0 +1,138 @@
+package org.example.backend.service;
+
+import jakarta.persistence.EntityManager;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.lang3.StringUtils;
+import org.example.backend.entity.Material;
+import org.example.backend.event.MaterialEvent;
+import org.example.backend.repository.MaterialRepository;
+import org.example.backend.search.InvertedIndex;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * 资料全文检索服务
+ * <p>
+ * 在进程内维护资料名称、学科、描述的倒排索引，替代 {@code LIKE %keyword%} 全表扫描。
+ * 启动时流式扫描全表重建索引，之后根据 {@link MaterialEvent} 在事务提交后增量更新。
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class MaterialSearchService {
+
+    private static final float NAME_WEIGHT = 3.0f;
+    private static final float SUBJECT_WEIGHT = 2.0f;
+    private static final float DESCRIPTION_WEIGHT = 1.0f;
+
+    private final MaterialRepository materialRepository;
+    private final EntityManager entityManager;
+
+    private final InvertedIndex index = new InvertedIndex();
+    private final Map<Long, DocMeta> metas = new ConcurrentHashMap<>();
+
+    /**
+     * 过滤条件所需的文档元数据
+     */
+    private record DocMeta(String subject, Material.Status status) {
+    }
+
+    /**
+     * 启动时流式扫描资料表重建索引
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(readOnly = true)
+    public void rebuild() {
+        long start = System.currentTimeMillis();
+        index.clear();
+        metas.clear();
+        AtomicInteger count = new AtomicInteger();
+        try (Stream<Material> materials = materialRepository.streamAll()) {
+            materials.forEach(material -> {
+                indexMaterial(material);
+                entityManager.detach(material);
+                count.incrementAndGet();
+            });
+        }
+        log.info("资料索引重建完成，共 {} 条，耗时 {} ms", count.get(), System.currentTimeMillis() - start);
+    }
+
+    /**
+     * 资料变更后增量更新索引
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onMaterialEvent(MaterialEvent event) {
+        Material material = event.getMaterial();
+        switch (event.getType()) {
+            case SAVED, APPROVED, REJECTED -> indexMaterial(material);
+            case DELETED -> {
+                index.remove(material.getId());
+                metas.remove(material.getId());
+            }
+            default -> {
+            }
+        }
+    }
+
+    /**
+     * 关键词搜索，按相关度排序分页；关键词为空时退化为条件查询
+     */
+    @Transactional(readOnly = true)
+    public Page<Material> search(String keyword, String subject, Material.Status status, Pageable pageable) {
+        if (StringUtils.isBlank(keyword)) {
+            return materialRepository.findByConditions(null, null, subject, status, pageable);
+        }
+        InvertedIndex.SearchResult result = index.search(keyword, docId -> {
+            DocMeta meta = metas.get(docId);
+            return meta != null
+                    && (subject == null || subject.equals(meta.subject()))
+                    && (status == null || status == meta.status());
+        }, (int) pageable.getOffset(), pageable.getPageSize());
+        if (result.hits().isEmpty()) {
+            return new PageImpl<>(List.of(), pageable, result.total());
+        }
+
+        List<Long> ids = result.hits().stream().map(InvertedIndex.ScoredDoc::docId).toList();
+        Map<Long, Material> byId = materialRepository.findAllById(ids).stream()
+                .collect(Collectors.toMap(Material::getId, Function.identity()));
+        List<Material> content = new ArrayList<>(ids.size());
+        for (Long id : ids) {
+            Material material = byId.get(id);
+            if (material != null) {
+                content.add(material);
+            }
+        }
+        return new PageImpl<>(content, pageable, result.total());
+    }
+
+    /**
+     * 已索引资料数
+     */
+    public int indexedCount() {
+        return index.size();
+    }
+
+    private void indexMaterial(Material material) {
+        index.index(material.getId(), List.of(
+                new InvertedIndex.Field(material.getName(), NAME_WEIGHT),
+                new InvertedIndex.Field(material.getSubject(), SUBJECT_WEIGHT),
+                new InvertedIndex.Field(material.getDescription(), DESCRIPTION_WEIGHT)));
+        metas.put(material.getId(), new DocMeta(material.getSubject(), material.getStatus()));
+    }
+}
@@ -0,0 +1,158 @@
+package org.example.backend.service;
+
+import lombok.RequiredArgsConstructor;
+import org.example.backend.dto.CursorSlice;
+import org.example.backend.dto.MaterialSummary;
+import org.example.backend.dto.PendingMaterialItem;
+import org.example.backend.entity.Material;
+import org.example.backend.event.MaterialEvent;
+import org.example.backend.exception.ResourceNotFoundException;
+import org.example.backend.repository.MaterialRepository;
+import org.example.backend.util.KeysetCursor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+
+/**
+ * 学习资料管理服务
+ * <p>
+ * 所有资料写操作都经过本服务，并发布 {@link MaterialEvent}，
+ * 由索引、排行榜等派生数据在事务提交后增量更新。
+ */
+@Service
+@RequiredArgsConstructor
+public class MaterialService {
+
+    private final MaterialRepository materialRepository;
+    private final MaterialSearchService materialSearchService;
+    private final DownloadCounterService downloadCounterService;
+    private final MaterialLeaderboardService materialLeaderboardService;
+    private final ApplicationEventPublisher eventPublisher;
+
+    /**
+     * 根据ID查找资料
+     */
+    @Transactional(readOnly = true)
+    public Material getMaterial(Long id) {
+        return materialRepository.findById(id)
+                .orElseThrow(() -> new ResourceNotFoundException("资料不存在: " + id));
+    }
+
+    /**
+     * 保存资料（新增或修改）；学科变更时事件带上原学科
+     */
+    @Transactional
+    public Material save(Material material) {
+        String previousSubject = material.getId() == null ? null
+                : materialRepository.findStoredSubjectById(material.getId())
+                        .filter(subject -> !subject.equals(material.getSubject()))
+                        .orElse(null);
+        Material saved = materialRepository.save(material);
+        eventPublisher.publishEvent(new MaterialEvent(MaterialEvent.Type.SAVED, saved, previousSubject));
+        return saved;
+    }
+
+    /**
+     * 审核通过
+     */
+    @Transactional
+    public Material approve(Long id) {
+        return changeStatus(id, Material.Status.APPROVED, MaterialEvent.Type.APPROVED);
+    }
+
+    /**
+     * 审核拒绝
+     */
+    @Transactional
+    public Material reject(Long id) {
+        return changeStatus(id, Material.Status.REJECTED, MaterialEvent.Type.REJECTED);
+    }
+
+    /**
+     * 删除资料
+     */
+    @Transactional
+    public void delete(Long id) {
+        Material material = getMaterial(id);
+        materialRepository.delete(material);
+        eventPublisher.publishEvent(new MaterialEvent(MaterialEvent.Type.DELETED, material));
+    }
+
+    /**
+     * 记录一次下载（只累加内存计数，定时批量刷盘）
+     */
+    public void recordDownload(Material material) {
+        downloadCounterService.increment(material.getId());
+        eventPublisher.publishEvent(new MaterialEvent(MaterialEvent.Type.DOWNLOADED, material));
+    }
+
+    /**
+     * 获取下载次数（含尚未刷盘的增量）
+     */
+    public long getDownloadCount(Material material) {
+        return downloadCounterService.getDownloadCount(material);
+    }
+
+    /**
+     * 首页下载榜（内存排行榜，不访问数据库）
+     */
+    public List<MaterialSummary> getTopDownloaded(int limit) {
+        return materialLeaderboardService.getTopDownloaded(limit);
+    }
+
+    /**
+     * 首页最新资料（内存排行榜，不访问数据库）
+     */
+    public List<MaterialSummary> getLatest(int limit) {
+        return materialLeaderboardService.getLatest(limit);
+    }
+
+    /**
+     * 按学科浏览资料（按上传时间倒序的游标分页）
+     */
+    @Transactional(readOnly = true)
+    public CursorSlice<MaterialSummary> listBySubject(String subject, String cursor, int size) {
+        int pageSize = CursorSlice.clampSize(size);
+        KeysetCursor position = KeysetCursor.decode(cursor);
+        List<MaterialSummary> rows = materialRepository.findSummariesBySubjectBefore(
+                subject, position.timeKey(), position.id(), PageRequest.of(0, pageSize + 1));
+        rows.forEach(downloadCounterService::applyPendingDelta);
+        return CursorSlice.of(rows, pageSize, item -> KeysetCursor.encode(item.getUploadTime(), item.getId()));
+    }
+
+    /**
+     * 待审核资料（含上传者，按上传时间倒序的游标分页），上传者随资料一次查出
+     */
+    @Transactional(readOnly = true)
+    public CursorSlice<PendingMaterialItem> listPending(String cursor, int size) {
+        int pageSize = CursorSlice.clampSize(size);
+        KeysetCursor position = KeysetCursor.decode(cursor);
+        List<PendingMaterialItem> rows = materialRepository.findWithUploaderByStatusBefore(
+                        Material.Status.PENDING, position.timeKey(), position.id(), PageRequest.of(0, pageSize + 1))
+                .stream()
+                .map(PendingMaterialItem::from)
+                .toList();
+        return CursorSlice.of(rows, pageSize, item -> KeysetCursor.encode(item.getUploadTime(), item.getId()));
+    }
+
+    /**
+     * 关键词搜索资料（走倒排索引，按相关度排序）
+     */
+    @Transactional(readOnly = true)
+    public Page<Material> search(String keyword, String subject, Material.Status status, Pageable pageable) {
+        return materialSearchService.search(keyword, subject, status, pageable);
+    }
+
+    private Material changeStatus(Long id, Material.Status status, MaterialEvent.Type eventType) {
+        Material material = getMaterial(id);
+        material.setStatus(status);
+        Material saved = materialRepository.save(material);
+        eventPublisher.publishEvent(new MaterialEvent(eventType, saved));
+        return saved;
+    }
+}
@@ -0,0 +1,154 @@
+package org.example.backend.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.example.backend.dto.GroupCount;
+import org.example.backend.dto.SubjectProgress;
+import org.example.backend.event.ProgressChangedEvent;
+import org.example.backend.exception.BadRequestException;
+import org.example.backend.repository.ProgressRepository;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * 学习进度分布直方图
+ * <p>
+ * 在内存中按 1% 细粒度桶维护全局及各学科的进度记录数，查询时按所需宽度（默认 25%）合并，
+ * 不扫描进度表。进度刷盘后根据 {@link ProgressChangedEvent} 把跨桶的记录从旧桶移到新桶。
+ * 启动时及定时全量重建一次（在刷盘锁内执行，与本节点增量互斥），修正其他节点写入造成的偏差。
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class ProgressHistogramService {
+
+    public static final int DEFAULT_WIDTH = 25;
+
+    private static final int FINE_BUCKETS = 100;
+
+    private final ProgressRepository progressRepository;
+    private final ProgressService progressService;
+    private final TransactionTemplate transactionTemplate;
+
+    private volatile Histograms histograms = new Histograms();
+
+    /**
+     * 全局及各学科的细粒度桶计数
+     */
+    private static final class Histograms {
+
+        private final AtomicLongArray global = new AtomicLongArray(FINE_BUCKETS);
+        private final Map<String, AtomicLongArray> bySubject = new ConcurrentHashMap<>();
+
+        void add(String subject, int bucket, long delta) {
+            global.addAndGet(bucket, delta);
+            bySubject.computeIfAbsent(subject, s -> new AtomicLongArray(FINE_BUCKETS)).addAndGet(bucket, delta);
+        }
+    }
+
+    /**
+     * 启动时及定时从进度表全量重建
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(fixedDelayString = "${progress.histogram.reconcile-interval:3600000}",
+            initialDelayString = "${progress.histogram.reconcile-interval:3600000}")
+    public void reload() {
+        progressService.withFlushLock(() -> {
+            List<Object[]> rows = transactionTemplate.execute(status -> progressRepository.countBySubjectAndWholePercent());
+            Histograms fresh = new Histograms();
+            for (Object[] row : rows) {
+                fresh.add((String) row[0], clamp(((Number) row[1]).intValue()), ((Number) row[2]).longValue());
+            }
+            histograms = fresh;
+            log.debug("进度分布直方图重建完成，学科 {} 个", fresh.bySubject.size());
+            return null;
+        });
+    }
+
+    /**
+     * 进度变更后把记录从旧桶移到新桶
+     */
+    @EventListener
+    public void onProgressChanged(ProgressChangedEvent event) {
+        Histograms current = histograms;
+        for (ProgressChangedEvent.Change change : event.getChanges()) {
+            int newBucket = bucketOf(change.newPercent());
+            if (change.oldPercent() == null) {
+                current.add(change.subject(), newBucket, 1);
+                continue;
+            }
+            int oldBucket = bucketOf(change.oldPercent());
+            if (oldBucket != newBucket) {
+                current.add(change.subject(), oldBucket, -1);
+                current.add(change.subject(), newBucket, 1);
+            }
+        }
+    }
+
+    /**
+     * 进度分布，subject 为空表示全部学科；width 为桶宽（百分点），须整除 100
+     */
+    public List<GroupCount> getDistribution(String subject, int width) {
+        validateWidth(width);
+        Histograms current = histograms;
+        AtomicLongArray fine = subject == null ? current.global : current.bySubject.get(subject);
+        long[] counts = new long[FINE_BUCKETS];
+        if (fine != null) {
+            for (int i = 0; i < FINE_BUCKETS; i++) {
+                counts[i] = fine.get(i);
+            }
+        }
+        return merge(counts, width);
+    }
+
+    /**
+     * 指定用户的进度分布（只读取该用户自己的进度行）
+     */
+    public List<GroupCount> getUserDistribution(Long userId, int width) {
+        validateWidth(width);
+        long[] counts = new long[FINE_BUCKETS];
+        for (SubjectProgress progress : progressRepository.findUserSubjectProgress(userId)) {
+            counts[bucketOf(progress.getPercent())]++;
+        }
+        return merge(counts, width);
+    }
+
+    private static List<GroupCount> merge(long[] fine, int width) {
+        List<GroupCount> result = new ArrayList<>(FINE_BUCKETS / width);
+        for (int low = 0; low < FINE_BUCKETS; low += width) {
+            long sum = 0;
+            for (int i = low; i < low + width; i++) {
+                sum += fine[i];
+            }
+            result.add(new GroupCount(low + "-" + (low + width) + "%", sum));
+        }
+        return result;
+    }
+
+    private static void validateWidth(int width) {
+        if (width <= 0 || width > FINE_BUCKETS || FINE_BUCKETS % width != 0) {
+            throw new BadRequestException("桶宽须为 100 的约数: " + width);
+        }
+    }
+
+    /**
+     * 百分比所在的 1% 桶，100% 归入最后一个桶（与原 CASE 统计的 75-100% 区间一致）
+     */
+    private static int bucketOf(BigDecimal percent) {
+        return percent == null ? 0 : clamp(percent.intValue());
+    }
+
+    private static int clamp(int bucket) {
+        return Math.max(0, Math.min(FINE_BUCKETS - 1, bucket));
+    }
+}
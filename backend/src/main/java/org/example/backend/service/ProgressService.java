@@ -0,0 +1,247 @@
+package org.example.backend.service;
+
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.example.backend.entity.Material;
+import org.example.backend.event.ProgressChangedEvent;
+import org.example.backend.exception.ResourceNotFoundException;
+import org.example.backend.repository.MaterialRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * 学习进度服务
+ * <p>
+ * 每条学习记录写入后，只把时长增量累加到内存中对应 (用户, 学科) 的缓冲区，
+ * 定时批量合并写回 progress 表，避免每次写入都对用户全部历史记录做 SUM。
+ * 进度百分比按目标完成度计算：总学习分钟 / (目标小时 * 60)，上限100。
+ * 客户端上报的幂等键在去重窗口内重复出现时直接忽略。
+ * 每次刷盘前后读取本批涉及行的进度，发布 {@link ProgressChangedEvent}。
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class ProgressService {
+
+    private static final int SECONDS_PER_MINUTE = 60;
+
+    // 先计算 percent 再累加时长，保证 MySQL 与 H2 都基于更新前的 total_study_time 计算
+    private static final String UPDATE_SQL = "UPDATE progress SET "
+            + "percent = CASE WHEN goal_hours > 0 "
+            + "THEN LEAST(100, ROUND((total_study_time + ?) * 100.0 / (goal_hours * 60), 2)) "
+            + "ELSE percent END, "
+            + "total_study_time = total_study_time + ?, "
+            + "update_time = CURRENT_TIMESTAMP "
+            + "WHERE user_id = ? AND subject = ?";
+
+    private static final int READ_CHUNK = 500;
+
+    private static final String INSERT_SQL = "INSERT INTO progress "
+            + "(user_id, subject, percent, total_study_time, goal_hours, update_time) "
+            + "VALUES (?, ?, 0, ?, 0, CURRENT_TIMESTAMP)";
+
+    private final MaterialRepository materialRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+
+    @Value("${progress.idempotency-window:600000}")
+    private long idempotencyWindowMillis;
+
+    private final Map<ProgressKey, LongAdder> pendingSeconds = new ConcurrentHashMap<>();
+    private final Map<String, Long> recentKeys = new ConcurrentHashMap<>();
+    private final Map<Long, String> materialSubjects = new ConcurrentHashMap<>();
+
+    /**
+     * 进度聚合键
+     */
+    public record ProgressKey(Long userId, String subject) {
+    }
+
+    /**
+     * 登记幂等键，去重窗口内首次出现返回 true；空键视为不去重
+     */
+    public boolean markSeen(String idempotencyKey) {
+        if (idempotencyKey == null) {
+            return true;
+        }
+        long now = System.currentTimeMillis();
+        long expiry = now + idempotencyWindowMillis;
+        Long previous = recentKeys.putIfAbsent(idempotencyKey, expiry);
+        if (previous == null) {
+            return true;
+        }
+        // 已过期的键可以重新登记
+        return previous <= now && recentKeys.replace(idempotencyKey, previous, expiry);
+    }
+
+    /**
+     * 撤销幂等键登记（记录最终未写入时调用）
+     */
+    public void forget(String idempotencyKey) {
+        if (idempotencyKey != null) {
+            recentKeys.remove(idempotencyKey);
+        }
+    }
+
+    /**
+     * 累加学习时长（秒）到内存缓冲区
+     */
+    public void accumulate(Long userId, String subject, long durationSeconds) {
+        if (durationSeconds <= 0) {
+            return;
+        }
+        pendingSeconds.computeIfAbsent(new ProgressKey(userId, subject), k -> new LongAdder()).add(durationSeconds);
+    }
+
+    /**
+     * 查询资料所属学科（带本地缓存）
+     */
+    public String resolveSubject(Long materialId) {
+        return materialSubjects.computeIfAbsent(materialId, id -> materialRepository.findById(id)
+                .map(Material::getSubject)
+                .orElseThrow(() -> new ResourceNotFoundException("资料不存在: " + id)));
+    }
+
+    /**
+     * 定时把缓冲区中的整分钟增量批量写回进度表，不足一分钟的余数留到下次
+     */
+    @Scheduled(fixedDelayString = "${progress.flush-interval:2000}")
+    public synchronized void flush() {
+        long now = System.currentTimeMillis();
+        recentKeys.values().removeIf(expiry -> expiry <= now);
+
+        List<ProgressKey> keys = new ArrayList<>();
+        List<Object[]> batch = new ArrayList<>();
+        for (Map.Entry<ProgressKey, LongAdder> entry : pendingSeconds.entrySet()) {
+            long seconds = entry.getValue().sumThenReset();
+            long minutes = seconds / SECONDS_PER_MINUTE;
+            long remainder = seconds % SECONDS_PER_MINUTE;
+            if (remainder > 0) {
+                entry.getValue().add(remainder);
+            }
+            if (minutes > 0) {
+                ProgressKey key = entry.getKey();
+                keys.add(key);
+                batch.add(new Object[]{minutes, minutes, key.userId(), key.subject()});
+            }
+        }
+        if (batch.isEmpty()) {
+            return;
+        }
+
+        Map<ProgressKey, BigDecimal> before;
+        int[] updated;
+        try {
+            before = readPercents(keys);
+            // 整批在一个事务内提交，失败时全部回滚后再放回增量，避免部分已提交的增量被重复累加
+            updated = transactionTemplate.execute(status -> jdbcTemplate.batchUpdate(UPDATE_SQL, batch));
+        } catch (RuntimeException e) {
+            for (int i = 0; i < keys.size(); i++) {
+                restore(keys.get(i), batch.get(i));
+            }
+            log.warn("学习进度刷盘失败，{} 条增量将在下次重试", batch.size(), e);
+            return;
+        }
+        for (int i = 0; i < updated.length; i++) {
+            if (updated[i] == 0) {
+                insertOrUpdate(keys.get(i), batch.get(i));
+            }
+        }
+        log.debug("学习进度刷盘 {} 条", batch.size());
+        publishChanges(keys, before);
+    }
+
+    /**
+     * 在刷盘锁内执行，期间不会有本节点的进度写入（供派生数据全量重建时与增量事件互斥）
+     */
+    public synchronized <T> T withFlushLock(Supplier<T> action) {
+        return action.get();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        flush();
+    }
+
+    private void publishChanges(List<ProgressKey> keys, Map<ProgressKey, BigDecimal> before) {
+        Map<ProgressKey, BigDecimal> after;
+        try {
+            after = readPercents(keys);
+        } catch (RuntimeException e) {
+            log.warn("读取刷盘后的学习进度失败，本批进度变更事件未发布", e);
+            return;
+        }
+        List<ProgressChangedEvent.Change> changes = new ArrayList<>();
+        for (ProgressKey key : keys) {
+            BigDecimal oldPercent = before.get(key);
+            BigDecimal newPercent = after.get(key);
+            if (newPercent != null && (oldPercent == null || oldPercent.compareTo(newPercent) != 0)) {
+                changes.add(new ProgressChangedEvent.Change(key.userId(), key.subject(), oldPercent, newPercent));
+            }
+        }
+        if (!changes.isEmpty()) {
+            eventPublisher.publishEvent(new ProgressChangedEvent(changes));
+        }
+    }
+
+    /**
+     * 按用户分块读取指定 (用户, 学科) 的当前进度
+     */
+    private Map<ProgressKey, BigDecimal> readPercents(List<ProgressKey> keys) {
+        List<Long> userIds = keys.stream().map(ProgressKey::userId).filter(Objects::nonNull).distinct().toList();
+        if (userIds.isEmpty()) {
+            return Collections.emptyMap();
+        }
+        Map<ProgressKey, BigDecimal> percents = new HashMap<>();
+        for (int from = 0; from < userIds.size(); from += READ_CHUNK) {
+            List<Long> chunk = userIds.subList(from, Math.min(from + READ_CHUNK, userIds.size()));
+            String placeholders = String.join(",", Collections.nCopies(chunk.size(), "?"));
+            jdbcTemplate.query("SELECT user_id, subject, percent FROM progress WHERE user_id IN (" + placeholders + ")",
+                    rs -> {
+                        percents.put(new ProgressKey(rs.getLong("user_id"), rs.getString("subject")),
+                                rs.getBigDecimal("percent"));
+                    },
+                    chunk.toArray());
+        }
+        percents.keySet().retainAll(new HashSet<>(keys));
+        return percents;
+    }
+
+    private void insertOrUpdate(ProgressKey key, Object[] args) {
+        try {
+            try {
+                jdbcTemplate.update(INSERT_SQL, args[2], args[3], args[1]);
+            } catch (DuplicateKeyException e) {
+                // 并发插入，改为累加
+                jdbcTemplate.update(UPDATE_SQL, args);
+            }
+        } catch (RuntimeException e) {
+            restore(key, args);
+            log.warn("学习进度写入失败，将在下次重试: {}", key, e);
+        }
+    }
+
+    private void restore(ProgressKey key, Object[] args) {
+        long minutes = (Long) args[0];
+        pendingSeconds.computeIfAbsent(key, k -> new LongAdder()).add(minutes * SECONDS_PER_MINUTE);
+    }
+}
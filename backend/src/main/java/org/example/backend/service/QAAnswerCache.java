@@ -0,0 +1,290 @@
+package org.example.backend.service;
+
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.example.backend.dto.CacheStats;
+import org.example.backend.dto.CachedAnswer;
+import org.example.backend.entity.QASession;
+import org.example.backend.event.QASessionEvent;
+import org.example.backend.repository.QASessionRepository;
+import org.example.backend.search.MinHashLsh;
+import org.example.backend.search.QuestionNormalizer;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * 问答回答缓存
+ * <p>
+ * 只缓存用户反馈为 SATISFIED 的回答。问题先归一化后精确匹配，未命中再用 MinHash/LSH
+ * 按字符二元组找近似重复的问题，候选经 Jaccard 相似度精确校验（默认不低于 0.8）才算命中。
+ * 反馈 UNSATISFIED 时移除该问题对应的缓存条目。超过容量时淘汰最早加入的条目。
+ * 启动时及定时从问答表重建，修正其他节点反馈造成的偏差：满意与不满意的回答按问答ID从旧到新重放，
+ * 不满意反馈造成的移除在重建后依然有效；重建期间到达的反馈在替换索引时补放到新索引。
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class QAAnswerCache {
+
+    private static final int SHINGLE_SIZE = 2;
+    private static final int LOAD_PAGE_SIZE = 1000;
+
+    private final QASessionRepository qaSessionRepository;
+
+    @Value("${qa.cache.maximum-size:50000}")
+    private int maximumSize;
+
+    @Value("${qa.cache.similarity:0.8}")
+    private double similarity;
+
+    @Value("${qa.cache.bands:16}")
+    private int bands;
+
+    @Value("${qa.cache.rows:4}")
+    private int rows;
+
+    private volatile Index index;
+
+    // 重建期间到达的反馈事件，由 reloadLock 保护；为 null 表示未在重建
+    private final Object reloadLock = new Object();
+    private List<QASessionEvent> reloadBacklog;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    private record Entry(CachedAnswer answer, String normalized, long[] shingles) {
+    }
+
+    /**
+     * 条目、归一化问题索引与 LSH 索引，整体替换以支持重建
+     */
+    private final class Index {
+
+        private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+        private final MinHashLsh lsh = new MinHashLsh(bands, rows);
+        private final LinkedHashMap<Long, Entry> entries = new LinkedHashMap<>();
+        private final Map<String, Long> byQuestion = new HashMap<>();
+
+        Optional<Entry> find(String normalized, long[] shingles) {
+            lock.readLock().lock();
+            try {
+                return findInternal(normalized, shingles);
+            } finally {
+                lock.readLock().unlock();
+            }
+        }
+
+        void add(CachedAnswer answer) {
+            String normalized = QuestionNormalizer.normalize(answer.getQuestion());
+            if (normalized.isEmpty()) {
+                return;
+            }
+            long[] shingles = MinHashLsh.shingles(normalized, SHINGLE_SIZE);
+            lock.writeLock().lock();
+            try {
+                Long previous = byQuestion.get(normalized);
+                if (previous != null) {
+                    removeInternal(previous);
+                }
+                removeInternal(answer.getSessionId());
+                entries.put(answer.getSessionId(), new Entry(answer, normalized, shingles));
+                byQuestion.put(normalized, answer.getSessionId());
+                lsh.add(answer.getSessionId(), lsh.signature(shingles));
+                Iterator<Map.Entry<Long, Entry>> eldest = entries.entrySet().iterator();
+                while (entries.size() > maximumSize && eldest.hasNext()) {
+                    Map.Entry<Long, Entry> evicted = eldest.next();
+                    eldest.remove();
+                    dropIndexes(evicted.getKey(), evicted.getValue());
+                    evictions.increment();
+                }
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+
+        void evict(Long sessionId, String question) {
+            String normalized = QuestionNormalizer.normalize(question);
+            long[] shingles = MinHashLsh.shingles(normalized, SHINGLE_SIZE);
+            lock.writeLock().lock();
+            try {
+                removeInternal(sessionId);
+                findInternal(normalized, shingles).ifPresent(entry -> removeInternal(entry.answer().getSessionId()));
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+
+        int size() {
+            lock.readLock().lock();
+            try {
+                return entries.size();
+            } finally {
+                lock.readLock().unlock();
+            }
+        }
+
+        private Optional<Entry> findInternal(String normalized, long[] shingles) {
+            if (normalized.isEmpty()) {
+                return Optional.empty();
+            }
+            Long exact = byQuestion.get(normalized);
+            if (exact != null) {
+                return Optional.of(entries.get(exact));
+            }
+            Entry best = null;
+            double bestScore = similarity;
+            for (Long id : lsh.candidates(lsh.signature(shingles))) {
+                Entry entry = entries.get(id);
+                double score = MinHashLsh.jaccard(shingles, entry.shingles());
+                if (score >= bestScore) {
+                    best = entry;
+                    bestScore = score;
+                }
+            }
+            return Optional.ofNullable(best);
+        }
+
+        private void removeInternal(Long sessionId) {
+            Entry entry = entries.remove(sessionId);
+            if (entry != null) {
+                dropIndexes(sessionId, entry);
+            }
+        }
+
+        private void dropIndexes(Long sessionId, Entry entry) {
+            lsh.remove(sessionId);
+            byQuestion.remove(entry.normalized(), sessionId);
+        }
+    }
+
+    @PostConstruct
+    public void init() {
+        index = new Index();
+    }
+
+    /**
+     * 启动时及定时从问答表重建（最近的 SATISFIED 回答至多 maximumSize 条，
+     * 以及其中最早一条之后的 UNSATISFIED 回答）
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(fixedDelayString = "${qa.cache.reload-interval:3600000}",
+            initialDelayString = "${qa.cache.reload-interval:3600000}")
+    public void reload() {
+        synchronized (reloadLock) {
+            reloadBacklog = new ArrayList<>();
+        }
+        Index fresh = new Index();
+        boolean loaded = false;
+        try {
+            List<CachedAnswer> satisfied = loadRecent(QASession.Feedback.SATISFIED, 0);
+            long oldest = satisfied.isEmpty() ? Long.MAX_VALUE : satisfied.get(satisfied.size() - 1).getSessionId();
+            List<CachedAnswer> unsatisfied = loadRecent(QASession.Feedback.UNSATISFIED, oldest);
+            // 两个列表均按ID倒序，从旧到新合并重放：同一问题保留最新的回答，之后的不满意反馈将其移除，
+            // 容量淘汰时先淘汰旧的
+            int i = satisfied.size() - 1;
+            int j = unsatisfied.size() - 1;
+            while (i >= 0 || j >= 0) {
+                if (j < 0 || (i >= 0 && satisfied.get(i).getSessionId() < unsatisfied.get(j).getSessionId())) {
+                    fresh.add(satisfied.get(i--));
+                } else {
+                    CachedAnswer answer = unsatisfied.get(j--);
+                    fresh.evict(answer.getSessionId(), answer.getQuestion());
+                }
+            }
+            loaded = true;
+        } finally {
+            synchronized (reloadLock) {
+                // 加载失败时保留旧索引
+                if (loaded) {
+                    reloadBacklog.forEach(event -> apply(fresh, event));
+                    index = fresh;
+                }
+                reloadBacklog = null;
+            }
+        }
+        log.debug("问答回答缓存重建完成，条目 {} 个", fresh.size());
+    }
+
+    /**
+     * 查找相同或近似问题的已满意回答
+     */
+    public Optional<CachedAnswer> lookup(String question) {
+        String normalized = QuestionNormalizer.normalize(question);
+        Optional<CachedAnswer> answer = index.find(normalized, MinHashLsh.shingles(normalized, SHINGLE_SIZE))
+                .map(Entry::answer);
+        (answer.isPresent() ? hits : misses).increment();
+        return answer;
+    }
+
+    /**
+     * 反馈写入后更新缓存：满意则加入，不满意则移除该问题对应的条目
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onQASession(QASessionEvent event) {
+        if (event.getType() != QASessionEvent.Type.FEEDBACK) {
+            return;
+        }
+        synchronized (reloadLock) {
+            if (reloadBacklog != null) {
+                reloadBacklog.add(event);
+            }
+            apply(index, event);
+        }
+    }
+
+    public CacheStats getStats() {
+        long hitCount = hits.sum();
+        long missCount = misses.sum();
+        long total = hitCount + missCount;
+        return new CacheStats("qa-answer", index.size(), maximumSize, hitCount, missCount,
+                total == 0 ? 0 : (double) hitCount / total, evictions.sum(), 0, 0, false);
+    }
+
+    /**
+     * 按ID倒序读取指定反馈的回答，至多 maximumSize 条，只读取ID大于 afterId 的
+     */
+    private List<CachedAnswer> loadRecent(QASession.Feedback feedback, long afterId) {
+        List<CachedAnswer> recent = new ArrayList<>();
+        long cursor = Long.MAX_VALUE;
+        while (recent.size() < maximumSize) {
+            List<CachedAnswer> page = qaSessionRepository.findAnswersByFeedbackBefore(feedback, cursor,
+                    PageRequest.of(0, Math.min(LOAD_PAGE_SIZE, maximumSize - recent.size())));
+            for (CachedAnswer answer : page) {
+                if (answer.getSessionId() <= afterId) {
+                    return recent;
+                }
+                recent.add(answer);
+            }
+            if (page.isEmpty()) {
+                break;
+            }
+            cursor = page.get(page.size() - 1).getSessionId();
+        }
+        return recent;
+    }
+
+    private static void apply(Index target, QASessionEvent event) {
+        if (event.getFeedback() == QASession.Feedback.SATISFIED && event.getAnswer() != null) {
+            target.add(new CachedAnswer(event.getSessionId(), event.getQuestion(), event.getAnswer()));
+        } else if (event.getFeedback() == QASession.Feedback.UNSATISFIED) {
+            target.evict(event.getSessionId(), event.getQuestion());
+        }
+    }
+}
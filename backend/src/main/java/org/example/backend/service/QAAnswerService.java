@@ -0,0 +1,184 @@
+package org.example.backend.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.example.backend.dto.UserSnapshot;
+import org.example.backend.entity.QASession;
+import org.example.backend.entity.User;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.concurrent.CancellationException;
+
+/**
+ * 问答回答生成与流式下发
+ * <p>
+ * 提问先经 {@link QAExecutionScheduler} 准入（限流、过载时 429），再创建问答会话，
+ * 回答由 {@link AnswerEngine} 在调度器的工作线程上生成，超过截止时间即停止：
+ * 流式请求每生成一个片段就通过 SSE 发给客户端（事件 session / chunk / done / error），
+ * 首个片段不必等待完整回答；客户端断开后继续生成但不再发送。
+ * 完整回答在流结束后才写入问答会话，写入发布 ANSWERED 事件，WebSocket 订阅者同样会收到。
+ * 命中回答缓存时不经过引擎，直接下发缓存的回答。
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class QAAnswerService {
+
+    private final QAService qaService;
+    private final AnswerEngine answerEngine;
+    private final QAExecutionScheduler scheduler;
+
+    @Value("${qa.answer.sse-timeout:60000}")
+    private long sseTimeout;
+
+    @Value("${qa.scheduler.admin-weight:2}")
+    private double adminWeight;
+
+    /**
+     * 提问，回答在后台生成后写入并推送
+     */
+    public QASession ask(UserSnapshot user, String question) {
+        scheduler.admit(user.getId());
+        QASession session = createSession(user, question);
+        if (session.getAnswer() == null) {
+            submit(user, session.getId(), question, null);
+        } else {
+            scheduler.release();
+        }
+        return session;
+    }
+
+    /**
+     * 提问并以 SSE 流式返回回答
+     */
+    public SseEmitter stream(UserSnapshot user, String question) {
+        scheduler.admit(user.getId());
+        QASession session = createSession(user, question);
+        SseEmitter emitter = new SseEmitter(sseTimeout);
+        StreamSink sink = new StreamSink(emitter);
+        sink.send("session", Map.of("sessionId", session.getId()));
+        if (session.getAnswer() != null) {
+            scheduler.release();
+            sink.send("chunk", Map.of("text", session.getAnswer()));
+            sink.finish(session.getId());
+        } else {
+            submit(user, session.getId(), question, sink);
+        }
+        return emitter;
+    }
+
+    /**
+     * 创建问答会话，失败时归还准入预留的位置
+     */
+    private QASession createSession(UserSnapshot user, String question) {
+        try {
+            return qaService.ask(user.getId(), question);
+        } catch (RuntimeException e) {
+            scheduler.release();
+            throw e;
+        }
+    }
+
+    private void submit(UserSnapshot user, Long sessionId, String question, StreamSink sink) {
+        double weight = user.getRole() == User.Role.ADMIN ? adminWeight : 1;
+        scheduler.submit(user.getId(), weight, new QAExecutionScheduler.QATask() {
+            @Override
+            public void run(long deadlineNanos) {
+                generate(sessionId, question, sink, deadlineNanos);
+            }
+
+            @Override
+            public void expired() {
+                log.warn("问答 {} 排队超时，未生成回答", sessionId);
+                if (sink != null) {
+                    sink.fail("当前提问人数较多，请稍后再试");
+                }
+            }
+        });
+    }
+
+    /**
+     * 生成回答，超过截止时间即停止；sink 为空表示非流式请求
+     */
+    void generate(Long sessionId, String question, StreamSink sink, long deadlineNanos) {
+        StringBuilder answer = new StringBuilder();
+        try {
+            answerEngine.generate(question, chunk -> {
+                if (System.nanoTime() - deadlineNanos > 0) {
+                    throw new CancellationException("回答生成超时");
+                }
+                answer.append(chunk);
+                if (sink != null) {
+                    sink.send("chunk", Map.of("text", chunk));
+                }
+            });
+        } catch (CancellationException e) {
+            log.warn("问答 {} 回答生成超时，已停止", sessionId);
+            if (sink != null) {
+                sink.fail("回答生成超时，请稍后再试");
+            }
+            return;
+        } catch (RuntimeException e) {
+            log.error("问答 {} 回答生成失败", sessionId, e);
+            if (sink != null) {
+                sink.fail("回答生成失败");
+            }
+            return;
+        }
+        if (sink != null) {
+            sink.finish(sessionId);
+        }
+        // 客户端已收到完整回答，再写入问答会话
+        try {
+            qaService.answer(sessionId, answer.toString());
+        } catch (RuntimeException e) {
+            log.error("问答 {} 回答写入失败", sessionId, e);
+        }
+    }
+
+    /**
+     * SSE 下发端；客户端断开后发送变为空操作
+     */
+    static final class StreamSink {
+
+        private final SseEmitter emitter;
+        private volatile boolean open = true;
+
+        StreamSink(SseEmitter emitter) {
+            this.emitter = emitter;
+            emitter.onCompletion(() -> open = false);
+            emitter.onTimeout(() -> open = false);
+            emitter.onError(e -> open = false);
+        }
+
+        void send(String event, Object data) {
+            if (!open) {
+                return;
+            }
+            try {
+                emitter.send(SseEmitter.event().name(event).data(data, MediaType.APPLICATION_JSON));
+            } catch (IOException | IllegalStateException e) {
+                open = false;
+            }
+        }
+
+        void finish(Long sessionId) {
+            send("done", Map.of("sessionId", sessionId));
+            if (open) {
+                emitter.complete();
+            }
+        }
+
+        void fail(String message) {
+            send("error", Map.of("message", message));
+            if (open) {
+                emitter.complete();
+            }
+        }
+    }
+}
@@ -0,0 +1,270 @@
+package org.example.backend.service;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.example.backend.dto.QASchedulerStats;
+import org.example.backend.exception.TooManyRequestsException;
+import org.example.backend.util.LocalCache;
+import org.example.backend.util.TokenBucket;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * 问答执行调度器
+ * <p>
+ * 固定数量的工作线程限制全局并发（同时占用的数据库连接也随之受限）。准入时先扣用户令牌桶，
+ * 再检查排队延迟：队列非空且近期排队等待时间（指数滑动平均）超过阈值，或队列已满时直接拒绝（429）并归还令牌，
+ * 不让请求在队列里等到超时。准入成功即预留一个队列位置，由 submit 占用或 release 归还，
+ * 并发准入不会超出队列容量。排队按加权公平队列出队：每个任务的虚拟完成时间为
+ * max(系统虚拟时间, 该用户上一任务的虚拟完成时间) + 1/权重，总是先执行虚拟完成时间最小的任务，
+ * 连续提问的用户只会排在自己的任务后面，不会挤占其他用户。
+ * 任务带截止时间，出队时已过期直接取消，执行中由任务自行检查截止时间。
+ */
+@Slf4j
+@Service
+public class QAExecutionScheduler {
+
+    private static final double EWMA_ALPHA = 0.2;
+
+    @Value("${qa.scheduler.workers:4}")
+    private int workers;
+
+    @Value("${qa.scheduler.queue-capacity:500}")
+    private int queueCapacity;
+
+    @Value("${qa.scheduler.max-queue-delay:2000}")
+    private long maxQueueDelayMillis;
+
+    @Value("${qa.scheduler.deadline:30000}")
+    private long deadlineMillis;
+
+    @Value("${qa.scheduler.user-rate-per-minute:10}")
+    private double userRatePerMinute;
+
+    @Value("${qa.scheduler.user-burst:5}")
+    private int userBurst;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition notEmpty = lock.newCondition();
+    private final PriorityQueue<Entry> queue = new PriorityQueue<>(
+            Comparator.comparingDouble(Entry::finishTag).thenComparingLong(Entry::sequence));
+    private final Map<Long, UserState> users = new HashMap<>();
+    private int reserved; // 已准入尚未提交的任务数
+    private double virtualTime;
+    private long sequence;
+    private double queueWaitEwma;
+    private volatile double serviceTimeEwma;
+
+    private LocalCache<Long, TokenBucket> userBuckets;
+    private final List<Thread> threads = new ArrayList<>();
+    private volatile boolean running = true;
+    private final AtomicInteger active = new AtomicInteger();
+
+    private final LongAdder admitted = new LongAdder();
+    private final LongAdder completed = new LongAdder();
+    private final LongAdder rateLimited = new LongAdder();
+    private final LongAdder shed = new LongAdder();
+    private final LongAdder expired = new LongAdder();
+    private final LongAdder queueWaitNanos = new LongAdder();
+    private final LongAdder dequeued = new LongAdder();
+    private final LongAdder serviceNanos = new LongAdder();
+
+    /**
+     * 调度的任务
+     */
+    public interface QATask {
+
+        /**
+         * 执行任务；执行中应检查 deadlineNanos（System.nanoTime 基准），过期即停止
+         */
+        void run(long deadlineNanos);
+
+        /**
+         * 排队期间已过截止时间，任务不再执行
+         */
+        void expired();
+    }
+
+    private record Entry(Long userId, QATask task, double finishTag, long sequence,
+                         long enqueuedAt, long deadline) {
+    }
+
+    /**
+     * 用户在队列中的任务数及最后一个任务的虚拟完成时间
+     */
+    private static final class UserState {
+
+        private int queued;
+        private double lastFinish;
+    }
+
+    @PostConstruct
+    public void start() {
+        userBuckets = new LocalCache<>(100_000, 10, TimeUnit.MINUTES);
+        for (int i = 1; i <= workers; i++) {
+            Thread thread = new Thread(this::workLoop, "qa-worker-" + i);
+            thread.setDaemon(true);
+            thread.start();
+            threads.add(thread);
+        }
+    }
+
+    @PreDestroy
+    public void stop() {
+        running = false;
+        threads.forEach(Thread::interrupt);
+    }
+
+    /**
+     * 准入检查，未通过抛出 {@link TooManyRequestsException}；须在创建问答会话之前调用。
+     * 通过后预留一个队列位置，调用方随后必须 submit 或 release
+     */
+    public void admit(Long userId) {
+        TokenBucket bucket = userBuckets.get(userId, id -> new TokenBucket(userRatePerMinute / 60, userBurst));
+        if (!bucket.tryAcquire()) {
+            rateLimited.increment();
+            throw new TooManyRequestsException("提问过于频繁，请稍后再试");
+        }
+        lock.lock();
+        try {
+            // 近期实际排队时间与按当前队长估算的排队时间取较大者（工作线程全部卡住时前者不会更新）
+            int pending = queue.size() + reserved;
+            double estimatedWait = pending * serviceTimeEwma / workers;
+            if (pending >= queueCapacity || (pending > 0
+                    && Math.max(queueWaitEwma, estimatedWait) > TimeUnit.MILLISECONDS.toNanos(maxQueueDelayMillis))) {
+                shed.increment();
+                bucket.refund();
+                throw new TooManyRequestsException("当前提问人数较多，请稍后再试");
+            }
+            reserved++;
+        } finally {
+            lock.unlock();
+        }
+        admitted.increment();
+    }
+
+    /**
+     * 提交已准入的任务（占用准入时预留的位置），weight 越大分得的执行份额越多
+     */
+    public void submit(Long userId, double weight, QATask task) {
+        long now = System.nanoTime();
+        lock.lock();
+        try {
+            reserved--;
+            UserState state = users.computeIfAbsent(userId, id -> new UserState());
+            double start = state.queued == 0 ? virtualTime : Math.max(virtualTime, state.lastFinish);
+            double finishTag = start + 1.0 / weight;
+            state.lastFinish = finishTag;
+            state.queued++;
+            queue.add(new Entry(userId, task, finishTag, sequence++, now,
+                    now + TimeUnit.MILLISECONDS.toNanos(deadlineMillis)));
+            notEmpty.signal();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * 归还已准入但不再提交的任务预留的位置（命中回答缓存或创建问答会话失败）
+     */
+    public void release() {
+        lock.lock();
+        try {
+            reserved--;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public QASchedulerStats getStats() {
+        int queued;
+        double ewma;
+        lock.lock();
+        try {
+            queued = queue.size();
+            ewma = queueWaitEwma;
+        } finally {
+            lock.unlock();
+        }
+        long dequeuedCount = dequeued.sum();
+        long completedCount = completed.sum();
+        return new QASchedulerStats(workers, active.get(), queued, admitted.sum(), completedCount,
+                rateLimited.sum(), shed.sum(), expired.sum(), toMillis(ewma),
+                dequeuedCount == 0 ? 0 : toMillis((double) queueWaitNanos.sum() / dequeuedCount),
+                completedCount == 0 ? 0 : toMillis((double) serviceNanos.sum() / completedCount));
+    }
+
+    private void workLoop() {
+        while (running) {
+            Entry entry;
+            try {
+                entry = take();
+            } catch (InterruptedException e) {
+                return;
+            }
+            long startedAt = System.nanoTime();
+            if (startedAt - entry.deadline() > 0) {
+                expired.increment();
+                safely(entry, () -> entry.task().expired());
+                continue;
+            }
+            active.incrementAndGet();
+            try {
+                safely(entry, () -> entry.task().run(entry.deadline()));
+            } finally {
+                active.decrementAndGet();
+                long service = System.nanoTime() - startedAt;
+                serviceTimeEwma = EWMA_ALPHA * service + (1 - EWMA_ALPHA) * serviceTimeEwma;
+                serviceNanos.add(service);
+                completed.increment();
+            }
+        }
+    }
+
+    private Entry take() throws InterruptedException {
+        lock.lockInterruptibly();
+        try {
+            while (queue.isEmpty()) {
+                notEmpty.await();
+            }
+            Entry entry = queue.poll();
+            virtualTime = entry.finishTag();
+            UserState state = users.get(entry.userId());
+            if (--state.queued == 0) {
+                users.remove(entry.userId());
+            }
+            long wait = System.nanoTime() - entry.enqueuedAt();
+            queueWaitEwma = queue.isEmpty() ? 0 : EWMA_ALPHA * wait + (1 - EWMA_ALPHA) * queueWaitEwma;
+            queueWaitNanos.add(wait);
+            dequeued.increment();
+            return entry;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private static void safely(Entry entry, Runnable action) {
+        try {
+            action.run();
+        } catch (RuntimeException e) {
+            log.error("问答任务执行失败: 用户 {}", entry.userId(), e);
+        }
+    }
+
+    private static double toMillis(double nanos) {
+        return nanos / 1_000_000;
+    }
+}
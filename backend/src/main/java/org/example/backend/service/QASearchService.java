@@ -0,0 +1,137 @@
+package org.example.backend.service;
+
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.lang3.StringUtils;
+import org.example.backend.dto.QAItem;
+import org.example.backend.dto.QASearchHit;
+import org.example.backend.dto.QASearchPage;
+import org.example.backend.entity.QASession;
+import org.example.backend.event.QASessionEvent;
+import org.example.backend.exception.BadRequestException;
+import org.example.backend.repository.QASessionRepository;
+import org.example.backend.search.InvertedIndex;
+import org.example.backend.search.SnippetHighlighter;
+import org.example.backend.search.TextTokenizer;
+import org.example.backend.util.LocalCache;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongPredicate;
+
+/**
+ * 问答历史全文检索
+ * <p>
+ * 每个用户一份独立的倒排索引（问题权重高于回答），检索只访问该用户自己的倒排链，
+ * 替代对问题、回答两个 TEXT 列的双重 LIKE。索引在用户首次检索时从问答表加载，
+ * 按最近使用保留有限个用户，过期或淘汰后下次检索重新加载。
+ * 已加载用户的问答由 {@link QASessionEvent} 在事务提交后增量更新（提问、回答、反馈）。
+ * 支持短语（双引号）与前缀（词尾 *）查询，结果按 BM25 排序并返回高亮摘要。
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class QASearchService {
+
+    private static final float QUESTION_WEIGHT = 2.0f;
+    private static final float ANSWER_WEIGHT = 1.0f;
+    private static final int SNIPPET_LENGTH = 80;
+    private static final int MAX_PAGE_SIZE = 100;
+
+    private final QASessionRepository qaSessionRepository;
+
+    @Value("${qa.search.maximum-users:10000}")
+    private int maximumUsers;
+
+    @Value("${qa.search.ttl:1800000}")
+    private long ttlMillis;
+
+    private LocalCache<Long, UserIndex> userIndexes;
+
+    /**
+     * 单个用户的倒排索引及问答原文（生成摘要、按反馈过滤用）
+     */
+    private static final class UserIndex {
+
+        private final InvertedIndex index = new InvertedIndex();
+        private final Map<Long, QAItem> items = new ConcurrentHashMap<>();
+
+        void put(QAItem item) {
+            items.put(item.getId(), item);
+            index.index(item.getId(), List.of(
+                    new InvertedIndex.Field(item.getQuestion(), QUESTION_WEIGHT),
+                    new InvertedIndex.Field(item.getAnswer(), ANSWER_WEIGHT)));
+        }
+    }
+
+    @PostConstruct
+    public void init() {
+        userIndexes = new LocalCache<>(maximumUsers, ttlMillis, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * 检索用户自己的问答历史
+     *
+     * @param feedback 按反馈过滤，为空表示不过滤
+     */
+    public QASearchPage search(Long userId, String keyword, QASession.Feedback feedback, int page, int size) {
+        if (StringUtils.isBlank(keyword)) {
+            throw new BadRequestException("检索关键词不能为空");
+        }
+        if (page < 0 || size <= 0 || size > MAX_PAGE_SIZE) {
+            throw new BadRequestException("分页参数不合法: page=" + page + ", size=" + size);
+        }
+        UserIndex userIndex = userIndexes.get(userId, this::load);
+        LongPredicate filter = feedback == null ? null : id -> {
+            QAItem item = userIndex.items.get(id);
+            return item != null && item.getFeedback() == feedback;
+        };
+        InvertedIndex.SearchResult result = userIndex.index.search(keyword, filter, page * size, size);
+
+        List<String> terms = TextTokenizer.terms(keyword);
+        List<QASearchHit> hits = new ArrayList<>(result.hits().size());
+        for (InvertedIndex.ScoredDoc doc : result.hits()) {
+            QAItem item = userIndex.items.get(doc.docId());
+            if (item != null) {
+                hits.add(new QASearchHit(item.getId(),
+                        SnippetHighlighter.highlight(item.getQuestion(), terms, SNIPPET_LENGTH),
+                        SnippetHighlighter.highlight(item.getAnswer(), terms, SNIPPET_LENGTH),
+                        item.getFeedback(), item.getCreatedTime(), doc.score()));
+            }
+        }
+        return new QASearchPage(hits, page, size, result.total());
+    }
+
+    /**
+     * 问答写入后增量更新已加载的用户索引
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onQASession(QASessionEvent event) {
+        UserIndex userIndex = userIndexes.getIfPresent(event.getUserId());
+        if (userIndex == null) {
+            // 使正在进行的加载结果作废，避免缓存缺少本次写入的索引
+            userIndexes.invalidate(event.getUserId());
+            return;
+        }
+        QAItem existing = userIndex.items.get(event.getSessionId());
+        LocalDateTime createdTime = existing != null ? existing.getCreatedTime() : LocalDateTime.now();
+        userIndex.put(new QAItem(event.getSessionId(), event.getQuestion(), event.getAnswer(),
+                event.getFeedback(), createdTime));
+    }
+
+    private UserIndex load(Long userId) {
+        UserIndex userIndex = new UserIndex();
+        List<QAItem> items = qaSessionRepository.findItemsByUserId(userId);
+        items.forEach(userIndex::put);
+        log.debug("用户 {} 的问答索引加载完成，共 {} 条", userId, items.size());
+        return userIndex;
+    }
+}
@@ -0,0 +1,83 @@
+package org.example.backend.service;
+
+import lombok.RequiredArgsConstructor;
+import org.example.backend.entity.QASession;
+import org.example.backend.event.QASessionEvent;
+import org.example.backend.exception.ResourceNotFoundException;
+import org.example.backend.repository.QASessionRepository;
+import org.example.backend.repository.UserRepository;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Objects;
+
+/**
+ * 问答服务
+ * <p>
+ * 所有问答会话写操作都经过本服务，并发布 {@link QASessionEvent}，
+ * 由实时推送等派生数据在事务提交后更新。
+ */
+@Service
+@RequiredArgsConstructor
+public class QAService {
+
+    private final QASessionRepository qaSessionRepository;
+    private final UserRepository userRepository;
+    private final QAAnswerCache answerCache;
+    private final ApplicationEventPublisher eventPublisher;
+
+    /**
+     * 提问，创建问答会话；相同或近似问题已有满意回答时直接作答
+     */
+    @Transactional
+    public QASession ask(Long userId, String question) {
+        QASession session = new QASession();
+        session.setUser(userRepository.getReferenceById(userId));
+        session.setQuestion(question);
+        QASession saved = qaSessionRepository.save(session);
+        publish(QASessionEvent.Type.ASKED, saved, userId);
+        answerCache.lookup(question).ifPresent(cached -> {
+            saved.setAnswer(cached.getAnswer());
+            publish(QASessionEvent.Type.ANSWERED, saved, userId);
+        });
+        return saved;
+    }
+
+    /**
+     * 写入回答
+     */
+    @Transactional
+    public QASession answer(Long sessionId, String answer) {
+        QASession session = getSession(sessionId);
+        session.setAnswer(answer);
+        QASession saved = qaSessionRepository.save(session);
+        publish(QASessionEvent.Type.ANSWERED, saved, saved.getUser().getId());
+        return saved;
+    }
+
+    /**
+     * 提交反馈，只能对自己的问答会话操作
+     */
+    @Transactional
+    public QASession feedback(Long sessionId, Long userId, QASession.Feedback feedback) {
+        QASession session = getSession(sessionId);
+        if (!Objects.equals(session.getUser().getId(), userId)) {
+            throw new ResourceNotFoundException("问答记录不存在: " + sessionId);
+        }
+        session.setFeedback(feedback);
+        QASession saved = qaSessionRepository.save(session);
+        publish(QASessionEvent.Type.FEEDBACK, saved, userId);
+        return saved;
+    }
+
+    private QASession getSession(Long sessionId) {
+        return qaSessionRepository.findById(sessionId)
+                .orElseThrow(() -> new ResourceNotFoundException("问答记录不存在: " + sessionId));
+    }
+
+    private void publish(QASessionEvent.Type type, QASession session, Long userId) {
+        eventPublisher.publishEvent(new QASessionEvent(type, session.getId(), userId,
+                session.getQuestion(), session.getAnswer(), session.getFeedback()));
+    }
+}
@@ -0,0 +1,158 @@
+package org.example.backend.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.example.backend.dto.PushStats;
+import org.example.backend.dto.QAUpdate;
+import org.example.backend.dto.RealtimeUpdate;
+import org.example.backend.event.ProgressChangedEvent;
+import org.example.backend.event.QASessionEvent;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.context.event.EventListener;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.messaging.simp.user.SimpUser;
+import org.springframework.messaging.simp.user.SimpUserRegistry;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+
+/**
+ * 学习进度与问答回答的实时推送
+ * <p>
+ * 进度刷盘、回答写入后只把更新合并进该用户的待推送条目（同一学科、同一问答只保留最新值），
+ * 定时按合并窗口把有变化的用户各推送一帧到 /user/queue/updates。
+ * 当前节点没有该用户的 WebSocket 会话时直接丢弃，不占内存。发送前检查出站队列剩余容量
+ * （简单代理会吞掉出站线程池的拒绝异常，不能靠发送失败判断），容量不足以容纳该用户各会话的一帧时
+ * 把条目合并回去留到下一轮，事件线程从不等待发送。
+ */
+@Slf4j
+@Service
+public class RealtimePushService {
+
+    public static final String UPDATES_DESTINATION = "/queue/updates";
+
+    private final SimpMessagingTemplate messagingTemplate;
+    private final SimpUserRegistry simpUserRegistry;
+    private final Executor outboundExecutor;
+
+    private final ConcurrentHashMap<Long, Pending> pending = new ConcurrentHashMap<>();
+    private final ConcurrentLinkedQueue<Long> dirtyUsers = new ConcurrentLinkedQueue<>();
+
+    private final LongAdder pushed = new LongAdder();
+    private final LongAdder deferred = new LongAdder();
+
+    /**
+     * 单个用户在一个合并窗口内的待推送内容，只在 pending.compute 内修改
+     */
+    private static final class Pending {
+
+        private final Map<String, BigDecimal> progress = new LinkedHashMap<>();
+        private final Map<Long, QAUpdate> answers = new LinkedHashMap<>();
+
+        /**
+         * 合并较早的条目（发送失败退回的），已有的较新值优先
+         */
+        void absorbOlder(Pending older) {
+            older.progress.forEach(progress::putIfAbsent);
+            older.answers.forEach(answers::putIfAbsent);
+        }
+    }
+
+    public RealtimePushService(SimpMessagingTemplate messagingTemplate,
+                               SimpUserRegistry simpUserRegistry,
+                               @Qualifier("clientOutboundChannelExecutor") Executor outboundExecutor) {
+        this.messagingTemplate = messagingTemplate;
+        this.simpUserRegistry = simpUserRegistry;
+        this.outboundExecutor = outboundExecutor;
+    }
+
+    @EventListener
+    public void onProgressChanged(ProgressChangedEvent event) {
+        for (ProgressChangedEvent.Change change : event.getChanges()) {
+            enqueue(change.userId(), p -> p.progress.put(change.subject(), change.newPercent()));
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onQASession(QASessionEvent event) {
+        if (event.getType() == QASessionEvent.Type.ANSWERED) {
+            QAUpdate update = new QAUpdate(event.getSessionId(), event.getQuestion(), event.getAnswer());
+            enqueue(event.getUserId(), p -> p.answers.put(update.getSessionId(), update));
+        }
+    }
+
+    /**
+     * 每个合并窗口把有变化的用户各推送一帧
+     */
+    @Scheduled(fixedDelayString = "${push.coalesce-window:200}")
+    public void flush() {
+        int batch = dirtyUsers.size();
+        for (int i = 0; i < batch; i++) {
+            Long userId = dirtyUsers.poll();
+            if (userId == null) {
+                break;
+            }
+            Pending p = pending.remove(userId);
+            SimpUser user = simpUserRegistry.getUser(String.valueOf(userId));
+            if (p == null || user == null) {
+                // 会话已断开，丢弃
+                continue;
+            }
+            if (outboundRemainingCapacity() < user.getSessions().size()) {
+                deferred.increment();
+                requeue(userId, p);
+                log.debug("实时推送出站队列已满，用户 {} 的更新推迟到下一轮", userId);
+                continue;
+            }
+            messagingTemplate.convertAndSendToUser(String.valueOf(userId), UPDATES_DESTINATION,
+                    new RealtimeUpdate(p.progress, new ArrayList<>(p.answers.values())));
+            pushed.increment();
+        }
+    }
+
+    public PushStats getStats() {
+        return new PushStats(simpUserRegistry.getUserCount(), pending.size(), pushed.sum(), deferred.sum());
+    }
+
+    private void enqueue(Long userId, Consumer<Pending> update) {
+        if (userId == null || simpUserRegistry.getUser(String.valueOf(userId)) == null) {
+            return;
+        }
+        pending.compute(userId, (id, current) -> {
+            if (current == null) {
+                current = new Pending();
+                dirtyUsers.add(id);
+            }
+            update.accept(current);
+            return current;
+        });
+    }
+
+    private int outboundRemainingCapacity() {
+        if (outboundExecutor instanceof ThreadPoolTaskExecutor executor) {
+            return executor.getThreadPoolExecutor().getQueue().remainingCapacity();
+        }
+        return Integer.MAX_VALUE;
+    }
+
+    private void requeue(Long userId, Pending older) {
+        pending.compute(userId, (id, current) -> {
+            if (current == null) {
+                dirtyUsers.add(id);
+                return older;
+            }
+            current.absorbOlder(older);
+            return current;
+        });
+    }
+}
@@ -0,0 +1,14 @@
+package org.example.backend.service;
+
+import org.example.backend.dto.StudyReminder;
+
+/**
+ * 学习提醒发送通道（站内信、邮件、推送等由具体实现决定）
+ */
+public interface ReminderNotifier {
+
+    /**
+     * 发送一条提醒，失败时抛出异常，该用户将在下次任务中重试
+     */
+    void send(StudyReminder reminder);
+}
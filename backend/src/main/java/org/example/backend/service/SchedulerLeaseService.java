@@ -0,0 +1,102 @@
+package org.example.backend.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import java.lang.management.ManagementFactory;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * 定时任务租约服务（scheduler_lease 表）
+ * <p>
+ * 多节点并行执行同一定时任务时，每个分片对应一条租约，只有抢到租约的节点处理该分片；
+ * 租约到期未续约视为持有节点已失效，其他节点可以接管。分片完成后记录批次号，
+ * 同一批次内已完成的分片不会被其他节点重复处理。
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class SchedulerLeaseService {
+
+    private static final String ACQUIRE_SQL = "UPDATE scheduler_lease SET owner = ?, lease_until = ? "
+            + "WHERE name = ? AND (lease_until < ? OR owner = ?) "
+            + "AND (completed_run IS NULL OR completed_run <> ?)";
+
+    private static final String INSERT_SQL = "INSERT INTO scheduler_lease (name, owner, lease_until) VALUES (?, ?, ?)";
+
+    private static final String RENEW_SQL = "UPDATE scheduler_lease SET lease_until = ? WHERE name = ? AND owner = ?";
+
+    private static final String COMPLETE_SQL = "UPDATE scheduler_lease SET lease_until = ?, completed_run = ? "
+            + "WHERE name = ? AND owner = ?";
+
+    private static final String RELEASE_SQL = "UPDATE scheduler_lease SET lease_until = ? WHERE name = ? AND owner = ?";
+
+    private static final String COMPLETED_SQL = "SELECT COUNT(*) FROM scheduler_lease WHERE name = ? AND completed_run = ?";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    private final String nodeId = ManagementFactory.getRuntimeMXBean().getName() + "-"
+            + UUID.randomUUID().toString().substring(0, 8);
+
+    /**
+     * 本节点标识
+     */
+    public String getNodeId() {
+        return nodeId;
+    }
+
+    /**
+     * 尝试获取租约；租约空闲（或已过期、或本节点已持有）且该批次尚未完成时成功
+     */
+    public boolean tryAcquire(String name, String run, Duration ttl) {
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime until = now.plus(ttl);
+        if (jdbcTemplate.update(ACQUIRE_SQL, nodeId, until, name, now, nodeId, run) > 0) {
+            return true;
+        }
+        try {
+            return jdbcTemplate.update(INSERT_SQL, name, nodeId, until) > 0;
+        } catch (DuplicateKeyException e) {
+            // 租约被其他节点持有，或本批次已完成
+            return false;
+        }
+    }
+
+    /**
+     * 续约；返回 false 表示租约已被其他节点接管，应停止处理
+     */
+    public boolean renew(String name, Duration ttl) {
+        return jdbcTemplate.update(RENEW_SQL, LocalDateTime.now().plus(ttl), name, nodeId) > 0;
+    }
+
+    /**
+     * 标记本批次已完成并释放租约
+     */
+    public void complete(String name, String run) {
+        jdbcTemplate.update(COMPLETE_SQL, LocalDateTime.now(), run, name, nodeId);
+    }
+
+    /**
+     * 该批次是否已由某个节点完成
+     */
+    public boolean isCompleted(String name, String run) {
+        Integer count = jdbcTemplate.queryForObject(COMPLETED_SQL, Integer.class, name, run);
+        return count != null && count > 0;
+    }
+
+    /**
+     * 释放租约（未完成，其他节点可立即接管）
+     */
+    public void release(String name) {
+        try {
+            jdbcTemplate.update(RELEASE_SQL, LocalDateTime.now(), name, nodeId);
+        } catch (RuntimeException e) {
+            log.warn("释放租约失败，等待租约过期: {}", name, e);
+        }
+    }
+}
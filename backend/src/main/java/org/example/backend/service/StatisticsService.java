@@ -0,0 +1,62 @@
+package org.example.backend.service;
+
+import lombok.RequiredArgsConstructor;
+import org.example.backend.dto.GroupCount;
+import org.example.backend.dto.SubjectProgress;
+import org.example.backend.dto.SubjectProgressStat;
+import org.example.backend.repository.MaterialRepository;
+import org.example.backend.repository.ProgressRepository;
+import org.example.backend.repository.QASessionRepository;
+import org.example.backend.repository.UserRepository;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+
+/**
+ * 统计分析服务
+ * <p>
+ * 统计查询全部使用构造器投影，只查询需要的列，结果不进入持久化上下文。
+ */
+@Service
+@RequiredArgsConstructor
+@Transactional(readOnly = true)
+public class StatisticsService {
+
+    private final MaterialRepository materialRepository;
+    private final ProgressRepository progressRepository;
+    private final QASessionRepository qaSessionRepository;
+    private final UserRepository userRepository;
+
+    public List<GroupCount> countMaterialsBySubject() {
+        return materialRepository.countGroupedBySubject();
+    }
+
+    public List<GroupCount> countMaterialsByStatus() {
+        return materialRepository.countGroupedByStatus();
+    }
+
+    public List<GroupCount> countMaterialsByFileType() {
+        return materialRepository.countGroupedByFileType();
+    }
+
+    public List<GroupCount> countQAByFeedback() {
+        return qaSessionRepository.countGroupedByFeedback();
+    }
+
+    public List<GroupCount> countUsersByRole() {
+        return userRepository.countGroupedByRole();
+    }
+
+    public List<GroupCount> countUsersByStatus() {
+        return userRepository.countGroupedByStatus();
+    }
+
+    public List<SubjectProgressStat> getSubjectProgressStats() {
+        return progressRepository.findSubjectProgressStats();
+    }
+
+    public List<SubjectProgress> getUserSubjectProgress(Long userId) {
+        return progressRepository.findUserSubjectProgress(userId);
+    }
+}
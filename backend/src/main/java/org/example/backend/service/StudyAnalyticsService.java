@@ -0,0 +1,221 @@
+package org.example.backend.service;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.example.backend.analytics.StudyRecordColumnStore;
+import org.example.backend.dto.DailyDuration;
+import org.example.backend.dto.MaterialStudyStats;
+import org.example.backend.dto.StudyRecordRow;
+import org.example.backend.entity.Material;
+import org.example.backend.entity.StudyRecord;
+import org.example.backend.entity.User;
+import org.example.backend.exception.BadRequestException;
+import org.example.backend.repository.MaterialRepository;
+import org.example.backend.repository.StudyRecordRepository;
+import org.example.backend.repository.UserRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.sql.Date;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * 学习记录分析服务
+ * <p>
+ * 每日学习时长、资料平均时长与学习人数、时长/进度排行由内存中的列式副本
+ * （{@link StudyRecordColumnStore}）计算，不再扫描 study_record 行存。
+ * 启动时及定时按主键游标全量重建副本；写入路径（心跳批量写入、单条学习记录）提交后标记有新数据，
+ * 刷新任务从最大主键之前 id-window 条处重新扫描，按主键去重后追加，提交晚于更大主键的记录不会被跳过。
+ * 其他节点的写入在下次追加或重建时可见。
+ * 首次加载完成前的查询回退到数据库。
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class StudyAnalyticsService {
+
+    private static final int MAX_LIMIT = 100;
+
+    private final StudyRecordRepository studyRecordRepository;
+    private final UserRepository userRepository;
+    private final MaterialRepository materialRepository;
+
+    @Value("${analytics.study.segment-size:65536}")
+    private int segmentSize;
+
+    @Value("${analytics.study.parallelism:4}")
+    private int parallelism;
+
+    @Value("${analytics.study.load-page-size:5000}")
+    private int loadPageSize;
+
+    @Value("${analytics.study.id-window:2000}")
+    private int idWindow;
+
+    private final AtomicBoolean dirty = new AtomicBoolean();
+    private final ReentrantLock refreshLock = new ReentrantLock();
+
+    private ForkJoinPool pool;
+    private volatile StudyRecordColumnStore store;
+    private volatile boolean ready;
+
+    @PostConstruct
+    public void init() {
+        pool = new ForkJoinPool(parallelism, p -> {
+            ForkJoinWorkerThread thread = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(p);
+            thread.setName("study-analytics-" + thread.getPoolIndex());
+            return thread;
+        }, null, false);
+        store = new StudyRecordColumnStore(segmentSize, idWindow, pool);
+    }
+
+    @PreDestroy
+    public void stop() {
+        pool.shutdownNow();
+    }
+
+    /**
+     * 启动时及定时全量重建列式副本
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(fixedDelayString = "${analytics.study.rebuild-interval:3600000}",
+            initialDelayString = "${analytics.study.rebuild-interval:3600000}")
+    public void rebuild() {
+        refreshLock.lock();
+        try {
+            StudyRecordColumnStore fresh = new StudyRecordColumnStore(segmentSize, idWindow, pool);
+            catchUp(fresh);
+            store = fresh;
+            ready = true;
+            log.debug("学习记录分析副本重建完成，共 {} 条", fresh.size());
+        } finally {
+            refreshLock.unlock();
+        }
+    }
+
+    /**
+     * 写入路径提交新的学习记录后调用
+     */
+    public void markDirty() {
+        dirty.set(true);
+    }
+
+    /**
+     * 有新写入时把新记录追加进副本；正在重建时留到下一轮
+     */
+    @Scheduled(fixedDelayString = "${analytics.study.refresh-interval:1000}")
+    public void refresh() {
+        if (!ready || !dirty.getAndSet(false)) {
+            return;
+        }
+        if (!refreshLock.tryLock()) {
+            dirty.set(true);
+            return;
+        }
+        try {
+            catchUp(store);
+        } catch (RuntimeException e) {
+            dirty.set(true);
+            log.warn("学习记录分析副本追加失败，下一轮重试", e);
+        } finally {
+            refreshLock.unlock();
+        }
+    }
+
+    /**
+     * 用户在时间范围内的每日学习时长，只包含有记录的日期
+     */
+    public List<DailyDuration> getDailyDuration(Long userId, LocalDateTime start, LocalDateTime end) {
+        if (start.isAfter(end)) {
+            throw new BadRequestException("开始时间不能晚于结束时间");
+        }
+        if (!ready) {
+            return studyRecordRepository.sumDurationByUserAndDateRange(userReference(userId), start, end).stream()
+                    .map(row -> new DailyDuration(toLocalDate(row[0]), ((Number) row[1]).longValue()))
+                    .toList();
+        }
+        return store.dailyDuration(userId, start, end).stream()
+                .map(total -> new DailyDuration(total.date(), total.duration()))
+                .toList();
+    }
+
+    /**
+     * 资料的平均学习时长与学习人数
+     */
+    public MaterialStudyStats getMaterialStats(Long materialId) {
+        if (!ready) {
+            Material material = materialRepository.getReferenceById(materialId);
+            return new MaterialStudyStats(materialId, studyRecordRepository.avgDurationByMaterial(material),
+                    studyRecordRepository.countDistinctUsersByMaterial(material));
+        }
+        StudyRecordColumnStore current = store;
+        return new MaterialStudyStats(materialId, current.averageDuration(materialId),
+                current.countDistinctUsers(materialId));
+    }
+
+    /**
+     * 按时长或进度排行的学习记录，userId 为空表示全部用户
+     */
+    public List<StudyRecordRow> getTopRecords(StudyRecordColumnStore.Metric metric, Long userId, int limit) {
+        if (limit <= 0 || limit > MAX_LIMIT) {
+            throw new BadRequestException("条数须在 1 到 " + MAX_LIMIT + " 之间: " + limit);
+        }
+        if (!ready) {
+            return findTopRecords(metric, userId, PageRequest.of(0, limit)).stream()
+                    .map(StudyRecordRow::from)
+                    .toList();
+        }
+        return store.top(metric, userId, limit).stream()
+                .map(row -> new StudyRecordRow(row.id(), row.userId(), row.materialId(), row.duration(),
+                        row.startTime(), row.progressPercent()))
+                .toList();
+    }
+
+    private List<StudyRecord> findTopRecords(StudyRecordColumnStore.Metric metric, Long userId, Pageable pageable) {
+        if (metric == StudyRecordColumnStore.Metric.DURATION) {
+            return userId == null ? studyRecordRepository.findTopDurationStudyRecords(pageable)
+                    : studyRecordRepository.findTopDurationStudyRecordsByUser(userReference(userId), pageable);
+        }
+        return userId == null ? studyRecordRepository.findTopProgressStudyRecords(pageable)
+                : studyRecordRepository.findTopProgressStudyRecordsByUser(userReference(userId), pageable);
+    }
+
+    /**
+     * 从副本的 id 窗口下界之后按页读取并追加，窗口内已有的记录由副本去重
+     */
+    private void catchUp(StudyRecordColumnStore target) {
+        long cursor = target.getScanFrom();
+        while (true) {
+            List<StudyRecordRow> page = studyRecordRepository.findRowsAfter(cursor, PageRequest.of(0, loadPageSize));
+            for (StudyRecordRow row : page) {
+                target.append(row.getId(), row.getUserId(), row.getMaterialId(), row.getDuration(),
+                        row.getStartTime(), row.getProgressPercent());
+            }
+            if (page.size() < loadPageSize) {
+                return;
+            }
+            cursor = page.get(page.size() - 1).getId();
+        }
+    }
+
+    private User userReference(Long userId) {
+        return userRepository.getReferenceById(userId);
+    }
+
+    private static LocalDate toLocalDate(Object value) {
+        return value instanceof Date date ? date.toLocalDate() : (LocalDate) value;
+    }
+}
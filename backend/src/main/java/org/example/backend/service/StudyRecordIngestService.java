@@ -0,0 +1,402 @@
+package org.example.backend.service;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.example.backend.dto.StudyHeartbeat;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.time.LocalDateTime;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Stream;
+
+/**
+ * 学习心跳批量写入服务（write-behind）
+ * <p>
+ * 请求线程只做三件事：获取队列许可（队列满时限时等待，超时即拒绝，形成背压）、
+ * 把记录追加到本地暂存文件、放入内存缓冲区。独立的刷盘线程定时切换暂存文件段，
+ * 把缓冲区按批用原生 JDBC batch 写入 study_record，成功后删除对应文件段、累加学习进度并通知分析副本追加。
+ * 进程崩溃后，启动时重放残留的文件段，已写入的记录按幂等键被唯一约束过滤；
+ * 客户端未带幂等键的心跳在接收时分配服务端幂等键，同样可以去重。
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class StudyRecordIngestService {
+
+    private static final String INSERT_SQL = "INSERT INTO study_record "
+            + "(user_id, material_id, duration, start_time, end_time, progress_percent, idempotency_key, created_time) "
+            + "VALUES (?, ?, ?, ?, ?, ?, ?, ?)";
+
+    private static final String SEGMENT_PREFIX = "heartbeat-";
+    private static final String SEGMENT_SUFFIX = ".log";
+    private static final String FIELD_SEPARATOR = "\t";
+    private static final int FIELD_COUNT = 7;
+    private static final String SERVER_KEY_PREFIX = "srv-";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final ProgressService progressService;
+    private final StudyAnalyticsService studyAnalyticsService;
+
+    @Value("${study.ingest.queue-capacity:50000}")
+    private int queueCapacity;
+
+    @Value("${study.ingest.batch-size:1000}")
+    private int batchSize;
+
+    @Value("${study.ingest.flush-interval:200}")
+    private long flushIntervalMillis;
+
+    @Value("${study.ingest.offer-timeout:50}")
+    private long offerTimeoutMillis;
+
+    @Value("${study.ingest.spill-path:./data/study-ingest/}")
+    private String spillPath;
+
+    @Value("${study.ingest.sync-on-write:false}")
+    private boolean syncOnWrite;
+
+    private final ReentrantLock journalLock = new ReentrantLock();
+    private final AtomicLong segmentSequence = new AtomicLong();
+    private final LongAdder rejectedCount = new LongAdder();
+    private final LongAdder writtenCount = new LongAdder();
+
+    // 以下字段由 journalLock 保护
+    private List<QueuedHeartbeat> buffer = new ArrayList<>();
+    private FileChannel journal;
+    private Path journalPath;
+
+    // 仅刷盘线程访问
+    private final Deque<PendingBatch> retries = new ArrayDeque<>();
+
+    private Semaphore permits;
+    private Path spillDir;
+    private ScheduledExecutorService flusher;
+
+    /**
+     * 待写入的一批记录及其暂存文件段
+     *
+     * @param permits 写入成功后归还的队列许可数（重放的文件段不占许可）
+     */
+    private record PendingBatch(Path segment, List<QueuedHeartbeat> records, int permits) {
+    }
+
+    /**
+     * 排队中的心跳及其所属用户（用户取自认证身份，不由客户端上报）
+     */
+    private record QueuedHeartbeat(Long userId, StudyHeartbeat heartbeat) {
+    }
+
+    @PostConstruct
+    public void start() throws IOException {
+        permits = new Semaphore(queueCapacity);
+        spillDir = Paths.get(spillPath).toAbsolutePath().normalize();
+        Files.createDirectories(spillDir);
+        recoverSegments();
+        journalPath = newSegmentPath();
+        journal = openSegment(journalPath);
+
+        flusher = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "study-ingest-flusher");
+            thread.setDaemon(true);
+            return thread;
+        });
+        flusher.scheduleWithFixedDelay(this::flushSafely, flushIntervalMillis, flushIntervalMillis, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * 提交当前用户的一条学习心跳
+     *
+     * @return false 表示队列已满，调用方应稍后重试
+     */
+    public boolean submit(Long userId, StudyHeartbeat heartbeat) {
+        try {
+            if (!permits.tryAcquire(offerTimeoutMillis, TimeUnit.MILLISECONDS)) {
+                rejectedCount.increment();
+                return false;
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+        String clientKey = heartbeat.getIdempotencyKey();
+        if (!progressService.markSeen(clientKey)) {
+            // 重试的心跳：视为已接收
+            permits.release();
+            return true;
+        }
+        if (clientKey == null) {
+            // 写库成功但文件段未删除时会重放，分配幂等键使重放可以去重
+            heartbeat.setIdempotencyKey(SERVER_KEY_PREFIX + UUID.randomUUID());
+        }
+
+        QueuedHeartbeat record = new QueuedHeartbeat(userId, heartbeat);
+        ByteBuffer line = ByteBuffer.wrap(encode(record));
+        journalLock.lock();
+        try {
+            while (line.hasRemaining()) {
+                journal.write(line);
+            }
+            if (syncOnWrite) {
+                journal.force(false);
+            }
+            buffer.add(record);
+        } catch (IOException e) {
+            permits.release();
+            progressService.forget(clientKey);
+            throw new UncheckedIOException("写入学习记录暂存文件失败", e);
+        } finally {
+            journalLock.unlock();
+        }
+        return true;
+    }
+
+    /**
+     * 队列中尚未写入数据库的记录数
+     */
+    public int getQueueDepth() {
+        return queueCapacity - permits.availablePermits();
+    }
+
+    /**
+     * 因队列已满被拒绝的次数
+     */
+    public long getRejectedCount() {
+        return rejectedCount.sum();
+    }
+
+    /**
+     * 已写入数据库的记录数
+     */
+    public long getWrittenCount() {
+        return writtenCount.sum();
+    }
+
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        flusher.shutdown();
+        flusher.awaitTermination(10, TimeUnit.SECONDS);
+        flushSafely();
+        journalLock.lock();
+        try {
+            journal.close();
+            if (Files.size(journalPath) == 0) {
+                Files.delete(journalPath);
+            }
+        } catch (IOException e) {
+            log.warn("关闭学习记录暂存文件失败", e);
+        } finally {
+            journalLock.unlock();
+        }
+    }
+
+    private void flushSafely() {
+        try {
+            flush();
+        } catch (RuntimeException e) {
+            log.error("学习记录刷盘异常", e);
+        }
+    }
+
+    private void flush() {
+        while (!retries.isEmpty()) {
+            if (!write(retries.peekFirst())) {
+                return;
+            }
+            retries.pollFirst();
+        }
+
+        List<QueuedHeartbeat> drained;
+        Path segment;
+        journalLock.lock();
+        try {
+            if (buffer.isEmpty()) {
+                return;
+            }
+            drained = buffer;
+            buffer = new ArrayList<>();
+            segment = journalPath;
+            journal.close();
+            journalPath = newSegmentPath();
+            journal = openSegment(journalPath);
+        } catch (IOException e) {
+            throw new UncheckedIOException("切换学习记录暂存文件失败", e);
+        } finally {
+            journalLock.unlock();
+        }
+
+        PendingBatch batch = new PendingBatch(segment, drained, drained.size());
+        if (!write(batch)) {
+            retries.addLast(batch);
+        }
+    }
+
+    /**
+     * 写入一批记录，成功后删除文件段、归还许可并累加进度
+     */
+    private boolean write(PendingBatch batch) {
+        List<QueuedHeartbeat> inserted;
+        try {
+            inserted = insert(batch.records());
+        } catch (RuntimeException e) {
+            log.warn("学习记录写入失败，{} 条记录将重试", batch.records().size(), e);
+            return false;
+        }
+        try {
+            Files.deleteIfExists(batch.segment());
+        } catch (IOException e) {
+            log.warn("删除学习记录暂存文件失败: {}", batch.segment(), e);
+        }
+        permits.release(batch.permits());
+        writtenCount.add(inserted.size());
+        if (!inserted.isEmpty()) {
+            studyAnalyticsService.markDirty();
+        }
+
+        for (QueuedHeartbeat record : inserted) {
+            try {
+                progressService.accumulate(record.userId(),
+                        progressService.resolveSubject(record.heartbeat().getMaterialId()),
+                        record.heartbeat().getDuration());
+            } catch (RuntimeException e) {
+                log.warn("累加学习进度失败: {}", record, e);
+            }
+        }
+        return true;
+    }
+
+    /**
+     * 整批在一个事务内写入；遇到唯一约束等冲突时逐条写入并跳过冲突记录
+     */
+    private List<QueuedHeartbeat> insert(List<QueuedHeartbeat> records) {
+        try {
+            transactionTemplate.executeWithoutResult(status ->
+                    jdbcTemplate.batchUpdate(INSERT_SQL, records, batchSize, this::bind));
+            return records;
+        } catch (DataIntegrityViolationException e) {
+            List<QueuedHeartbeat> inserted = new ArrayList<>(records.size());
+            for (QueuedHeartbeat record : records) {
+                try {
+                    jdbcTemplate.update(INSERT_SQL, ps -> bind(ps, record));
+                    inserted.add(record);
+                } catch (DataIntegrityViolationException ex) {
+                    log.debug("跳过重复或无效的学习记录: {}", record);
+                }
+            }
+            return inserted;
+        }
+    }
+
+    private void bind(PreparedStatement ps, QueuedHeartbeat record) throws SQLException {
+        StudyHeartbeat heartbeat = record.heartbeat();
+        ps.setLong(1, record.userId());
+        ps.setLong(2, heartbeat.getMaterialId());
+        ps.setInt(3, heartbeat.getDuration());
+        ps.setObject(4, heartbeat.getStartTime());
+        ps.setObject(5, heartbeat.getEndTime());
+        ps.setBigDecimal(6, heartbeat.getProgressPercent() != null ? heartbeat.getProgressPercent() : BigDecimal.ZERO);
+        if (heartbeat.getIdempotencyKey() != null) {
+            ps.setString(7, heartbeat.getIdempotencyKey());
+        } else {
+            ps.setNull(7, Types.VARCHAR);
+        }
+        ps.setObject(8, LocalDateTime.now());
+    }
+
+    /**
+     * 启动时重放上次未写入的文件段
+     */
+    private void recoverSegments() throws IOException {
+        List<Path> segments;
+        try (Stream<Path> files = Files.list(spillDir)) {
+            segments = files
+                    .filter(p -> p.getFileName().toString().startsWith(SEGMENT_PREFIX))
+                    .filter(p -> p.getFileName().toString().endsWith(SEGMENT_SUFFIX))
+                    .sorted()
+                    .toList();
+        }
+        for (Path segment : segments) {
+            List<QueuedHeartbeat> records = new ArrayList<>();
+            for (String line : Files.readAllLines(segment, StandardCharsets.UTF_8)) {
+                QueuedHeartbeat record = decode(line);
+                if (record != null) {
+                    records.add(record);
+                }
+            }
+            log.info("重放学习记录暂存文件 {}，共 {} 条", segment.getFileName(), records.size());
+            retries.addLast(new PendingBatch(segment, records, 0));
+        }
+    }
+
+    private Path newSegmentPath() {
+        return spillDir.resolve(String.format("%s%013d-%09d%s", SEGMENT_PREFIX,
+                System.currentTimeMillis(), segmentSequence.incrementAndGet(), SEGMENT_SUFFIX));
+    }
+
+    private FileChannel openSegment(Path path) throws IOException {
+        return FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+    }
+
+    private byte[] encode(QueuedHeartbeat record) {
+        StudyHeartbeat heartbeat = record.heartbeat();
+        String line = String.join(FIELD_SEPARATOR,
+                String.valueOf(record.userId()),
+                String.valueOf(heartbeat.getMaterialId()),
+                String.valueOf(heartbeat.getDuration()),
+                heartbeat.getStartTime().toString(),
+                heartbeat.getEndTime().toString(),
+                heartbeat.getProgressPercent() != null ? heartbeat.getProgressPercent().toPlainString() : "",
+                heartbeat.getIdempotencyKey() != null ? heartbeat.getIdempotencyKey() : "") + "\n";
+        return line.getBytes(StandardCharsets.UTF_8);
+    }
+
+    private QueuedHeartbeat decode(String line) {
+        String[] fields = line.split(FIELD_SEPARATOR, -1);
+        if (fields.length != FIELD_COUNT) {
+            log.warn("忽略不完整的暂存记录: {}", line);
+            return null;
+        }
+        try {
+            return new QueuedHeartbeat(Long.valueOf(fields[0]), new StudyHeartbeat(
+                    Long.valueOf(fields[1]),
+                    Integer.valueOf(fields[2]),
+                    LocalDateTime.parse(fields[3]),
+                    LocalDateTime.parse(fields[4]),
+                    fields[5].isEmpty() ? null : new BigDecimal(fields[5]),
+                    fields[6].isEmpty() ? null : fields[6]));
+        } catch (RuntimeException e) {
+            log.warn("忽略无法解析的暂存记录: {}", line);
+            return null;
+        }
+    }
+}
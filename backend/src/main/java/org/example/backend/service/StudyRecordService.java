@@ -0,0 +1,75 @@
+package org.example.backend.service;
+
+import jakarta.persistence.EntityManager;
+import lombok.RequiredArgsConstructor;
+import org.example.backend.dto.CursorSlice;
+import org.example.backend.dto.StudyHistoryEntry;
+import org.example.backend.dto.StudyRecordItem;
+import org.example.backend.entity.StudyRecord;
+import org.example.backend.entity.User;
+import org.example.backend.repository.StudyRecordRepository;
+import org.example.backend.repository.UserRepository;
+import org.example.backend.util.KeysetCursor;
+import org.example.backend.util.StreamChunks;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+/**
+ * 学习记录查询服务
+ */
+@Service
+@RequiredArgsConstructor
+public class StudyRecordService {
+
+    private static final int CHUNK_SIZE = 500;
+
+    private final StudyRecordRepository studyRecordRepository;
+    private final UserRepository userRepository;
+    private final EntityManager entityManager;
+
+    /**
+     * 用户学习历史（按开始时间倒序的游标分页）
+     */
+    @Transactional(readOnly = true)
+    public CursorSlice<StudyRecordItem> getHistory(Long userId, String cursor, int size) {
+        int pageSize = CursorSlice.clampSize(size);
+        KeysetCursor position = KeysetCursor.decode(cursor);
+        List<StudyRecordItem> rows = studyRecordRepository.findItemsByUserBefore(
+                userId, position.timeKey(), position.id(), PageRequest.of(0, pageSize + 1));
+        return CursorSlice.of(rows, pageSize, item -> KeysetCursor.encode(item.getStartTime(), item.getId()));
+    }
+
+    /**
+     * 用户学习历史（含资料名称与学科），资料随记录一次查出
+     */
+    @Transactional(readOnly = true)
+    public CursorSlice<StudyHistoryEntry> getHistoryWithMaterials(Long userId, String cursor, int size) {
+        int pageSize = CursorSlice.clampSize(size);
+        KeysetCursor position = KeysetCursor.decode(cursor);
+        List<StudyHistoryEntry> rows = studyRecordRepository.findWithMaterialByUserBefore(
+                        userId, position.timeKey(), position.id(), PageRequest.of(0, pageSize + 1))
+                .stream()
+                .map(StudyHistoryEntry::from)
+                .toList();
+        return CursorSlice.of(rows, pageSize, item -> KeysetCursor.encode(item.getStartTime(), item.getId()));
+    }
+
+    /**
+     * 按块遍历用户全部学习记录（流式读取，内存占用与记录总数无关）
+     *
+     * @return 记录总数
+     */
+    @Transactional(readOnly = true)
+    public long forEachRecord(Long userId, Consumer<List<StudyRecordItem>> handler) {
+        User user = userRepository.getReferenceById(userId);
+        try (Stream<StudyRecord> records = studyRecordRepository.streamByUser(user)) {
+            return StreamChunks.forEachChunk(records, CHUNK_SIZE, entityManager,
+                    chunk -> handler.accept(chunk.stream().map(StudyRecordItem::from).toList()));
+        }
+    }
+}
@@ -0,0 +1,277 @@
+package org.example.backend.service;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.example.backend.dto.ReminderCandidate;
+import org.example.backend.dto.StudyReminder;
+import org.example.backend.dto.SubjectProgress;
+import org.example.backend.repository.ProgressRepository;
+import org.example.backend.util.TokenBucket;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.support.CronExpression;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.IntStream;
+
+/**
+ * 学习提醒定时任务
+ * <p>
+ * 按 用户ID 取模把进度落后（进度低于50%且设有目标）的用户分成若干分片，各节点按随机顺序
+ * 通过 {@link SchedulerLeaseService} 抢占分片租约，只处理抢到的分片。分片内按 (用户ID, 进度ID)
+ * 游标分页扫描，同一用户的多个学科合并为一条提醒，交给发送线程池处理：
+ * 令牌桶限制全局发送速率，reminder_dedup 表保证每个用户在去重窗口内最多提醒一次，
+ * 在途任务数有上限，扫描速度不会超过发送速度。
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "reminder.enabled", havingValue = "true", matchIfMissing = true)
+public class StudyReminderScheduler {
+
+    private static final String LEASE_PREFIX = "study-reminder-shard-";
+
+    // 向前回溯查找本次触发对应的 cron 时间点的范围
+    private static final Duration SLOT_LOOKBACK = Duration.ofDays(1);
+
+    private static final String CLAIM_UPDATE_SQL = "UPDATE reminder_dedup SET last_sent_time = ? "
+            + "WHERE user_id = ? AND last_sent_time < ?";
+    private static final String CLAIM_INSERT_SQL = "INSERT INTO reminder_dedup (user_id, last_sent_time) VALUES (?, ?)";
+    private static final String UNCLAIM_SQL = "DELETE FROM reminder_dedup WHERE user_id = ? AND last_sent_time = ?";
+
+    private final ProgressRepository progressRepository;
+    private final SchedulerLeaseService leaseService;
+    private final ReminderNotifier reminderNotifier;
+    private final JdbcTemplate jdbcTemplate;
+
+    @Value("${reminder.cron:0 0 20 * * *}")
+    private String cron;
+
+    @Value("${reminder.shards:16}")
+    private int shards;
+
+    @Value("${reminder.page-size:500}")
+    private int pageSize;
+
+    @Value("${reminder.dispatch-threads:8}")
+    private int dispatchThreads;
+
+    @Value("${reminder.max-in-flight:256}")
+    private int maxInFlight;
+
+    @Value("${reminder.rate-per-second:50}")
+    private double ratePerSecond;
+
+    @Value("${reminder.dedup-window:86400000}")
+    private long dedupWindowMillis;
+
+    @Value("${reminder.lease-ttl:300000}")
+    private long leaseTtlMillis;
+
+    private ExecutorService dispatcher;
+    private TokenBucket rateLimiter;
+    private CronExpression schedule;
+
+    private final LongAdder sent = new LongAdder();
+    private final LongAdder deduplicated = new LongAdder();
+    private final LongAdder failed = new LongAdder();
+
+    @PostConstruct
+    public void start() {
+        AtomicInteger threadIndex = new AtomicInteger();
+        dispatcher = Executors.newFixedThreadPool(dispatchThreads, runnable -> {
+            Thread thread = new Thread(runnable, "reminder-dispatch-" + threadIndex.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        rateLimiter = new TokenBucket(ratePerSecond, Math.max(1, (int) ratePerSecond));
+        schedule = Scheduled.CRON_DISABLED.equals(cron) ? null : CronExpression.parse(cron);
+    }
+
+    @PreDestroy
+    public void stop() {
+        dispatcher.shutdownNow();
+    }
+
+    /**
+     * 定时执行一轮提醒；同一轮次内每个分片只会被一个节点处理一次
+     */
+    @Scheduled(cron = "${reminder.cron:0 0 20 * * *}")
+    public void run() {
+        String run = runId(LocalDateTime.now());
+        Duration leaseTtl = Duration.ofMillis(leaseTtlMillis);
+        List<Integer> order = new ArrayList<>(IntStream.range(0, shards).boxed().toList());
+        // 各节点随机顺序抢占，减少同时争抢同一分片
+        Collections.shuffle(order);
+        int processed = 0;
+        for (int shard : order) {
+            String lease = LEASE_PREFIX + shard;
+            if (!leaseService.tryAcquire(lease, run, leaseTtl)) {
+                continue;
+            }
+            try {
+                if (processShard(shard, lease, leaseTtl)) {
+                    leaseService.complete(lease, run);
+                    processed++;
+                } else {
+                    leaseService.release(lease);
+                }
+            } catch (RuntimeException e) {
+                leaseService.release(lease);
+                log.error("学习提醒分片 {} 处理失败", shard, e);
+            }
+        }
+        log.info("学习提醒轮次 {} 完成，本节点处理分片 {} 个，累计发送 {}，去重跳过 {}，失败 {}",
+                run, processed, sent.sum(), deduplicated.sum(), failed.sum());
+    }
+
+    /**
+     * 轮次标识取本次触发对应的 cron 时间点而非当前时钟，各节点触发有先后或跨过整分钟也属于同一轮次
+     */
+    String runId(LocalDateTime now) {
+        LocalDateTime slot = null;
+        LocalDateTime next = schedule == null ? null : schedule.next(now.minus(SLOT_LOOKBACK));
+        while (next != null && !next.isAfter(now)) {
+            slot = next;
+            next = schedule.next(next);
+        }
+        return (slot != null ? slot : now.truncatedTo(ChronoUnit.MINUTES)).toString();
+    }
+
+    /**
+     * 扫描并派发一个分片，返回 false 表示租约丢失或被中断，分片未处理完
+     */
+    boolean processShard(int shard, String lease, Duration leaseTtl) {
+        Semaphore inFlight = new Semaphore(maxInFlight);
+        long cursorUser = 0;
+        long cursorId = 0;
+        // 上一页末尾用户的学科，可能延续到下一页，与下一页合并后再派发
+        List<ReminderCandidate> carried = new ArrayList<>();
+        boolean completed = false;
+        try {
+            while (true) {
+                List<ReminderCandidate> rows = progressRepository.findReminderCandidatesAfter(
+                        shards, shard, cursorUser, cursorId, PageRequest.of(0, pageSize));
+                boolean lastPage = rows.size() < pageSize;
+                Map<Long, List<ReminderCandidate>> byUser = new LinkedHashMap<>();
+                for (ReminderCandidate row : carried) {
+                    byUser.computeIfAbsent(row.getUserId(), id -> new ArrayList<>()).add(row);
+                }
+                for (ReminderCandidate row : rows) {
+                    byUser.computeIfAbsent(row.getUserId(), id -> new ArrayList<>()).add(row);
+                }
+                carried = lastPage ? List.of() : byUser.remove(rows.get(rows.size() - 1).getUserId());
+                for (List<ReminderCandidate> group : byUser.values()) {
+                    if (!dispatch(group, inFlight)) {
+                        return false;
+                    }
+                }
+                if (lastPage) {
+                    completed = true;
+                    break;
+                }
+                ReminderCandidate last = rows.get(rows.size() - 1);
+                cursorUser = last.getUserId();
+                cursorId = last.getId();
+                if (!leaseService.renew(lease, leaseTtl)) {
+                    log.warn("学习提醒分片 {} 的租约已被接管，停止处理", shard);
+                    break;
+                }
+            }
+            // 等待本分片在途提醒全部发送完毕
+            inFlight.acquire(maxInFlight);
+            return completed;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    /**
+     * 把一个用户的提醒交给发送线程池，在途任务达到上限时等待；返回 false 表示应用关闭中
+     */
+    private boolean dispatch(List<ReminderCandidate> group, Semaphore inFlight) throws InterruptedException {
+        inFlight.acquire();
+        try {
+            dispatcher.execute(() -> {
+                try {
+                    remind(group);
+                } finally {
+                    inFlight.release();
+                }
+            });
+            return true;
+        } catch (RejectedExecutionException e) {
+            inFlight.release();
+            return false;
+        }
+    }
+
+    private void remind(List<ReminderCandidate> group) {
+        Long userId = group.get(0).getUserId();
+        // 与 last_sent_time 列精度一致，撤销登记时按该值精确匹配
+        LocalDateTime now = LocalDateTime.now().truncatedTo(ChronoUnit.MILLIS);
+        if (!claim(userId, now)) {
+            deduplicated.increment();
+            return;
+        }
+        try {
+            rateLimiter.acquire();
+            List<SubjectProgress> subjects = group.stream()
+                    .map(row -> new SubjectProgress(row.getSubject(), row.getPercent(), row.getTotalStudyTime()))
+                    .toList();
+            reminderNotifier.send(new StudyReminder(userId, subjects));
+            sent.increment();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            unclaim(userId, now);
+        } catch (RuntimeException e) {
+            failed.increment();
+            unclaim(userId, now);
+            log.warn("学习提醒发送失败: 用户 {}", userId, e);
+        }
+    }
+
+    /**
+     * 登记本次提醒；去重窗口内已提醒过（含其他节点）时返回 false
+     */
+    private boolean claim(Long userId, LocalDateTime now) {
+        LocalDateTime windowStart = now.minus(Duration.ofMillis(dedupWindowMillis));
+        if (jdbcTemplate.update(CLAIM_UPDATE_SQL, now, userId, windowStart) > 0) {
+            return true;
+        }
+        try {
+            return jdbcTemplate.update(CLAIM_INSERT_SQL, userId, now) > 0;
+        } catch (DuplicateKeyException e) {
+            return false;
+        }
+    }
+
+    private void unclaim(Long userId, LocalDateTime claimedAt) {
+        try {
+            jdbcTemplate.update(UNCLAIM_SQL, userId, claimedAt);
+        } catch (RuntimeException e) {
+            log.warn("撤销提醒登记失败，用户 {} 将在去重窗口过后再提醒", userId, e);
+        }
+    }
+}
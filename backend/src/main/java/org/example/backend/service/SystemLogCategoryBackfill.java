@@ -0,0 +1,83 @@
+package org.example.backend.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.example.backend.entity.SystemLog;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+/**
+ * 系统日志分类回填
+ * <p>
+ * 升级前写入的日志没有 category，启动后在后台线程按主键区间分批回填，
+ * 每批一个短事务，不阻塞启动也不长时间持锁。分类规则与
+ * {@link SystemLog.Category#of(String)} 一致。
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class SystemLogCategoryBackfill {
+
+    private static final String RANGE_SQL = "SELECT MIN(id), MAX(id) FROM system_log WHERE category IS NULL";
+
+    private static final String UPDATE_SQL = "UPDATE system_log SET category = " + categoryCase()
+            + " WHERE id >= ? AND id < ? AND category IS NULL";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Value("${log.category.backfill-enabled:true}")
+    private boolean enabled;
+
+    @Value("${log.category.backfill-chunk:10000}")
+    private int chunkSize;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        if (!enabled) {
+            return;
+        }
+        Thread thread = new Thread(this::backfill, "system-log-category-backfill");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    /**
+     * 分批回填，返回更新的行数
+     */
+    public long backfill() {
+        Long[] range = jdbcTemplate.queryForObject(RANGE_SQL,
+                (rs, rowNum) -> new Long[]{rs.getObject(1, Long.class), rs.getObject(2, Long.class)});
+        if (range == null || range[0] == null) {
+            return 0;
+        }
+        long updated = 0;
+        try {
+            for (long from = range[0]; from <= range[1]; from += chunkSize) {
+                updated += jdbcTemplate.update(UPDATE_SQL, from, from + chunkSize);
+            }
+            log.info("系统日志分类回填完成，共 {} 条", updated);
+        } catch (RuntimeException e) {
+            log.error("系统日志分类回填中断，已回填 {} 条，下次启动继续", updated, e);
+        }
+        return updated;
+    }
+
+    /**
+     * 生成与 Category.of 等价的 CASE 表达式
+     */
+    private static String categoryCase() {
+        StringBuilder sql = new StringBuilder("CASE operation");
+        for (SystemLog.OperationType type : SystemLog.OperationType.values()) {
+            sql.append(" WHEN '").append(type.name()).append("' THEN '").append(type.getCategory().name()).append('\'');
+        }
+        sql.append(" ELSE CASE")
+                .append(" WHEN operation LIKE '%ERROR%' THEN '").append(SystemLog.Category.ERROR).append('\'')
+                .append(" WHEN operation LIKE '%WARNING%' THEN '").append(SystemLog.Category.WARNING).append('\'')
+                .append(" WHEN operation LIKE '%MATERIAL%' THEN '").append(SystemLog.Category.MATERIAL).append('\'')
+                .append(" ELSE '").append(SystemLog.Category.OTHER).append("' END END");
+        return sql.toString();
+    }
+}
@@ -0,0 +1,236 @@
+package org.example.backend.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+import java.util.TreeSet;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * 系统日志分区维护
+ * <p>
+ * system_log 按天 RANGE 分区（MySQL），每天提前创建未来若干天的分区，
+ * 超过保留期的分区先导出为 gzip 压缩的 TSV 段文件再整体 DROP，
+ * 避免逐行 DELETE 带来的大事务和碎片。仅在 log.partition.enabled=true 时启用（默认关闭）；
+ * 已有库需先执行 db/migration/system_log_partition.sql 把表改为分区表，未分区时跳过维护。
+ * 多节点部署时通过租约保证每天只有一个节点执行 DDL、归档与删除。
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "log.partition.enabled", havingValue = "true")
+public class SystemLogPartitionManager {
+
+    private static final String TABLE = "system_log";
+    private static final String FUTURE_PARTITION = "p_future";
+    private static final String PARTITION_PREFIX = "p";
+    private static final String LEASE_NAME = "log-partition";
+    private static final DateTimeFormatter PARTITION_DATE = DateTimeFormatter.ofPattern("yyyyMMdd");
+
+    private static final String PARTITIONS_SQL = "SELECT PARTITION_NAME FROM information_schema.PARTITIONS "
+            + "WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = ? AND PARTITION_NAME IS NOT NULL";
+
+    private static final String ARCHIVE_SQL = "SELECT id, user_id, operation, category, description, ip_address, "
+            + "user_agent, created_time FROM " + TABLE + " PARTITION (%s) ORDER BY created_time, id";
+
+    private static final int ARCHIVE_COLUMNS = 8;
+
+    private static final int ARCHIVE_FETCH_SIZE = 1000;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final SchedulerLeaseService leaseService;
+
+    @Value("${log.partition.days-ahead:7}")
+    private int daysAhead;
+
+    @Value("${log.partition.retention-days:90}")
+    private int retentionDays;
+
+    @Value("${log.partition.archive-enabled:true}")
+    private boolean archiveEnabled;
+
+    @Value("${log.partition.archive-path:./data/log-archive/}")
+    private String archivePath;
+
+    @Value("${log.partition.lease-ttl:1800000}")
+    private long leaseTtlMillis;
+
+    /**
+     * 启动时及每天凌晨维护分区
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(cron = "${log.partition.cron:0 10 0 * * *}")
+    public synchronized void maintain() {
+        String run = LocalDate.now().toString();
+        try {
+            if (!leaseService.tryAcquire(LEASE_NAME, run, leaseTtl())) {
+                log.debug("今日系统日志分区维护已由其他节点执行或正在执行");
+                return;
+            }
+        } catch (RuntimeException e) {
+            log.error("获取系统日志分区维护租约失败", e);
+            return;
+        }
+        boolean completed = false;
+        try {
+            createPartitions();
+            applyRetention();
+            completed = true;
+        } catch (RuntimeException | IOException e) {
+            log.error("系统日志分区维护失败", e);
+        } finally {
+            if (completed) {
+                leaseService.complete(LEASE_NAME, run);
+            } else {
+                leaseService.release(LEASE_NAME);
+            }
+        }
+    }
+
+    /**
+     * 从最后一个按天分区之后补建到 今天 + daysAhead
+     */
+    public void createPartitions() {
+        TreeSet<LocalDate> days = dailyPartitions();
+        if (days == null) {
+            return;
+        }
+        if (!hasFuturePartition()) {
+            log.warn("{} 缺少 {} 分区，跳过新分区创建", TABLE, FUTURE_PARTITION);
+            return;
+        }
+        LocalDate today = LocalDate.now();
+        LocalDate day = days.isEmpty() || days.last().isBefore(today) ? today : days.last().plusDays(1);
+        LocalDate last = today.plusDays(daysAhead);
+        for (; !day.isAfter(last); day = day.plusDays(1)) {
+            jdbcTemplate.execute("ALTER TABLE " + TABLE + " REORGANIZE PARTITION " + FUTURE_PARTITION + " INTO ("
+                    + "PARTITION " + partitionName(day) + " VALUES LESS THAN (UNIX_TIMESTAMP('" + day.plusDays(1) + " 00:00:00')), "
+                    + "PARTITION " + FUTURE_PARTITION + " VALUES LESS THAN MAXVALUE)");
+            log.info("创建系统日志分区 {}", partitionName(day));
+        }
+    }
+
+    /**
+     * 归档并删除超过保留期的分区
+     */
+    public void applyRetention() throws IOException {
+        TreeSet<LocalDate> days = dailyPartitions();
+        if (days == null) {
+            return;
+        }
+        LocalDate cutoff = LocalDate.now().minusDays(retentionDays);
+        for (LocalDate day : days.headSet(cutoff)) {
+            // 归档大分区耗时较长，每个分区前续约，租约被接管时停止
+            if (!leaseService.renew(LEASE_NAME, leaseTtl())) {
+                log.warn("系统日志分区维护租约已失效，停止删除过期分区");
+                return;
+            }
+            String partition = partitionName(day);
+            if (archiveEnabled) {
+                Path segment = archive(partition);
+                log.info("系统日志分区 {} 已归档到 {}", partition, segment);
+            }
+            jdbcTemplate.execute("ALTER TABLE " + TABLE + " DROP PARTITION " + partition);
+            log.info("删除过期系统日志分区 {}", partition);
+        }
+    }
+
+    /**
+     * 把分区数据流式导出为 gzip 压缩的 TSV 段文件，写完后原子改名；
+     * 列顺序：id, user_id, operation, category, description, ip_address, user_agent, created_time
+     */
+    private Path archive(String partition) throws IOException {
+        Path dir = Paths.get(archivePath).toAbsolutePath().normalize();
+        Files.createDirectories(dir);
+        Path target = dir.resolve(TABLE + "-" + partition + ".tsv.gz");
+        Path temp = dir.resolve(target.getFileName() + ".part");
+        try (Writer writer = new BufferedWriter(new OutputStreamWriter(
+                new GZIPOutputStream(Files.newOutputStream(temp), 64 * 1024), StandardCharsets.UTF_8))) {
+            jdbcTemplate.query(connection -> {
+                PreparedStatement ps = connection.prepareStatement(String.format(ARCHIVE_SQL, partition),
+                        ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+                ps.setFetchSize(ARCHIVE_FETCH_SIZE);
+                return ps;
+            }, (ResultSet rs) -> {
+                try {
+                    for (int column = 1; column <= ARCHIVE_COLUMNS; column++) {
+                        if (column > 1) {
+                            writer.write('\t');
+                        }
+                        writer.write(escape(rs.getString(column)));
+                    }
+                    writer.write('\n');
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        } catch (UncheckedIOException e) {
+            Files.deleteIfExists(temp);
+            throw e.getCause();
+        } catch (RuntimeException e) {
+            Files.deleteIfExists(temp);
+            throw e;
+        }
+        return Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /**
+     * 现有按天分区的日期；表未分区时返回 null
+     */
+    private TreeSet<LocalDate> dailyPartitions() {
+        List<String> names = jdbcTemplate.queryForList(PARTITIONS_SQL, String.class, TABLE);
+        if (names.isEmpty()) {
+            log.warn("{} 不是分区表，跳过分区维护（已有库请先执行 db/migration/system_log_partition.sql）", TABLE);
+            return null;
+        }
+        TreeSet<LocalDate> days = new TreeSet<>();
+        for (String name : names) {
+            if (name.matches(PARTITION_PREFIX + "\\d{8}")) {
+                days.add(LocalDate.parse(name.substring(PARTITION_PREFIX.length()), PARTITION_DATE));
+            }
+        }
+        return days;
+    }
+
+    private boolean hasFuturePartition() {
+        return jdbcTemplate.queryForList(PARTITIONS_SQL, String.class, TABLE).contains(FUTURE_PARTITION);
+    }
+
+    private Duration leaseTtl() {
+        return Duration.ofMillis(leaseTtlMillis);
+    }
+
+    private static String partitionName(LocalDate day) {
+        return PARTITION_PREFIX + PARTITION_DATE.format(day);
+    }
+
+    private static String escape(String value) {
+        if (value == null) {
+            return "\\N";
+        }
+        return value.replace("\\", "\\\\").replace("\t", "\\t").replace("\n", "\\n").replace("\r", "\\r");
+    }
+}
@@ -0,0 +1,200 @@
+package org.example.backend.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.example.backend.dto.CacheStats;
+import org.example.backend.dto.UserSnapshot;
+import org.example.backend.entity.User;
+import org.example.backend.event.UserChangedEvent;
+import org.example.backend.repository.UserRepository;
+import org.example.backend.util.LocalCache;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * 认证用户查询缓存
+ * <p>
+ * 一级为进程内 {@link LocalCache}，二级为 Redis（app.cache.redis.enabled 开启时），
+ * 均未命中才查询数据库。缓存的是 {@link UserSnapshot} 而非托管实体。
+ * 用户变更由 {@link UserChangedEvent} 在事务提交后失效本地与 Redis 条目，
+ * 并通过 Redis 频道通知其他节点失效各自的本地缓存。
+ * 每个条目带一个版本键，失效时递增；回填 Redis 时版本与查询数据库前读到的不一致则放弃写入，
+ * 避免并发失效后把旧快照写回。
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class UserCacheService {
+
+    public static final String INVALIDATION_CHANNEL = "user-cache:invalidate";
+
+    private static final String REMOTE_PREFIX = "user-cache:";
+    private static final String USERNAME_KEY = "u:";
+    private static final String VERSION_PREFIX = "v:";
+
+    // 仅当版本键与读取数据库前一致（均不存在视为一致）时才写入
+    private static final DefaultRedisScript<Long> PUT_IF_VERSION_SCRIPT = new DefaultRedisScript<>(
+            "if (redis.call('get', KEYS[1]) or '') == ARGV[1] then "
+                    + "redis.call('set', KEYS[2], ARGV[2], 'PX', ARGV[3]) return 1 else return 0 end",
+            Long.class);
+
+    private final UserRepository userRepository;
+    private final ObjectProvider<StringRedisTemplate> redisTemplateProvider;
+    private final ObjectMapper objectMapper;
+
+    @Value("${app.cache.user.maximum-size:10000}")
+    private int maximumSize;
+
+    @Value("${app.cache.user.ttl:600000}")
+    private long ttlMillis;
+
+    @Value("${app.cache.redis.enabled:false}")
+    private boolean remoteEnabled;
+
+    @Value("${app.cache.redis.ttl:1800000}")
+    private long remoteTtlMillis;
+
+    private LocalCache<String, UserSnapshot> localCache;
+    private StringRedisTemplate redisTemplate;
+
+    private final LongAdder remoteHits = new LongAdder();
+    private final LongAdder remoteMisses = new LongAdder();
+
+    @PostConstruct
+    public void init() {
+        localCache = new LocalCache<>(maximumSize, ttlMillis, TimeUnit.MILLISECONDS);
+        redisTemplate = remoteEnabled ? redisTemplateProvider.getIfAvailable() : null;
+        if (remoteEnabled && redisTemplate == null) {
+            log.warn("已开启 app.cache.redis.enabled 但未配置 Redis，用户缓存仅使用本地缓存");
+        }
+    }
+
+    /**
+     * 按用户名查找（认证时加载当前用户）
+     */
+    public Optional<UserSnapshot> findByUsername(String username) {
+        return Optional.ofNullable(lookup(USERNAME_KEY + username, () -> userRepository.findByUsername(username)));
+    }
+
+    /**
+     * 用户变更后失效相关缓存
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onUserChanged(UserChangedEvent event) {
+        List<String> keys = keysOf(event);
+        evictLocal(keys);
+        if (redisTemplate != null) {
+            try {
+                for (String key : keys) {
+                    redisTemplate.opsForValue().increment(REMOTE_PREFIX + VERSION_PREFIX + key);
+                    redisTemplate.expire(REMOTE_PREFIX + VERSION_PREFIX + key, Duration.ofMillis(remoteTtlMillis));
+                }
+                redisTemplate.delete(keys.stream().map(key -> REMOTE_PREFIX + key).toList());
+                redisTemplate.convertAndSend(INVALIDATION_CHANNEL, String.join("\n", keys));
+            } catch (RuntimeException e) {
+                log.warn("Redis 用户缓存失效失败，条目将在 {} 毫秒内过期: {}", remoteTtlMillis, keys, e);
+            }
+        }
+    }
+
+    /**
+     * 失效本地缓存条目（本节点事件或其他节点的失效通知）
+     */
+    public void evictLocal(Collection<String> keys) {
+        keys.forEach(localCache::invalidate);
+    }
+
+    public CacheStats getStats() {
+        long hits = localCache.hitCount();
+        long misses = localCache.missCount();
+        long total = hits + misses;
+        return new CacheStats("user", localCache.size(), localCache.maximumSize(), hits, misses,
+                total == 0 ? 0 : (double) hits / total, localCache.evictionCount(),
+                remoteHits.sum(), remoteMisses.sum(), redisTemplate != null);
+    }
+
+    private UserSnapshot lookup(String key, Supplier<Optional<User>> query) {
+        return localCache.get(key, k -> {
+            UserSnapshot snapshot = remoteGet(k);
+            if (snapshot == null) {
+                String version = remoteVersion(k);
+                snapshot = query.get().map(UserSnapshot::from).orElse(null);
+                if (snapshot != null && version != null) {
+                    remotePut(k, version, snapshot);
+                }
+            }
+            return snapshot;
+        });
+    }
+
+    private UserSnapshot remoteGet(String key) {
+        if (redisTemplate == null) {
+            return null;
+        }
+        try {
+            String json = redisTemplate.opsForValue().get(REMOTE_PREFIX + key);
+            if (json == null) {
+                remoteMisses.increment();
+                return null;
+            }
+            remoteHits.increment();
+            return objectMapper.readValue(json, UserSnapshot.class);
+        } catch (JsonProcessingException | RuntimeException e) {
+            log.debug("读取 Redis 用户缓存失败，回退数据库: {}", key, e);
+            return null;
+        }
+    }
+
+    /**
+     * 读取条目当前版本，不存在为空串；Redis 不可用时返回 null，此时不回填
+     */
+    private String remoteVersion(String key) {
+        if (redisTemplate == null) {
+            return null;
+        }
+        try {
+            String version = redisTemplate.opsForValue().get(REMOTE_PREFIX + VERSION_PREFIX + key);
+            return version == null ? "" : version;
+        } catch (RuntimeException e) {
+            log.debug("读取 Redis 用户缓存版本失败，跳过回填: {}", key, e);
+            return null;
+        }
+    }
+
+    private void remotePut(String key, String version, UserSnapshot snapshot) {
+        try {
+            Long written = redisTemplate.execute(PUT_IF_VERSION_SCRIPT,
+                    List.of(REMOTE_PREFIX + VERSION_PREFIX + key, REMOTE_PREFIX + key),
+                    version, objectMapper.writeValueAsString(snapshot), String.valueOf(remoteTtlMillis));
+            if (written == null || written == 0) {
+                log.debug("用户缓存在查询期间已失效，放弃回填 Redis: {}", key);
+            }
+        } catch (JsonProcessingException | RuntimeException e) {
+            log.debug("写入 Redis 用户缓存失败: {}", key, e);
+        }
+    }
+
+    private static List<String> keysOf(UserChangedEvent event) {
+        List<String> keys = new ArrayList<>();
+        for (String username : event.getUsernames()) {
+            keys.add(USERNAME_KEY + username);
+        }
+        return keys;
+    }
+}
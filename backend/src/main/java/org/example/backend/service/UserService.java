@@ -0,0 +1,113 @@
+package org.example.backend.service;
+
+import lombok.RequiredArgsConstructor;
+import org.example.backend.entity.User;
+import org.example.backend.event.UserChangedEvent;
+import org.example.backend.exception.ResourceNotFoundException;
+import org.example.backend.repository.UserRepository;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * 用户管理服务
+ * <p>
+ * 所有用户写操作都经过本服务，并发布 {@link UserChangedEvent}，
+ * 由认证缓存等派生数据在事务提交后失效。
+ */
+@Service
+@RequiredArgsConstructor
+public class UserService {
+
+    private final UserRepository userRepository;
+    private final ApplicationEventPublisher eventPublisher;
+
+    /**
+     * 根据ID查找用户
+     */
+    @Transactional(readOnly = true)
+    public User getUser(Long id) {
+        return userRepository.findById(id)
+                .orElseThrow(() -> new ResourceNotFoundException("用户不存在: " + id));
+    }
+
+    /**
+     * 修改用户资料，参数为空表示不修改该项
+     */
+    @Transactional
+    public User updateProfile(Long id, String username, String email, String phone, String avatar) {
+        User user = getUser(id);
+        String oldUsername = user.getUsername();
+        if (username != null) {
+            user.setUsername(username);
+        }
+        if (email != null) {
+            user.setEmail(email);
+        }
+        if (phone != null) {
+            user.setPhone(phone);
+        }
+        if (avatar != null) {
+            user.setAvatar(avatar);
+        }
+        User saved = userRepository.save(user);
+        publish(UserChangedEvent.Type.UPDATED, saved, oldUsername);
+        return saved;
+    }
+
+    /**
+     * 修改密码（传入已编码的密码哈希）
+     */
+    @Transactional
+    public User changePassword(Long id, String encodedPassword) {
+        User user = getUser(id);
+        user.setPassword(encodedPassword);
+        User saved = userRepository.save(user);
+        publish(UserChangedEvent.Type.PASSWORD_CHANGED, saved, saved.getUsername());
+        return saved;
+    }
+
+    /**
+     * 修改账号状态（封禁、解封、停用）
+     */
+    @Transactional
+    public User changeStatus(Long id, User.Status status) {
+        User user = getUser(id);
+        user.setStatus(status);
+        User saved = userRepository.save(user);
+        publish(UserChangedEvent.Type.STATUS_CHANGED, saved, saved.getUsername());
+        return saved;
+    }
+
+    /**
+     * 修改角色
+     */
+    @Transactional
+    public User changeRole(Long id, User.Role role) {
+        User user = getUser(id);
+        user.setRole(role);
+        User saved = userRepository.save(user);
+        publish(UserChangedEvent.Type.ROLE_CHANGED, saved, saved.getUsername());
+        return saved;
+    }
+
+    /**
+     * 删除用户
+     */
+    @Transactional
+    public void delete(Long id) {
+        User user = getUser(id);
+        userRepository.delete(user);
+        publish(UserChangedEvent.Type.DELETED, user, user.getUsername());
+    }
+
+    private void publish(UserChangedEvent.Type type, User user, String oldUsername) {
+        Set<String> usernames = new HashSet<>();
+        usernames.add(oldUsername);
+        usernames.add(user.getUsername());
+        eventPublisher.publishEvent(new UserChangedEvent(type, user.getId(), usernames));
+    }
+}
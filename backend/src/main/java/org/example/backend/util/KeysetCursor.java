@@ -0,0 +1,80 @@
+package org.example.backend.util;
+
+import org.example.backend.exception.BadRequestException;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+/**
+ * 游标分页的续页游标
+ * <p>
+ * 对客户端是不透明字符串（Base64URL 编码的 "排序值|id"），服务端据此做
+ * (排序列, id) 的降序定位查询，每页成本与翻页深度无关。
+ * 首页游标的排序值和 id 取上界，与续页共用同一条查询。
+ */
+public record KeysetCursor(String sortKey, long id) {
+
+    public static final KeysetCursor FIRST = new KeysetCursor(null, Long.MAX_VALUE);
+
+    // 首页使用的时间上界
+    public static final LocalDateTime MAX_TIME = LocalDateTime.of(9999, 12, 31, 23, 59, 59);
+
+    private static final char SEPARATOR = '|';
+
+    /**
+     * 生成续页游标
+     */
+    public static String encode(Object sortKey, long id) {
+        String raw = sortKey + String.valueOf(SEPARATOR) + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * 解析客户端传回的游标，空值表示首页
+     */
+    public static KeysetCursor decode(String token) {
+        if (token == null || token.isBlank()) {
+            return FIRST;
+        }
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            int separator = raw.lastIndexOf(SEPARATOR);
+            if (separator < 0) {
+                throw new BadRequestException("无效的分页游标");
+            }
+            return new KeysetCursor(raw.substring(0, separator), Long.parseLong(raw.substring(separator + 1)));
+        } catch (IllegalArgumentException e) {
+            throw new BadRequestException("无效的分页游标");
+        }
+    }
+
+    /**
+     * 时间类型的排序值
+     */
+    public LocalDateTime timeKey() {
+        if (sortKey == null) {
+            return MAX_TIME;
+        }
+        try {
+            return LocalDateTime.parse(sortKey);
+        } catch (DateTimeParseException e) {
+            throw new BadRequestException("无效的分页游标");
+        }
+    }
+
+    /**
+     * 数值类型的排序值
+     */
+    public long longKey() {
+        if (sortKey == null) {
+            return Long.MAX_VALUE;
+        }
+        try {
+            return Long.parseLong(sortKey);
+        } catch (NumberFormatException e) {
+            throw new BadRequestException("无效的分页游标");
+        }
+    }
+}
@@ -0,0 +1,195 @@
+package org.example.backend.util;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+/**
+ * 有界本地缓存（分段 LRU + 写入后过期）
+ * <p>
+ * 按键哈希分到若干段，每段是一个按访问顺序排列的 LinkedHashMap，由段锁保护，
+ * 命中只需一次哈希定位和一次短暂加锁。超出段容量时淘汰最久未访问的条目。
+ * 加载在锁外执行；加载期间该段发生过失效时不回填，避免把失效前读到的旧值写回缓存。
+ */
+public class LocalCache<K, V> {
+
+    private static final int SEGMENTS = 16;
+
+    private final Segment<K, V>[] segments;
+    private final long ttlNanos;
+    private final int maximumSize;
+
+    private final LongAdder hitCount = new LongAdder();
+    private final LongAdder missCount = new LongAdder();
+    private final LongAdder evictionCount = new LongAdder();
+
+    @SuppressWarnings("unchecked")
+    public LocalCache(int maximumSize, long ttl, TimeUnit unit) {
+        if (maximumSize <= 0) {
+            throw new IllegalArgumentException("容量必须大于0: " + maximumSize);
+        }
+        this.maximumSize = maximumSize;
+        this.ttlNanos = unit.toNanos(ttl);
+        int segmentCapacity = Math.max(1, (maximumSize + SEGMENTS - 1) / SEGMENTS);
+        this.segments = new Segment[SEGMENTS];
+        for (int i = 0; i < SEGMENTS; i++) {
+            segments[i] = new Segment<>(segmentCapacity);
+        }
+    }
+
+    /**
+     * 读取未过期的缓存值，不存在时返回 null
+     */
+    public V getIfPresent(K key) {
+        V value = segmentFor(key).get(key, System.nanoTime());
+        if (value != null) {
+            hitCount.increment();
+        } else {
+            missCount.increment();
+        }
+        return value;
+    }
+
+    /**
+     * 读取缓存值，未命中时调用 loader 加载并回填；loader 返回 null 时不缓存
+     */
+    public V get(K key, Function<? super K, ? extends V> loader) {
+        Segment<K, V> segment = segmentFor(key);
+        V value = segment.get(key, System.nanoTime());
+        if (value != null) {
+            hitCount.increment();
+            return value;
+        }
+        missCount.increment();
+        long generation = segment.generation();
+        V loaded = loader.apply(key);
+        if (loaded != null) {
+            evictionCount.add(segment.putIfGeneration(key, loaded, System.nanoTime() + ttlNanos, generation));
+        }
+        return loaded;
+    }
+
+    /**
+     * 写入缓存值
+     */
+    public void put(K key, V value) {
+        Segment<K, V> segment = segmentFor(key);
+        evictionCount.add(segment.putIfGeneration(key, value, System.nanoTime() + ttlNanos, -1));
+    }
+
+    /**
+     * 失效指定键
+     */
+    public void invalidate(K key) {
+        segmentFor(key).remove(key);
+    }
+
+    /**
+     * 清空缓存
+     */
+    public void invalidateAll() {
+        for (Segment<K, V> segment : segments) {
+            segment.clear();
+        }
+    }
+
+    /**
+     * 当前条目数（含尚未清理的过期条目）
+     */
+    public int size() {
+        int size = 0;
+        for (Segment<K, V> segment : segments) {
+            size += segment.size();
+        }
+        return size;
+    }
+
+    public int maximumSize() {
+        return maximumSize;
+    }
+
+    public long hitCount() {
+        return hitCount.sum();
+    }
+
+    public long missCount() {
+        return missCount.sum();
+    }
+
+    public long evictionCount() {
+        return evictionCount.sum();
+    }
+
+    private Segment<K, V> segmentFor(K key) {
+        int h = key.hashCode();
+        h ^= h >>> 16;
+        return segments[h & (SEGMENTS - 1)];
+    }
+
+    private record Entry<V>(V value, long expiresAt) {
+    }
+
+    private static final class Segment<K, V> {
+
+        private final int capacity;
+        private final LinkedHashMap<K, Entry<V>> map = new LinkedHashMap<>(16, 0.75f, true);
+        private long generation;
+
+        private Segment(int capacity) {
+            this.capacity = capacity;
+        }
+
+        synchronized V get(K key, long now) {
+            Entry<V> entry = map.get(key);
+            if (entry == null) {
+                return null;
+            }
+            if (entry.expiresAt() - now <= 0) {
+                map.remove(key);
+                return null;
+            }
+            return entry.value();
+        }
+
+        synchronized long generation() {
+            return generation;
+        }
+
+        /**
+         * 写入条目；expectedGeneration 非负且段已失效过时放弃写入
+         *
+         * @return 因容量淘汰的条目数
+         */
+        synchronized int putIfGeneration(K key, V value, long expiresAt, long expectedGeneration) {
+            if (expectedGeneration >= 0 && expectedGeneration != generation) {
+                return 0;
+            }
+            map.put(key, new Entry<>(value, expiresAt));
+            int evicted = 0;
+            Iterator<Map.Entry<K, Entry<V>>> eldest = map.entrySet().iterator();
+            while (map.size() > capacity && eldest.hasNext()) {
+                eldest.next();
+                eldest.remove();
+                evicted++;
+            }
+            return evicted;
+        }
+
+        synchronized void remove(K key) {
+            map.remove(key);
+            generation++;
+        }
+
+        synchronized void clear() {
+            map.clear();
+            generation++;
+        }
+
+        synchronized int size() {
+            return map.size();
+        }
+    }
+}
@@ -0,0 +1,87 @@
+package org.example.backend.util;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.Consumer;
+
+/**
+ * 有界无锁环形缓冲区（多生产者、单消费者）
+ * <p>
+ * 生产者通过 CAS 抢占写入序号后发布元素，消费者按序号顺序取出并清空槽位，
+ * 槽位为空表示对应序号尚未发布。容量向上取整为2的幂。
+ */
+public class MpscRingBuffer<E> {
+
+    private final AtomicReferenceArray<E> slots;
+    private final int capacity;
+    private final int mask;
+    private final AtomicLong producerIndex = new AtomicLong();
+
+    // 仅消费者线程写入
+    private volatile long consumerIndex;
+
+    public MpscRingBuffer(int requestedCapacity) {
+        if (requestedCapacity <= 0) {
+            throw new IllegalArgumentException("容量必须大于0: " + requestedCapacity);
+        }
+        int size = Integer.highestOneBit(requestedCapacity);
+        if (size < requestedCapacity) {
+            size <<= 1;
+        }
+        this.capacity = size;
+        this.mask = size - 1;
+        this.slots = new AtomicReferenceArray<>(size);
+    }
+
+    /**
+     * 写入元素，缓冲区已满时立即返回 false
+     */
+    public boolean offer(E element) {
+        if (element == null) {
+            throw new NullPointerException("元素不能为空");
+        }
+        long index;
+        do {
+            index = producerIndex.get();
+            if (index - consumerIndex >= capacity) {
+                return false;
+            }
+        } while (!producerIndex.compareAndSet(index, index + 1));
+        slots.lazySet((int) (index & mask), element);
+        return true;
+    }
+
+    /**
+     * 取出最多 limit 个已发布的元素（仅允许单个消费者线程调用）
+     *
+     * @return 实际取出的数量
+     */
+    public int drain(Consumer<E> consumer, int limit) {
+        long index = consumerIndex;
+        int count = 0;
+        while (count < limit) {
+            int offset = (int) (index & mask);
+            E element = slots.get(offset);
+            if (element == null) {
+                break;
+            }
+            slots.lazySet(offset, null);
+            index++;
+            count++;
+            consumer.accept(element);
+        }
+        consumerIndex = index;
+        return count;
+    }
+
+    /**
+     * 当前元素数（近似值）
+     */
+    public int size() {
+        return (int) Math.max(0, producerIndex.get() - consumerIndex);
+    }
+
+    public int capacity() {
+        return capacity;
+    }
+}
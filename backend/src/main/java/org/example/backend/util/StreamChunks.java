@@ -0,0 +1,53 @@
+package org.example.backend.util;
+
+import jakarta.persistence.EntityManager;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+/**
+ * 流式查询结果的分块处理
+ * <p>
+ * 按块把实体交给处理函数，每块处理完后清空持久化上下文，
+ * 已处理的实体可以被回收，内存占用与结果总行数无关。
+ * 只应在只读事务中使用（清空上下文会丢弃未刷新的修改）。
+ */
+public final class StreamChunks {
+
+    private StreamChunks() {
+    }
+
+    /**
+     * 逐块处理流中的元素，返回处理总数
+     *
+     * @param entityManager 流所在的持久化上下文，为空时不清理
+     */
+    public static <T> long forEachChunk(Stream<T> stream, int chunkSize, EntityManager entityManager,
+                                        Consumer<List<T>> handler) {
+        long total = 0;
+        List<T> chunk = new ArrayList<>(chunkSize);
+        Iterator<T> iterator = stream.iterator();
+        while (iterator.hasNext()) {
+            chunk.add(iterator.next());
+            if (chunk.size() >= chunkSize) {
+                total += flush(chunk, entityManager, handler);
+                chunk = new ArrayList<>(chunkSize);
+            }
+        }
+        if (!chunk.isEmpty()) {
+            total += flush(chunk, entityManager, handler);
+        }
+        return total;
+    }
+
+    private static <T> int flush(List<T> chunk, EntityManager entityManager, Consumer<List<T>> handler) {
+        handler.accept(chunk);
+        if (entityManager != null) {
+            entityManager.clear();
+        }
+        return chunk.size();
+    }
+}
@@ -0,0 +1,10 @@
+-- 已有库升级：新增系统日志累计值表（MySQL）
+-- 统计查询改为读取累计值表；首次启动时由一个节点从 log_rollup 重建累计值。
+
+CREATE TABLE IF NOT EXISTS `log_total` (
+    `dimension` VARCHAR(10) NOT NULL COMMENT '维度：OPERATION/DAY/IP/USER_OP',
+    `user_id` BIGINT NOT NULL DEFAULT 0 COMMENT 'USER_OP 维度的用户ID，其他维度为0',
+    `dim_key` VARCHAR(100) NOT NULL COMMENT '维度取值：操作类型、日期或IP地址',
+    `cnt` BIGINT NOT NULL DEFAULT 0 COMMENT '累计条数',
+    PRIMARY KEY (`dimension`, `user_id`, `dim_key`)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COMMENT='系统日志累计值表';
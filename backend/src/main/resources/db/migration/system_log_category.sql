@@ -0,0 +1,8 @@
+-- 已有库升级：system_log 增加操作分类列及复合索引（MySQL）
+-- 需在部署新版本前执行（ddl-auto=validate 会校验 category 列），
+-- 存量数据由 SystemLogCategoryBackfill 在启动后按主键区间分批回填。
+
+ALTER TABLE `system_log`
+    ADD COLUMN `category` VARCHAR(20) COMMENT '操作分类' AFTER `operation`,
+    ADD INDEX `idx_category_time` (`category`, `created_time`),
+    ADD INDEX `idx_user_category_time` (`user_id`, `category`, `created_time`);
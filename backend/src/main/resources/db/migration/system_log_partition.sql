@@ -0,0 +1,20 @@
+-- 已有库升级：把未分区的 system_log 改为按天 RANGE 分区（MySQL）
+-- 分区表不支持外键，且主键须包含分区列：先删除外键，created_time 改为 NOT NULL，
+-- 主键改为 (id, created_time)。整表重建，请在低峰期执行；执行完成后再设置 log.partition.enabled=true。
+-- p_history 的边界请改为执行当天的日期，之后的按天分区由 SystemLogPartitionManager 创建。
+
+UPDATE `system_log` SET `created_time` = CURRENT_TIMESTAMP WHERE `created_time` IS NULL;
+
+-- 外键名以 SHOW CREATE TABLE system_log 的结果为准
+ALTER TABLE `system_log` DROP FOREIGN KEY `system_log_ibfk_1`;
+
+ALTER TABLE `system_log`
+    MODIFY `created_time` TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP COMMENT '创建时间',
+    DROP PRIMARY KEY,
+    ADD PRIMARY KEY (`id`, `created_time`);
+
+ALTER TABLE `system_log`
+PARTITION BY RANGE (UNIX_TIMESTAMP(`created_time`)) (
+    PARTITION `p_history` VALUES LESS THAN (UNIX_TIMESTAMP('2025-01-01 00:00:00')),
+    PARTITION `p_future` VALUES LESS THAN MAXVALUE
+);
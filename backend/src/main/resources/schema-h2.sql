@@ -60,6 +60,7 @@ CREATE TABLE IF NOT EXISTS study_record (
     start_time TIMESTAMP NOT NULL,
     end_time TIMESTAMP NOT NULL,
     progress_percent DECIMAL(5,2) DEFAULT 0.00,
+    idempotency_key VARCHAR(64) UNIQUE,
     created_time TIMESTAMP DEFAULT CURRENT_TIMESTAMP(),
     FOREIGN KEY (user_id) REFERENCES "user"(id),
     FOREIGN KEY (material_id) REFERENCES material(id)
@@ -88,6 +89,7 @@ CREATE TABLE IF NOT EXISTS system_log (
     id BIGINT AUTO_INCREMENT PRIMARY KEY,
     user_id BIGINT,
     operation VARCHAR(100) NOT NULL,
+    category VARCHAR(20),
     description CLOB,
     ip_address VARCHAR(50),
     user_agent CLOB,
@@ -97,6 +99,43 @@ CREATE TABLE IF NOT EXISTS system_log (
 CREATE INDEX idx_user_id_log ON system_log(user_id);
 CREATE INDEX idx_operation_log ON system_log(operation);
 CREATE INDEX idx_created_time_log ON system_log(created_time);
+CREATE INDEX idx_category_time_log ON system_log(category, created_time);
+CREATE INDEX idx_user_category_time_log ON system_log(user_id, category, created_time);
+
+-- 系统日志预聚合表
+CREATE TABLE IF NOT EXISTS log_rollup (
+    granularity VARCHAR(10) NOT NULL,
+    bucket_start TIMESTAMP NOT NULL,
+    operation VARCHAR(100) NOT NULL,
+    user_id BIGINT DEFAULT 0 NOT NULL,
+    ip_address VARCHAR(50) DEFAULT '' NOT NULL,
+    cnt BIGINT DEFAULT 0 NOT NULL,
+    PRIMARY KEY (granularity, bucket_start, operation, user_id, ip_address)
+);
+
+-- 系统日志累计值表
+CREATE TABLE IF NOT EXISTS log_total (
+    dimension VARCHAR(10) NOT NULL,
+    user_id BIGINT DEFAULT 0 NOT NULL,
+    dim_key VARCHAR(100) NOT NULL,
+    cnt BIGINT DEFAULT 0 NOT NULL,
+    PRIMARY KEY (dimension, user_id, dim_key)
+);
+
+-- 定时任务分片租约表
+CREATE TABLE IF NOT EXISTS scheduler_lease (
+    name VARCHAR(100) NOT NULL PRIMARY KEY,
+    owner VARCHAR(100) NOT NULL,
+    lease_until TIMESTAMP(3) NOT NULL,
+    completed_run VARCHAR(50),
+    updated_time TIMESTAMP DEFAULT CURRENT_TIMESTAMP
+);
+
+-- 学习提醒去重表
+CREATE TABLE IF NOT EXISTS reminder_dedup (
+    user_id BIGINT NOT NULL PRIMARY KEY,
+    last_sent_time TIMESTAMP(3) NOT NULL
+);
 
 -- 插入默认管理员用户（密码: admin123）
 INSERT INTO "user" (username, password, email, role) VALUES 
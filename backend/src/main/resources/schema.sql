@@ -65,6 +65,7 @@ CREATE TABLE IF NOT EXISTS `study_record` (
     `start_time` TIMESTAMP NOT NULL COMMENT '开始时间',
     `end_time` TIMESTAMP NOT NULL COMMENT '结束时间',
     `progress_percent` DECIMAL(5,2) DEFAULT 0.00 COMMENT '学习进度百分比',
+    `idempotency_key` VARCHAR(64) UNIQUE COMMENT '客户端幂等键',
     `created_time` TIMESTAMP DEFAULT CURRENT_TIMESTAMP COMMENT '创建时间',
     FOREIGN KEY (`user_id`) REFERENCES `user`(`id`) ON DELETE CASCADE,
     FOREIGN KEY (`material_id`) REFERENCES `material`(`id`) ON DELETE CASCADE,
@@ -88,20 +89,65 @@ CREATE TABLE IF NOT EXISTS `progress` (
     INDEX `idx_subject` (`subject`)
 ) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COMMENT='学习进度表';
 
--- 系统日志表
+-- 系统日志表（只追加，按天分区；分区由 SystemLogPartitionManager 维护）
+-- 分区表要求主键包含分区列且不支持外键，user_id 的引用关系由应用保证
 CREATE TABLE IF NOT EXISTS `system_log` (
-    `id` BIGINT AUTO_INCREMENT PRIMARY KEY,
+    `id` BIGINT AUTO_INCREMENT,
     `user_id` BIGINT COMMENT '操作用户ID',
     `operation` VARCHAR(100) NOT NULL COMMENT '操作类型',
+    `category` VARCHAR(20) COMMENT '操作分类',
     `description` TEXT COMMENT '操作描述',
     `ip_address` VARCHAR(50) COMMENT 'IP地址',
     `user_agent` TEXT COMMENT '用户代理',
-    `created_time` TIMESTAMP DEFAULT CURRENT_TIMESTAMP COMMENT '创建时间',
-    FOREIGN KEY (`user_id`) REFERENCES `user`(`id`) ON DELETE SET NULL,
+    `created_time` TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP COMMENT '创建时间',
+    PRIMARY KEY (`id`, `created_time`),
     INDEX `idx_user_id` (`user_id`),
     INDEX `idx_operation` (`operation`),
-    INDEX `idx_created_time` (`created_time`)
-) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COMMENT='系统日志表';
+    INDEX `idx_created_time` (`created_time`),
+    INDEX `idx_category_time` (`category`, `created_time`),
+    INDEX `idx_user_category_time` (`user_id`, `category`, `created_time`)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COMMENT='系统日志表'
+PARTITION BY RANGE (UNIX_TIMESTAMP(`created_time`)) (
+    PARTITION `p_history` VALUES LESS THAN (UNIX_TIMESTAMP('2025-01-01 00:00:00')),
+    PARTITION `p_future` VALUES LESS THAN MAXVALUE
+);
+
+-- 系统日志预聚合表（分钟桶定期合并为小时桶、天桶）
+CREATE TABLE IF NOT EXISTS `log_rollup` (
+    `granularity` VARCHAR(10) NOT NULL COMMENT '粒度：MINUTE/HOUR/DAY',
+    `bucket_start` DATETIME NOT NULL COMMENT '桶起始时间',
+    `operation` VARCHAR(100) NOT NULL COMMENT '操作类型',
+    `user_id` BIGINT NOT NULL DEFAULT 0 COMMENT '操作用户ID，0表示无',
+    `ip_address` VARCHAR(50) NOT NULL DEFAULT '' COMMENT 'IP地址',
+    `cnt` BIGINT NOT NULL DEFAULT 0 COMMENT '日志条数',
+    PRIMARY KEY (`granularity`, `bucket_start`, `operation`, `user_id`, `ip_address`)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COMMENT='系统日志预聚合表';
+
+-- 系统日志累计值表（按维度保存累计条数，统计查询只读对应维度的行）
+CREATE TABLE IF NOT EXISTS `log_total` (
+    `dimension` VARCHAR(10) NOT NULL COMMENT '维度：OPERATION/DAY/IP/USER_OP',
+    `user_id` BIGINT NOT NULL DEFAULT 0 COMMENT 'USER_OP 维度的用户ID，其他维度为0',
+    `dim_key` VARCHAR(100) NOT NULL COMMENT '维度取值：操作类型、日期或IP地址',
+    `cnt` BIGINT NOT NULL DEFAULT 0 COMMENT '累计条数',
+    PRIMARY KEY (`dimension`, `user_id`, `dim_key`)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COMMENT='系统日志累计值表';
+
+-- 定时任务分片租约表（多节点并行执行时同一分片只由一个节点处理）
+CREATE TABLE IF NOT EXISTS `scheduler_lease` (
+    `name` VARCHAR(100) NOT NULL COMMENT '租约名称',
+    `owner` VARCHAR(100) NOT NULL COMMENT '持有节点',
+    `lease_until` DATETIME(3) NOT NULL COMMENT '租约到期时间',
+    `completed_run` VARCHAR(50) DEFAULT NULL COMMENT '最近完成的批次',
+    `updated_time` TIMESTAMP DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP COMMENT '更新时间',
+    PRIMARY KEY (`name`)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COMMENT='定时任务分片租约表';
+
+-- 学习提醒去重表（每个用户在去重窗口内最多提醒一次）
+CREATE TABLE IF NOT EXISTS `reminder_dedup` (
+    `user_id` BIGINT NOT NULL COMMENT '用户ID',
+    `last_sent_time` DATETIME(3) NOT NULL COMMENT '最近提醒时间',
+    PRIMARY KEY (`user_id`)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COMMENT='学习提醒去重表';
 
 -- 插入默认管理员用户 (密码: admin123)
 INSERT INTO `user` (`username`, `password`, `email`, `role`) VALUES 
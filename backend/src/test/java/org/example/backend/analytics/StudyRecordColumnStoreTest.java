@@ -0,0 +1,89 @@
+package org.example.backend.analytics;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class StudyRecordColumnStoreTest {
+
+    private final ForkJoinPool pool = new ForkJoinPool(2);
+
+    @AfterEach
+    public void tearDown() {
+        pool.shutdownNow();
+    }
+
+    @Test
+    public void testAggregatesAcrossSegments() {
+        // 段大小 3：前 6 条封存为两个段，后 2 条留在活动段
+        StudyRecordColumnStore store = new StudyRecordColumnStore(3, 100, pool);
+        LocalDateTime day1 = LocalDateTime.of(2026, 3, 1, 9, 0);
+        LocalDateTime day2 = day1.plusDays(1);
+        store.append(1, 10, 100, 600, day2.plusHours(1), new BigDecimal("40.00"));
+        store.append(2, 10, 100, 300, day1, new BigDecimal("20.50"));
+        store.append(3, 20, 100, 900, day1.plusHours(2), new BigDecimal("90.00"));
+        store.append(4, 10, 200, 120, day2, null);
+        store.append(5, 30, 200, 60, day1.minusDays(3), new BigDecimal("100.00"));
+        store.append(6, 10, 100, 1200, day2.plusDays(5), new BigDecimal("10.00"));
+        store.append(7, 20, 100, 60, day2.plusHours(3), new BigDecimal("90.00"));
+        store.append(8, 10, 100, 30, day1.plusHours(1), new BigDecimal("5.00"));
+        assertFalse(store.append(8, 10, 100, 30, day1, null));
+        assertEquals(8, store.size());
+
+        List<StudyRecordColumnStore.DailyTotal> daily = store.dailyDuration(10, day1.withHour(0), day2.withHour(23));
+        assertEquals(List.of(new StudyRecordColumnStore.DailyTotal(LocalDate.of(2026, 3, 1), 330),
+                new StudyRecordColumnStore.DailyTotal(LocalDate.of(2026, 3, 2), 720)), daily);
+        System.out.println("每日学习时长: " + daily);
+
+        assertEquals((600 + 300 + 900 + 1200 + 60 + 30) / 6.0, store.averageDuration(100), 1e-9);
+        assertNull(store.averageDuration(999));
+        assertEquals(2, store.countDistinctUsers(100));
+        assertEquals(2, store.countDistinctUsers(200));
+    }
+
+    @Test
+    public void testTopRecords() {
+        StudyRecordColumnStore store = new StudyRecordColumnStore(2, 100, pool);
+        LocalDateTime start = LocalDateTime.of(2026, 3, 1, 9, 0);
+        store.append(1, 10, 100, 600, start, new BigDecimal("40.00"));
+        store.append(2, 20, 100, 900, start, new BigDecimal("90.00"));
+        store.append(3, 10, 100, 900, start, new BigDecimal("20.00"));
+        store.append(4, 10, 200, 100, start, new BigDecimal("95.50"));
+        store.append(5, 20, 200, 50, start, new BigDecimal("10.00"));
+
+        List<StudyRecordColumnStore.Row> byDuration = store.top(StudyRecordColumnStore.Metric.DURATION, null, 3);
+        assertEquals(List.of(3L, 2L, 1L), byDuration.stream().map(StudyRecordColumnStore.Row::id).toList());
+
+        List<StudyRecordColumnStore.Row> byProgress = store.top(StudyRecordColumnStore.Metric.PROGRESS, 10L, 2);
+        assertEquals(List.of(4L, 1L), byProgress.stream().map(StudyRecordColumnStore.Row::id).toList());
+        assertEquals(new BigDecimal("95.50"), byProgress.get(0).progressPercent());
+        assertEquals(200, byProgress.get(0).materialId());
+        assertTrue(store.top(StudyRecordColumnStore.Metric.DURATION, 999L, 5).isEmpty());
+        System.out.println("进度最高的记录: " + byProgress);
+    }
+
+    @Test
+    public void testLateRowsWithinIdWindow() {
+        StudyRecordColumnStore store = new StudyRecordColumnStore(2, 3, pool);
+        LocalDateTime start = LocalDateTime.of(2026, 3, 1, 9, 0);
+        assertTrue(store.append(1, 10, 100, 60, start, null));
+        assertTrue(store.append(4, 10, 100, 60, start, null));
+        // 较小 id 晚提交：窗口内仍可追加，重复的忽略
+        assertTrue(store.append(2, 10, 100, 60, start, null));
+        assertFalse(store.append(2, 10, 100, 60, start, null));
+        assertEquals(1, store.getScanFrom());
+        assertTrue(store.append(8, 10, 100, 60, start, null));
+        // 早于窗口 (5, 8] 的记录视为已加载
+        assertFalse(store.append(5, 10, 100, 60, start, null));
+        assertTrue(store.append(6, 10, 100, 60, start, null));
+        assertEquals(5, store.size());
+        assertEquals(300, store.dailyDuration(10, start, start.plusDays(1)).get(0).duration());
+    }
+}
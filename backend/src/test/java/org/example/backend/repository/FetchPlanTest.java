@@ -0,0 +1,145 @@
+package org.example.backend.repository;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.example.backend.dto.CursorSlice;
+import org.example.backend.dto.PendingMaterialItem;
+import org.example.backend.dto.StudyHistoryEntry;
+import org.example.backend.entity.Material;
+import org.example.backend.entity.Progress;
+import org.example.backend.entity.StudyRecord;
+import org.example.backend.entity.User;
+import org.example.backend.service.MaterialService;
+import org.example.backend.service.StudyRecordService;
+import org.example.backend.support.QueryCountGuard;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 抓取计划测试：列表渲染关联字段时 SQL 条数不随行数增长
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+@Transactional
+public class FetchPlanTest {
+
+    private static final int ROWS = 10;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private MaterialRepository materialRepository;
+
+    @Autowired
+    private StudyRecordRepository studyRecordRepository;
+
+    @Autowired
+    private ProgressRepository progressRepository;
+
+    @Autowired
+    private StudyRecordService studyRecordService;
+
+    @Autowired
+    private MaterialService materialService;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private User learner;
+
+    @BeforeEach
+    public void setUp() {
+        learner = userRepository.save(newUser("fetch_learner"));
+        LocalDateTime start = LocalDateTime.now().minusDays(1);
+        for (int i = 0; i < ROWS; i++) {
+            // 每份资料不同上传者，逐行懒加载时会产生 ROWS 次额外查询
+            User uploader = userRepository.save(newUser("fetch_uploader_" + i));
+            Material material = new Material();
+            material.setName("资料" + i);
+            material.setSubject("学科" + (i % 3));
+            material.setFilePath("/files/fetch" + i + ".pdf");
+            material.setFileType("PDF");
+            material.setFileSize(1024L);
+            material.setUploadUser(uploader);
+            material.setStatus(Material.Status.PENDING);
+            material = materialRepository.save(material);
+
+            StudyRecord record = new StudyRecord();
+            record.setUser(learner);
+            record.setMaterial(material);
+            record.setDuration(600);
+            record.setStartTime(start.plusMinutes(i * 20L));
+            record.setEndTime(start.plusMinutes(i * 20L + 10));
+            studyRecordRepository.save(record);
+
+            Progress progress = new Progress();
+            progress.setUser(uploader);
+            progress.setSubject("抓取计划");
+            progress.setPercent(BigDecimal.valueOf(i));
+            progress.setTotalStudyTime(i);
+            progressRepository.save(progress);
+        }
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    @Test
+    public void testStudyHistoryLoadsMaterialsInOneQuery() {
+        System.out.println("=== 测试学习历史抓取计划 ===");
+        QueryCountGuard guard = QueryCountGuard.start(entityManagerFactory);
+        CursorSlice<StudyHistoryEntry> slice = studyRecordService.getHistoryWithMaterials(learner.getId(), null, ROWS);
+        guard.assertAtMost(1, "学习历史");
+
+        assertEquals(ROWS, slice.getContent().size());
+        assertTrue(slice.getContent().stream().allMatch(entry -> entry.getMaterialName().startsWith("资料")));
+    }
+
+    @Test
+    public void testPendingMaterialsLoadUploadersInOneQuery() {
+        System.out.println("=== 测试待审核资料抓取计划 ===");
+        QueryCountGuard guard = QueryCountGuard.start(entityManagerFactory);
+        CursorSlice<PendingMaterialItem> slice = materialService.listPending(null, ROWS);
+        guard.assertAtMost(1, "待审核资料");
+
+        assertEquals(ROWS, slice.getContent().size());
+        assertTrue(slice.getContent().stream().allMatch(item -> item.getUploaderName().startsWith("fetch_uploader_")));
+    }
+
+    @Test
+    public void testBatchFetchBoundsUndeclaredAssociations() {
+        System.out.println("=== 测试批量抓取兜底 ===");
+        QueryCountGuard guard = QueryCountGuard.start(entityManagerFactory);
+        List<String> usernames = new ArrayList<>();
+        for (Progress progress : progressRepository.findBySubject("抓取计划")) {
+            usernames.add(progress.getUser().getUsername());
+        }
+        // 1 条查进度 + 1 条按批次 IN 查用户
+        guard.assertAtMost(2, "进度列表");
+        assertEquals(ROWS, usernames.size());
+    }
+
+    private static User newUser(String username) {
+        User user = new User();
+        user.setUsername(username);
+        user.setEmail(username + "@example.com");
+        user.setPassword("password123");
+        user.setRole(User.Role.USER);
+        user.setStatus(User.Status.ACTIVE);
+        return user;
+    }
+}
@@ -1,5 +1,7 @@
 package org.example.backend.repository;
 
+import org.example.backend.dto.GroupCount;
+import org.example.backend.dto.SubjectProgress;
 import org.example.backend.entity.*;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -142,6 +144,11 @@ public class RepositoryTest {
         assertFalse(materialPage.getContent().isEmpty());
         System.out.println("分页查询成功，总页数: " + materialPage.getTotalPages());
 
+        // 测试投影统计
+        List<GroupCount> statusCounts = materialRepository.countGroupedByStatus();
+        assertTrue(statusCounts.stream().anyMatch(c -> "PENDING".equals(c.getKey()) && c.getCount() > 0));
+        System.out.println("投影统计成功: " + statusCounts);
+
         System.out.println("MaterialRepository 测试通过！\n");
     }
 
@@ -311,6 +318,26 @@ public class RepositoryTest {
         assertNotNull(totalStudyTime);
         System.out.println("用户总学习时长: " + totalStudyTime + " 分钟");
 
+        // 测试投影查询
+        List<SubjectProgress> subjectProgress = progressRepository.findUserSubjectProgress(savedUser.getId());
+        assertTrue(subjectProgress.stream().anyMatch(p -> "数学".equals(p.getSubject())));
+        assertFalse(progressRepository.findSubjectProgressStats().isEmpty());
+        System.out.println("进度投影查询成功: " + subjectProgress);
+
+        // 测试排行查询只取前 N 条
+        Progress second = new Progress();
+        second.setUser(savedUser);
+        second.setSubject("语文");
+        second.setPercent(new BigDecimal("40.00"));
+        second.setTotalStudyTime(30);
+        second.setGoalHours(5);
+        progressRepository.save(second);
+        List<Progress> top = progressRepository.findTopProgressRecordsByUser(savedUser, PageRequest.of(0, 1));
+        assertEquals(1, top.size());
+        assertEquals("数学", top.get(0).getSubject());
+        assertTrue(progressRepository.findTopProgressRecords(PageRequest.of(0, 1)).size() <= 1);
+        System.out.println("进度排行查询成功");
+
         System.out.println("ProgressRepository 测试通过！\n");
     }
 
@@ -366,6 +393,17 @@ public class RepositoryTest {
         assertFalse(logPage.getContent().isEmpty());
         System.out.println("分页查询成功");
 
+        // 测试按分类查询（分类由操作类型自动推导）
+        assertEquals(SystemLog.Category.USER, savedSystemLog.getCategory());
+        List<SystemLog> categoryLogs = systemLogRepository.findLatestByUserAndCategory(
+                savedUser, SystemLog.Category.USER, pageable);
+        assertFalse(categoryLogs.isEmpty());
+        assertTrue(systemLogRepository.findErrorLogsByUser(savedUser, pageable).isEmpty());
+        SystemLog last = categoryLogs.get(categoryLogs.size() - 1);
+        assertTrue(systemLogRepository.findByUserAndCategoryBefore(savedUser, SystemLog.Category.USER,
+                last.getCreatedTime(), last.getId(), pageable).isEmpty());
+        System.out.println("按分类查询成功");
+
         System.out.println("SystemLogRepository 测试通过！\n");
     }
 
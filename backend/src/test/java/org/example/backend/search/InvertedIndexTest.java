@@ -0,0 +1,91 @@
+package org.example.backend.search;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class InvertedIndexTest {
+
+    @Test
+    public void testTokenizer() {
+        List<TextTokenizer.Token> tokens = TextTokenizer.tokenize("Java编程基础");
+        assertEquals(List.of("java", "编程", "程基", "基础"),
+                tokens.stream().map(TextTokenizer.Token::term).toList());
+        System.out.println("中英文混合分词成功: " + tokens);
+    }
+
+    @Test
+    public void testSearchAndRanking() {
+        InvertedIndex index = new InvertedIndex();
+        index.index(1L, List.of(
+                new InvertedIndex.Field("Java编程基础", 3.0f),
+                new InvertedIndex.Field("计算机科学", 2.0f),
+                new InvertedIndex.Field("面向对象与递归算法入门", 1.0f)));
+        index.index(2L, List.of(
+                new InvertedIndex.Field("高等数学", 3.0f),
+                new InvertedIndex.Field("数学", 2.0f),
+                new InvertedIndex.Field("微积分与java数值计算", 1.0f)));
+
+        // 名称命中的权重高于描述命中
+        InvertedIndex.SearchResult result = index.search("java", null, 0, 10);
+        assertEquals(2, result.total());
+        assertEquals(1L, result.hits().get(0).docId());
+
+        // 多个词项取交集
+        assertEquals(1, index.search("递归 java", null, 0, 10).total());
+
+        // 单个汉字按前缀匹配
+        assertEquals(2L, index.search("微", null, 0, 10).hits().get(0).docId());
+
+        // 过滤与分页
+        assertEquals(1, index.search("java", docId -> docId == 2L, 0, 10).total());
+        InvertedIndex.SearchResult secondPage = index.search("java", null, 1, 1);
+        assertEquals(2, secondPage.total());
+        assertEquals(2L, secondPage.hits().get(0).docId());
+        System.out.println("倒排索引查询成功");
+    }
+
+    @Test
+    public void testIncrementalUpdate() {
+        InvertedIndex index = new InvertedIndex();
+        index.index(1L, List.of(new InvertedIndex.Field("数据结构", 1.0f)));
+        assertEquals(1, index.search("数据结构", null, 0, 10).total());
+
+        index.index(1L, List.of(new InvertedIndex.Field("操作系统", 1.0f)));
+        assertEquals(0, index.search("数据结构", null, 0, 10).total());
+        assertEquals(1, index.search("操作系统", null, 0, 10).total());
+
+        index.remove(1L);
+        assertEquals(0, index.size());
+        assertEquals(0, index.search("操作系统", null, 0, 10).total());
+        System.out.println("索引增量更新成功");
+    }
+
+    @Test
+    public void testPhraseAndPrefix() {
+        InvertedIndex index = new InvertedIndex();
+        index.index(1L, List.of(new InvertedIndex.Field("什么是递归函数", 2.0f),
+                new InvertedIndex.Field("递归函数是在函数体内调用自身的函数", 1.0f)));
+        index.index(2L, List.of(new InvertedIndex.Field("函数的递归调用有什么限制", 2.0f),
+                new InvertedIndex.Field("recursion depth is limited by stack size", 1.0f)));
+
+        // 短语要求词元位置连续
+        assertEquals(List.of(2L), docIds(index.search("\"递归调用\"", null, 0, 10)));
+        assertEquals(List.of(2L), docIds(index.search("\"depth is limited\"", null, 0, 10)));
+        assertEquals(0, index.search("\"limited depth\"", null, 0, 10).total());
+
+        // 词尾 * 按前缀匹配
+        assertEquals(0, index.search("recurs", null, 0, 10).total());
+        assertEquals(List.of(2L), docIds(index.search("recurs*", null, 0, 10)));
+
+        // 短语与普通词项组合
+        assertEquals(List.of(1L), docIds(index.search("\"递归函数\" 自身", null, 0, 10)));
+        System.out.println("短语与前缀查询成功");
+    }
+
+    private static List<Long> docIds(InvertedIndex.SearchResult result) {
+        return result.hits().stream().map(InvertedIndex.ScoredDoc::docId).toList();
+    }
+}
@@ -0,0 +1,37 @@
+package org.example.backend.search;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class MinHashLshTest {
+
+    @Test
+    public void testNormalize() {
+        assertEquals("什么是递归", QuestionNormalizer.normalize("请问，什么是递归呢？"));
+        assertEquals("什么是递归", QuestionNormalizer.normalize("什么是 递归?"));
+        assertEquals("whatisrecursion", QuestionNormalizer.normalize("What is Recursion？"));
+        System.out.println("问题归一化成功");
+    }
+
+    @Test
+    public void testNearDuplicateCandidates() {
+        System.out.println("=== 测试 MinHash/LSH 近似重复检索 ===");
+        MinHashLsh lsh = new MinHashLsh(16, 4);
+        String[] questions = {"什么是递归函数以及递归的终止条件", "java中hashmap的扩容机制是怎样的", "如何求解二元一次方程组"};
+        for (int i = 0; i < questions.length; i++) {
+            lsh.add(i, lsh.signature(MinHashLsh.shingles(questions[i], 2)));
+        }
+
+        long[] query = MinHashLsh.shingles("什么是递归函数以及递归终止条件", 2);
+        assertTrue(lsh.candidates(lsh.signature(query)).contains(0L), "近似问题应成为候选");
+        double similarity = MinHashLsh.jaccard(query, MinHashLsh.shingles(questions[0], 2));
+        assertTrue(similarity >= 0.75, "相似度 " + similarity);
+        assertTrue(MinHashLsh.jaccard(query, MinHashLsh.shingles(questions[2], 2)) < 0.2);
+
+        lsh.remove(0);
+        assertFalse(lsh.candidates(lsh.signature(query)).contains(0L));
+        assertEquals(2, lsh.size());
+        System.out.println("近似问题相似度: " + similarity);
+    }
+}
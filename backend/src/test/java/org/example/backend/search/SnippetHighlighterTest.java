@@ -0,0 +1,27 @@
+package org.example.backend.search;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class SnippetHighlighterTest {
+
+    @Test
+    public void testMergeAdjacentMatches() {
+        String snippet = SnippetHighlighter.highlight("递归函数是调用自身的函数", TextTokenizer.terms("递归函数"), 80);
+        assertEquals("<em>递归函数</em>是调用自身的<em>函数</em>", snippet);
+        System.out.println("高亮摘要: " + snippet);
+    }
+
+    @Test
+    public void testWindowAndEscape() {
+        String text = "A long preface that pushes the match far away. Recursion <depth> is limited by Stack size.";
+        String snippet = SnippetHighlighter.highlight(text, List.of("stack"), 20);
+        assertTrue(snippet.startsWith("…"));
+        assertTrue(snippet.contains("<em>Stack</em>"));
+        assertFalse(SnippetHighlighter.highlight(text, List.of("recursion"), 200).contains("<depth>"));
+        assertEquals("无命中", SnippetHighlighter.highlight("无命中", List.of("java"), 10));
+    }
+}
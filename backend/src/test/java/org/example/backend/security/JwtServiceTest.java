@@ -0,0 +1,76 @@
+package org.example.backend.security;
+
+import org.example.backend.dto.UserSnapshot;
+import org.example.backend.entity.User;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class JwtServiceTest {
+
+    private JwtService jwtService;
+    private TokenRevocationService revocationService;
+    private UserSnapshot user;
+
+    @BeforeEach
+    public void setUp() {
+        jwtService = new JwtService();
+        ReflectionTestUtils.setField(jwtService, "secret", "learningAssistantPlatformSecretKey2024");
+        ReflectionTestUtils.setField(jwtService, "expirationMillis", 60_000L);
+        ReflectionTestUtils.setField(jwtService, "cacheSize", 100);
+        jwtService.init();
+
+        // 未配置 Redis：吊销只在本节点生效
+        revocationService = new TokenRevocationService(null,
+                new StaticListableBeanFactory().getBeanProvider(StringRedisTemplate.class));
+        ReflectionTestUtils.setField(revocationService, "expirationMillis", 60_000L);
+        revocationService.init();
+
+        user = new UserSnapshot(42L, "alice", "alice@example.com", User.Role.USER, User.Status.ACTIVE);
+    }
+
+    @Test
+    public void testIssueAndVerify() {
+        System.out.println("=== 测试签发与验签 ===");
+        String token = jwtService.issue(user);
+        Optional<VerifiedToken> verified = jwtService.verify(token);
+        assertTrue(verified.isPresent());
+        assertEquals(42L, verified.get().userId());
+        assertEquals("alice", verified.get().username());
+
+        // 第二次验签命中缓存，返回同一对象
+        assertSame(verified.get(), jwtService.verify(token).orElseThrow());
+        System.out.println("令牌验签成功: " + verified.get());
+    }
+
+    @Test
+    public void testTamperedTokenRejected() {
+        System.out.println("=== 测试篡改令牌 ===");
+        String token = jwtService.issue(user);
+        String tampered = token.substring(0, token.length() - 2) + (token.endsWith("A") ? "BB" : "AA");
+        assertTrue(jwtService.verify(tampered).isEmpty());
+        assertTrue(jwtService.verify("not-a-token").isEmpty());
+    }
+
+    @Test
+    public void testRevocation() {
+        System.out.println("=== 测试令牌吊销 ===");
+        VerifiedToken token = jwtService.verify(jwtService.issue(user)).orElseThrow();
+        assertFalse(revocationService.isRevoked(token));
+
+        revocationService.revokeToken(token);
+        assertTrue(revocationService.isRevoked(token));
+
+        VerifiedToken other = jwtService.verify(jwtService.issue(
+                new UserSnapshot(7L, "bob", "bob@example.com", User.Role.USER, User.Status.ACTIVE))).orElseThrow();
+        assertFalse(revocationService.isRevoked(other));
+        revocationService.revokeUser(7L);
+        assertTrue(revocationService.isRevoked(other), "封禁前签发的令牌应失效");
+    }
+}
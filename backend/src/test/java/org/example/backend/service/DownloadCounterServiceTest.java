@@ -0,0 +1,95 @@
+package org.example.backend.service;
+
+import org.example.backend.dto.MaterialSummary;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class DownloadCounterServiceTest {
+
+    private FlakyJdbcTemplate jdbcTemplate;
+    private DownloadCounterService counterService;
+
+    @BeforeEach
+    public void setUp() {
+        jdbcTemplate = new FlakyJdbcTemplate();
+        counterService = new DownloadCounterService(jdbcTemplate, new DirectTransactionTemplate());
+        jdbcTemplate.counterService = counterService;
+    }
+
+    @Test
+    public void testFailedFlushKeepsDeltas() {
+        System.out.println("=== 测试下载计数刷盘失败后增量保留 ===");
+        for (int i = 0; i < 3; i++) {
+            counterService.increment(1L);
+        }
+        counterService.increment(2L);
+        jdbcTemplate.failures = 1;
+        counterService.flush();
+        assertTrue(jdbcTemplate.written.isEmpty());
+        assertEquals(3, counterService.getPendingDelta(1L));
+        assertEquals(1, counterService.getPendingDelta(2L));
+
+        counterService.increment(1L);
+        counterService.flush();
+        assertEquals(Map.of(1L, 4L, 2L, 1L), jdbcTemplate.written);
+        // 刷盘期间读到的仍是完整增量
+        assertEquals(List.of(4L), jdbcTemplate.visibleDuringFlush);
+        assertEquals(0, counterService.getPendingDelta(1L));
+        assertEquals(0, counterService.getPendingDelta(2L));
+    }
+
+    @Test
+    public void testPendingDeltaAppliedToSummary() {
+        System.out.println("=== 测试摘要合并未刷盘增量 ===");
+        counterService.increment(5L);
+        counterService.increment(5L);
+        MaterialSummary summary = new MaterialSummary();
+        summary.setId(5L);
+        summary.setDownloadCount(10L);
+        counterService.applyPendingDelta(summary);
+        assertEquals(12L, summary.getDownloadCount());
+    }
+
+    /**
+     * 前 failures 次批量更新抛出异常，之后按资料累计写入的增量
+     */
+    private static class FlakyJdbcTemplate extends JdbcTemplate {
+
+        private final Map<Long, Long> written = new HashMap<>();
+        private final List<Long> visibleDuringFlush = new ArrayList<>();
+        private DownloadCounterService counterService;
+        private int failures;
+
+        @Override
+        public int[] batchUpdate(String sql, List<Object[]> batchArgs) {
+            if (failures > 0) {
+                failures--;
+                throw new DataAccessResourceFailureException("数据库不可用");
+            }
+            visibleDuringFlush.add(counterService.getPendingDelta(1L));
+            for (Object[] args : batchArgs) {
+                written.merge((Long) args[1], (Long) args[0], Long::sum);
+            }
+            return new int[batchArgs.size()];
+        }
+    }
+
+    private static class DirectTransactionTemplate extends TransactionTemplate {
+
+        @Override
+        public <T> T execute(TransactionCallback<T> action) {
+            return action.doInTransaction(null);
+        }
+    }
+}
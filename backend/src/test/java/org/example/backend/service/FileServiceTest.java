@@ -0,0 +1,99 @@
+package org.example.backend.service;
+
+import org.example.backend.dto.StoredFile;
+import org.example.backend.dto.UploadStatus;
+import org.example.backend.exception.BadRequestException;
+import org.example.backend.exception.ResourceNotFoundException;
+import org.example.backend.exception.UploadOffsetConflictException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.util.unit.DataSize;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.time.Duration;
+import java.time.Instant;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class FileServiceTest {
+
+    @TempDir
+    Path root;
+
+    private FileService fileService;
+
+    @BeforeEach
+    public void setUp() throws IOException {
+        fileService = new FileService(root.toString(), DataSize.ofBytes(4), Duration.ofHours(1));
+        fileService.init();
+    }
+
+    @Test
+    public void testChunkedUploadRejectsBadChunks() throws IOException {
+        System.out.println("=== 测试分片上传的偏移量与分片大小校验 ===");
+        String uploadId = fileService.createUpload().getUploadId();
+        assertEquals(4, fileService.appendChunk(uploadId, 0, stream("abcd")).getOffset());
+
+        // 偏移量与已接收字节数不一致：返回服务端偏移量供客户端续传
+        UploadOffsetConflictException conflict = assertThrows(UploadOffsetConflictException.class,
+                () -> fileService.appendChunk(uploadId, 0, stream("abcd")));
+        assertEquals(4, conflict.getCurrentOffset());
+
+        // 超过单片大小：本片整体回滚
+        assertThrows(BadRequestException.class, () -> fileService.appendChunk(uploadId, 4, stream("efghi")));
+        assertEquals(4, fileService.getUpload(uploadId).getOffset());
+
+        UploadStatus status = fileService.appendChunk(uploadId, 4, stream("ef"));
+        assertEquals(6, status.getOffset());
+        StoredFile stored = fileService.completeUpload(uploadId);
+        assertEquals(6L, stored.getSize());
+        assertFalse(stored.getDeduplicated());
+        assertThrows(ResourceNotFoundException.class, () -> fileService.getUpload(uploadId));
+
+        // 相同内容再次上传命中已有文件
+        String again = fileService.createUpload().getUploadId();
+        fileService.appendChunk(again, 0, stream("abcd"));
+        fileService.appendChunk(again, 4, stream("ef"));
+        assertTrue(fileService.completeUpload(again).getDeduplicated());
+        assertThrows(BadRequestException.class, () -> fileService.getUpload("../escape"));
+    }
+
+    @Test
+    public void testTransferRange() throws IOException {
+        System.out.println("=== 测试按区间输出文件 ===");
+        String uploadId = fileService.createUpload().getUploadId();
+        fileService.appendChunk(uploadId, 0, stream("0123"));
+        fileService.appendChunk(uploadId, 4, stream("4567"));
+        Path file = fileService.resolve(fileService.completeUpload(uploadId).getPath());
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        fileService.transferTo(file, 2, 4, Channels.newChannel(out));
+        assertEquals("2345", out.toString(StandardCharsets.UTF_8));
+        assertThrows(ResourceNotFoundException.class, () -> fileService.resolve("../outside"));
+    }
+
+    @Test
+    public void testSweepRemovesAbandonedUploads() throws IOException {
+        System.out.println("=== 测试清理已放弃的上传临时文件 ===");
+        String abandoned = fileService.createUpload().getUploadId();
+        String active = fileService.createUpload().getUploadId();
+        Files.setLastModifiedTime(root.resolve("tmp").resolve(abandoned + ".part"),
+                FileTime.from(Instant.now().minus(Duration.ofHours(2))));
+
+        assertEquals(1, fileService.sweepAbandonedUploads());
+        assertThrows(ResourceNotFoundException.class, () -> fileService.getUpload(abandoned));
+        assertEquals(0, fileService.getUpload(active).getOffset());
+    }
+
+    private static ByteArrayInputStream stream(String content) {
+        return new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8));
+    }
+}
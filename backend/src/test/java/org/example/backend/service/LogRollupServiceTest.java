@@ -0,0 +1,94 @@
+package org.example.backend.service;
+
+import org.example.backend.dto.AuditEvent;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@ActiveProfiles("test")
+@Transactional
+public class LogRollupServiceTest {
+
+    private static final String IP = "10.9.8.7";
+
+    private static final long USER_ID = 987654L;
+
+    @Autowired
+    private LogRollupService logRollupService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    public void setUp() {
+        jdbcTemplate.update("DELETE FROM scheduler_lease WHERE name = 'log-rollup-compact'");
+    }
+
+    @Test
+    public void testFlushUpdatesTotals() {
+        System.out.println("=== 测试刷盘后累计值从汇总表读取 ===");
+        logRollupService.record(events(3, LocalDateTime.now()));
+        assertEquals(3L, countOf(logRollupService.countByIpAddress(), IP)); // 未刷盘的增量也计入
+        logRollupService.flush();
+
+        assertEquals(3L, countOf(logRollupService.countByIpAddress(), IP));
+        assertEquals(3L, countOf(logRollupService.countByOperationAndUser(USER_ID), "LOGIN"));
+        assertEquals(3L, jdbcTemplate.queryForObject(
+                "SELECT cnt FROM log_total WHERE dimension = 'IP' AND dim_key = ?", Long.class, IP));
+    }
+
+    @Test
+    public void testCompactSkippedWhileOtherNodeHoldsLease() {
+        System.out.println("=== 测试其他节点持有合并租约时不重复合并 ===");
+        logRollupService.record(events(2, LocalDateTime.now().minusHours(3)));
+        logRollupService.flush();
+        jdbcTemplate.update("INSERT INTO scheduler_lease (name, owner, lease_until) VALUES (?, ?, ?)",
+                "log-rollup-compact", "other-node", LocalDateTime.now().plusHours(1));
+
+        logRollupService.compact();
+        assertEquals(1, bucketsOf("MINUTE"));
+        assertEquals(0, bucketsOf("HOUR"));
+
+        // 租约过期后本节点接管；同一整点再次触发不会重复合并
+        jdbcTemplate.update("UPDATE scheduler_lease SET lease_until = ? WHERE name = 'log-rollup-compact'",
+                LocalDateTime.now().minusMinutes(1));
+        logRollupService.compact();
+        logRollupService.compact();
+        assertEquals(0, bucketsOf("MINUTE"));
+        assertEquals(2L, jdbcTemplate.queryForObject(
+                "SELECT SUM(cnt) FROM log_rollup WHERE granularity = 'HOUR' AND ip_address = ?", Long.class, IP));
+        assertEquals(2L, countOf(logRollupService.countByIpAddress(), IP));
+        System.out.println("合并后小时桶数: " + bucketsOf("HOUR"));
+    }
+
+    private int bucketsOf(String granularity) {
+        Integer count = jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM log_rollup WHERE granularity = ? AND ip_address = ?",
+                Integer.class, granularity, IP);
+        return count == null ? 0 : count;
+    }
+
+    private static List<AuditEvent> events(int count, LocalDateTime time) {
+        return IntStream.range(0, count)
+                .mapToObj(i -> new AuditEvent(USER_ID, "LOGIN", "登录", IP, "junit", time))
+                .toList();
+    }
+
+    private static long countOf(List<Object[]> rows, String key) {
+        return rows.stream()
+                .filter(row -> key.equals(row[0]))
+                .mapToLong(row -> ((Number) row[1]).longValue())
+                .sum();
+    }
+}
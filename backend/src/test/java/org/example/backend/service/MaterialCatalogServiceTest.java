@@ -0,0 +1,130 @@
+package org.example.backend.service;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.example.backend.dto.CatalogPage;
+import org.example.backend.entity.Material;
+import org.example.backend.entity.User;
+import org.example.backend.event.MaterialEvent;
+import org.example.backend.repository.MaterialRepository;
+import org.example.backend.repository.UserRepository;
+import org.example.backend.support.QueryCountGuard;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.event.ApplicationEvents;
+import org.springframework.test.context.event.RecordApplicationEvents;
+import org.springframework.transaction.annotation.Transactional;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@ActiveProfiles("test")
+@Transactional
+@RecordApplicationEvents
+public class MaterialCatalogServiceTest {
+
+    private static final String SUBJECT = "目录缓存测试";
+
+    @Autowired
+    private MaterialCatalogService materialCatalogService;
+
+    @Autowired
+    private MaterialService materialService;
+
+    @Autowired
+    private MaterialRepository materialRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private ApplicationEvents applicationEvents;
+
+    @Test
+    public void testPageCachedUntilVersionBump() {
+        System.out.println("=== 测试资料目录页缓存 ===");
+        User uploader = new User();
+        uploader.setUsername("catalog_uploader");
+        uploader.setEmail("catalog@example.com");
+        uploader.setPassword("password123");
+        uploader = userRepository.save(uploader);
+        for (int i = 0; i < 3; i++) {
+            materialRepository.save(newMaterial(uploader, "目录资料" + i));
+        }
+        entityManager.flush();
+
+        CatalogPage first = materialCatalogService.browse(SUBJECT, null, null, 0, 20);
+        assertEquals(3, first.getTotalElements());
+
+        QueryCountGuard guard = QueryCountGuard.start(entityManagerFactory);
+        CatalogPage second = materialCatalogService.browse(" " + SUBJECT + " ", null, null, 0, 20);
+        guard.assertAtMost(0, "目录页缓存命中");
+        assertEquals(first, second);
+
+        // 审核通过新资料：版本号递增前仍返回缓存页，递增后读到新结果
+        Material approved = materialRepository.save(newMaterial(uploader, "新审核资料"));
+        entityManager.flush();
+        assertEquals(3, materialCatalogService.browse(SUBJECT, null, null, 0, 20).getTotalElements());
+        materialCatalogService.onMaterialEvent(new MaterialEvent(MaterialEvent.Type.APPROVED, approved));
+        CatalogPage refreshed = materialCatalogService.browse(SUBJECT, null, null, 0, 20);
+        assertEquals(4, refreshed.getTotalElements());
+        assertEquals("新审核资料", refreshed.getContent().get(0).getName());
+        System.out.println("版本递增后目录页已刷新，共 " + refreshed.getTotalElements() + " 条");
+    }
+
+    @Test
+    public void testMovedMaterialRefreshesPreviousSubject() {
+        System.out.println("=== 测试资料换学科后原学科目录页失效 ===");
+        User uploader = new User();
+        uploader.setUsername("catalog_mover");
+        uploader.setEmail("mover@example.com");
+        uploader.setPassword("password123");
+        uploader = userRepository.save(uploader);
+        // 其他用例已缓存 SUBJECT 的页，这里用独立学科
+        String source = SUBJECT + "-原";
+        String target = SUBJECT + "-新";
+        Material moved = newMaterial(uploader, "待移动资料");
+        moved.setSubject(source);
+        moved = materialRepository.save(moved);
+        Material stay = newMaterial(uploader, "留下的资料");
+        stay.setSubject(source);
+        materialRepository.save(stay);
+        entityManager.flush();
+        assertEquals(2, materialCatalogService.browse(source, null, null, 0, 20).getTotalElements());
+
+        // 修改托管实体的学科后保存，事件应带上原学科
+        moved.setSubject(target);
+        materialService.save(moved);
+        entityManager.flush();
+        MaterialEvent saved = applicationEvents.stream(MaterialEvent.class)
+                .filter(event -> event.getType() == MaterialEvent.Type.SAVED)
+                .reduce((first, second) -> second)
+                .orElseThrow();
+        assertEquals(source, saved.getPreviousSubject());
+
+        materialCatalogService.onMaterialEvent(saved);
+        assertEquals(1, materialCatalogService.browse(source, null, null, 0, 20).getTotalElements());
+        assertEquals(1, materialCatalogService.browse(target, null, null, 0, 20).getTotalElements());
+        System.out.println("原学科与新学科目录页均已刷新");
+    }
+
+    private static Material newMaterial(User uploader, String name) {
+        Material material = new Material();
+        material.setName(name);
+        material.setSubject(SUBJECT);
+        material.setFilePath("/files/" + name + ".pdf");
+        material.setFileType("PDF");
+        material.setFileSize(1024L);
+        material.setUploadUser(uploader);
+        material.setStatus(Material.Status.APPROVED);
+        return material;
+    }
+}
@@ -0,0 +1,117 @@
+package org.example.backend.service;
+
+import org.example.backend.dto.MaterialSummary;
+import org.example.backend.entity.Material;
+import org.example.backend.event.MaterialEvent;
+import org.example.backend.exception.BadRequestException;
+import org.example.backend.repository.MaterialRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.lang.reflect.Proxy;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class MaterialLeaderboardServiceTest {
+
+    private static final LocalDateTime BASE = LocalDateTime.of(2026, 10, 1, 8, 0);
+
+    private MaterialLeaderboardService leaderboard;
+
+    @BeforeEach
+    public void setUp() {
+        // 库中两条已审核资料：A 下载 10 次、较早上传；B 下载 5 次、较晚上传
+        List<MaterialSummary> byDownloads = List.of(summary(1L, 10, 0), summary(2L, 5, 1));
+        List<MaterialSummary> byUploadTime = List.of(summary(2L, 5, 1), summary(1L, 10, 0));
+        MaterialRepository repository = (MaterialRepository) Proxy.newProxyInstance(getClass().getClassLoader(),
+                new Class<?>[]{MaterialRepository.class}, (proxy, method, args) -> switch (method.getName()) {
+                    case "findTopDownloadedSummaries" -> copy(byDownloads);
+                    case "findLatestSummaries" -> copy(byUploadTime);
+                    default -> throw new UnsupportedOperationException(method.getName());
+                });
+        TransactionTemplate transactionTemplate = new DirectTransactionTemplate();
+        leaderboard = new MaterialLeaderboardService(repository,
+                new DownloadCounterService(null, transactionTemplate), transactionTemplate);
+        ReflectionTestUtils.setField(leaderboard, "capacity", 2);
+        leaderboard.reconcile();
+    }
+
+    @Test
+    public void testEventsAdjustRankings() {
+        System.out.println("=== 测试资料事件增量调整排行榜 ===");
+        assertEquals(List.of(1L, 2L), ids(leaderboard.getTopDownloaded(2)));
+        assertEquals(List.of(2L, 1L), ids(leaderboard.getLatest(2)));
+
+        for (int i = 0; i < 6; i++) {
+            leaderboard.onMaterialEvent(new MaterialEvent(MaterialEvent.Type.DOWNLOADED, material(2L, 5, 1)));
+        }
+        assertEquals(List.of(2L, 1L), ids(leaderboard.getTopDownloaded(2)));
+        assertEquals(11L, leaderboard.getTopDownloaded(1).get(0).getDownloadCount());
+
+        // 新审核的资料挤出容量为 2 的最新榜末尾
+        leaderboard.onMaterialEvent(new MaterialEvent(MaterialEvent.Type.APPROVED, material(3L, 0, 2)));
+        assertEquals(List.of(3L, 2L), ids(leaderboard.getLatest(2)));
+        assertEquals(List.of(2L, 1L), ids(leaderboard.getTopDownloaded(2)));
+        System.out.println("下载榜: " + ids(leaderboard.getTopDownloaded(2)));
+    }
+
+    @Test
+    public void testRejectedMaterialRemoved() {
+        System.out.println("=== 测试被拒绝或删除的资料移出排行榜 ===");
+        Material rejected = material(1L, 10, 0);
+        rejected.setStatus(Material.Status.REJECTED);
+        leaderboard.onMaterialEvent(new MaterialEvent(MaterialEvent.Type.REJECTED, rejected));
+        assertEquals(List.of(2L), ids(leaderboard.getTopDownloaded(2)));
+        assertEquals(List.of(2L), ids(leaderboard.getLatest(2)));
+
+        // 未审核资料的下载不进入排行榜
+        leaderboard.onMaterialEvent(new MaterialEvent(MaterialEvent.Type.DOWNLOADED, rejected));
+        assertEquals(List.of(2L), ids(leaderboard.getTopDownloaded(2)));
+
+        leaderboard.onMaterialEvent(new MaterialEvent(MaterialEvent.Type.DELETED, material(2L, 5, 1)));
+        assertTrue(leaderboard.getTopDownloaded(2).isEmpty());
+        assertThrows(BadRequestException.class, () -> leaderboard.getTopDownloaded(0));
+        assertThrows(BadRequestException.class, () -> leaderboard.getLatest(101));
+    }
+
+    private static List<Long> ids(List<MaterialSummary> summaries) {
+        return summaries.stream().map(MaterialSummary::getId).toList();
+    }
+
+    private static List<MaterialSummary> copy(List<MaterialSummary> summaries) {
+        return summaries.stream()
+                .map(s -> new MaterialSummary(s.getId(), s.getName(), s.getSubject(), s.getFileType(),
+                        s.getFileSize(), s.getDownloadCount(), s.getUploadTime()))
+                .toList();
+    }
+
+    private static MaterialSummary summary(Long id, long downloads, int hoursAfterBase) {
+        return MaterialSummary.from(material(id, (int) downloads, hoursAfterBase), downloads);
+    }
+
+    private static Material material(Long id, int downloads, int hoursAfterBase) {
+        Material material = new Material();
+        material.setId(id);
+        material.setName("资料" + id);
+        material.setSubject("数学");
+        material.setFileType("PDF");
+        material.setFileSize(1024L);
+        material.setDownloadCount(downloads);
+        material.setUploadTime(BASE.plusHours(hoursAfterBase));
+        material.setStatus(Material.Status.APPROVED);
+        return material;
+    }
+
+    private static class DirectTransactionTemplate extends TransactionTemplate {
+
+        @Override
+        public <T> T execute(TransactionCallback<T> action) {
+            return action.doInTransaction(null);
+        }
+    }
+}
@@ -0,0 +1,49 @@
+package org.example.backend.service;
+
+import org.example.backend.dto.GroupCount;
+import org.example.backend.event.ProgressChangedEvent;
+import org.example.backend.exception.BadRequestException;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ProgressHistogramServiceTest {
+
+    @Test
+    public void testDeltaUpdates() {
+        System.out.println("=== 测试进度分布增量维护 ===");
+        ProgressHistogramService service = new ProgressHistogramService(null, null, null);
+        service.onProgressChanged(new ProgressChangedEvent(List.of(
+                change(1L, "数学", null, "0"),
+                change(2L, "数学", null, "30"),
+                change(3L, "英语", null, "100"))));
+        // 同桶内变化不移动，跨桶移动
+        service.onProgressChanged(new ProgressChangedEvent(List.of(
+                change(1L, "数学", "0", "10"),
+                change(2L, "数学", "30", "55.5"))));
+
+        List<GroupCount> global = service.getDistribution(null, ProgressHistogramService.DEFAULT_WIDTH);
+        assertEquals(List.of(new GroupCount("0-25%", 1L), new GroupCount("25-50%", 0L),
+                new GroupCount("50-75%", 1L), new GroupCount("75-100%", 1L)), global);
+
+        List<GroupCount> math = service.getDistribution("数学", 50);
+        assertEquals(List.of(new GroupCount("0-50%", 1L), new GroupCount("50-100%", 1L)), math);
+        assertEquals(0L, service.getDistribution("物理", 25).stream().mapToLong(GroupCount::getCount).sum());
+        System.out.println("全局分布: " + global);
+    }
+
+    @Test
+    public void testInvalidWidth() {
+        ProgressHistogramService service = new ProgressHistogramService(null, null, null);
+        assertThrows(BadRequestException.class, () -> service.getDistribution(null, 30));
+        assertEquals(100, service.getDistribution(null, 1).size());
+    }
+
+    private static ProgressChangedEvent.Change change(Long userId, String subject, String oldPercent, String newPercent) {
+        return new ProgressChangedEvent.Change(userId, subject,
+                oldPercent == null ? null : new BigDecimal(oldPercent), new BigDecimal(newPercent));
+    }
+}
@@ -0,0 +1,97 @@
+package org.example.backend.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ProgressServiceTest {
+
+    private final List<Object> events = new ArrayList<>();
+    private FlakyJdbcTemplate jdbcTemplate;
+    private ProgressService progressService;
+
+    @BeforeEach
+    public void setUp() {
+        jdbcTemplate = new FlakyJdbcTemplate();
+        progressService = new ProgressService(null, jdbcTemplate, new DirectTransactionTemplate(), events::add);
+        ReflectionTestUtils.setField(progressService, "idempotencyWindowMillis", 60000L);
+    }
+
+    @Test
+    public void testFailedFlushKeepsIncrement() {
+        System.out.println("=== 测试刷盘失败后增量保留到下次 ===");
+        progressService.accumulate(1L, "数学", 150); // 2 分钟 + 30 秒余数
+        jdbcTemplate.failures = 1;
+        progressService.flush();
+        assertTrue(jdbcTemplate.batches.isEmpty());
+        assertTrue(events.isEmpty());
+
+        progressService.flush();
+        assertEquals(1, jdbcTemplate.batches.size());
+        assertEquals(2L, jdbcTemplate.batches.get(0)[0]);
+
+        // 余数与新增量凑满一分钟后写入
+        progressService.accumulate(1L, "数学", 30);
+        progressService.flush();
+        assertEquals(2, jdbcTemplate.batches.size());
+        assertEquals(1L, jdbcTemplate.batches.get(1)[0]);
+        System.out.println("重试后写入批次: " + jdbcTemplate.batches.size());
+    }
+
+    @Test
+    public void testDuplicateKeyIgnoredWithinWindow() {
+        System.out.println("=== 测试去重窗口内重复幂等键 ===");
+        assertTrue(progressService.markSeen("k1"));
+        assertFalse(progressService.markSeen("k1"));
+        assertTrue(progressService.markSeen(null));
+
+        // 记录最终未写入时撤销登记，客户端重试不会被丢弃
+        progressService.forget("k1");
+        assertTrue(progressService.markSeen("k1"));
+    }
+
+    /**
+     * 前 failures 次批量更新抛出异常，之后记录每行参数并视为已更新
+     */
+    private static class FlakyJdbcTemplate extends JdbcTemplate {
+
+        private final List<Object[]> batches = new ArrayList<>();
+        private int failures;
+
+        @Override
+        public int[] batchUpdate(String sql, List<Object[]> batchArgs) {
+            if (failures > 0) {
+                failures--;
+                throw new DataAccessResourceFailureException("数据库不可用");
+            }
+            batches.addAll(batchArgs);
+            int[] updated = new int[batchArgs.size()];
+            Arrays.fill(updated, 1);
+            return updated;
+        }
+
+        @Override
+        public void query(String sql, RowCallbackHandler rch, Object... args) {
+            // 进度表为空
+        }
+    }
+
+    private static class DirectTransactionTemplate extends TransactionTemplate {
+
+        @Override
+        public <T> T execute(TransactionCallback<T> action) {
+            return action.doInTransaction(null);
+        }
+    }
+}
@@ -0,0 +1,120 @@
+package org.example.backend.service;
+
+import org.example.backend.dto.UserSnapshot;
+import org.example.backend.entity.QASession;
+import org.example.backend.entity.User;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class QAAnswerServiceTest {
+
+    /**
+     * 只记录写入的回答，不访问数据库
+     */
+    private static class RecordingQAService extends QAService {
+
+        private final Map<Long, String> answers = new HashMap<>();
+        private boolean failAsk;
+
+        RecordingQAService() {
+            super(null, null, null, null);
+        }
+
+        @Override
+        public QASession ask(Long userId, String question) {
+            if (failAsk) {
+                throw new IllegalStateException("数据库不可用");
+            }
+            return super.ask(userId, question);
+        }
+
+        @Override
+        public QASession answer(Long sessionId, String answer) {
+            answers.put(sessionId, answer);
+            return null;
+        }
+    }
+
+    @Test
+    public void testChunksJoinedAndPersisted() {
+        System.out.println("=== 测试回答分片生成与写入 ===");
+        RecordingQAService qaService = new RecordingQAService();
+        List<String> chunks = new ArrayList<>();
+        AnswerEngine engine = (question, sink) -> {
+            for (String chunk : List.of("递归是", "函数调用", "自身。")) {
+                chunks.add(chunk);
+                sink.accept(chunk);
+            }
+        };
+        new QAAnswerService(qaService, engine, null).generate(1L, "什么是递归", null, deadlineIn(10_000));
+
+        assertEquals(3, chunks.size());
+        assertEquals("递归是函数调用自身。", qaService.answers.get(1L));
+        System.out.println("写入的回答: " + qaService.answers.get(1L));
+    }
+
+    @Test
+    public void testFailedGenerationNotPersisted() {
+        RecordingQAService qaService = new RecordingQAService();
+        AnswerEngine engine = (question, sink) -> {
+            sink.accept("部分内容");
+            throw new IllegalStateException("引擎故障");
+        };
+        new QAAnswerService(qaService, engine, null).generate(2L, "问题", null, deadlineIn(10_000));
+        assertFalse(qaService.answers.containsKey(2L), "生成失败时不应写入不完整的回答");
+    }
+
+    @Test
+    public void testDeadlineStopsGeneration() {
+        System.out.println("=== 测试回答生成超时停止 ===");
+        RecordingQAService qaService = new RecordingQAService();
+        List<String> emitted = new ArrayList<>();
+        AnswerEngine engine = (question, sink) -> {
+            for (int i = 0; i < 100; i++) {
+                sink.accept("片段" + i);
+                emitted.add("片段" + i);
+            }
+        };
+        new QAAnswerService(qaService, engine, null).generate(3L, "问题", null, deadlineIn(-1));
+        assertTrue(emitted.isEmpty(), "超过截止时间后不应继续生成");
+        assertFalse(qaService.answers.containsKey(3L));
+    }
+
+    @Test
+    public void testFailedSessionCreationReleasesSlot() {
+        System.out.println("=== 测试创建问答会话失败时归还准入位置 ===");
+        QAExecutionScheduler scheduler = new QAExecutionScheduler();
+        ReflectionTestUtils.setField(scheduler, "workers", 1);
+        ReflectionTestUtils.setField(scheduler, "queueCapacity", 1);
+        ReflectionTestUtils.setField(scheduler, "maxQueueDelayMillis", 2000L);
+        ReflectionTestUtils.setField(scheduler, "deadlineMillis", 30000L);
+        ReflectionTestUtils.setField(scheduler, "userRatePerMinute", 600.0);
+        ReflectionTestUtils.setField(scheduler, "userBurst", 10);
+        scheduler.start();
+        try {
+            RecordingQAService qaService = new RecordingQAService();
+            qaService.failAsk = true;
+            QAAnswerService answerService = new QAAnswerService(qaService, (question, sink) -> { }, scheduler);
+            UserSnapshot user = new UserSnapshot(1L, "qa_user", "qa@example.com", User.Role.USER, User.Status.ACTIVE);
+
+            // 队列容量为 1：位置未归还时第二次提问会被当作过载拒绝
+            assertThrows(IllegalStateException.class, () -> answerService.ask(user, "问题"));
+            assertThrows(IllegalStateException.class, () -> answerService.ask(user, "问题"));
+            assertEquals(0, scheduler.getStats().getShed());
+        } finally {
+            scheduler.stop();
+        }
+    }
+
+    private static long deadlineIn(long millis) {
+        return System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(millis);
+    }
+}
@@ -0,0 +1,119 @@
+package org.example.backend.service;
+
+import org.example.backend.exception.TooManyRequestsException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class QAExecutionSchedulerTest {
+
+    private QAExecutionScheduler scheduler;
+
+    private QAExecutionScheduler newScheduler(int workers, double ratePerMinute, int burst) {
+        return newScheduler(workers, ratePerMinute, burst, 100);
+    }
+
+    private QAExecutionScheduler newScheduler(int workers, double ratePerMinute, int burst, int queueCapacity) {
+        scheduler = new QAExecutionScheduler();
+        ReflectionTestUtils.setField(scheduler, "workers", workers);
+        ReflectionTestUtils.setField(scheduler, "queueCapacity", queueCapacity);
+        ReflectionTestUtils.setField(scheduler, "maxQueueDelayMillis", 2000L);
+        ReflectionTestUtils.setField(scheduler, "deadlineMillis", 30000L);
+        ReflectionTestUtils.setField(scheduler, "userRatePerMinute", ratePerMinute);
+        ReflectionTestUtils.setField(scheduler, "userBurst", burst);
+        scheduler.start();
+        return scheduler;
+    }
+
+    @AfterEach
+    public void tearDown() {
+        if (scheduler != null) {
+            scheduler.stop();
+        }
+    }
+
+    @Test
+    public void testFairAcrossUsers() throws InterruptedException {
+        System.out.println("=== 测试用户间公平调度 ===");
+        newScheduler(1, 600, 100);
+        CountDownLatch blockerStarted = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        CountDownLatch done = new CountDownLatch(7);
+        List<String> order = new CopyOnWriteArrayList<>();
+
+        // 先占住唯一的工作线程，再让用户1连续提交5个任务、用户2提交1个
+        scheduler.admit(0L);
+        scheduler.submit(0L, 1, task(() -> {
+            blockerStarted.countDown();
+            await(release);
+        }, done));
+        assertTrue(blockerStarted.await(5, TimeUnit.SECONDS));
+        for (int i = 1; i <= 5; i++) {
+            String name = "A" + i;
+            scheduler.admit(1L);
+            scheduler.submit(1L, 1, task(() -> order.add(name), done));
+        }
+        scheduler.admit(2L);
+        scheduler.submit(2L, 1, task(() -> order.add("B1"), done));
+        release.countDown();
+
+        assertTrue(done.await(5, TimeUnit.SECONDS));
+        assertEquals(List.of("A1", "B1", "A2", "A3", "A4", "A5"), order);
+        System.out.println("执行顺序: " + order);
+    }
+
+    @Test
+    public void testUserRateLimit() {
+        System.out.println("=== 测试用户提问限流 ===");
+        newScheduler(1, 1, 2);
+        scheduler.admit(1L);
+        scheduler.admit(1L);
+        assertThrows(TooManyRequestsException.class, () -> scheduler.admit(1L));
+        // 其他用户不受影响
+        scheduler.admit(2L);
+        assertEquals(1, scheduler.getStats().getRateLimited());
+    }
+
+    @Test
+    public void testAdmitReservesQueueSlot() {
+        System.out.println("=== 测试准入预留队列位置 ===");
+        newScheduler(1, 1, 1, 1);
+        scheduler.admit(1L);
+        // 位置已被预留，即使尚未提交也拒绝其他用户，被拒绝的令牌归还
+        assertThrows(TooManyRequestsException.class, () -> scheduler.admit(2L));
+        scheduler.release();
+        scheduler.admit(2L);
+        assertEquals(1, scheduler.getStats().getShed());
+        assertEquals(0, scheduler.getStats().getRateLimited());
+    }
+
+    private static QAExecutionScheduler.QATask task(Runnable action, CountDownLatch done) {
+        return new QAExecutionScheduler.QATask() {
+            @Override
+            public void run(long deadlineNanos) {
+                action.run();
+                done.countDown();
+            }
+
+            @Override
+            public void expired() {
+                done.countDown();
+            }
+        };
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
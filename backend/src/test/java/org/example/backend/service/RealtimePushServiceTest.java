@@ -0,0 +1,177 @@
+package org.example.backend.service;
+
+import org.example.backend.dto.RealtimeUpdate;
+import org.example.backend.event.ProgressChangedEvent;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.messaging.simp.user.SimpSession;
+import org.springframework.messaging.simp.user.SimpSubscription;
+import org.springframework.messaging.simp.user.SimpSubscriptionMatcher;
+import org.springframework.messaging.simp.user.SimpUser;
+import org.springframework.messaging.simp.user.SimpUserRegistry;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.math.BigDecimal;
+import java.security.Principal;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class RealtimePushServiceTest {
+
+    private final List<Message<?>> sent = new CopyOnWriteArrayList<>();
+    private ThreadPoolTaskExecutor outbound;
+    private RealtimePushService pushService;
+
+    @BeforeEach
+    public void setUp() {
+        outbound = new ThreadPoolTaskExecutor();
+        outbound.setCorePoolSize(1);
+        outbound.setMaxPoolSize(1);
+        outbound.setQueueCapacity(1);
+        outbound.initialize();
+        SimpMessagingTemplate template = new SimpMessagingTemplate((message, timeout) -> sent.add(message));
+        pushService = new RealtimePushService(template, new OnlineUsers("1"), outbound);
+    }
+
+    @AfterEach
+    public void tearDown() {
+        outbound.shutdown();
+    }
+
+    @Test
+    public void testCoalescesWithinWindow() {
+        System.out.println("=== 测试合并窗口内只推送最新进度 ===");
+        pushService.onProgressChanged(change(1L, "数学", "10.00"));
+        pushService.onProgressChanged(change(1L, "数学", "20.00"));
+        pushService.onProgressChanged(change(2L, "数学", "30.00")); // 不在线，丢弃
+        pushService.flush();
+
+        assertEquals(1, sent.size());
+        assertEquals(Map.of("数学", new BigDecimal("20.00")), payload(0).getProgress());
+        assertEquals(1, pushService.getStats().getPushed());
+        assertEquals(0, pushService.getStats().getPendingUsers());
+    }
+
+    @Test
+    public void testDefersWhileOutboundQueueFull() throws InterruptedException {
+        System.out.println("=== 测试出站队列已满时推迟推送 ===");
+        // 占住唯一的出站线程并填满容量为 1 的队列
+        CountDownLatch release = new CountDownLatch(1);
+        outbound.execute(() -> await(release));
+        outbound.execute(() -> { });
+
+        pushService.onProgressChanged(change(1L, "数学", "10.00"));
+        pushService.flush();
+        assertTrue(sent.isEmpty());
+        assertEquals(1, pushService.getStats().getDeferred());
+        assertEquals(1, pushService.getStats().getPendingUsers());
+
+        // 推迟期间的新值与退回的条目合并，队列腾空后一帧推送
+        pushService.onProgressChanged(change(1L, "语文", "50.00"));
+        release.countDown();
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (outbound.getQueueSize() > 0 && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+        pushService.flush();
+        assertEquals(1, sent.size());
+        assertEquals(Map.of("数学", new BigDecimal("10.00"), "语文", new BigDecimal("50.00")),
+                payload(0).getProgress());
+        System.out.println("推迟次数: " + pushService.getStats().getDeferred());
+    }
+
+    private RealtimeUpdate payload(int index) {
+        return (RealtimeUpdate) sent.get(index).getPayload();
+    }
+
+    private static ProgressChangedEvent change(Long userId, String subject, String percent) {
+        return new ProgressChangedEvent(List.of(
+                new ProgressChangedEvent.Change(userId, subject, null, new BigDecimal(percent))));
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * 指定用户各有一个会话在线
+     */
+    private record OnlineUsers(String... names) implements SimpUserRegistry {
+
+        @Override
+        public SimpUser getUser(String userName) {
+            return Set.of(names).contains(userName) ? new OnlineUser(userName) : null;
+        }
+
+        @Override
+        public Set<SimpUser> getUsers() {
+            return Set.of();
+        }
+
+        @Override
+        public int getUserCount() {
+            return names.length;
+        }
+
+        @Override
+        public Set<SimpSubscription> findSubscriptions(SimpSubscriptionMatcher matcher) {
+            return Set.of();
+        }
+    }
+
+    private record OnlineUser(String name) implements SimpUser, SimpSession {
+
+        @Override
+        public String getName() {
+            return name;
+        }
+
+        @Override
+        public Principal getPrincipal() {
+            return () -> name;
+        }
+
+        @Override
+        public boolean hasSessions() {
+            return true;
+        }
+
+        @Override
+        public SimpSession getSession(String sessionId) {
+            return this;
+        }
+
+        @Override
+        public Set<SimpSession> getSessions() {
+            return Set.of(this);
+        }
+
+        @Override
+        public String getId() {
+            return name;
+        }
+
+        @Override
+        public SimpUser getUser() {
+            return this;
+        }
+
+        @Override
+        public Set<SimpSubscription> getSubscriptions() {
+            return Set.of();
+        }
+    }
+}
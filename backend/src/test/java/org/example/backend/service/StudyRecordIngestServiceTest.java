@@ -0,0 +1,143 @@
+package org.example.backend.service;
+
+import org.example.backend.dto.StudyHeartbeat;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.ParameterizedPreparedStatementSetter;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.lang.reflect.Proxy;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class StudyRecordIngestServiceTest {
+
+    @TempDir
+    Path spillDir;
+
+    @Test
+    public void testUnwrittenSegmentReplayedAfterRestart() throws Exception {
+        System.out.println("=== 测试写库失败的暂存文件段在重启后重放 ===");
+        LocalDateTime start = LocalDateTime.of(2026, 10, 18, 9, 0);
+        RecordingJdbcTemplate down = new RecordingJdbcTemplate(true);
+        RecordingProgressService firstProgress = new RecordingProgressService();
+        StudyRecordIngestService first = newService(down, firstProgress);
+        assertTrue(first.submit(1L, new StudyHeartbeat(10L, 60, start, start.plusMinutes(1), null, "client-1")));
+        assertTrue(first.submit(1L, new StudyHeartbeat(10L, 30, start, start.plusSeconds(30), null, null)));
+        // 数据库不可用时关闭：记录留在暂存文件段中
+        first.shutdown();
+        assertEquals(0, first.getWrittenCount());
+        assertEquals(1, segments());
+        assertTrue(firstProgress.accumulated.isEmpty());
+
+        RecordingJdbcTemplate up = new RecordingJdbcTemplate(false);
+        RecordingProgressService progress = new RecordingProgressService();
+        StudyRecordIngestService second = newService(up, progress);
+        second.shutdown();
+        assertEquals(2, second.getWrittenCount());
+        assertEquals("client-1", up.keys.get(0));
+        assertTrue(up.keys.get(1).startsWith("srv-"), "未带幂等键的心跳重放时沿用接收时分配的服务端幂等键");
+        assertEquals(List.of(60L, 30L), progress.accumulated);
+        assertEquals(0, segments());
+        System.out.println("重放写入幂等键: " + up.keys);
+    }
+
+    private StudyRecordIngestService newService(JdbcTemplate jdbcTemplate, ProgressService progressService)
+            throws IOException {
+        StudyRecordIngestService service = new StudyRecordIngestService(jdbcTemplate, new DirectTransactionTemplate(),
+                progressService, new StudyAnalyticsService(null, null, null));
+        ReflectionTestUtils.setField(service, "queueCapacity", 100);
+        ReflectionTestUtils.setField(service, "batchSize", 100);
+        ReflectionTestUtils.setField(service, "flushIntervalMillis", 60000L); // 只在关闭时刷盘
+        ReflectionTestUtils.setField(service, "offerTimeoutMillis", 50L);
+        ReflectionTestUtils.setField(service, "spillPath", spillDir.toString());
+        service.start();
+        return service;
+    }
+
+    private long segments() throws IOException {
+        try (Stream<Path> files = Files.list(spillDir)) {
+            return files.count();
+        }
+    }
+
+    /**
+     * 记录批量写入的幂等键；down 为 true 时每次写入都失败
+     */
+    private static class RecordingJdbcTemplate extends JdbcTemplate {
+
+        private final List<String> keys = new ArrayList<>();
+        private final boolean down;
+
+        RecordingJdbcTemplate(boolean down) {
+            this.down = down;
+        }
+
+        @Override
+        public <T> int[][] batchUpdate(String sql, Collection<T> batchArgs, int batchSize,
+                                       ParameterizedPreparedStatementSetter<T> pss) {
+            if (down) {
+                throw new DataAccessResourceFailureException("数据库不可用");
+            }
+            PreparedStatement ps = (PreparedStatement) Proxy.newProxyInstance(getClass().getClassLoader(),
+                    new Class<?>[]{PreparedStatement.class}, (proxy, method, args) -> {
+                        if ("setString".equals(method.getName()) && (Integer) args[0] == 7) {
+                            keys.add((String) args[1]);
+                        }
+                        return null;
+                    });
+            try {
+                for (T arg : batchArgs) {
+                    pss.setValues(ps, arg);
+                }
+            } catch (SQLException e) {
+                throw new IllegalStateException(e);
+            }
+            return new int[][]{new int[batchArgs.size()]};
+        }
+    }
+
+    /**
+     * 只记录累加的学习时长
+     */
+    private static class RecordingProgressService extends ProgressService {
+
+        private final List<Long> accumulated = new ArrayList<>();
+
+        RecordingProgressService() {
+            super(null, null, null, null);
+        }
+
+        @Override
+        public void accumulate(Long userId, String subject, long durationSeconds) {
+            accumulated.add(durationSeconds);
+        }
+
+        @Override
+        public String resolveSubject(Long materialId) {
+            return "数学";
+        }
+    }
+
+    private static class DirectTransactionTemplate extends TransactionTemplate {
+
+        @Override
+        public <T> T execute(TransactionCallback<T> action) {
+            return action.doInTransaction(null);
+        }
+    }
+}
@@ -0,0 +1,46 @@
+package org.example.backend.service;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class StudyReminderSchedulerTest {
+
+    private StudyReminderScheduler scheduler;
+
+    @BeforeEach
+    public void setUp() {
+        scheduler = new StudyReminderScheduler(null, null, null, null);
+        ReflectionTestUtils.setField(scheduler, "cron", "0 0 20 * * *");
+        ReflectionTestUtils.setField(scheduler, "dispatchThreads", 1);
+        ReflectionTestUtils.setField(scheduler, "ratePerSecond", 1.0);
+        scheduler.start();
+    }
+
+    @AfterEach
+    public void tearDown() {
+        scheduler.stop();
+    }
+
+    @Test
+    public void testRunIdFollowsCronSlot() {
+        System.out.println("=== 测试提醒轮次标识取 cron 触发时间点 ===");
+        LocalDateTime slot = LocalDateTime.of(2026, 10, 18, 20, 0);
+        String run = scheduler.runId(slot);
+        assertEquals("2026-10-18T20:00", run);
+
+        // 节点触发稍晚、跨过整分钟仍属于同一轮次
+        assertEquals(run, scheduler.runId(slot.plusSeconds(3)));
+        assertEquals(run, scheduler.runId(slot.plusMinutes(2).plusSeconds(1)));
+
+        // 下一个时间点之前都归入上一轮，次日 20:00 起为新一轮
+        assertEquals(run, scheduler.runId(slot.plusHours(23).plusMinutes(59)));
+        assertEquals("2026-10-19T20:00", scheduler.runId(slot.plusDays(1)));
+        System.out.println("轮次标识: " + run);
+    }
+}
@@ -0,0 +1,165 @@
+package org.example.backend.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.PreparedStatementCreator;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.IOException;
+import java.lang.reflect.Proxy;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class SystemLogPartitionManagerTest {
+
+    private static final DateTimeFormatter PARTITION_DATE = DateTimeFormatter.ofPattern("yyyyMMdd");
+
+    @TempDir
+    Path archiveDir;
+
+    private FakePartitionJdbc jdbcTemplate;
+    private FakeLeaseService leaseService;
+    private SystemLogPartitionManager manager;
+
+    @BeforeEach
+    public void setUp() {
+        LocalDate today = LocalDate.now();
+        jdbcTemplate = new FakePartitionJdbc(List.of(partition(today.minusDays(100)), partition(today.minusDays(1)),
+                partition(today), "p_future"));
+        leaseService = new FakeLeaseService();
+        manager = new SystemLogPartitionManager(jdbcTemplate, leaseService);
+        ReflectionTestUtils.setField(manager, "daysAhead", 2);
+        ReflectionTestUtils.setField(manager, "retentionDays", 90);
+        ReflectionTestUtils.setField(manager, "archiveEnabled", true);
+        ReflectionTestUtils.setField(manager, "archivePath", archiveDir.toString());
+        ReflectionTestUtils.setField(manager, "leaseTtlMillis", 60000L);
+    }
+
+    @Test
+    public void testMaintainCreatesAndArchivesPartitions() throws IOException {
+        System.out.println("=== 测试分区补建与过期分区归档删除 ===");
+        manager.maintain();
+
+        LocalDate today = LocalDate.now();
+        assertEquals(3, jdbcTemplate.ddl.size());
+        assertTrue(jdbcTemplate.ddl.get(0).contains("PARTITION " + partition(today.plusDays(1)) + " VALUES"));
+        assertTrue(jdbcTemplate.ddl.get(1).contains("PARTITION " + partition(today.plusDays(2)) + " VALUES"));
+        assertTrue(jdbcTemplate.ddl.get(2).endsWith("DROP PARTITION " + partition(today.minusDays(100))));
+        assertTrue(Files.exists(archiveDir.resolve("system_log-" + partition(today.minusDays(100)) + ".tsv.gz")));
+        assertEquals(List.of("complete"), leaseService.outcomes);
+    }
+
+    @Test
+    public void testArchiveFailureKeepsPartition() throws IOException {
+        System.out.println("=== 测试归档失败时不删除分区并释放租约 ===");
+        jdbcTemplate.archiveFails = true;
+        manager.maintain();
+
+        assertTrue(jdbcTemplate.ddl.stream().noneMatch(sql -> sql.contains("DROP PARTITION")));
+        try (Stream<Path> files = Files.list(archiveDir)) {
+            assertEquals(0, files.count(), "归档失败不应留下半成品文件");
+        }
+        // 未完成：释放租约，其他节点或下次调度可以重试
+        assertEquals(List.of("release"), leaseService.outcomes);
+    }
+
+    @Test
+    public void testSkippedWhileOtherNodeHoldsLease() {
+        System.out.println("=== 测试其他节点持有租约时跳过维护 ===");
+        leaseService.available = false;
+        manager.maintain();
+        assertTrue(jdbcTemplate.ddl.isEmpty());
+        assertTrue(leaseService.outcomes.isEmpty());
+    }
+
+    private static String partition(LocalDate day) {
+        return "p" + PARTITION_DATE.format(day);
+    }
+
+    /**
+     * 返回固定的分区列表，记录执行的 DDL；归档查询输出一行或按需失败
+     */
+    private static class FakePartitionJdbc extends JdbcTemplate {
+
+        private final List<String> partitions;
+        private final List<String> ddl = new ArrayList<>();
+        private boolean archiveFails;
+
+        FakePartitionJdbc(List<String> partitions) {
+            this.partitions = partitions;
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public <T> List<T> queryForList(String sql, Class<T> elementType, Object... args) {
+            return (List<T>) partitions;
+        }
+
+        @Override
+        public void execute(String sql) {
+            ddl.add(sql);
+        }
+
+        @Override
+        public void query(PreparedStatementCreator psc, RowCallbackHandler rch) {
+            if (archiveFails) {
+                throw new DataAccessResourceFailureException("数据库连接中断");
+            }
+            ResultSet row = (ResultSet) Proxy.newProxyInstance(getClass().getClassLoader(),
+                    new Class<?>[]{ResultSet.class}, (proxy, method, args) -> "getString".equals(method.getName())
+                            ? "列" + args[0] : null);
+            try {
+                rch.processRow(row);
+            } catch (SQLException e) {
+                throw new IllegalStateException(e);
+            }
+        }
+    }
+
+    /**
+     * 记录租约的最终处理方式
+     */
+    private static class FakeLeaseService extends SchedulerLeaseService {
+
+        private final List<String> outcomes = new ArrayList<>();
+        private boolean available = true;
+
+        FakeLeaseService() {
+            super(null);
+        }
+
+        @Override
+        public boolean tryAcquire(String name, String run, Duration ttl) {
+            return available;
+        }
+
+        @Override
+        public boolean renew(String name, Duration ttl) {
+            return true;
+        }
+
+        @Override
+        public void complete(String name, String run) {
+            outcomes.add("complete");
+        }
+
+        @Override
+        public void release(String name) {
+            outcomes.add("release");
+        }
+    }
+}
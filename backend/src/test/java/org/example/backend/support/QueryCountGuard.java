@@ -0,0 +1,46 @@
+package org.example.backend.support;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * 测试用查询次数守卫：统计一段代码执行的 SQL 语句数，超出预算即失败。
+ * 依赖 hibernate.generate_statistics=true（见 application-test.properties）。
+ */
+public final class QueryCountGuard {
+
+    private final Statistics statistics;
+
+    private QueryCountGuard(Statistics statistics) {
+        this.statistics = statistics;
+    }
+
+    /**
+     * 清零统计并开始计数
+     */
+    public static QueryCountGuard start(EntityManagerFactory entityManagerFactory) {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        assertTrue(statistics.isStatisticsEnabled(), "未开启 hibernate.generate_statistics");
+        statistics.clear();
+        return new QueryCountGuard(statistics);
+    }
+
+    /**
+     * 开始计数以来执行的语句数
+     */
+    public long count() {
+        return statistics.getPrepareStatementCount();
+    }
+
+    /**
+     * 断言语句数不超过预算
+     */
+    public void assertAtMost(long budget, String scenario) {
+        long count = count();
+        System.out.println(scenario + " 执行 SQL " + count + " 条（预算 " + budget + "）");
+        assertTrue(count <= budget, scenario + " 执行了 " + count + " 条 SQL，超出预算 " + budget);
+    }
+}
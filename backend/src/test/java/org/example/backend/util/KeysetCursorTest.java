@@ -0,0 +1,43 @@
+package org.example.backend.util;
+
+import org.example.backend.dto.CursorSlice;
+import org.example.backend.exception.BadRequestException;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class KeysetCursorTest {
+
+    @Test
+    public void testEncodeAndDecode() {
+        LocalDateTime time = LocalDateTime.of(2025, 3, 1, 8, 30, 15);
+        String token = KeysetCursor.encode(time, 42L);
+        KeysetCursor cursor = KeysetCursor.decode(token);
+        assertEquals(time, cursor.timeKey());
+        assertEquals(42L, cursor.id());
+
+        // 空游标表示首页
+        assertSame(KeysetCursor.FIRST, KeysetCursor.decode(null));
+        assertEquals(KeysetCursor.MAX_TIME, KeysetCursor.FIRST.timeKey());
+        assertEquals(Long.MAX_VALUE, KeysetCursor.FIRST.id());
+
+        assertThrows(BadRequestException.class, () -> KeysetCursor.decode("not-a-cursor"));
+        System.out.println("游标编解码成功: " + token);
+    }
+
+    @Test
+    public void testSlice() {
+        CursorSlice<Long> last = CursorSlice.of(List.of(3L, 2L), 2, id -> KeysetCursor.encode(id, id));
+        assertFalse(last.getHasNext());
+        assertNull(last.getNextCursor());
+
+        CursorSlice<Long> slice = CursorSlice.of(List.of(3L, 2L, 1L), 2, id -> KeysetCursor.encode(id, id));
+        assertTrue(slice.getHasNext());
+        assertEquals(List.of(3L, 2L), slice.getContent());
+        assertEquals(2L, KeysetCursor.decode(slice.getNextCursor()).longKey());
+        System.out.println("游标分页切片成功: " + slice);
+    }
+}
@@ -0,0 +1,87 @@
+package org.example.backend.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class LocalCacheTest {
+
+    @Test
+    public void testLoadOnceThenHit() {
+        System.out.println("=== 测试加载与命中 ===");
+        LocalCache<String, String> cache = new LocalCache<>(100, 1, TimeUnit.MINUTES);
+        AtomicInteger loads = new AtomicInteger();
+
+        for (int i = 0; i < 5; i++) {
+            assertEquals("value-alice", cache.get("alice", key -> {
+                loads.incrementAndGet();
+                return "value-" + key;
+            }));
+        }
+        assertEquals(1, loads.get());
+        assertEquals(4, cache.hitCount());
+        assertEquals(1, cache.missCount());
+        System.out.println("命中 " + cache.hitCount() + " 次，未命中 " + cache.missCount() + " 次");
+    }
+
+    @Test
+    public void testNullNotCached() {
+        System.out.println("=== 测试空结果不缓存 ===");
+        LocalCache<String, String> cache = new LocalCache<>(100, 1, TimeUnit.MINUTES);
+        assertNull(cache.get("missing", key -> null));
+        assertNull(cache.getIfPresent("missing"));
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    public void testExpireAfterWrite() throws InterruptedException {
+        System.out.println("=== 测试过期 ===");
+        LocalCache<String, String> cache = new LocalCache<>(100, 20, TimeUnit.MILLISECONDS);
+        cache.put("alice", "v1");
+        assertEquals("v1", cache.getIfPresent("alice"));
+        Thread.sleep(50);
+        assertNull(cache.getIfPresent("alice"));
+    }
+
+    @Test
+    public void testSizeBounded() {
+        System.out.println("=== 测试容量上限 ===");
+        LocalCache<Integer, Integer> cache = new LocalCache<>(64, 1, TimeUnit.MINUTES);
+        for (int i = 0; i < 10_000; i++) {
+            cache.put(i, i);
+        }
+        assertTrue(cache.size() <= 64, "条目数超出上限: " + cache.size());
+        assertTrue(cache.evictionCount() >= 10_000 - 64);
+        System.out.println("条目数 " + cache.size() + "，淘汰 " + cache.evictionCount());
+    }
+
+    @Test
+    public void testLeastRecentlyUsedEvictedFirst() {
+        System.out.println("=== 测试按访问顺序淘汰 ===");
+        // 16 段、每段容量 1：同段的后写入者淘汰先写入者
+        LocalCache<Integer, String> cache = new LocalCache<>(16, 1, TimeUnit.MINUTES);
+        cache.put(0, "a");
+        cache.put(16, "b");
+        assertNull(cache.getIfPresent(0));
+        assertEquals("b", cache.getIfPresent(16));
+    }
+
+    @Test
+    public void testInvalidateDuringLoadSkipsStaleFill() {
+        System.out.println("=== 测试加载期间失效 ===");
+        LocalCache<String, String> cache = new LocalCache<>(100, 1, TimeUnit.MINUTES);
+        String loaded = cache.get("alice", key -> {
+            // 加载读到旧值后，用户被修改并失效缓存
+            cache.invalidate(key);
+            return "stale";
+        });
+        assertEquals("stale", loaded);
+        assertNull(cache.getIfPresent("alice"), "失效前读到的旧值不应回填");
+
+        assertEquals("fresh", cache.get("alice", key -> "fresh"));
+        assertEquals("fresh", cache.getIfPresent("alice"));
+    }
+}
@@ -0,0 +1,22 @@
+package org.example.backend.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class StreamChunksTest {
+
+    @Test
+    public void testForEachChunk() {
+        List<Integer> sizes = new ArrayList<>();
+        long total = StreamChunks.forEachChunk(IntStream.range(0, 1050).boxed(), 500, null,
+                chunk -> sizes.add(chunk.size()));
+        assertEquals(1050, total);
+        assertEquals(List.of(500, 500, 50), sizes);
+        System.out.println("分块处理成功，各块大小: " + sizes);
+    }
+}
@@ -0,0 +1,32 @@
+package org.example.backend.util;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TokenBucketTest {
+
+    @Test
+    public void testBurstThenLimited() {
+        System.out.println("=== 测试令牌桶突发与限流 ===");
+        TokenBucket bucket = new TokenBucket(1, 5);
+        for (int i = 0; i < 5; i++) {
+            assertTrue(bucket.tryAcquire(), "突发容量内应立即放行");
+        }
+        assertFalse(bucket.tryAcquire(), "令牌耗尽后应拒绝");
+    }
+
+    @Test
+    public void testAcquireWaitsForRefill() throws InterruptedException {
+        System.out.println("=== 测试令牌桶等待补充 ===");
+        TokenBucket bucket = new TokenBucket(100, 1);
+        long start = System.nanoTime();
+        for (int i = 0; i < 11; i++) {
+            bucket.acquire();
+        }
+        long elapsedMillis = (System.nanoTime() - start) / 1_000_000;
+        // 首个令牌来自初始容量，其余 10 个按每秒 100 个补充，约 100 毫秒
+        assertTrue(elapsedMillis >= 90, "限流未生效，耗时 " + elapsedMillis + " ms");
+        System.out.println("取 11 个令牌耗时 " + elapsedMillis + " ms");
+    }
+}